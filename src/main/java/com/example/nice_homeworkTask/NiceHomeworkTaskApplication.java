@@ -8,6 +8,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - @SpringBootApplication: turns on Spring Boot auto-config + component scan
  * in this package.
  * - main(): starts the app and the embedded web server (Tomcat by default).
+ * - Optional: with suggest-task.binary.enabled=true, the binary protocol
+ * listener (BinaryProtocolServer) starts alongside Tomcat and is served by the
+ * same NiceHomeworkTaskService.
  */
 
 @SpringBootApplication
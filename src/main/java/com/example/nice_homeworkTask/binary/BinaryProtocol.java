@@ -0,0 +1,41 @@
+package com.example.nice_homeworkTask.binary;
+
+/*
+ * Wire format of the compact binary protocol (internal routers only).
+ *
+ * Every frame, both directions:
+ *   int32  length     number of bytes after this field (big-endian)
+ *   int8   type       one of the TYPE_* constants
+ *   int32  requestId  chosen by the client, echoed back by the server
+ *   ...    payload    depends on type
+ *
+ * Requests:
+ * - TYPE_CLASSIFY    payload = UTF-8 utterance
+ * - TYPE_TASK_NAMES  payload = empty
+ *
+ * Responses:
+ * - TYPE_CLASSIFY    payload = int16 task id (index into the task-name table)
+ * - TYPE_TASK_NAMES  payload = UTF-8 task names joined with '\n' (id = position)
+ * - TYPE_ERROR       payload = UTF-8 message
+ *
+ * Pipelining:
+ * - A client may send many requests without waiting. Responses can come back in
+ *   any order; the requestId ties them together.
+ * - Task ids are only stable for the lifetime of one server process, so clients
+ *   ask for TYPE_TASK_NAMES once per connection.
+ */
+public final class BinaryProtocol {
+
+    public static final byte TYPE_CLASSIFY = 1;
+    public static final byte TYPE_TASK_NAMES = 2;
+    public static final byte TYPE_ERROR = 3;
+
+    /** type + requestId. */
+    public static final int HEADER_LENGTH = 1 + 4;
+
+    /** Largest accepted frame (length field value), in bytes. */
+    public static final int MAX_FRAME_LENGTH = 64 * 1024 - 4;
+
+    private BinaryProtocol() {
+    }
+}
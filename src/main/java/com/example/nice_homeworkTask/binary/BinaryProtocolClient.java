@@ -0,0 +1,152 @@
+package com.example.nice_homeworkTask.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Java client for the binary protocol (see BinaryProtocol for the wire format).
+ *
+ * Usage:
+ *   try (var client = BinaryProtocolClient.connect("localhost", 7070)) {
+ *       int id = client.classify("reset my password").join();
+ *       String task = client.taskName(id); // "ResetPasswordTask"
+ *   }
+ *
+ * Notes:
+ * - Thread-safe. classify() does not wait for the answer, so callers can pipeline
+ *   as many requests as they like on one connection.
+ * - A background reader thread completes the futures as responses arrive.
+ * - The task-name table is fetched once when connecting.
+ */
+public class BinaryProtocolClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ConcurrentHashMap<Integer, CompletableFuture<byte[]>> waiting = new ConcurrentHashMap<>();
+    private final Thread reader;
+    private final List<String> taskNames;
+
+    private volatile IOException failure;
+
+    private BinaryProtocolClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 16 * 1024));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 16 * 1024));
+        this.reader = new Thread(this::readLoop, "binary-client-reader");
+        this.reader.setDaemon(true);
+        this.reader.start();
+        this.taskNames = List.of(new String(await(send(BinaryProtocol.TYPE_TASK_NAMES, new byte[0])),
+                StandardCharsets.UTF_8).split("\n"));
+    }
+
+    /** Opens a connection and loads the task-name table. */
+    public static BinaryProtocolClient connect(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        return new BinaryProtocolClient(socket);
+    }
+
+    /** Sends one utterance; the future completes with its task id. */
+    public CompletableFuture<Integer> classify(String utterance) {
+        return send(BinaryProtocol.TYPE_CLASSIFY, utterance.getBytes(StandardCharsets.UTF_8))
+                .thenApply(p -> (int) (short) (((p[0] & 0xff) << 8) | (p[1] & 0xff)));
+    }
+
+    /** Maps a task id from classify() back to the task name. */
+    public String taskName(int id) {
+        return id >= 0 && id < taskNames.size() ? taskNames.get(id) : null;
+    }
+
+    /** The task names, in id order. */
+    public List<String> taskNames() {
+        return taskNames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private CompletableFuture<byte[]> send(byte type, byte[] payload) {
+        int id = nextId.incrementAndGet();
+        CompletableFuture<byte[]> f = new CompletableFuture<>();
+        if (failure != null) {
+            f.completeExceptionally(failure);
+            return f;
+        }
+        waiting.put(id, f);
+        if (failure != null && waiting.remove(id) != null) {
+            f.completeExceptionally(failure); // reader died between the two checks
+            return f;
+        }
+        try {
+            synchronized (out) {
+                out.writeInt(BinaryProtocol.HEADER_LENGTH + payload.length);
+                out.writeByte(type);
+                out.writeInt(id);
+                out.write(payload);
+                out.flush();
+            }
+        } catch (IOException e) {
+            waiting.remove(id);
+            f.completeExceptionally(e);
+        }
+        return f;
+    }
+
+    private void readLoop() {
+        try {
+            while (true) {
+                int length = in.readInt();
+                byte type = in.readByte();
+                int id = in.readInt();
+                byte[] payload = new byte[length - BinaryProtocol.HEADER_LENGTH];
+                in.readFully(payload);
+
+                CompletableFuture<byte[]> f = waiting.remove(id);
+                if (f == null) {
+                    continue;
+                }
+                if (type == BinaryProtocol.TYPE_ERROR) {
+                    f.completeExceptionally(new IOException(new String(payload, StandardCharsets.UTF_8)));
+                } else {
+                    f.complete(payload);
+                }
+            }
+        } catch (IOException e) {
+            failure = e instanceof EOFException ? new IOException("connection closed by server", e) : e;
+            waiting.values().forEach(f -> f.completeExceptionally(failure));
+            waiting.clear();
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.nice_homeworkTask.binary;
+
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Optional TCP listener that serves NiceHomeworkTaskService over BinaryProtocol.
+ *
+ * Role:
+ * - For internal routers that only need a task id back, without JSON or HTTP.
+ * - Runs next to Tomcat (same process, same service bean); it is started and
+ *   stopped with the Spring context. Enabled with suggest-task.binary.enabled=true.
+ *
+ * Threading:
+ * - One selector thread accepts connections, reads frames and writes responses.
+ * - Classification runs on a worker pool, so many requests per connection are
+ *   in flight at once (pipelining). Finished responses are queued on their
+ *   connection and the selector is woken up to write them.
+ * - Each connection holds at most maxInFlight requests, checked per frame: at
+ *   the limit, frames already read stay in the buffer undecoded and we stop
+ *   reading from the socket until responses drain (back-pressure through TCP).
+ *
+ * Buffers:
+ * - Every connection borrows one read and one write buffer from a pool of
+ *   direct buffers and returns them on close.
+ * - Utterances are decoded from the read buffer on the selector thread (no
+ *   intermediate byte[] per request).
+ */
+@Component
+public class BinaryProtocolServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryProtocolServer.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final NiceHomeworkTaskService service;
+    private final boolean enabled;
+    private final int requestedPort;
+    private final int workers;
+    private final int maxInFlight;
+
+    private final Map<String, Short> taskIds = new HashMap<>();
+    private final byte[] taskNamesPayload;
+    private final DirectBufferPool buffers = new DirectBufferPool(BUFFER_SIZE, 256);
+    // Selector thread only: payloads are decoded into chars here, never copied to a byte[]
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(BinaryProtocol.MAX_FRAME_LENGTH);
+
+    // Connections that got new responses (or may read again) since the last select.
+    private final ConcurrentLinkedQueue<Connection> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService workerPool;
+    private Thread selectorThread;
+
+    @Autowired
+    public BinaryProtocolServer(NiceHomeworkTaskService service,
+            @Value("${suggest-task.binary.enabled:false}") boolean enabled,
+            @Value("${suggest-task.binary.port:7070}") int port,
+            @Value("${suggest-task.binary.workers:0}") int workers,
+            @Value("${suggest-task.binary.max-in-flight:1024}") int maxInFlight) {
+        this.service = service;
+        this.enabled = enabled;
+        this.requestedPort = port;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = maxInFlight;
+
+        List<String> names = service.taskNames();
+        for (int i = 0; i < names.size(); i++) {
+            taskIds.put(names.get(i), (short) i);
+        }
+        this.taskNamesPayload = String.join("\n", names).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** For programmatic use (tests, embedding): an enabled listener, started by calling start(). */
+    public BinaryProtocolServer(NiceHomeworkTaskService service, int port, int workers, int maxInFlight) {
+        this(service, true, port, workers, maxInFlight);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(requestedPort));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start binary listener on port " + requestedPort, e);
+        }
+
+        AtomicInteger n = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "binary-worker-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        selectorThread = new Thread(this::selectLoop, "binary-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Binary protocol listener started on port {}", getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workerPool.shutdownNow();
+        log.info("Binary protocol listener stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** The port actually bound (useful when configured with 0), or -1 when not started. */
+    public int getPort() {
+        return serverChannel != null ? serverChannel.socket().getLocalPort() : -1;
+    }
+
+    // ---------------------------------------------------------------- selector thread
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                drainReady();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection c = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(c);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(c);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Closing binary connection: {}", e.toString());
+                        if (key.attachment() instanceof Connection c) {
+                            close(c);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                log.error("Binary listener selector failed", e);
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel ch = serverChannel.accept();
+        if (ch == null) {
+            return;
+        }
+        ch.configureBlocking(false);
+        ch.socket().setTcpNoDelay(true);
+        Connection c = new Connection(ch, buffers.acquire(), buffers.acquire());
+        c.key = ch.register(selector, SelectionKey.OP_READ, c);
+    }
+
+    private void read(Connection c) throws IOException {
+        int n = c.ch.read(c.in);
+        if (n < 0) {
+            close(c);
+            return;
+        }
+        decode(c);
+    }
+
+    // Dispatches complete frames from c.in until it runs out of them or the connection
+    // reaches maxInFlight; the rest stays buffered (and unread) until responses drain.
+    private void decode(Connection c) throws IOException {
+        ByteBuffer in = c.in.flip();
+        int limit = in.limit();
+        while (in.remaining() >= 4 && c.inFlight.get() < maxInFlight) {
+            int length = in.getInt(in.position());
+            if (length < BinaryProtocol.HEADER_LENGTH || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+                throw new IOException("bad frame length " + length);
+            }
+            if (in.remaining() < 4 + length) {
+                break; // wait for the rest of the frame
+            }
+            in.getInt();
+            byte type = in.get();
+            int requestId = in.getInt();
+            int end = in.position() + length - BinaryProtocol.HEADER_LENGTH;
+            dispatch(c, type, requestId, in.limit(end));
+            in.limit(limit).position(end);
+        }
+        in.compact();
+
+        if (c.inFlight.get() >= maxInFlight) {
+            c.key.interestOps(c.key.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    private void write(Connection c) throws IOException {
+        ByteBuffer out = c.out;
+        byte[] frame;
+        while (out.remaining() > 0 && (frame = c.pending.peek()) != null && frame.length <= out.remaining()) {
+            out.put(c.pending.poll());
+        }
+        out.flip();
+        c.ch.write(out);
+        out.compact();
+
+        boolean more = out.position() > 0 || !c.pending.isEmpty();
+        int ops = more ? SelectionKey.OP_WRITE : 0;
+        if (c.inFlight.get() < maxInFlight) {
+            ops |= SelectionKey.OP_READ; // back-pressure released
+        }
+        c.key.interestOps(ops);
+        if (c.in.position() > 0 && c.inFlight.get() < maxInFlight) {
+            decode(c); // frames that were left buffered at the limit (may not get another read)
+        }
+    }
+
+    private void drainReady() {
+        Connection c;
+        while ((c = ready.poll()) != null) {
+            if (c.key != null && c.key.isValid()) {
+                c.key.interestOps(c.key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void close(Connection c) {
+        if (c.closed) {
+            return;
+        }
+        c.closed = true;
+        if (c.key != null) {
+            c.key.cancel();
+        }
+        try {
+            c.ch.close();
+        } catch (IOException ignored) {
+            // nothing useful to do
+        }
+        buffers.release(c.in);
+        buffers.release(c.out);
+    }
+
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection c) {
+                    close(c);
+                }
+            }
+            selector.close();
+            serverChannel.close();
+        } catch (IOException | ClosedSelectorException ignored) {
+            // shutting down
+        }
+    }
+
+    // ---------------------------------------------------------------- workers
+
+    // payload: the frame's bytes in the connection's read buffer (position..limit), valid during this call only
+    private void dispatch(Connection c, byte type, int requestId, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case BinaryProtocol.TYPE_CLASSIFY -> {
+                String utterance = decodeUtf8(payload);
+                c.inFlight.incrementAndGet();
+                workerPool.execute(() -> classify(c, requestId, utterance));
+            }
+            case BinaryProtocol.TYPE_TASK_NAMES -> respond(c, frame(BinaryProtocol.TYPE_TASK_NAMES, requestId, taskNamesPayload));
+            default -> respond(c, frame(BinaryProtocol.TYPE_ERROR, requestId,
+                    ("unknown frame type " + type).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    // UTF-8 straight from the direct buffer into the selector thread's char buffer
+    // (malformed input -> U+FFFD, like new String(bytes, UTF_8)); only the String is allocated.
+    private String decodeUtf8(ByteBuffer payload) throws IOException {
+        utf8.reset();
+        chars.clear();
+        CoderResult result = utf8.decode(payload, chars, true);
+        if (result.isUnderflow()) {
+            result = utf8.flush(chars);
+        }
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+        return chars.flip().toString();
+    }
+
+    private void classify(Connection c, int requestId, String utterance) {
+        byte[] frame;
+        try {
+            String task = service.suggestTask(utterance);
+            short id = taskIds.getOrDefault(task, (short) -1);
+            frame = frame(BinaryProtocol.TYPE_CLASSIFY, requestId, new byte[] { (byte) (id >> 8), (byte) id });
+        } catch (RuntimeException e) {
+            log.warn("Binary classify failed (requestId={}): {}", requestId, e.getMessage());
+            frame = frame(BinaryProtocol.TYPE_ERROR, requestId, String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+        c.inFlight.decrementAndGet();
+        respond(c, frame);
+    }
+
+    // Queues a response frame and makes sure the selector will write it.
+    private void respond(Connection c, byte[] frame) {
+        c.pending.add(frame);
+        ready.add(c);
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    private static byte[] frame(byte type, int requestId, byte[] payload) {
+        int length = BinaryProtocol.HEADER_LENGTH + payload.length;
+        ByteBuffer b = ByteBuffer.allocate(4 + length);
+        b.putInt(length).put(type).putInt(requestId).put(payload);
+        return b.array();
+    }
+
+    /** Per-connection state. Buffers are touched only by the selector thread. */
+    private static final class Connection {
+        final SocketChannel ch;
+        final ByteBuffer in;
+        final ByteBuffer out;
+        final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        SelectionKey key;
+        boolean closed;
+
+        Connection(SocketChannel ch, ByteBuffer in, ByteBuffer out) {
+            this.ch = ch;
+            this.in = in;
+            this.out = out;
+        }
+    }
+}
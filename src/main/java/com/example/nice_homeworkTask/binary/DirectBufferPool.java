@@ -0,0 +1,51 @@
+package com.example.nice_homeworkTask.binary;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Pool of same-size direct ByteBuffers.
+ *
+ * Direct buffers are expensive to allocate and are only freed by the GC, so
+ * connections borrow one for reading/writing and give it back when they close.
+ * At most maxPooled idle buffers are kept; extra ones are simply dropped.
+ */
+final class DirectBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /** Returns a cleared buffer (from the pool when possible). */
+    ByteBuffer acquire() {
+        ByteBuffer b = idle.poll();
+        if (b == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        idleCount.decrementAndGet();
+        return b.clear();
+    }
+
+    /** Gives a buffer back; it must not be used by the caller afterwards. */
+    void release(ByteBuffer b) {
+        if (b == null || b.capacity() != bufferSize) {
+            return;
+        }
+        if (idleCount.incrementAndGet() <= maxPooled) {
+            idle.offer(b);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    int idle() {
+        return idleCount.get();
+    }
+}
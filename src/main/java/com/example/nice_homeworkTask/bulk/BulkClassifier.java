@@ -0,0 +1,151 @@
+package com.example.nice_homeworkTask.bulk;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequestValidator;
+import com.example.nice_homeworkTask.exception.UnknownTenantException;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.tenant.TenantEngines;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/*
+ * Bulk classification over streams: a JSON array of /suggestTask requests in,
+ * a JSON array of results out, in the same order.
+ *
+ * - Token-streaming on both sides (Jackson parser/generator): one request is
+ *   bound, classified and written before the next one is read, so memory does
+ *   not depend on the size of the batch.
+ * - Per item: {"task":"..."} (+ "tasks" with spans when the item has
+ *   allTasks=true), or {"errors":{field: message}} for an item that fails
+ *   validation or names an unknown tenant; the other items are still classified.
+ * - A body that breaks off in the middle (bad JSON, bad field format, corrupt
+ *   or truncated gzip) ends the array with one last
+ *   {"errors":{"body":"...","item":"<index>"}} element: the results before it
+ *   are valid, nothing after it was classified.
+ * - Same classification as /suggestTask, without the external call, the
+ *   per-user stats, dedup and the decision stream (re-classification jobs are
+ *   not user traffic).
+ */
+@Component
+public class BulkClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkClassifier.class);
+
+    private final JsonFactory json;
+    private final ObjectReader requests;
+    private final NiceHomeworkTaskService service;
+    private final TenantEngines tenants;
+
+    public BulkClassifier(ObjectMapper objectMapper, NiceHomeworkTaskService service, TenantEngines tenants) {
+        this.json = objectMapper.getFactory();
+        this.requests = objectMapper.readerFor(NiceHomeworkTaskRequest.class);
+        this.service = service;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Parser positioned on the opening '[' of the body (nothing written yet, so a
+     * body that is not an array can still be rejected as a whole).
+     */
+    public JsonParser open(InputStream body) throws IOException {
+        JsonParser items = json.createParser(body);
+        items.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        if (items.nextToken() != JsonToken.START_ARRAY) {
+            items.close();
+            throw new JsonParseException(items, "Expected a JSON array of requests");
+        }
+        return items;
+    }
+
+    /** Classifies every remaining item of items into out; returns the number of items read. */
+    public long classify(JsonParser items, OutputStream out) throws IOException {
+        long n = 0;
+        try (JsonGenerator results = json.createGenerator(out)) {
+            results.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            results.writeStartArray();
+            try {
+                JsonToken token;
+                while ((token = items.nextToken()) == JsonToken.START_OBJECT) {
+                    write(results, requests.readValue(items, NiceHomeworkTaskRequest.class));
+                    n++;
+                }
+                if (token != JsonToken.END_ARRAY) {
+                    throw new JsonParseException(items, "Expected a request object or ']'");
+                }
+            } catch (JsonProcessingException | ZipException | EOFException e) {
+                log.warn("Bulk body unreadable at item {}: {}", n, e.getMessage());
+                results.writeStartObject();
+                results.writeObjectFieldStart("errors");
+                results.writeStringField("body", "Invalid JSON, field format or compressed data");
+                results.writeStringField("item", Long.toString(n));
+                results.writeEndObject();
+                results.writeEndObject();
+            }
+            results.writeEndArray();
+        }
+        return n;
+    }
+
+    private void write(JsonGenerator results, NiceHomeworkTaskRequest req) throws IOException {
+        results.writeStartObject();
+        int failures = NiceHomeworkTaskRequestValidator.validate(req);
+        if (failures != 0) {
+            results.writeObjectFieldStart("errors");
+            for (int i = 0; i < NiceHomeworkTaskRequestValidator.FIELDS.length; i++) {
+                if ((failures & 1 << i) != 0) {
+                    results.writeStringField(NiceHomeworkTaskRequestValidator.FIELDS[i],
+                            NiceHomeworkTaskRequestValidator.MESSAGES[i]);
+                }
+            }
+            results.writeEndObject();
+        } else {
+            TaskMatcher engine = null;
+            try {
+                engine = req.getTenant() != null ? tenants.engine(req.getTenant()) : null;
+            } catch (UnknownTenantException e) {
+                results.writeObjectFieldStart("errors");
+                results.writeStringField("tenant", e.getMessage());
+                results.writeEndObject();
+                results.writeEndObject();
+                return;
+            }
+            if (Boolean.TRUE.equals(req.getAllTasks())) {
+                writeAll(results, service.suggestTasksUncached(req.getUtterance(), engine));
+            } else {
+                results.writeStringField("task", service.suggestTaskUncached(req.getUtterance(), engine));
+            }
+        }
+        results.writeEndObject();
+    }
+
+    private static void writeAll(JsonGenerator results, List<TaskMatch> tasks) throws IOException {
+        results.writeStringField("task", tasks.isEmpty() ? TaskMatcher.NO_TASK : tasks.get(0).task());
+        results.writeArrayFieldStart("tasks");
+        for (TaskMatch t : tasks) {
+            results.writeStartObject();
+            results.writeStringField("task", t.task());
+            results.writeNumberField("start", t.start());
+            results.writeNumberField("end", t.end());
+            results.writeEndObject();
+        }
+        results.writeEndArray();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.nice_homeworkTask.bulk;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * Pooled gzip codecs for the bulk endpoint.
+ *
+ * Every gzip stream needs an Inflater/Deflater (native zlib state: ~40 KB to
+ * inflate, ~270 KB to deflate, freed only by end() or GC) plus an I/O buffer.
+ * Here they are kept and reset between requests instead of being allocated per
+ * request: up to pool-size of each stay idle; more concurrent streams get fresh
+ * ones, which are ended instead of pooled when they come back.
+ */
+@Component
+public class CodecPool implements DisposableBean {
+
+    private final int bufferSize;
+    private final int level;
+    private final ArrayBlockingQueue<Inflater> inflaters;
+    private final ArrayBlockingQueue<Deflater> deflaters;
+    private final ArrayBlockingQueue<byte[]> buffers;
+    private final AtomicLong allocations = new AtomicLong();
+
+    public CodecPool(@Value("${suggest-task.bulk.pool-size:4}") int poolSize,
+            @Value("${suggest-task.bulk.buffer-size:65536}") int bufferSize,
+            @Value("${suggest-task.bulk.compression-level:1}") int level) {
+        if (poolSize < 1 || bufferSize < 512 || level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("pool-size >= 1, buffer-size >= 512, compression-level 0..9");
+        }
+        this.bufferSize = bufferSize;
+        this.level = level;
+        this.inflaters = new ArrayBlockingQueue<>(poolSize);
+        this.deflaters = new ArrayBlockingQueue<>(poolSize);
+        this.buffers = new ArrayBlockingQueue<>(2 * poolSize);
+    }
+
+    /** Gzip-decoding view of in; closing it closes in and returns the codec to the pool. */
+    public GzipDecodingInputStream decoder(InputStream in) {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+            allocations.incrementAndGet();
+        }
+        byte[] buffer = buffer();
+        Inflater leased = inflater;
+        return new GzipDecodingInputStream(in, leased, buffer, () -> {
+            leased.reset();
+            if (!inflaters.offer(leased)) {
+                leased.end();
+            }
+            buffers.offer(buffer);
+        });
+    }
+
+    /** Gzip-encoding wrapper of out (header written now); closing it finishes the stream and closes out. */
+    public GzipEncodingOutputStream encoder(OutputStream out) throws IOException {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+            allocations.incrementAndGet();
+        }
+        byte[] buffer = buffer();
+        Deflater leased = deflater;
+        Runnable release = () -> {
+            leased.reset();
+            if (!deflaters.offer(leased)) {
+                leased.end();
+            }
+            buffers.offer(buffer);
+        };
+        try {
+            return new GzipEncodingOutputStream(out, leased, buffer, release);
+        } catch (IOException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    private byte[] buffer() {
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new byte[bufferSize];
+            allocations.incrementAndGet();
+        }
+        return buffer;
+    }
+
+    /** Inflaters, deflaters and buffers created so far (stays flat once the pool is warm). */
+    public long allocations() {
+        return allocations.get();
+    }
+
+    @Override
+    public void destroy() {
+        Inflater inflater;
+        while ((inflater = inflaters.poll()) != null) {
+            inflater.end();
+        }
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+        buffers.clear();
+    }
+}
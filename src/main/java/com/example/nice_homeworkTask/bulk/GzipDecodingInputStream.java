@@ -0,0 +1,209 @@
+package com.example.nice_homeworkTask.bulk;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/*
+ * Streaming gzip decoder (RFC 1952) over a caller-supplied Inflater and input
+ * buffer, so both can be pooled (java.util.zip.GZIPInputStream allocates its
+ * own and ends the Inflater on close).
+ *
+ * - Decompresses as the reader asks: at most one buffer of compressed input
+ *   and the inflater's 32 KB window are held, whatever the body size.
+ * - Concatenated members (what "cat a.gz b.gz" or a parallel compressor
+ *   produces) are read as one stream; every member's CRC-32 and size are checked.
+ * - close() closes the source and runs onClose (e.g. hand the Inflater and the
+ *   buffer back to CodecPool); the Inflater is not ended here.
+ */
+public final class GzipDecodingInputStream extends InputStream {
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int RESERVED = 0xE0;
+
+    private final InputStream in;
+    private final Inflater inflater;
+    private final byte[] buf;
+    private final Runnable onClose;
+    private final CRC32 crc = new CRC32();
+
+    // Compressed bytes in buf: [pos, limit) not yet consumed (by the header/trailer reader or the inflater)
+    private int pos;
+    private int limit;
+    private boolean inMember;
+    private boolean members;
+    private boolean eof;
+    private boolean closed;
+
+    /** inflater: nowrap (raw deflate), e.g. new Inflater(true); buffer: compressed input chunks. */
+    public GzipDecodingInputStream(InputStream in, Inflater inflater, byte[] buffer, Runnable onClose) {
+        this.in = in;
+        this.inflater = inflater;
+        this.buf = buffer;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (!eof) {
+            if (!inMember) {
+                if (!readHeader()) {
+                    eof = true;
+                    break;
+                }
+                continue;
+            }
+            int n;
+            try {
+                n = inflater.inflate(b, off, len);
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid deflate data");
+            }
+            if (n > 0) {
+                crc.update(b, off, n);
+                return n;
+            }
+            if (inflater.finished()) {
+                pos = limit - inflater.getRemaining();
+                readTrailer();
+            } else if (inflater.needsDictionary()) {
+                throw new ZipException("Deflate stream needs a preset dictionary");
+            } else if (inflater.needsInput()) {
+                pos = limit;
+                if (!fill()) {
+                    throw new EOFException("Unexpected end of gzip stream");
+                }
+                inflater.setInput(buf, pos, limit - pos);
+            }
+        }
+        return -1;
+    }
+
+    // Next member's header; false at a clean end of input (none after the last member)
+    private boolean readHeader() throws IOException {
+        int id1 = readByte();
+        if (id1 < 0) {
+            if (!members) {
+                throw new EOFException("Empty gzip stream");
+            }
+            return false;
+        }
+        if (id1 != 0x1f || readRequiredByte() != 0x8b) {
+            throw new ZipException("Not in gzip format");
+        }
+        if (readRequiredByte() != 8) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        int flags = readRequiredByte();
+        if ((flags & RESERVED) != 0) {
+            throw new ZipException("Reserved gzip flags set");
+        }
+        skip(6); // MTIME, XFL, OS
+        if ((flags & FEXTRA) != 0) {
+            skip(readRequiredByte() | readRequiredByte() << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            while (readRequiredByte() != 0) {
+                // zero-terminated file name
+            }
+        }
+        if ((flags & FCOMMENT) != 0) {
+            while (readRequiredByte() != 0) {
+                // zero-terminated comment
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            skip(2);
+        }
+        inflater.reset();
+        inflater.setInput(buf, pos, limit - pos);
+        crc.reset();
+        inMember = true;
+        members = true;
+        return true;
+    }
+
+    private void readTrailer() throws IOException {
+        long expectedCrc = readInt();
+        long expectedSize = readInt();
+        if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+        inMember = false;
+    }
+
+    private long readInt() throws IOException {
+        long v = 0;
+        for (int i = 0; i < 4; i++) {
+            v |= (long) readRequiredByte() << (8 * i);
+        }
+        return v;
+    }
+
+    private void skip(int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readRequiredByte();
+        }
+    }
+
+    private int readRequiredByte() throws IOException {
+        int b = readByte();
+        if (b < 0) {
+            throw new EOFException("Unexpected end of gzip stream");
+        }
+        return b;
+    }
+
+    private int readByte() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos++] & 0xff;
+    }
+
+    // Refill buf from the source (only when all of it is consumed); false at end of input
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            in.close();
+        } finally {
+            onClose.run();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.nice_homeworkTask.bulk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/*
+ * Streaming gzip encoder (one RFC 1952 member) over a caller-supplied Deflater
+ * and output buffer, so both can be pooled (java.util.zip.GZIPOutputStream
+ * allocates its own and ends the Deflater on close).
+ *
+ * - Compressed bytes go to the target as soon as a buffer is full; nothing
+ *   else is kept.
+ * - flush() is a sync flush (what was written so far can be decompressed).
+ * - close() writes the trailer, closes the target and runs onClose (e.g. hand
+ *   the Deflater and the buffer back to CodecPool); the Deflater is not ended here.
+ */
+public final class GzipEncodingOutputStream extends OutputStream {
+
+    // ID1 ID2 CM=deflate FLG=0 MTIME=0 XFL=0 OS=unknown (as GZIPOutputStream writes it)
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final OutputStream out;
+    private final Deflater deflater;
+    private final byte[] buf;
+    private final Runnable onClose;
+    private final CRC32 crc = new CRC32();
+    private boolean closed;
+
+    /** deflater: nowrap (raw deflate), e.g. new Deflater(level, true); buffer: compressed output chunks. */
+    public GzipEncodingOutputStream(OutputStream out, Deflater deflater, byte[] buffer, Runnable onClose)
+            throws IOException {
+        this.out = out;
+        this.deflater = deflater;
+        this.buf = buffer;
+        this.onClose = onClose;
+        deflater.reset();
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return;
+        }
+        crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate(Deflater.NO_FLUSH);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        while (deflate(Deflater.SYNC_FLUSH) == buf.length) {
+            // a full buffer may have more pending output
+        }
+        out.flush();
+    }
+
+    private int deflate(int flush) throws IOException {
+        int n = deflater.deflate(buf, 0, buf.length, flush);
+        if (n > 0) {
+            out.write(buf, 0, n);
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            writeInt(crc.getValue());
+            writeInt(deflater.getBytesRead());
+            out.close();
+        } finally {
+            onClose.run();
+        }
+    }
+
+    private void writeInt(long v) throws IOException {
+        out.write((int) v & 0xff);
+        out.write((int) (v >>> 8) & 0xff);
+        out.write((int) (v >>> 16) & 0xff);
+        out.write((int) (v >>> 24) & 0xff);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.nice_homeworkTask.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/*
+ * On-disk format of a ClassificationCache snapshot.
+ *
+ * Layout (big-endian):
+ *   int   MAGIC ("NHTC")
+ *   int   VERSION
+ *   long  catalog fingerprint (TaskCatalog.fingerprint)
+ *   short length + UTF-8 engine identity (TaskMatcher.name, e.g. "stemming+regex")
+ *   short task count, then per task: short length + UTF-8 name
+ *   int   entry count, then per entry: short task index, short length + UTF-8 text
+ *
+ * Rule:
+ * - Tasks are stored once and referenced by index (entries are mostly text).
+ *   Up to MAX_TASKS tasks (unsigned short index); write refuses larger catalogs.
+ * - Written to "<file>.tmp" and renamed: a crash mid-write leaves the old snapshot.
+ * - Read through a read-only memory map; a snapshot with another version,
+ *   fingerprint or engine, or any malformed content, is rejected (read returns -1).
+ *   Same catalog + another engine (e.g. stemming switched on) can give other
+ *   answers, so both are part of the key.
+ */
+final class CacheSnapshot {
+
+    static final int MAGIC = 0x4E485443;
+    static final int VERSION = 3;
+
+    /** Most tasks (NoTaskFound included) a snapshot can reference. */
+    static final int MAX_TASKS = 0xFFFF;
+
+    private CacheSnapshot() {
+    }
+
+    /** Writes entries (text -> task, task must be one of tasks) and returns how many were written. */
+    static int write(Path file, long fingerprint, String engine, List<String> tasks,
+            Iterable<Map.Entry<String, String>> entries, int count) throws IOException {
+        if (tasks.size() > MAX_TASKS) {
+            throw new IOException("Catalog has " + tasks.size() + " tasks; a snapshot holds at most " + MAX_TASKS);
+        }
+        Map<String, Integer> taskIndex = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            taskIndex.put(tasks.get(i), i);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            writeString(out, engine.getBytes(StandardCharsets.UTF_8));
+            out.writeShort(tasks.size());
+            for (String task : tasks) {
+                writeString(out, task.getBytes(StandardCharsets.UTF_8));
+            }
+            out.writeInt(count);
+            for (Map.Entry<String, String> e : entries) {
+                if (written == count) {
+                    break;
+                }
+                Integer index = taskIndex.get(e.getValue());
+                byte[] text = e.getKey().getBytes(StandardCharsets.UTF_8);
+                if (index == null || text.length > 0xFFFF) {
+                    continue;
+                }
+                out.writeShort(index);
+                writeString(out, text);
+                written++;
+            }
+        }
+        if (written != count) {
+            // fewer entries than announced (skipped ones): patch the count in place
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.write(ByteBuffer.allocate(4).putInt(0, written), countOffset(engine, tasks));
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * Reads up to maxEntries entries into sink (task values are the caller's
+     * String instances from tasks). Returns the number read, or -1 if the file
+     * is stale or malformed (nothing meaningful was loaded).
+     */
+    static int read(Path file, long fingerprint, String engine, List<String> tasks, int maxEntries,
+            BiConsumer<String, String> sink) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION || buf.getLong() != fingerprint) {
+                return -1;
+            }
+            byte[] scratch = new byte[0xFFFF];
+            if (!readString(buf, scratch).equals(engine)) {
+                return -1;
+            }
+            int taskCount = buf.getShort() & 0xFFFF;
+            String[] byIndex = new String[taskCount];
+            for (int i = 0; i < taskCount; i++) {
+                String name = readString(buf, scratch);
+                int current = tasks.indexOf(name);
+                if (current < 0) {
+                    return -1;
+                }
+                byIndex[i] = tasks.get(current);
+            }
+            int count = Math.min(buf.getInt(), maxEntries);
+            for (int n = 0; n < count; n++) {
+                int index = buf.getShort() & 0xFFFF;
+                if (index >= taskCount) {
+                    return -1;
+                }
+                sink.accept(readString(buf, scratch), byIndex[index]);
+            }
+            return count;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static long countOffset(String engine, List<String> tasks) {
+        long offset = 4 + 4 + 8 + 2 + engine.getBytes(StandardCharsets.UTF_8).length + 2;
+        for (String task : tasks) {
+            offset += 2 + task.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return offset;
+    }
+
+    private static void writeString(DataOutputStream out, byte[] utf8) throws IOException {
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buf, byte[] scratch) {
+        int length = buf.getShort() & 0xFFFF;
+        buf.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.nice_homeworkTask.cache;
+
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Bounded cache of classification results: normalized text -> task.
+ *
+ * Rule:
+ * - Two generations (young, old), each at most generationSize entries. New
+ *   results go to young; when young is full it becomes old and the previous old
+ *   is dropped. An old hit is copied back to young. So hot texts survive and the
+ *   memory bound is 2 x generationSize, without per-entry LRU bookkeeping.
+ * - Only the matching result is cached: the external call still runs per request.
+ * - Texts longer than MAX_TEXT_LENGTH are not cached.
+ *
+ * Warm restarts:
+ * - On shutdown (bean destroy) the entries are written to the snapshot file
+ *   (CacheSnapshot), young first.
+ * - On startup the snapshot is memory-mapped and loaded. It carries the catalog
+ *   fingerprint and the live engine's name (stemming included): a snapshot
+ *   built against other TASK_PATTERNS, or by another engine, is discarded.
+ * - In the application, lookups start at ApplicationReadyEvent, so the JIT
+ *   warm-up exercises the matcher, not the cache.
+ */
+@Component
+public class ClassificationCache implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassificationCache.class);
+
+    /** Longest normalized text that is cached (characters). */
+    public static final int MAX_TEXT_LENGTH = 512;
+
+    private final TaskCatalog catalog;
+    private final String engine;
+    private final List<String> tasks;
+    private final int generationSize;
+    private final Path snapshot;
+    private final boolean enabled;
+
+    private volatile ConcurrentHashMap<String, String> young;
+    private volatile ConcurrentHashMap<String, String> old;
+    private final AtomicInteger youngSize = new AtomicInteger();
+
+    private volatile boolean active;
+
+    @Autowired
+    public ClassificationCache(@Value("${suggest-task.cache.enabled:true}") boolean enabled,
+            @Value("${suggest-task.cache.generation-size:50000}") int generationSize,
+            @Value("${suggest-task.cache.snapshot:}") String snapshot,
+            ObjectProvider<TaskMatcher> liveTaskMatcher) {
+        this(NiceHomeworkTaskService.catalog(), engineName(liveTaskMatcher.getIfUnique()), enabled, generationSize,
+                snapshot.isBlank() ? null : Path.of(snapshot), false);
+    }
+
+    /** Programmatic use (tests, benchmarks): active right away. snapshot may be null. Engine "regex". */
+    public ClassificationCache(TaskCatalog catalog, int generationSize, Path snapshot) {
+        this(catalog, "regex", generationSize, snapshot);
+    }
+
+    /** Same, for results of the named engine (TaskMatcher.name, part of the snapshot key). */
+    public ClassificationCache(TaskCatalog catalog, String engine, int generationSize, Path snapshot) {
+        this(catalog, engine, true, generationSize, snapshot, true);
+    }
+
+    private ClassificationCache(TaskCatalog catalog, String engine, boolean enabled, int generationSize,
+            Path snapshot, boolean activeNow) {
+        this.catalog = catalog;
+        this.engine = engine;
+        List<String> names = new ArrayList<>(catalog.tasks());
+        names.add(TaskMatcher.NO_TASK);
+        this.tasks = List.copyOf(names);
+        this.enabled = enabled;
+        this.generationSize = Math.max(1, generationSize);
+        this.snapshot = snapshot;
+        this.young = new ConcurrentHashMap<>();
+        this.old = new ConcurrentHashMap<>();
+        if (enabled && snapshot != null) {
+            load();
+        }
+        this.active = enabled && activeNow;
+    }
+
+    // The service's default engine when no live matcher bean is configured
+    private static String engineName(TaskMatcher liveTaskMatcher) {
+        return liveTaskMatcher != null ? liveTaskMatcher.name() : "regex";
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        active = enabled;
+    }
+
+    /** Cached task for this normalized text, or null. */
+    public String get(String text) {
+        if (!active) {
+            return null;
+        }
+        String task = young.get(text);
+        if (task == null) {
+            task = old.get(text);
+            if (task != null) {
+                put(text, task); // still in use: keep it through the next rotation
+            }
+        }
+        return task;
+    }
+
+    /** Remembers the task for this normalized text. */
+    public void put(String text, String task) {
+        if (!active || text.length() > MAX_TEXT_LENGTH) {
+            return;
+        }
+        ConcurrentHashMap<String, String> y = young;
+        if (y.putIfAbsent(text, task) == null && youngSize.incrementAndGet() >= generationSize) {
+            rotate(y);
+        }
+    }
+
+    private synchronized void rotate(ConcurrentHashMap<String, String> full) {
+        if (young == full) {
+            old = full;
+            young = new ConcurrentHashMap<>();
+            youngSize.set(0);
+        }
+    }
+
+    /** Entries in both generations (a text in both counts twice). */
+    public int size() {
+        return young.size() + old.size();
+    }
+
+    /** Loads the snapshot file (if any). Returns entries loaded, -1 if it was stale/unreadable. */
+    int load() {
+        if (!Files.isRegularFile(snapshot)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        ConcurrentHashMap<String, String> y = new ConcurrentHashMap<>(generationSize * 4 / 3 + 1);
+        ConcurrentHashMap<String, String> o = new ConcurrentHashMap<>(generationSize * 4 / 3 + 1);
+        int[] count = {0};
+        int loaded;
+        try {
+            // Most recent first (see save): the first generationSize entries go to young
+            loaded = CacheSnapshot.read(snapshot, catalog.fingerprint(), engine, tasks, 2 * generationSize,
+                    (text, task) -> (count[0]++ < generationSize ? y : o).put(text, task));
+        } catch (IOException e) {
+            log.warn("Cannot read cache snapshot {}: {}", snapshot, e.toString());
+            loaded = -1;
+        }
+        if (loaded < 0) {
+            log.info("Discarding cache snapshot {} (other catalog version or engine, or unreadable)", snapshot);
+            return -1;
+        }
+        young = y;
+        old = o;
+        youngSize.set(y.size());
+        log.info("Loaded {} cached classifications from {} in {} ms", loaded, snapshot,
+                (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    /** Writes the snapshot file. Returns entries written. */
+    int save() throws IOException {
+        ConcurrentHashMap<String, String> y = young;
+        ConcurrentHashMap<String, String> o = old;
+        List<Map.Entry<String, String>> entries = new ArrayList<>(y.size() + o.size());
+        entries.addAll(y.entrySet());
+        for (Map.Entry<String, String> e : o.entrySet()) {
+            if (!y.containsKey(e.getKey())) {
+                entries.add(e);
+            }
+        }
+        return CacheSnapshot.write(snapshot, catalog.fingerprint(), engine, tasks, entries, entries.size());
+    }
+
+    @Override
+    public void destroy() {
+        if (!enabled || snapshot == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            int written = save();
+            log.info("Wrote {} cached classifications to {} in {} ms", written, snapshot,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Cannot write cache snapshot {}: {}", snapshot, e.toString());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.nice_homeworkTask.config;
+
+import com.example.nice_homeworkTask.matching.ChunkedTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.StemmingTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskMatcherFactory;
+import com.example.nice_homeworkTask.matching.TaskMatchers;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The live matching engine used by NiceHomeworkTaskService.
+ *
+ * - suggest-task.parallel.threshold > 0: ChunkedTaskMatcher, texts from that
+ * length on are matched in parallel chunks on a dedicated ForkJoin pool.
+ * - suggest-task.parallel.threshold = 0: plain RegexTaskMatcher.
+ * - suggest-task.matching.engine = bytecode: BytecodeTaskMatcher instead (generated
+ * code, no chunking); try it as the shadow engine first.
+ * - suggest-task.matching.engine = anchored: AnchoredTaskMatcher (one scan for keyword
+ * starts, SIMD with --add-modules jdk.incubator.vector; for long texts).
+ * - suggest-task.matching.stemming = true: any of the above behind StemmingTaskMatcher
+ * (inflected keywords are replaced by their stems before matching).
+ *
+ * Tenant catalogs are matched by the same engine (TaskMatcherFactory, see TenantEngines).
+ */
+@Configuration
+public class MatchingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool matchingPool(@Value("${suggest-task.parallel.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /** The configured engine for any catalog (built-in and tenant catalogs). */
+    @Bean
+    public TaskMatcherFactory taskMatcherFactory(ForkJoinPool matchingPool,
+            @Value("${suggest-task.matching.engine:regex}") String engine,
+            @Value("${suggest-task.parallel.threshold:65536}") int threshold,
+            @Value("${suggest-task.parallel.chunk-size:16384}") int chunkSize,
+            @Value("${suggest-task.matching.stemming:false}") boolean stemming) {
+        return catalog -> {
+            TaskMatcher matcher = engine(catalog, matchingPool, engine, threshold, chunkSize);
+            return stemming ? new StemmingTaskMatcher(matcher, catalog) : matcher;
+        };
+    }
+
+    @Bean
+    public TaskMatcher liveTaskMatcher(TaskMatcherFactory taskMatcherFactory) {
+        return taskMatcherFactory.create(NiceHomeworkTaskService.catalog());
+    }
+
+    private static TaskMatcher engine(TaskCatalog catalog, ForkJoinPool matchingPool, String engine, int threshold,
+            int chunkSize) {
+        if (!engine.equals("regex")) {
+            return TaskMatchers.create(engine, catalog);
+        }
+        if (threshold <= 0) {
+            return new RegexTaskMatcher(catalog);
+        }
+        return new ChunkedTaskMatcher(catalog, threshold, chunkSize, matchingPool);
+    }
+}
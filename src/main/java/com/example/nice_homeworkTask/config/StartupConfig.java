@@ -0,0 +1,28 @@
+package com.example.nice_homeworkTask.config;
+
+import com.example.nice_homeworkTask.controller.NiceHomeworkTaskController;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.service.RequestDeduplicator;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup tuning.
+ *
+ * - With spring.main.lazy-initialization=true (the "fast-startup" Spring
+ * profile), beans are created on first use instead of at startup.
+ * - The beans on the /suggestTask hot path are excluded, so they are still
+ * built eagerly and the first request doesn't pay for them.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter firstRequestBeans() {
+        return (beanName, beanDefinition, beanType) -> NiceHomeworkTaskController.class.isAssignableFrom(beanType)
+                || NiceHomeworkTaskService.class.isAssignableFrom(beanType)
+                || RequestDeduplicator.class.isAssignableFrom(beanType)
+                || WebConfig.class.isAssignableFrom(beanType);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.nice_homeworkTask.config;
+
+import com.example.nice_homeworkTask.latency.StageTimingAdvice;
+import com.example.nice_homeworkTask.limit.AdaptiveConcurrencyLimiter;
+import com.example.nice_homeworkTask.limit.ConcurrencyLimitFilter;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.web.NiceHomeworkTaskResponseConverter;
+import com.example.nice_homeworkTask.web.PreEncodedErrorResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC customizations.
+ *
+ * - Puts the pre-encoded NiceHomeworkTaskResponse writer in front of Jackson,
+ * so /suggestTask responses skip reflective serialization. Everything else
+ * (requests, error bodies) still goes through Jackson.
+ * - The writer is also a bean, so the JIT warm-up can drive the same instance.
+ * - Pre-encoded error bodies are shared by the exception handler and the
+ * concurrency limit filter.
+ * - Adaptive concurrency limiting / load shedding on /suggestTask only
+ * (ConcurrencyLimitFilter), unless suggest-task.limiter.enabled=false.
+ * - Stage latency timing (StageTimingAdvice) as an interceptor on /suggestTask.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final NiceHomeworkTaskResponseConverter responseConverter;
+    private final StageTimingAdvice stageTiming;
+
+    public WebConfig(NiceHomeworkTaskService service, StageTimingAdvice stageTiming) {
+        this.responseConverter = new NiceHomeworkTaskResponseConverter(service.taskNames());
+        this.stageTiming = stageTiming;
+    }
+
+    @Bean
+    public NiceHomeworkTaskResponseConverter niceHomeworkTaskResponseConverter() {
+        return responseConverter;
+    }
+
+    @Bean
+    public PreEncodedErrorResponses preEncodedErrorResponses(ObjectMapper objectMapper) {
+        return new PreEncodedErrorResponses(objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            PreEncodedErrorResponses errorBodies, MeterRegistry meters,
+            @Value("${suggest-task.limiter.enabled:true}") boolean enabled,
+            @Value("${suggest-task.limiter.initial-limit:64}") int initialLimit,
+            @Value("${suggest-task.limiter.min-limit:8}") int minLimit,
+            @Value("${suggest-task.limiter.max-limit:200}") int maxLimit,
+            @Value("${suggest-task.limiter.tolerance:1.5}") double tolerance,
+            @Value("${suggest-task.limiter.smoothing:0.2}") double smoothing,
+            @Value("${suggest-task.limiter.degrade-ratio:0.75}") double degradeRatio,
+            @Value("${suggest-task.limiter.window:50}") int window) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                tolerance, smoothing, degradeRatio, window);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiter, errorBodies, meters));
+        registration.addUrlPatterns("/suggestTask");
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(stageTiming).addPathPatterns("/suggestTask");
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Boot may already have added the bean; keep exactly one copy, first in line.
+        converters.removeIf(c -> c == responseConverter);
+        converters.add(0, responseConverter);
+    }
+}
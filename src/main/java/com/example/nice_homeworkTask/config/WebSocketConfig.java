@@ -0,0 +1,34 @@
+package com.example.nice_homeworkTask.config;
+
+import com.example.nice_homeworkTask.live.LiveSuggestHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * WebSocket endpoints.
+ *
+ * - /suggestTask/live: incremental suggestions while typing (LiveSuggestHandler).
+ * Browsers may connect from the origins in suggest-task.live.allowed-origins
+ * (comma separated, e.g. the chat widget's); empty = same origin only.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final LiveSuggestHandler liveSuggestHandler;
+    private final String[] allowedOrigins;
+
+    public WebSocketConfig(LiveSuggestHandler liveSuggestHandler,
+            @Value("${suggest-task.live.allowed-origins:}") String[] allowedOrigins) {
+        this.liveSuggestHandler = liveSuggestHandler;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(liveSuggestHandler, "/suggestTask/live").setAllowedOrigins(allowedOrigins);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.nice_homeworkTask.controller;
+
+import com.example.nice_homeworkTask.bulk.BulkClassifier;
+import com.example.nice_homeworkTask.bulk.CodecPool;
+import com.example.nice_homeworkTask.bulk.GzipDecodingInputStream;
+import com.fasterxml.jackson.core.JsonParser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * POST /suggestTask/bulk — classify a whole batch of requests in one call
+ * (nightly re-classification jobs).
+ *
+ * Rule:
+ * - Body: JSON array of /suggestTask request objects; response: JSON array of
+ * results in the same order (see BulkClassifier for the element shapes).
+ * - Content-Encoding: gzip (or x-gzip) bodies are decompressed while they are
+ * parsed; Accept-Encoding: gzip -> the response is gzip-compressed while it is
+ * written. Both use pooled codecs and buffers (CodecPool), and neither side is
+ * ever held in memory as a whole: heap use is flat, whatever the batch size.
+ *
+ * Errors:
+ * - Other Content-Encodings (e.g. zstd, br) -> 415.
+ * - Body not a JSON array (or not gzip when it says so) -> 400 "Malformed
+ * request body" (before anything is written).
+ * - A body that breaks off later -> 200 with an error as the last element.
+ */
+@RestController
+public class BulkClassificationController {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkClassificationController.class);
+
+    private final BulkClassifier classifier;
+    private final CodecPool codecs;
+
+    public BulkClassificationController(BulkClassifier classifier, CodecPool codecs) {
+        this.classifier = classifier;
+        this.codecs = codecs;
+    }
+
+    @PostMapping(path = "/suggestTask/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void suggestTasks(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        InputStream body = decoded(request);
+        JsonParser items;
+        try {
+            items = classifier.open(body);
+        } catch (IOException e) {
+            body.close();
+            throw new HttpMessageNotReadableException("Bulk body is not a JSON array: " + e.getMessage(), e,
+                    new ServletServerHttpRequest(request));
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try (body; items; OutputStream out = gzip ? codecs.encoder(response.getOutputStream())
+                : response.getOutputStream()) {
+            long n = classifier.classify(items, out);
+            log.info("Bulk classified {} items (gzip in={}, out={})", n, body instanceof GzipDecodingInputStream,
+                    gzip);
+        }
+    }
+
+    private InputStream decoded(HttpServletRequest request) throws IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || encoding.trim().equalsIgnoreCase("identity")) {
+            return request.getInputStream();
+        }
+        if (encoding.trim().equalsIgnoreCase("gzip") || encoding.trim().equalsIgnoreCase("x-gzip")) {
+            return codecs.decoder(request.getInputStream());
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Unsupported Content-Encoding '" + encoding + "' (supported: gzip, identity)");
+    }
+
+    // "gzip" listed in Accept-Encoding, not with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equalsIgnoreCase("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String p = params[i].trim().toLowerCase();
+                if (p.startsWith("q=") && p.substring(2).trim().matches("0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.nice_homeworkTask.controller;
+
+import com.example.nice_homeworkTask.stream.Decision;
+import com.example.nice_homeworkTask.stream.DecisionStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * GET /decisions/stream — live feed of /suggestTask decisions (Server-Sent Events).
+ *
+ * Rule:
+ * - One "decision" event per decision: {task, timestamp, userIdHash}, id = its
+ * sequence number. The userId itself is never sent (salted hash only).
+ * - A client that reads too slowly misses events instead of slowing the service
+ * down; it gets a "dropped" event with the number of events it missed.
+ * - No replay: a new subscriber sees decisions made after it connected.
+ *
+ * Errors:
+ * - More than suggest-task.stream.max-subscribers clients -> 503.
+ */
+@RestController
+public class DecisionStreamController {
+
+    private final DecisionStream decisions;
+
+    public DecisionStreamController(DecisionStream decisions) {
+        this.decisions = decisions;
+    }
+
+    @GetMapping(path = "/decisions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        SseEmitter emitter = new SseEmitter(0L); // no timeout: lives until the client goes away
+        DecisionStream.Subscription sub = decisions.subscribe((events, dropped) -> send(emitter, events, dropped));
+        if (sub == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many decision stream subscribers");
+        }
+        emitter.onCompletion(() -> decisions.unsubscribe(sub));
+        emitter.onError(e -> decisions.unsubscribe(sub));
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, Iterable<Decision> events, long dropped) throws IOException {
+        if (dropped > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(Long.toString(dropped)));
+        }
+        for (Decision d : events) {
+            emitter.send(SseEmitter.event().name("decision").id(Long.toString(d.sequence())).data(d.toJson()));
+        }
+    }
+}
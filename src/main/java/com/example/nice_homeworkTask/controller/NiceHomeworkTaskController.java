@@ -1,17 +1,31 @@
 package com.example.nice_homeworkTask.controller;
 
 import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequestValidator;
 import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.exception.RequestValidationException;
+import com.example.nice_homeworkTask.jfr.RequestValidateEvent;
+import com.example.nice_homeworkTask.latency.Stage;
+import com.example.nice_homeworkTask.latency.StageLatencies;
+import com.example.nice_homeworkTask.limit.ConcurrencyLimitFilter;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
 import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
-import jakarta.validation.Valid;
+import com.example.nice_homeworkTask.service.RequestDeduplicator;
+import com.example.nice_homeworkTask.stats.UserTaskStats;
+import com.example.nice_homeworkTask.stream.DecisionStream;
+import com.example.nice_homeworkTask.tenant.TenantEngines;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * REST controller for /suggestTask — the HTTP boundary of the app.
@@ -19,11 +33,29 @@ import java.time.Instant;
  * Rule:
  * - Exposes POST /suggestTask that accepts a JSON request
  * (NiceHomeworkTaskRequest).
- * - Validates fields via Bean Validation (@Valid on the DTO).
+ * - Validates fields with NiceHomeworkTaskRequestValidator (the DTO's Bean
+ * Validation rules, hand-coded: no reflection on the hot path).
  * - Delegates the “which task fits this utterance?” decision to
  * NiceHomeworkTaskService.
  * - Wraps the result into NiceHomeworkTaskResponse and returns 200 OK as JSON.
- * - Logs a small “in/out” trail for observability.
+ * - Client retries of the same request (same userId, sessionId, timestamp and
+ * utterance) get the original response back (see RequestDeduplicator), unless
+ * it was a degraded one.
+ * - Multi-tenant: the tenant (request field "tenant", or the X-Tenant-Id
+ * header) selects the task catalog; its engine comes from TenantEngines.
+ * No tenant -> the built-in catalog.
+ * - Under load (ConcurrencyLimitFilter marks the request DEGRADED) the optional
+ * external call is skipped; the task is still computed the same way.
+ * - Every decision is published to DecisionStream (live SSE feed, see
+ * DecisionStreamController); free when nobody is subscribed.
+ * - Every classification is counted per userId (UserTaskStats, off-heap;
+ * /actuator/userstats/{userId}); replayed retries are not counted again.
+ * - allTasks=true: every task in the utterance, in order, with spans
+ * (NiceHomeworkTaskService.suggestTasks); "task" is the first of them, and
+ * each one is counted for the user.
+ * - Logs a small “in/out” trail for observability; JFR events for body parsing
+ * (RequestParseAdvice) and validation (RequestValidateEvent); validation time
+ * goes to StageLatencies (stage "validate", /actuator/stages).
  *
  * What it does NOT do:
  * - No regex or business logic here (lives in the service for testability &
@@ -32,24 +64,44 @@ import java.time.Instant;
  *
  * Contract:
  * Input JSON -> { utterance, userId, sessionId, timestamp } // all required
+ * (+ optional "tenant", "allTasks")
  * Output JSON -> { task, timestamp } // task ∈ { ResetPasswordTask,
  * CheckOrderStatusTask, NoTaskFound }
+ * allTasks=true -> { task, timestamp, tasks: [{ task, start, end }, ...] }
  *
  * Errors:
- * - Invalid/missing fields -> 400 Bad Request (handled by @Valid + global
- * exception handler).
+ * - Invalid/missing fields -> 400 Bad Request (RequestValidationException +
+ * global exception handler).
  * - Valid input but no match -> still 200 OK with task="NoTaskFound".
+ * - Tenant without a catalog -> 400 (UnknownTenantException).
+ * - Over the adaptive concurrency limit -> 503 (ConcurrencyLimitFilter, before
+ * this controller runs).
  */
 
 @RestController
 public class NiceHomeworkTaskController {
 
+    /** Header selecting the tenant (when the body has no "tenant" field). */
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
     // Logger to print basic request/response info
     private static final Logger log = LoggerFactory.getLogger(NiceHomeworkTaskController.class);
+
     private final NiceHomeworkTaskService service;
+    private final RequestDeduplicator deduplicator;
+    private final TenantEngines tenants;
+    private final DecisionStream decisions;
+    private final StageLatencies stages;
+    private final UserTaskStats userStats;
 
-    public NiceHomeworkTaskController(NiceHomeworkTaskService service) {
+    public NiceHomeworkTaskController(NiceHomeworkTaskService service, RequestDeduplicator deduplicator,
+            TenantEngines tenants, DecisionStream decisions, StageLatencies stages, UserTaskStats userStats) {
         this.service = service;
+        this.deduplicator = deduplicator;
+        this.tenants = tenants;
+        this.decisions = decisions;
+        this.stages = stages;
+        this.userStats = userStats;
     }
 
     /**
@@ -59,18 +111,65 @@ public class NiceHomeworkTaskController {
      * On validation errors, a 400 is returned by the global exception handler.
      */
     @PostMapping("/suggestTask")
-    public ResponseEntity<NiceHomeworkTaskResponse> suggestTask(@Valid @RequestBody NiceHomeworkTaskRequest req) {
+    public ResponseEntity<NiceHomeworkTaskResponse> suggestTask(@RequestBody NiceHomeworkTaskRequest req,
+            @RequestAttribute(name = ConcurrencyLimitFilter.DEGRADED, required = false) Boolean degraded,
+            @RequestHeader(name = TENANT_HEADER, required = false) String tenantHeader) {
+
+        if (req.getTenant() == null) {
+            req.setTenant(tenantHeader); // validated (and part of the dedup key) like the field
+        }
+        RequestValidateEvent validateEvent = new RequestValidateEvent();
+        validateEvent.begin();
+        long validateStart = stages.start();
+        int failures = NiceHomeworkTaskRequestValidator.validate(req);
+        stages.stop(Stage.VALIDATE, validateStart);
+        validateEvent.end();
+        if (validateEvent.shouldCommit()) {
+            validateEvent.failures = failures;
+            validateEvent.commit();
+        }
+        if (failures != 0) {
+            throw new RequestValidationException(failures);
+        }
 
         log.info("Received suggestTask: userId={}, sessionId={}, timestamp={}, utterance='{}'",
                 req.getUserId(), req.getSessionId(), req.getTimestamp(), req.getUtterance());
 
-        // Delegate to service to decide which task fits the utterance
-        String task = service.suggestTask(req.getUtterance());
+        TaskMatcher engine = req.getTenant() != null ? tenants.engine(req.getTenant()) : null;
+
+        // A retry of a recent request replays the original response (no second external call);
+        // a degraded response is not kept, so a retry gets another chance at the external call
+        boolean externalCall = degraded == null || !degraded;
+        NiceHomeworkTaskResponse res = deduplicator.deduplicate(req, externalCall, () -> {
+            if (Boolean.TRUE.equals(req.getAllTasks())) {
+                return suggestAllTasks(req, engine, externalCall);
+            }
+            // Delegate to service to decide which task fits the utterance
+            // (degraded: skip the optional external call, keep the classification)
+            String task = service.suggestTask(req.getUtterance(), engine, externalCall);
+            userStats.record(req.getUserId(), task);
 
-        // Build response with the chosen task + current server time
-        NiceHomeworkTaskResponse res = new NiceHomeworkTaskResponse(task, Instant.now());
+            // Build response with the chosen task + current server time
+            return new NiceHomeworkTaskResponse(task, Instant.now());
+        });
 
-        log.info("Responding task='{}' for userId={} sessionId={}", task, req.getUserId(), req.getSessionId());
+        decisions.publish(res.getTask(), res.getTimestamp(), req.getUserId());
+
+        log.info("Responding task='{}' for userId={} sessionId={}", res.getTask(), req.getUserId(), req.getSessionId());
         return ResponseEntity.ok(res);
     }
+
+    // allTasks=true: every match with its span; "task" stays the single-task answer
+    private NiceHomeworkTaskResponse suggestAllTasks(NiceHomeworkTaskRequest req, TaskMatcher engine,
+            boolean externalCall) {
+        List<TaskMatch> tasks = service.suggestTasks(req.getUtterance(), engine, externalCall);
+        if (tasks.isEmpty()) {
+            userStats.record(req.getUserId(), TaskMatcher.NO_TASK);
+        }
+        for (TaskMatch t : tasks) {
+            userStats.record(req.getUserId(), t.task());
+        }
+        String task = tasks.isEmpty() ? TaskMatcher.NO_TASK : tasks.get(0).task();
+        return new NiceHomeworkTaskResponse(task, Instant.now(), tasks);
+    }
 }
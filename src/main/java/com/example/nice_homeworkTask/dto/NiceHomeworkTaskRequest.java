@@ -2,6 +2,7 @@ package com.example.nice_homeworkTask.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.time.Instant;
 
 /**
@@ -10,8 +11,8 @@ import java.time.Instant;
  * Role:
  * - Holds the input fields the API expects.
  * - Jackson maps JSON to this class (requires public no-args ctor + setters).
- * - Bean Validation checks required fields (@NotBlank/@NotNull) before calling
- * the service.
+ * - The @NotBlank/@NotNull annotations state the rules; the controller enforces
+ * them with NiceHomeworkTaskRequestValidator before calling the service.
  *
  * Fields (all required):
  * - utterance : the user's free text
@@ -19,6 +20,12 @@ import java.time.Instant;
  * - sessionId : request/session correlation id
  * - timestamp : when the client sent the request (ISO-8601 Instant)
  *
+ * Optional:
+ * - tenant : which brand's task catalog to use (same as the X-Tenant-Id
+ * header; the field wins if both are sent). Absent -> built-in catalog.
+ * - allTasks : true -> the response also lists every task found in the
+ * utterance, with spans ("tasks"). Absent/false -> the usual single task.
+ *
  * Errors:
  * - Missing/invalid field -> 400 Bad Request (handled by the global exception
  * handler).
@@ -47,6 +54,13 @@ public class NiceHomeworkTaskRequest {
     @NotNull(message = "timestamp must not be null")
     private Instant timestamp;
 
+    /** Tenant id (optional), e.g. "acme-retail". Letters, digits, '-' and '_' only. */
+    @Pattern(regexp = "[A-Za-z0-9_-]{1,64}", message = "tenant must be 1-64 letters, digits, '-' or '_'")
+    private String tenant;
+
+    /** Multi-task extraction (optional), e.g. for "reset my password and track my order". */
+    private Boolean allTasks;
+
     public NiceHomeworkTaskRequest() {
     }
 
@@ -84,4 +98,20 @@ public class NiceHomeworkTaskRequest {
         this.timestamp = timestamp;
     }
 
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public Boolean getAllTasks() {
+        return allTasks;
+    }
+
+    public void setAllTasks(Boolean allTasks) {
+        this.allTasks = allTasks;
+    }
+
 }
@@ -0,0 +1,89 @@
+package com.example.nice_homeworkTask.dto;
+
+/**
+ * Hand-written validator for {@link NiceHomeworkTaskRequest}.
+ *
+ * Role:
+ * - Enforces exactly the Bean Validation annotations on the DTO
+ * (@NotBlank x3, @NotNull x1, @Pattern on the optional tenant) without the
+ * reflective Hibernate Validator path.
+ * - Returns the failures as a bit mask (no objects allocated), so the error
+ * handler can pick a pre-encoded 400 body for that combination.
+ *
+ * Note:
+ * - If you change an annotation on the DTO, change this class too;
+ * NiceHomeworkTaskRequestValidatorTest compares both on many inputs.
+ */
+public final class NiceHomeworkTaskRequestValidator {
+
+    public static final int UTTERANCE = 1;
+    public static final int USER_ID = 1 << 1;
+    public static final int SESSION_ID = 1 << 2;
+    public static final int TIMESTAMP = 1 << 3;
+    public static final int TENANT = 1 << 4;
+
+    /** Longest tenant id. */
+    public static final int MAX_TENANT_LENGTH = 64;
+
+    /** Every field, in the order of the bits above. */
+    public static final String[] FIELDS = { "utterance", "userId", "sessionId", "timestamp", "tenant" };
+
+    /** The annotation messages, same order as FIELDS. */
+    public static final String[] MESSAGES = {
+            "utterance must not be blank",
+            "userId must not be blank",
+            "sessionId must not be blank",
+            "timestamp must not be null",
+            "tenant must be 1-64 letters, digits, '-' or '_'" };
+
+    private NiceHomeworkTaskRequestValidator() {
+    }
+
+    /** Returns 0 when the request is valid, otherwise the OR of the failing field bits. */
+    public static int validate(NiceHomeworkTaskRequest req) {
+        int failures = 0;
+        if (isBlank(req.getUtterance())) {
+            failures |= UTTERANCE;
+        }
+        if (isBlank(req.getUserId())) {
+            failures |= USER_ID;
+        }
+        if (isBlank(req.getSessionId())) {
+            failures |= SESSION_ID;
+        }
+        if (req.getTimestamp() == null) {
+            failures |= TIMESTAMP;
+        }
+        if (req.getTenant() != null && !isTenantId(req.getTenant())) {
+            failures |= TENANT;
+        }
+        return failures;
+    }
+
+    /** Same rule as the tenant @Pattern: [A-Za-z0-9_-]{1,64}. */
+    public static boolean isTenantId(String s) {
+        if (s.isEmpty() || s.length() > MAX_TENANT_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same rule as @NotBlank (null, or nothing left after String.trim()), without trimming.
+    private static boolean isBlank(String s) {
+        if (s == null) {
+            return true;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.nice_homeworkTask.dto;
 
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Response DTO for POST /suggestTask.
@@ -13,6 +17,9 @@ import java.time.Instant;
  * - task: the chosen task ("ResetPasswordTask" / "CheckOrderStatusTask" /
  * "NoTaskFound")
  * - timestamp: server time when the response was created (Instant, ISO-8601)
+ * - tasks: only when the request asked for allTasks: every task found, in
+ * utterance order, with its span ({task, start, end}); omitted otherwise, so the
+ * default response is unchanged
  *
  * Notes:
  * Needs getters so Jackson can serialize this object to JSON.
@@ -27,6 +34,10 @@ public class NiceHomeworkTaskResponse {
     /** Server-side timestamp for when we built the response. */
     private Instant timestamp;
 
+    /** Every task found with its span (allTasks requests only). */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TaskMatch> tasks;
+
     public NiceHomeworkTaskResponse() {
     }
 
@@ -36,6 +47,13 @@ public class NiceHomeworkTaskResponse {
         this.timestamp = timestamp;
     }
 
+    /** Multi-task response: task is the first of tasks (or "NoTaskFound"). */
+    public NiceHomeworkTaskResponse(String task, Instant timestamp, List<TaskMatch> tasks) {
+        this.task = task;
+        this.timestamp = timestamp;
+        this.tasks = tasks;
+    }
+
     // --- Getters & setters ---
 
     public String getTask() {
@@ -54,4 +72,12 @@ public class NiceHomeworkTaskResponse {
         this.timestamp = timestamp;
     }
 
+    public List<TaskMatch> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskMatch> tasks) {
+        this.tasks = tasks;
+    }
+
 }
@@ -1,7 +1,11 @@
 package com.example.nice_homeworkTask.exception;
 
 import com.example.nice_homeworkTask.dto.ErrorResponse;
+import com.example.nice_homeworkTask.latency.Stage;
+import com.example.nice_homeworkTask.latency.StageLatencies;
+import com.example.nice_homeworkTask.web.PreEncodedErrorResponses;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -25,8 +29,11 @@ import java.util.Map;
  * - Keeps controllers clean (no try/catch in each endpoint).
  *
  * Handled here:
+ * - RequestValidationException -> hand-written request validation failed -> 400
+ * (with per-field errors), body taken from PreEncodedErrorResponses.
  * - MethodArgumentNotValidException -> Bean Validation failed on request DTO ->
  * 400 (with per-field errors).
+ * - UnknownTenantException -> tenant has no task catalog -> 400.
  * - HttpMessageNotReadableException -> Malformed JSON / wrong field format
  * (e.g., bad Instant) -> 400.
  *
@@ -36,12 +43,42 @@ import java.util.Map;
  * Notes:
  * - @RestControllerAdvice applies to all @RestController classes.
  * - We add server time (Instant.now()) to help with debugging/log correlation.
+ * - The two common 400 bodies (validation, malformed JSON) are pre-encoded at
+ * startup; only the timestamp is written per request. The bytes are the same
+ * as Jackson would produce for the equivalent ErrorResponse.
+ * - Time spent in each handler (log + body) is the "error" stage of
+ * StageLatencies (/actuator/stages).
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final PreEncodedErrorResponses preEncoded;
+    private final StageLatencies stages;
+
+    public GlobalExceptionHandler(PreEncodedErrorResponses preEncoded, StageLatencies stages) {
+        this.preEncoded = preEncoded;
+        this.stages = stages;
+    }
+
+    /*
+     * Function that handle a request rejected by NiceHomeworkTaskRequestValidator.
+     * Same 400 "Validation failed" body as handleValidation, but pre-encoded:
+     * no map, no FieldError walk, no reflective serialization.
+     */
+    @ExceptionHandler(RequestValidationException.class)
+    public ResponseEntity<byte[]> handleRequestValidation(RequestValidationException ex) {
+        long start = stages.start();
+        log.warn("Validation failed (userId={}, sessionId={}): {}", MDC.get("userId"), MDC.get("sessionId"),
+                preEncoded.validationSummary(ex.getFailures())); // WARN log
+        byte[] body = preEncoded.validationFailed(ex.getFailures(), Instant.now());
+        stages.stop(Stage.ERROR, start);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /*
      * Function that handle Bean Validation failed (e.g., @NotBlank/@NotNull on the
      * request DTO).
@@ -50,6 +87,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
+        long start = stages.start();
 
         // Build a map of field -> validation message
         Map<String, String> errors = new HashMap<>();
@@ -59,6 +97,23 @@ public class GlobalExceptionHandler {
         log.warn("Validation failed (userId={}, sessionId={}): {}", MDC.get("userId"), MDC.get("sessionId"), errors); // WARN
                                                                                                                       // log
         ErrorResponse body = new ErrorResponse("Validation failed", errors, Instant.now());
+        stages.stop(Stage.ERROR, start);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    /*
+     * Function that handle a valid tenant id without a catalog.
+     * Return 400 with the tenant as the failing field.
+     */
+    @ExceptionHandler(UnknownTenantException.class)
+    public ResponseEntity<ErrorResponse> handleUnknownTenant(UnknownTenantException ex) {
+        long start = stages.start();
+        log.warn("Unknown tenant (userId={}, sessionId={}): {}", MDC.get("userId"), MDC.get("sessionId"),
+                ex.getTenant());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("tenant", ex.getMessage());
+        ErrorResponse body = new ErrorResponse("Unknown tenant", errors, Instant.now());
+        stages.stop(Stage.ERROR, start);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
@@ -68,15 +123,17 @@ public class GlobalExceptionHandler {
      * Example: timestamp is not ISO-8601. Return 400 with a helpful summary.
      */
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<ErrorResponse> handleNotReadable(HttpMessageNotReadableException ex) {
+    public ResponseEntity<byte[]> handleNotReadable(HttpMessageNotReadableException ex) {
+        long start = stages.start();
         String root = ex.getMostSpecificCause() != null ? ex.getMostSpecificCause().getMessage() : ex.getMessage();
         log.warn("Malformed request body (userId={}, sessionId={}): {}", MDC.get("userId"), MDC.get("sessionId"), root);
-        Map<String, String> errors = new HashMap<>();
-        errors.put("body", "Invalid JSON or field format");
-        errors.put("timestamp", "must be ISO-8601, e.g. 2025-08-21T12:00:00Z");
 
-        ErrorResponse body = new ErrorResponse("Malformed request body", errors, Instant.now());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+        // Pre-encoded { "message": "Malformed request body", "errors": {body, timestamp}, "timestamp": now }
+        byte[] body = preEncoded.malformedBody(Instant.now());
+        stages.stop(Stage.ERROR, start);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
 }
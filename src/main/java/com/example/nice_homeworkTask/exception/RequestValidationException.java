@@ -0,0 +1,23 @@
+package com.example.nice_homeworkTask.exception;
+
+/**
+ * Thrown by the controller when NiceHomeworkTaskRequestValidator rejects a
+ * request. Handled by GlobalExceptionHandler (400 "Validation failed").
+ *
+ * - failures: bit mask of the failing fields (see NiceHomeworkTaskRequestValidator).
+ * - No stack trace is captured: this is an expected, frequent outcome (legacy
+ * clients), not a bug, and filling the trace would cost more than the check.
+ */
+public class RequestValidationException extends RuntimeException {
+
+    private final int failures;
+
+    public RequestValidationException(int failures) {
+        super("Validation failed", null, false, false);
+        this.failures = failures;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+}
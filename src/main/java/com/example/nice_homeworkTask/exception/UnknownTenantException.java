@@ -0,0 +1,19 @@
+package com.example.nice_homeworkTask.exception;
+
+/**
+ * Thrown when a request names a tenant that has no task catalog.
+ * Mapped to 400 by GlobalExceptionHandler.
+ */
+public class UnknownTenantException extends RuntimeException {
+
+    private final String tenant;
+
+    public UnknownTenantException(String tenant) {
+        super("No task catalog for tenant '" + tenant + "'");
+        this.tenant = tenant;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.nice_homeworkTask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One attempt of the (simulated) external call made after a match. */
+@Name("com.example.nice_homeworkTask.ExternalCall")
+@Label("External Call Attempt")
+@Category({ "NICE HomeworkTask", "External" })
+@Description("One try of the external call (retried on failure)")
+@StackTrace(false)
+public final class ExternalCallEvent extends jdk.jfr.Event {
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,32 @@
+package com.example.nice_homeworkTask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One findFirstMatchTask call of a matching engine. */
+@Name("com.example.nice_homeworkTask.Match")
+@Label("Match")
+@Category({ "NICE HomeworkTask", "Classification" })
+@Description("Finding the task whose pattern matches first")
+@StackTrace(false)
+public final class MatchEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    public String engine;
+
+    @Label("Catalog")
+    public String catalog;
+
+    @Label("Text Length")
+    public int textLength;
+
+    @Label("Patterns Evaluated")
+    @Description("Pattern searches run (chunked matching: per chunk)")
+    public int patternsEvaluated;
+
+    @Label("Task")
+    public String task;
+}
@@ -0,0 +1,22 @@
+package com.example.nice_homeworkTask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Whitespace normalization of an utterance before matching. */
+@Name("com.example.nice_homeworkTask.Normalize")
+@Label("Normalize")
+@Category({ "NICE HomeworkTask", "Classification" })
+@Description("Collapsing whitespace runs in the utterance")
+@StackTrace(false)
+public final class NormalizeEvent extends jdk.jfr.Event {
+
+    @Label("Input Length")
+    public int inputLength;
+
+    @Label("Output Length")
+    public int outputLength;
+}
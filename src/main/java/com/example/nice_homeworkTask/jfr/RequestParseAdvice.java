@@ -0,0 +1,57 @@
+package com.example.nice_homeworkTask.jfr;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/*
+ * Emits RequestParseEvent around reading a NiceHomeworkTaskRequest body.
+ *
+ * The event is started before the converter runs and committed once the body is
+ * read (same thread). A body that fails to parse leaves no event; the 400 is
+ * visible in the request logs. Disabled event -> nothing is kept.
+ */
+@ControllerAdvice
+public class RequestParseAdvice extends RequestBodyAdviceAdapter {
+
+    private static final ThreadLocal<RequestParseEvent> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == NiceHomeworkTaskRequest.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestParseEvent event = new RequestParseEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            CURRENT.set(event);
+        } else {
+            CURRENT.remove(); // a previous body that failed to parse
+        }
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestParseEvent event = CURRENT.get();
+        if (event != null) {
+            CURRENT.remove();
+            event.end();
+            if (event.shouldCommit()) {
+                event.bodyType = body.getClass().getSimpleName();
+                event.commit();
+            }
+        }
+        return body;
+    }
+}
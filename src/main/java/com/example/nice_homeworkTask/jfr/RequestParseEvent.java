@@ -0,0 +1,19 @@
+package com.example.nice_homeworkTask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JSON body of a /suggestTask request read into NiceHomeworkTaskRequest (RequestParseAdvice). */
+@Name("com.example.nice_homeworkTask.RequestParse")
+@Label("Request Parse")
+@Category({ "NICE HomeworkTask", "Request" })
+@Description("Reading the JSON request body")
+@StackTrace(false)
+public final class RequestParseEvent extends jdk.jfr.Event {
+
+    @Label("Body Type")
+    public String bodyType;
+}
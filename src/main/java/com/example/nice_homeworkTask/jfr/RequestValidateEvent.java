@@ -0,0 +1,20 @@
+package com.example.nice_homeworkTask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Field validation of a /suggestTask request (NiceHomeworkTaskRequestValidator). */
+@Name("com.example.nice_homeworkTask.RequestValidate")
+@Label("Request Validate")
+@Category({ "NICE HomeworkTask", "Request" })
+@Description("Validating the request fields")
+@StackTrace(false)
+public final class RequestValidateEvent extends jdk.jfr.Event {
+
+    @Label("Failures")
+    @Description("Bit set of invalid fields (NiceHomeworkTaskRequestValidator constants), 0 = valid")
+    public int failures;
+}
@@ -0,0 +1,24 @@
+package com.example.nice_homeworkTask.latency;
+
+import java.util.Locale;
+
+/*
+ * Parts of a /suggestTask request timed separately by StageLatencies.
+ *
+ * - PARSE:     reading the JSON body (Jackson), StageTimingAdvice
+ * - VALIDATE:  NiceHomeworkTaskRequestValidator, in the controller
+ * - NORMALIZE: whitespace collapsing, in the service
+ * - MATCH:     cache lookup + matching engine (cache misses include the engine)
+ * - EXTERNAL:  the whole external call retry loop, first attempt to outcome
+ *              (retries run later on the retrier's thread, backoff included)
+ * - WRITE:     writing the response body (success or error), StageTimingAdvice
+ * - ERROR:     building an error response in GlobalExceptionHandler
+ */
+public enum Stage {
+    PARSE, VALIDATE, NORMALIZE, MATCH, EXTERNAL, WRITE, ERROR;
+
+    /** Name in the report: "parse", "validate", ... */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.nice_homeworkTask.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Latency histograms per request Stage, reported per interval and since start.
+ *
+ * Rule:
+ * - Request threads record into one HdrHistogram Recorder per stage: a
+ *   wait-free atomic increment, nothing allocated, no lock shared with the
+ *   reader.
+ * - Every interval, rollover() swaps each recorder's active histogram for the
+ *   (recycled) previous one and keeps:
+ *   - last:  the interval just finished
+ *   - total: everything since startup (interval histograms added up)
+ *   The swap only makes the reader wait for writers already inside record().
+ * - Values are nanoseconds in [1, 60 s] with 2 significant digits; longer ones
+ *   count as 60 s. Report values are microseconds (like /actuator/shadow).
+ * - Disabled: start() returns 0 and nothing is recorded or scheduled.
+ *
+ * Usage: long t = stages.start(); ...; stages.stop(Stage.MATCH, t);
+ */
+@Component
+public class StageLatencies implements DisposableBean {
+
+    private static final long HIGHEST = TimeUnit.SECONDS.toNanos(60);
+    private static final int DIGITS = 2;
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final boolean enabled;
+    private final Duration interval;
+    private final Recorder[] recorders = new Recorder[STAGES.length];
+    // Reader side, guarded by this; last[s] == null until the first rollover
+    private final Histogram[] last = new Histogram[STAGES.length];
+    private final Histogram[] total = new Histogram[STAGES.length];
+    private Instant lastEnd;
+    private final ScheduledExecutorService reporter;
+
+    @Autowired
+    public StageLatencies(@Value("${suggest-task.stages.enabled:true}") boolean enabled,
+            @Value("${suggest-task.stages.interval:PT10S}") Duration interval) {
+        this(enabled, interval, enabled && interval.toNanos() > 0);
+    }
+
+    /** schedule=false: intervals end only when rollover() is called (tests). */
+    public StageLatencies(boolean enabled, Duration interval, boolean schedule) {
+        this.enabled = enabled;
+        this.interval = interval;
+        for (int s = 0; s < STAGES.length; s++) {
+            recorders[s] = new Recorder(1, HIGHEST, DIGITS);
+            total[s] = new Histogram(1, HIGHEST, DIGITS);
+        }
+        this.lastEnd = Instant.now();
+        if (schedule) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "stage-latencies");
+                t.setDaemon(true);
+                return t;
+            });
+            long nanos = interval.toNanos();
+            reporter.scheduleAtFixedRate(this::rollover, nanos, nanos, TimeUnit.NANOSECONDS);
+        } else {
+            reporter = null;
+        }
+    }
+
+    /** Records nothing (services built without Spring). */
+    public static StageLatencies disabled() {
+        return new StageLatencies(false, Duration.ZERO, false);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /** Start timestamp for stop() (0 when disabled: no clock read). */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Records the time since start (from start()). */
+    public void stop(Stage stage, long start) {
+        if (enabled) {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /** Records a duration measured by the caller. */
+    public void record(Stage stage, long nanos) {
+        if (enabled) {
+            recorders[stage.ordinal()].recordValue(Math.max(1, Math.min(nanos, HIGHEST)));
+        }
+    }
+
+    /** Ends the current interval: it becomes "last" and is added to "total". */
+    public synchronized void rollover() {
+        for (int s = 0; s < STAGES.length; s++) {
+            // the previous "last" is handed back to the recorder for reuse
+            Histogram finished = recorders[s].getIntervalHistogram(last[s]);
+            total[s].add(finished);
+            last[s] = finished;
+        }
+        lastEnd = Instant.now();
+    }
+
+    /** What /actuator/stages returns. */
+    public synchronized Report report() {
+        Map<String, StageReport> stages = new LinkedHashMap<>();
+        for (int s = 0; s < STAGES.length; s++) {
+            stages.put(STAGES[s].key(), new StageReport(Summary.of(last[s]), Summary.of(total[s])));
+        }
+        return new Report(enabled, interval, lastEnd, stages);
+    }
+
+    @Override
+    public void destroy() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+    }
+
+    /** Latency summary in microseconds. */
+    public record Summary(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static Summary of(Histogram h) {
+            if (h == null || h.getTotalCount() == 0) {
+                return new Summary(0, 0, 0, 0, 0, 0, 0);
+            }
+            double[] p = new double[PERCENTILES.length];
+            for (int i = 0; i < p.length; i++) {
+                p[i] = micros(h.getValueAtPercentile(PERCENTILES[i]));
+            }
+            return new Summary(h.getTotalCount(), h.getMean() / 1000.0, p[0], p[1], p[2], p[3],
+                    micros(h.getMaxValue()));
+        }
+
+        private static double micros(long nanos) {
+            return nanos / 1000.0;
+        }
+    }
+
+    /** last = the last finished interval (ending at Report.lastIntervalEnd), total = since startup. */
+    public record StageReport(Summary last, Summary total) {
+    }
+
+    public record Report(boolean enabled, Duration interval, Instant lastIntervalEnd,
+            Map<String, StageReport> stages) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.nice_homeworkTask.latency;
+
+import com.example.nice_homeworkTask.controller.NiceHomeworkTaskController;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.exception.GlobalExceptionHandler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Type;
+
+/*
+ * Times the PARSE and WRITE stages of /suggestTask (StageLatencies).
+ *
+ * - PARSE: from beforeBodyRead to afterBodyRead of the NiceHomeworkTaskRequest
+ *   body (Jackson). A body that fails to parse is not recorded (its ERROR is).
+ * - WRITE: from beforeBodyWrite (bodies returned by NiceHomeworkTaskController
+ *   or GlobalExceptionHandler) to afterCompletion of the request, i.e.
+ *   serialization plus writing the bytes. Registered as an interceptor on
+ *   /suggestTask by WebConfig.
+ * The start times live in a per-thread long[] (request processing stays on one
+ * thread), cleared at preHandle and afterCompletion.
+ */
+@ControllerAdvice
+public class StageTimingAdvice extends RequestBodyAdviceAdapter
+        implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final int PARSE = 0;
+    private static final int WRITE = 1;
+
+    private static final ThreadLocal<long[]> STARTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final StageLatencies stages;
+
+    public StageTimingAdvice(StageLatencies stages) {
+        this.stages = stages;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long[] starts = STARTS.get();
+        starts[PARSE] = 0;
+        starts[WRITE] = 0;
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == NiceHomeworkTaskRequest.class && stages.enabled();
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        STARTS.get()[PARSE] = stages.start();
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        long[] starts = STARTS.get();
+        if (starts[PARSE] != 0) {
+            stages.stop(Stage.PARSE, starts[PARSE]);
+            starts[PARSE] = 0;
+        }
+        return body;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Class<?> type = returnType.getContainingClass();
+        return stages.enabled()
+                && (type == NiceHomeworkTaskController.class || type == GlobalExceptionHandler.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        STARTS.get()[WRITE] = stages.start();
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        long[] starts = STARTS.get();
+        if (starts[WRITE] != 0) {
+            stages.stop(Stage.WRITE, starts[WRITE]);
+        }
+        starts[PARSE] = 0;
+        starts[WRITE] = 0;
+    }
+}
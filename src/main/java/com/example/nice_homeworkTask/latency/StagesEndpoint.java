@@ -0,0 +1,25 @@
+package com.example.nice_homeworkTask.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/*
+ * GET /actuator/stages: latency percentiles per request stage
+ * (last finished interval and since startup).
+ */
+@Component
+@Endpoint(id = "stages")
+public class StagesEndpoint {
+
+    private final StageLatencies stages;
+
+    public StagesEndpoint(StageLatencies stages) {
+        this.stages = stages;
+    }
+
+    @ReadOperation
+    public StageLatencies.Report report() {
+        return stages.report();
+    }
+}
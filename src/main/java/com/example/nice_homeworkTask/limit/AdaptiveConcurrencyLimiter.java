@@ -0,0 +1,141 @@
+package com.example.nice_homeworkTask.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Adaptive concurrency limit driven by observed latency (gradient algorithm).
+ *
+ * Rule:
+ * - Keeps two latency estimates: a short-term one (average of the last window of
+ *   samples) and a long-term one (slow exponential average = "healthy" latency).
+ * - gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit  = limit * gradient + sqrt(limit)        (sqrt = small queue allowance)
+ *   limit     = smoothed towards newLimit, kept in [minLimit, maxLimit]
+ *   Latency at the long-term level -> gradient 1 -> the limit grows by sqrt(limit).
+ *   Latency rising -> gradient < 1 -> the limit shrinks, at most by half per window.
+ * - While fewer than half the permits are in use, samples don't move the limit
+ *   (low load says nothing about capacity).
+ * - If the long-term estimate is more than 2x the short-term one (recovered from a
+ *   slow period), it decays quickly so the limit can grow again.
+ *
+ * Two levels of pressure (see ConcurrencyLimitFilter):
+ * - inFlight >= degradeRatio * limit -> shouldDegrade(): skip optional work
+ * - inFlight >= limit                -> tryAcquire() fails: reject
+ *
+ * Thread-safe. tryAcquire is lock-free; onSample takes a short lock per sample.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double degradeRatio;
+    private final int windowSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this.
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windowSumNanos;
+    private int windowCount;
+    private long samples;
+
+    /**
+     * @param initialLimit starting limit
+     * @param minLimit     never go below (keeps some throughput even when everything is slow)
+     * @param maxLimit     never go above
+     * @param tolerance    how much latency increase (vs. the long-term level) is still fine, e.g. 1.5
+     * @param smoothing    0..1, how fast the limit follows the computed value, e.g. 0.2
+     * @param degradeRatio fraction of the limit at which optional work is skipped, e.g. 0.75
+     * @param windowSize   samples averaged into one short-term latency estimate
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double smoothing, double degradeRatio, int windowSize) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Need 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.degradeRatio = degradeRatio;
+        this.windowSize = Math.max(1, windowSize);
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /** Takes a permit if in-flight work is below the limit. Call release() when done. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** True when optional work should be skipped (in-flight close to the limit). */
+    public boolean shouldDegrade() {
+        return inFlight.get() >= degradeRatio * limit;
+    }
+
+    /** Returns a permit. rttNanos = how long the work took; it adjusts the limit. */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightBefore);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        samples++;
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        }
+        windowSumNanos += rttNanos;
+        if (++windowCount < windowSize) {
+            return;
+        }
+        double shortRtt = (double) windowSumNanos / windowCount;
+        windowSumNanos = 0;
+        windowCount = 0;
+
+        // Long-term "healthy" latency: slow average, fast decay after recovery
+        longRttNanos = longRttNanos * 0.99 + shortRtt * 0.01;
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.9;
+        }
+
+        // Underused: the observed latency says nothing about our capacity
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** Long-term latency estimate in nanoseconds (0 before the first sample). */
+    public synchronized long getLongRttNanos() {
+        return (long) longRttNanos;
+    }
+
+    public synchronized long getSamples() {
+        return samples;
+    }
+}
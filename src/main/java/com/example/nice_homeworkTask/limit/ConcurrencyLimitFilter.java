@@ -0,0 +1,87 @@
+package com.example.nice_homeworkTask.limit;
+
+import com.example.nice_homeworkTask.web.PreEncodedErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/*
+ * Load shedding for /suggestTask in front of the controller (registered in WebConfig).
+ *
+ * Rule (cheapest reaction first):
+ * 1) In-flight requests near the adaptive limit -> the request is marked
+ *    DEGRADED: it is still classified, but the optional external call is skipped
+ *    (the controller reads the attribute). This alone usually brings latency back.
+ * 2) In-flight requests at the limit -> 503 right away, before any body parsing,
+ *    with a pre-encoded ErrorResponse body and "Retry-After: 1".
+ * - Each admitted request's total time is a latency sample for the limiter.
+ *
+ * Metrics: suggest_task.limiter.limit / .in_flight (gauges),
+ *          suggest_task.limiter.rejected / .degraded (counters).
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /** Request attribute (Boolean.TRUE) telling the controller to skip optional work. */
+    public static final String DEGRADED = "com.example.nice_homeworkTask.limit.ConcurrencyLimitFilter.DEGRADED";
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final PreEncodedErrorResponses errorBodies;
+    private final Counter rejected;
+    private final Counter degraded;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, PreEncodedErrorResponses errorBodies,
+            MeterRegistry meters) {
+        this.limiter = limiter;
+        this.errorBodies = errorBodies;
+        this.rejected = meters.counter("suggest_task.limiter.rejected");
+        this.degraded = meters.counter("suggest_task.limiter.degraded");
+        Gauge.builder("suggest_task.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(meters);
+        Gauge.builder("suggest_task.limiter.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight).register(meters);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            log.warn("Rejected /suggestTask: concurrency limit {} reached", limiter.getLimit());
+            byte[] body = errorBodies.overloaded(Instant.now());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (limiter.shouldDegrade()) {
+                degraded.increment();
+                request.setAttribute(DEGRADED, Boolean.TRUE);
+            }
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.nice_homeworkTask.live;
+
+import com.example.nice_homeworkTask.matching.IncrementalTaskMatcher;
+import com.example.nice_homeworkTask.matching.StemmingTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+
+/*
+ * WebSocket /suggestTask/live: task suggestions while the user types.
+ *
+ * Protocol (JSON text frames):
+ * - client -> {"op":"append","text":"..."}   text typed at the end
+ *             {"op":"delete","count":n}      last n chars removed (UTF-16 units,
+ *                                            like JavaScript string lengths)
+ *             {"op":"clear"}                 start over
+ * - server -> {"task":"..."} only when the suggestion changes (it starts as
+ *             NoTaskFound, which is not sent)
+ *             {"error":"..."} for a message it can't apply (the text is unchanged)
+ *
+ * The task after each edit is what POST /suggestTask would return for the text
+ * typed so far (built-in catalog, the configured live matcher, no external call).
+ * Per-session state is an IncrementalTaskMatcher, so an edit costs about its own
+ * size, not the text's. Every engine gives the regex answer except stemming
+ * (suggest-task.matching.stemming=true): then the live matcher is run on the
+ * whole normalized text after each edit (correct, no longer incremental).
+ * Text longer than suggest-task.live.max-length closes the session (1009).
+ */
+@Component
+public class LiveSuggestHandler extends TextWebSocketHandler {
+
+    private static final String STATE = LiveSuggestHandler.class.getName() + ".STATE";
+    private static final String TASK = LiveSuggestHandler.class.getName() + ".TASK";
+
+    private final TaskCatalog catalog = NiceHomeworkTaskService.catalog();
+    private final ObjectMapper objectMapper;
+    private final int maxLength;
+    // Live matcher whose answers differ from the regex ones (stemming); null = incremental answers
+    private final TaskMatcher wholeText;
+
+    @Autowired
+    public LiveSuggestHandler(ObjectMapper objectMapper,
+            @Value("${suggest-task.live.max-length:65536}") int maxLength,
+            ObjectProvider<TaskMatcher> liveTaskMatcher) {
+        this(objectMapper, maxLength, liveTaskMatcher.getIfUnique());
+    }
+
+    /** liveTaskMatcher: the service's engine (null -> regex). */
+    public LiveSuggestHandler(ObjectMapper objectMapper, int maxLength, TaskMatcher liveTaskMatcher) {
+        this.objectMapper = objectMapper;
+        this.maxLength = maxLength;
+        this.wholeText = liveTaskMatcher instanceof StemmingTaskMatcher ? liveTaskMatcher : null;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.getAttributes().put(STATE, new IncrementalTaskMatcher(catalog));
+        session.getAttributes().put(TASK, TaskMatcher.NO_TASK);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        IncrementalTaskMatcher matcher = (IncrementalTaskMatcher) session.getAttributes().get(STATE);
+        String before = (String) session.getAttributes().get(TASK);
+
+        JsonNode edit;
+        try {
+            edit = objectMapper.readTree(message.getPayload());
+        } catch (JsonProcessingException e) {
+            sendError(session, "Malformed JSON");
+            return;
+        }
+        String op = edit.path("op").asText();
+        switch (op) {
+            case "append" -> {
+                JsonNode text = edit.get("text");
+                if (text == null || !text.isTextual()) {
+                    sendError(session, "append needs a \"text\" string");
+                    return;
+                }
+                if (matcher.rawLength() + text.asText().length() > maxLength) {
+                    session.close(CloseStatus.TOO_BIG_TO_PROCESS.withReason("Text longer than " + maxLength));
+                    return;
+                }
+                matcher.append(text.asText());
+            }
+            case "delete" -> {
+                JsonNode count = edit.get("count");
+                if (count == null || !count.canConvertToInt() || count.asInt() < 0) {
+                    sendError(session, "delete needs a non-negative \"count\"");
+                    return;
+                }
+                matcher.delete(count.asInt());
+            }
+            case "clear" -> matcher.clear();
+            default -> {
+                sendError(session, "Unknown op '" + op + "' (append, delete, clear)");
+                return;
+            }
+        }
+
+        String task = wholeText == null ? matcher.task() : wholeText.findFirstMatchTask(matcher.text());
+        if (!task.equals(before)) {
+            session.getAttributes().put(TASK, task);
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("task", task))));
+        }
+    }
+
+    private void sendError(WebSocketSession session, String error) throws IOException {
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("error", error))));
+    }
+}
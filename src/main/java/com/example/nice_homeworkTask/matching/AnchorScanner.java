@@ -0,0 +1,25 @@
+package com.example.nice_homeworkTask.matching;
+
+/*
+ * Finds candidate match starts for AnchoredTaskMatcher in a block of chars.
+ *
+ * A candidate is a position j where:
+ * - one of the keyword prefixes starts (first two chars of a pattern's first
+ *   keyword; compared as (c | 0x20), which folds ASCII letters and never maps a
+ *   non-ASCII char onto ASCII), and
+ * - a[j - 1] is not an ASCII word char [A-Za-z0-9_]: keyword patterns begin with
+ *   \bWORD, so no match starts right after one.
+ * Candidates are a superset of match starts (a non-ASCII letter before j, a
+ * case-sensitive pattern ...); the caller verifies each one.
+ */
+interface AnchorScanner {
+
+    /**
+     * First candidate j in [from, to), or -1. Reads a[j - 1] (from >= 1) and
+     * a[j + 1] while j + 1 < to; a two-char prefix never matches at to - 1.
+     */
+    int next(char[] a, int from, int to);
+
+    /** "scalar" or "vector-<bits>" (for logs and the benchmark). */
+    String name();
+}
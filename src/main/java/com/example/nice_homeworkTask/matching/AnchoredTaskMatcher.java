@@ -0,0 +1,243 @@
+package com.example.nice_homeworkTask.matching;
+
+import com.example.nice_homeworkTask.jfr.MatchEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Matching engine for long texts: scan once for the few places a keyword can
+ * start, verify only there.
+ *
+ * Rule:
+ * - Every pattern of a keyword shape (KeywordShape) starts with \bWORD; its
+ *   anchor is the first two chars of that word. An AnchorScanner walks the text
+ *   left to right (in blocks of BLOCK chars copied to a small char[]) and stops
+ *   at each candidate: an anchor at a word start.
+ * - At a candidate i, the patterns with that anchor are verified: their whole
+ *   first keyword (folded, not followed by an ASCII word char) is compared
+ *   first, which rejects near misses ("refresh" for "reset") cheaply, then
+ *   java.util.regex lookingAt() on the region [i, n), transparent bounds
+ *   (\b and lookarounds see the whole text). The first verified position is the
+ *   earliest match start; ties -> catalog order. Same result as RegexTaskMatcher.
+ * - Patterns of other shapes run a normal find() first; the scan then stops at
+ *   their earliest start.
+ * - Scanner: VectorAnchorScanner (jdk.incubator.vector) when the module is
+ *   present and requested, otherwise ScalarAnchorScanner. Same candidates.
+ * - findAllMatches (multi-task extraction) is RegexTaskMatcher's scan.
+ */
+public final class AnchoredTaskMatcher implements TaskMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AnchoredTaskMatcher.class);
+
+    static final int BLOCK = 4096;
+
+    private final TaskCatalog catalog;
+    private final Pattern[] patterns;
+    private final int[] taskOf;
+    // Folded first keyword per pattern (null = unanchored)
+    private final char[][] keyword;
+    // Per anchor: folded first and second char (0 = one-char word), patterns (ascending)
+    private final char[] first;
+    private final char[] second;
+    private final int[][] anchored;
+    private final int[] unanchored;
+    private final AnchorScanner scanner;
+    // Multi-task extraction: the regex scan over the same compiled patterns
+    private final RegexTaskMatcher extraction;
+
+    /** @param vector use the Vector API scanner if jdk.incubator.vector is available */
+    public AnchoredTaskMatcher(TaskCatalog catalog, boolean vector) {
+        this.catalog = catalog;
+        this.extraction = new RegexTaskMatcher(catalog);
+        this.patterns = new Pattern[catalog.patternCount()];
+        this.taskOf = new int[patterns.length];
+        this.keyword = new char[patterns.length][];
+        Map<Integer, List<Integer>> byAnchor = new LinkedHashMap<>();
+        List<Integer> other = new ArrayList<>();
+        int k = 0;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                patterns[k] = p;
+                taskOf[k] = t;
+                KeywordShape shape = KeywordShape.parse(p);
+                if (shape == null) {
+                    other.add(k);
+                } else {
+                    String word = shape.first;
+                    keyword[k] = new char[word.length()];
+                    for (int c = 0; c < word.length(); c++) {
+                        keyword[k][c] = (char) (word.charAt(c) | 0x20);
+                    }
+                    int c0 = word.charAt(0) | 0x20;
+                    int c1 = word.length() > 1 ? word.charAt(1) | 0x20 : 0;
+                    byAnchor.computeIfAbsent(c0 << 16 | c1, a -> new ArrayList<>()).add(k);
+                }
+                k++;
+            }
+        }
+        this.first = new char[byAnchor.size()];
+        this.second = new char[byAnchor.size()];
+        this.anchored = new int[byAnchor.size()][];
+        int q = 0;
+        for (Map.Entry<Integer, List<Integer>> e : byAnchor.entrySet()) {
+            first[q] = (char) (e.getKey() >>> 16);
+            second[q] = (char) (e.getKey() & 0xffff);
+            anchored[q++] = e.getValue().stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.unanchored = other.stream().mapToInt(Integer::intValue).toArray();
+        this.scanner = createScanner(vector);
+        log.info("Catalog {}: {} anchors for {} of {} patterns, {} scanner", catalog.name(), first.length,
+                patterns.length - unanchored.length, patterns.length, scanner.name());
+    }
+
+    /** True if jdk.incubator.vector is in the boot layer (java --add-modules jdk.incubator.vector). */
+    public static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    private AnchorScanner createScanner(boolean vector) {
+        if (vector && first.length > 0) {
+            if (vectorAvailable()) {
+                try {
+                    // By name: VectorAnchorScanner is compiled on its own (pom.xml, vector-scanner)
+                    return (AnchorScanner) Class.forName(AnchorScanner.class.getPackageName() + ".VectorAnchorScanner")
+                            .getDeclaredConstructor(char[].class, char[].class).newInstance(first, second);
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    log.warn("Vector API scanner unavailable, scanning scalar: {}", e.toString());
+                }
+            } else {
+                log.info("jdk.incubator.vector not present (java --add-modules jdk.incubator.vector), scanning scalar");
+            }
+        }
+        return new ScalarAnchorScanner(first, second);
+    }
+
+    @Override
+    public String findFirstMatchTask(String text) {
+        MatchEvent event = new MatchEvent();
+        event.begin();
+        int n = text.length();
+        int bestPos = Integer.MAX_VALUE;
+        int bestK = Integer.MAX_VALUE;
+        int evaluated = 0;
+        for (int k : unanchored) {
+            Matcher m = patterns[k].matcher(text);
+            evaluated++;
+            if (m.find() && m.start() < bestPos) {
+                bestPos = m.start();
+                bestK = k;
+            }
+        }
+
+        if (first.length > 0 && n > 0) {
+            Matcher[] matchers = new Matcher[patterns.length];
+            // buf[0] = char before the block (' ' at the text start), then the block + one char
+            char[] buf = new char[Math.min(n, BLOCK) + 2];
+            scan:
+            for (int p = 0; p < n && p <= bestPos; p += BLOCK) {
+                int end = Math.min(n, p + BLOCK + 1);
+                buf[0] = p == 0 ? ' ' : text.charAt(p - 1);
+                text.getChars(p, end, buf, 1);
+                int to = end - p + 1;
+                for (int j = scanner.next(buf, 1, to); j >= 0; j = scanner.next(buf, j + 1, to)) {
+                    int i = p + j - 1;
+                    if (i >= p + BLOCK || i > bestPos) {
+                        break;
+                    }
+                    // at bestPos only an earlier pattern (catalog order) can still win
+                    int limit = i == bestPos ? bestK : Integer.MAX_VALUE;
+                    for (int q = 0; q < first.length; q++) {
+                        if (!anchorAt(q, buf, j, to)) {
+                            continue;
+                        }
+                        for (int k : anchored[q]) {
+                            if (k >= limit) {
+                                break;
+                            }
+                            if (!keywordAt(k, text, i)) {
+                                continue;
+                            }
+                            evaluated++;
+                            if (lookingAt(matchers, k, text, i)) {
+                                limit = k;
+                                break;
+                            }
+                        }
+                    }
+                    if (limit < Integer.MAX_VALUE) {
+                        bestPos = i;
+                        bestK = limit;
+                        break scan;
+                    }
+                }
+            }
+        }
+        String task = bestK < Integer.MAX_VALUE ? catalog.tasks().get(taskOf[bestK]) : NO_TASK;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = name();
+            event.catalog = catalog.name();
+            event.textLength = n;
+            event.patternsEvaluated = evaluated;
+            event.task = task;
+            event.commit();
+        }
+        return task;
+    }
+
+    private boolean anchorAt(int q, char[] buf, int j, int to) {
+        return (buf[j] | 0x20) == first[q]
+                && (second[q] == 0 || (j + 1 < to && (buf[j + 1] | 0x20) == second[q]));
+    }
+
+    // First keyword of pattern k at i, compared like the scanners (a superset of the regex)
+    private boolean keywordAt(int k, String text, int i) {
+        char[] word = keyword[k];
+        int end = i + word.length;
+        if (end > text.length() || (end < text.length() && ScalarAnchorScanner.isAsciiWord(text.charAt(end)))) {
+            return false;
+        }
+        for (int c = 2; c < word.length; c++) {
+            if ((text.charAt(i + c) | 0x20) != word[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Pattern k matches starting exactly at i
+    private boolean lookingAt(Matcher[] matchers, int k, String text, int i) {
+        Matcher m = matchers[k];
+        if (m == null) {
+            m = patterns[k].matcher(text);
+            m.useTransparentBounds(true);
+            m.useAnchoringBounds(false);
+            matchers[k] = m;
+        }
+        m.region(i, text.length());
+        return m.lookingAt();
+    }
+
+    /** "scalar" or "vector-<bits>": the scanner in use. */
+    public String scanner() {
+        return scanner.name();
+    }
+
+    @Override
+    public List<TaskMatch> findAllMatches(String text) {
+        return extraction.findAllMatches(text);
+    }
+
+    @Override
+    public String name() {
+        return "anchored";
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.nice_homeworkTask.matching;
+
+import com.example.nice_homeworkTask.jfr.MatchEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Matching engine with code generated for the catalog's patterns.
+ *
+ * Rule:
+ * - At construction (catalog load), every pattern of a known keyword shape
+ *   (KeywordShape) is compiled into a method of one generated hidden class
+ *   (MatcherClassGenerator): unrolled keyword checks and a gap counter
+ *   instead of the generic regex interpreter.
+ * - Patterns of any other shape (or all of them, if generating the class
+ *   fails) are matched with java.util.regex, as in RegexTaskMatcher.
+ * - Same selection as RegexTaskMatcher: earliest match start, ties -> catalog
+ *   order. Generated code answers exactly what the regex would, including
+ *   \b next to non-ASCII text (delegated to the regex engine).
+ * - findAllMatches (multi-task extraction) is RegexTaskMatcher's scan.
+ */
+public final class BytecodeTaskMatcher implements TaskMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BytecodeTaskMatcher.class);
+
+    private final TaskCatalog catalog;
+    private final Pattern[] patterns;
+    private final int[] taskOf;
+    private final boolean[] compiled;
+    private final CompiledPatterns generated;
+    // Multi-task extraction: the regex scan over the same compiled patterns
+    private final RegexTaskMatcher extraction;
+
+    public BytecodeTaskMatcher(TaskCatalog catalog) {
+        this.catalog = catalog;
+        this.extraction = new RegexTaskMatcher(catalog);
+        this.patterns = new Pattern[catalog.patternCount()];
+        this.taskOf = new int[patterns.length];
+        KeywordShape[] shapes = new KeywordShape[patterns.length];
+        int k = 0;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                patterns[k] = p;
+                taskOf[k] = t;
+                shapes[k++] = KeywordShape.parse(p);
+            }
+        }
+
+        CompiledPatterns gen = null;
+        try {
+            byte[] bytes = MatcherClassGenerator.generate(shapes);
+            Class<?> type = MethodHandles.lookup().defineHiddenClass(bytes, true).lookupClass();
+            gen = (CompiledPatterns) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            log.warn("Catalog {}: generating matcher code failed, using java.util.regex only: {}", catalog.name(),
+                    e.toString());
+        }
+        this.generated = gen;
+        this.compiled = new boolean[patterns.length];
+        int count = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            compiled[i] = gen != null && shapes[i] != null;
+            if (compiled[i]) {
+                count++;
+            } else {
+                log.debug("Catalog {}: pattern '{}' left to java.util.regex", catalog.name(), patterns[i].pattern());
+            }
+        }
+        log.info("Catalog {}: {} of {} patterns compiled to bytecode", catalog.name(), count, patterns.length);
+    }
+
+    @Override
+    public String findFirstMatchTask(String text) {
+        MatchEvent event = new MatchEvent();
+        event.begin();
+        int bestPos = Integer.MAX_VALUE;
+        int bestTask = -1;
+        for (int k = 0; k < patterns.length; k++) {
+            int pos = start(k, text);
+            if (pos >= 0 && pos < bestPos) {
+                bestPos = pos;
+                bestTask = taskOf[k];
+            }
+        }
+        String task = bestTask >= 0 ? catalog.tasks().get(bestTask) : NO_TASK;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = name();
+            event.catalog = catalog.name();
+            event.textLength = text.length();
+            event.patternsEvaluated = patterns.length;
+            event.task = task;
+            event.commit();
+        }
+        return task;
+    }
+
+    /** Start of the first match of pattern k (flat catalog index) in text, or -1. */
+    public int start(int k, String text) {
+        if (compiled[k]) {
+            return generated.find(k, text);
+        }
+        Matcher m = patterns[k].matcher(text);
+        return m.find() ? m.start() : -1;
+    }
+
+    /** Number of patterns running as generated code (the rest use java.util.regex). */
+    public int compiledCount() {
+        int count = 0;
+        for (boolean c : compiled) {
+            count += c ? 1 : 0;
+        }
+        return count;
+    }
+
+    /** Patterns (flat, catalog order) as seen by start(). */
+    public List<Pattern> patterns() {
+        return List.of(patterns);
+    }
+
+    @Override
+    public List<TaskMatch> findAllMatches(String text) {
+        return extraction.findAllMatches(text);
+    }
+
+    @Override
+    public String name() {
+        return "bytecode";
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.nice_homeworkTask.matching;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * What a catalog's patterns do to each other, worked out when the catalog is
+ * loaded (TaskCatalog builds one for every catalog).
+ *
+ * Conflicts between patterns of different tasks:
+ * - AMBIGUOUS: both match at the same position of some text, so only the task
+ *   priority decides which task that text gets.
+ * - OVERLAP: the other pattern matches inside this one's match, starting later;
+ *   the earlier match always wins, so the other task is never seen there (and
+ *   multi-task extraction reports only the first).
+ * - DUPLICATE: the same regex (and flags) twice in one task.
+ * Each conflict comes with an example text. Examples are built from the
+ * keyword shapes (KeywordShape: "first [gap] second"): the first keyword, a
+ * space, the second keyword. Every pattern that could match in an example is
+ * run on it: those whose first keyword is a word of the example (an index by
+ * first word), plus the patterns without a keyword shape. So the cost grows with
+ * the catalog, not with its square. Patterns without a shape get no example of
+ * their own ("unverified"): conflicts where both sides are such patterns are
+ * not found, except exact duplicates.
+ *
+ * Priority (the task order every engine breaks same-position ties with): a
+ * catalog read from a file or an ordered map keeps its declared order. A map
+ * without an order (Map.of, HashMap) gets this deterministic one: in every
+ * AMBIGUOUS conflict the task with the longer match on the example is the more
+ * specific one and goes first; otherwise (and to break cycles: most net wins
+ * first) by task name.
+ *
+ * maxSpan per pattern: PatternSpans.maxSpan (longest match, for windowing).
+ *
+ * Logged when the catalog loads: a summary, and the first AMBIGUOUS conflicts
+ * as warnings (those are the ones where the priority changes an answer).
+ */
+public final class CatalogAnalysis {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogAnalysis.class);
+
+    // AMBIGUOUS conflicts logged one by one per catalog
+    private static final int LOGGED_CONFLICTS = 10;
+
+    public enum Kind { AMBIGUOUS, OVERLAP, DUPLICATE }
+
+    /** pattern (of task) vs otherPattern (of otherTask), shown on example. */
+    public record Conflict(Kind kind, String task, String pattern, String otherTask, String otherPattern,
+            String example) {
+    }
+
+    private final List<String> priority;
+    private final boolean declaredOrder;
+    private final List<Conflict> conflicts;
+    private final Map<String, int[]> spans;
+    private final int maxSpan;
+    private final int patterns;
+    private final int unverified;
+    private final long elapsedNanos;
+
+    private CatalogAnalysis(List<String> priority, boolean declaredOrder, List<Conflict> conflicts,
+            Map<String, int[]> spans, int maxSpan, int patterns, int unverified, long elapsedNanos) {
+        this.priority = priority;
+        this.declaredOrder = declaredOrder;
+        this.conflicts = conflicts;
+        this.spans = spans;
+        this.maxSpan = maxSpan;
+        this.patterns = patterns;
+        this.unverified = unverified;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Task order engines use (the declared one, or the analyzed one, see above). */
+    public List<String> priority() {
+        return priority;
+    }
+
+    /** True when priority() is the order the catalog was declared in. */
+    public boolean declaredOrder() {
+        return declaredOrder;
+    }
+
+    /** Every conflict found, sorted (kind, task, pattern, other task, other pattern). */
+    public List<Conflict> conflicts() {
+        return conflicts;
+    }
+
+    public long count(Kind kind) {
+        return conflicts.stream().filter(c -> c.kind() == kind).count();
+    }
+
+    /** PatternSpans.maxSpan of the task's pattern at this index. */
+    public int maxSpan(String task, int pattern) {
+        return spans.get(task)[pattern];
+    }
+
+    /** Longest maxSpan of the catalog, or PatternSpans.UNBOUNDED if any pattern is unbounded. */
+    public int maxSpan() {
+        return maxSpan;
+    }
+
+    /** Patterns without an example of their own (no keyword shape). */
+    public int unverified() {
+        return unverified;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** One line for the logs. */
+    public String summary() {
+        return String.format("%d tasks, %d patterns (%d unverified): %d ambiguous, %d overlapping, %d duplicate; "
+                + "max span %s; %s priority %s; analyzed in %d ms", priority.size(), patterns, unverified,
+                count(Kind.AMBIGUOUS), count(Kind.OVERLAP), count(Kind.DUPLICATE),
+                maxSpan == PatternSpans.UNBOUNDED ? "unbounded" : Integer.toString(maxSpan),
+                declaredOrder ? "declared" : "analyzed", abbreviate(priority), elapsedNanos / 1_000_000);
+    }
+
+    private static String abbreviate(List<String> tasks) {
+        return tasks.size() <= 8 ? tasks.toString()
+                : tasks.subList(0, 8).toString().replace("]", ", ... (" + tasks.size() + ")]");
+    }
+
+    /** Analyzes tasks/patterns (same order) and logs the result; declaredOrder: keep that task order. */
+    static CatalogAnalysis analyze(String catalog, List<String> tasks, List<List<Pattern>> patterns,
+            boolean declaredOrder) {
+        CatalogAnalysis analysis = analyze(tasks, patterns, declaredOrder);
+        log.info("Catalog {}: {}", catalog, analysis.summary());
+        int logged = 0;
+        for (Conflict c : analysis.conflicts) {
+            if (c.kind() != Kind.AMBIGUOUS) {
+                continue;
+            }
+            if (logged++ == LOGGED_CONFLICTS) {
+                log.warn("Catalog {}: ... {} more ambiguous patterns", catalog,
+                        analysis.count(Kind.AMBIGUOUS) - LOGGED_CONFLICTS);
+                break;
+            }
+            String winner = analysis.priority.indexOf(c.task()) < analysis.priority.indexOf(c.otherTask())
+                    ? c.task() : c.otherTask();
+            log.warn("Catalog {}: {} matches {} /{}/ and {} /{}/ at the same position; {} wins by priority",
+                    catalog, c.example() != null ? "'" + c.example() + "'" : "the same text", c.task(), c.pattern(),
+                    c.otherTask(), c.otherPattern(), winner);
+        }
+        return analysis;
+    }
+
+    private static CatalogAnalysis analyze(List<String> tasks, List<List<Pattern>> patterns, boolean declaredOrder) {
+        long start = System.nanoTime();
+        List<Pattern> flat = new ArrayList<>();
+        List<Integer> taskOf = new ArrayList<>();
+        Map<String, int[]> spans = new HashMap<>();
+        int maxSpan = 0;
+        for (int t = 0; t < tasks.size(); t++) {
+            int[] s = new int[patterns.get(t).size()];
+            for (int k = 0; k < s.length; k++) {
+                Pattern p = patterns.get(t).get(k);
+                flat.add(p);
+                taskOf.add(t);
+                s[k] = PatternSpans.maxSpan(p);
+                maxSpan = maxSpan == PatternSpans.UNBOUNDED || s[k] == PatternSpans.UNBOUNDED
+                        ? PatternSpans.UNBOUNDED : Math.max(maxSpan, s[k]);
+            }
+            spans.put(tasks.get(t), s);
+        }
+
+        // Examples per pattern, and patterns by (folded) first keyword
+        int n = flat.size();
+        List<List<String>> examples = new ArrayList<>(n);
+        Map<String, List<Integer>> byFirstWord = new HashMap<>();
+        List<Integer> unshaped = new ArrayList<>();
+        for (int k = 0; k < n; k++) {
+            KeywordShape shape = KeywordShape.parse(flat.get(k));
+            List<String> own = new ArrayList<>();
+            if (shape == null) {
+                unshaped.add(k);
+            } else {
+                byFirstWord.computeIfAbsent(firstWord(shape.first), w -> new ArrayList<>()).add(k);
+                for (String example : examples(shape)) {
+                    Matcher m = flat.get(k).matcher(example);
+                    if (m.lookingAt() && m.end() == example.length()) {
+                        own.add(example);
+                    }
+                }
+            }
+            examples.add(own);
+        }
+
+        Map<String, Conflict> found = new HashMap<>();
+        // Specificity: wins[a][b] = pattern pairs where task a had the longer same-position match than task b
+        Map<Integer, Map<Integer, Integer>> wins = new HashMap<>();
+        Set<String> won = new HashSet<>();
+        int unverified = 0;
+        for (int k = 0; k < n; k++) {
+            if (examples.get(k).isEmpty()) {
+                unverified++;
+            }
+            for (String example : examples.get(k)) {
+                Set<Integer> candidates = new TreeSet<>(unshaped);
+                for (String word : words(example)) {
+                    List<Integer> ks = byFirstWord.get(word);
+                    if (ks != null) {
+                        candidates.addAll(ks);
+                    }
+                }
+                int a = taskOf.get(k);
+                for (int other : candidates) {
+                    int b = taskOf.get(other);
+                    if (b == a) {
+                        continue;
+                    }
+                    Matcher m = flat.get(other).matcher(example);
+                    if (!m.find()) {
+                        continue;
+                    }
+                    if (m.start() == 0) {
+                        found.putIfAbsent("A:" + Math.min(k, other) + ":" + Math.max(k, other),
+                                conflict(Kind.AMBIGUOUS, tasks, flat, taskOf, k, other, example));
+                        // this pattern matched the whole example, the other one only a prefix of it
+                        if (m.end() < example.length() && won.add(k + ":" + other)) {
+                            wins.computeIfAbsent(a, x -> new HashMap<>()).merge(b, 1, Integer::sum);
+                        }
+                    } else {
+                        found.putIfAbsent("O:" + k + ":" + other,
+                                conflict(Kind.OVERLAP, tasks, flat, taskOf, k, other, example));
+                    }
+                }
+            }
+        }
+
+        // Same regex twice: across tasks AMBIGUOUS (even without an example), within a task DUPLICATE
+        Map<String, Integer> seen = new HashMap<>();
+        for (int k = 0; k < n; k++) {
+            String source = flat.get(k).flags() + "/" + flat.get(k).pattern();
+            Integer first = seen.putIfAbsent(source, k);
+            if (first == null) {
+                continue;
+            }
+            Kind kind = taskOf.get(first).equals(taskOf.get(k)) ? Kind.DUPLICATE : Kind.AMBIGUOUS;
+            found.putIfAbsent("A:" + first + ":" + k, conflict(kind, tasks, flat, taskOf, first, k,
+                    examples.get(k).isEmpty() ? null : examples.get(k).get(0)));
+        }
+
+        List<Conflict> conflicts = new ArrayList<>(found.values());
+        conflicts.sort(Comparator.comparing(Conflict::kind).thenComparing(Conflict::task)
+                .thenComparing(Conflict::pattern).thenComparing(Conflict::otherTask)
+                .thenComparing(Conflict::otherPattern));
+        List<String> priority = declaredOrder ? List.copyOf(tasks) : priority(tasks, wins);
+        return new CatalogAnalysis(priority, declaredOrder, List.copyOf(conflicts), spans, maxSpan, n, unverified,
+                System.nanoTime() - start);
+    }
+
+    private static Conflict conflict(Kind kind, List<String> tasks, List<Pattern> flat, List<Integer> taskOf,
+            int k, int other, String example) {
+        return new Conflict(kind, tasks.get(taskOf.get(k)), flat.get(k).pattern(), tasks.get(taskOf.get(other)),
+                flat.get(other).pattern(), example);
+    }
+
+    // The texts a keyword shape matches in full: "first", "first second", "first second" per alternative
+    private static List<String> examples(KeywordShape shape) {
+        if (shape.second.isEmpty()) {
+            return List.of(shape.first);
+        }
+        List<String> out = new ArrayList<>(shape.second.size());
+        for (KeywordShape.Alt alt : shape.second) {
+            out.add(shape.first + " " + alt.word());
+        }
+        return out;
+    }
+
+    private static String firstWord(String phrase) {
+        int space = phrase.indexOf(' ');
+        return (space < 0 ? phrase : phrase.substring(0, space)).toLowerCase();
+    }
+
+    private static Set<String> words(String example) {
+        Set<String> words = new HashSet<>();
+        for (String w : example.split("[^A-Za-z0-9]+")) {
+            if (!w.isEmpty()) {
+                words.add(w.toLowerCase());
+            }
+        }
+        return words;
+    }
+
+    // Tasks that won same-position ties first (Kahn's algorithm), ties and cycles broken by name
+    private static List<String> priority(List<String> tasks, Map<Integer, Map<Integer, Integer>> wins) {
+        Map<Integer, Integer> beatenBy = new HashMap<>();
+        for (Map<Integer, Integer> losers : wins.values()) {
+            for (int loser : losers.keySet()) {
+                beatenBy.merge(loser, 1, Integer::sum);
+            }
+        }
+        Comparator<Integer> byName = Comparator.comparing(tasks::get);
+        TreeSet<Integer> remaining = new TreeSet<>(byName);
+        for (int t = 0; t < tasks.size(); t++) {
+            remaining.add(t);
+        }
+        List<String> order = new ArrayList<>(tasks.size());
+        while (!remaining.isEmpty()) {
+            Integer next = null;
+            for (int t : remaining) {
+                if (beatenBy.getOrDefault(t, 0) == 0) {
+                    next = t;
+                    break;
+                }
+            }
+            if (next == null) { // cycle: most net wins among the remaining tasks
+                int best = Integer.MIN_VALUE;
+                for (int t : remaining) {
+                    int net = netWins(t, remaining, wins);
+                    if (net > best) {
+                        best = net;
+                        next = t;
+                    }
+                }
+            }
+            remaining.remove(next);
+            order.add(tasks.get(next));
+            for (int loser : wins.getOrDefault(next, Map.of()).keySet()) {
+                beatenBy.merge(loser, -1, Integer::sum);
+            }
+        }
+        return List.copyOf(order);
+    }
+
+    private static int netWins(int t, Set<Integer> among, Map<Integer, Map<Integer, Integer>> wins) {
+        int net = 0;
+        for (Map.Entry<Integer, Integer> e : wins.getOrDefault(t, Map.of()).entrySet()) {
+            if (among.contains(e.getKey())) {
+                net += e.getValue();
+            }
+        }
+        for (int other : among) {
+            net -= wins.getOrDefault(other, Map.of()).getOrDefault(t, 0);
+        }
+        return net;
+    }
+
+    /** The map's entries in priority order. */
+    static Map<String, List<Pattern>> inPriorityOrder(Map<String, List<Pattern>> taskPatterns, List<String> priority) {
+        Map<String, List<Pattern>> ordered = new LinkedHashMap<>();
+        for (String task : priority) {
+            ordered.put(task, taskPatterns.get(task));
+        }
+        return ordered;
+    }
+}
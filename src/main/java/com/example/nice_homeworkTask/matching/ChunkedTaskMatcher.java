@@ -0,0 +1,197 @@
+package com.example.nice_homeworkTask.matching;
+
+import com.example.nice_homeworkTask.jfr.MatchEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Parallel matching for very long texts (e.g. transcribed calls).
+ *
+ * Rule:
+ * - Text shorter than the threshold -> plain sequential scan (RegexTaskMatcher);
+ *   short requests never pay for forking.
+ * - Longer text is cut into chunks of chunkSize match *start* positions. Chunk k
+ *   searches the region [start_k, start_k+1 + maxSpan): any match starting in the
+ *   chunk fits in it, because no pattern matches more than maxSpan chars
+ *   (PatternSpans, on normalized text).
+ * - Regions use transparent bounds (lookarounds and \b see the text around the
+ *   region) and no anchoring bounds (^/$ don't match at region edges), so a match
+ *   found in a region is a match of the whole text.
+ * - Chunks run on a ForkJoin pool; each returns the earliest start per task,
+ *   the minimum over chunks is taken, and the task is picked exactly like the
+ *   sequential loop (earliest start, ties -> catalog order). Same result as
+ *   RegexTaskMatcher, always.
+ * - A chunk starting after the best match already found is skipped.
+ * - Chunk edges never split a surrogate pair (a scan never starts a match there).
+ * - If some pattern has no bounded span, or the pool has a single thread (nothing
+ *   to gain, and the waiting caller competes with the worker), it is sequential.
+ */
+public final class ChunkedTaskMatcher implements TaskMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedTaskMatcher.class);
+
+    public static final int DEFAULT_THRESHOLD = 64 * 1024;
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final TaskCatalog catalog;
+    private final RegexTaskMatcher sequential;
+    private final int threshold;
+    private final int chunkSize;
+    private final int maxSpan;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param threshold text length (chars) from which chunks are matched in parallel
+     * @param chunkSize match start positions per chunk
+     */
+    public ChunkedTaskMatcher(TaskCatalog catalog, int threshold, int chunkSize, ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.sequential = new RegexTaskMatcher(catalog);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.threshold = Math.max(threshold, 2 * this.chunkSize);
+        this.pool = pool;
+        this.maxSpan = catalog.analysis().maxSpan();
+        if (maxSpan == PatternSpans.UNBOUNDED) {
+            log.warn("Catalog {} has a pattern without a bounded match length; chunked matching is off",
+                    catalog.name());
+        }
+    }
+
+    /** Longest match of any catalog pattern (the chunk overlap), or PatternSpans.UNBOUNDED. */
+    public int maxSpan() {
+        return maxSpan;
+    }
+
+    @Override
+    public String findFirstMatchTask(String text) {
+        if (text.length() < threshold || maxSpan == PatternSpans.UNBOUNDED || pool.getParallelism() < 2) {
+            return sequential.findFirstMatchTask(text);
+        }
+        MatchEvent event = new MatchEvent();
+        event.begin();
+        AtomicInteger evaluated = new AtomicInteger();
+        int[] earliest = pool.invoke(new Chunks(text, chunkBounds(text), 0, -1,
+                new AtomicInteger(Integer.MAX_VALUE), evaluated));
+
+        // Same selection as the sequential loop: earliest position, ties -> first task
+        int bestPos = Integer.MAX_VALUE;
+        String bestTask = NO_TASK;
+        for (int t = 0; t < earliest.length; t++) {
+            if (earliest[t] < bestPos) {
+                bestPos = earliest[t];
+                bestTask = catalog.tasks().get(t);
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = name();
+            event.catalog = catalog.name();
+            event.textLength = text.length();
+            event.patternsEvaluated = evaluated.get();
+            event.task = bestTask;
+            event.commit();
+        }
+        return bestTask;
+    }
+
+    // Multi-task extraction is sequential
+    @Override
+    public List<TaskMatch> findAllMatches(String text) {
+        return sequential.findAllMatches(text);
+    }
+
+    @Override
+    public String name() {
+        return "chunked";
+    }
+
+    // Start of every chunk, plus text.length() at the end.
+    private int[] chunkBounds(String text) {
+        int n = text.length();
+        int chunks = (n + chunkSize - 1) / chunkSize;
+        int[] bounds = new int[chunks + 1];
+        for (int k = 1; k < chunks; k++) {
+            int b = k * chunkSize;
+            if (Character.isLowSurrogate(text.charAt(b)) && Character.isHighSurrogate(text.charAt(b - 1))) {
+                b++;
+            }
+            bounds[k] = b;
+        }
+        bounds[chunks] = n;
+        return bounds;
+    }
+
+    // Earliest match start per task in chunks [from, to) (to = -1: all).
+    private final class Chunks extends RecursiveTask<int[]> {
+
+        private final String text;
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+        private final AtomicInteger best;
+        private final AtomicInteger evaluated;
+
+        Chunks(String text, int[] bounds, int from, int to, AtomicInteger best, AtomicInteger evaluated) {
+            this.text = text;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to < 0 ? bounds.length - 1 : to;
+            this.best = best;
+            this.evaluated = evaluated;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from == 1) {
+                return scan(bounds[from], bounds[to]);
+            }
+            int mid = (from + to) >>> 1;
+            Chunks right = new Chunks(text, bounds, mid, to, best, evaluated);
+            right.fork();
+            int[] left = new Chunks(text, bounds, from, mid, best, evaluated).compute();
+            int[] r = right.join();
+            for (int t = 0; t < left.length; t++) {
+                left[t] = Math.min(left[t], r[t]);
+            }
+            return left;
+        }
+
+        private int[] scan(int start, int nextStart) {
+            int[] earliest = new int[catalog.taskCount()];
+            Arrays.fill(earliest, Integer.MAX_VALUE);
+            int regionEnd = (int) Math.min(text.length(), (long) nextStart + maxSpan);
+            int searched = 0;
+            for (int t = 0; t < earliest.length; t++) {
+                List<Pattern> patterns = catalog.patterns(t);
+                for (Pattern p : patterns) {
+                    if (start > best.get()) {
+                        // a match before this chunk exists (strictly: a tie could still win on catalog order)
+                        evaluated.addAndGet(searched);
+                        return earliest;
+                    }
+                    Matcher m = p.matcher(text);
+                    m.useTransparentBounds(true);
+                    m.useAnchoringBounds(false);
+                    m.region(start, regionEnd);
+                    searched++;
+                    if (m.find()) {
+                        int pos = m.start();
+                        earliest[t] = Math.min(earliest[t], pos);
+                        best.accumulateAndGet(pos, Math::min);
+                    }
+                }
+            }
+            evaluated.addAndGet(searched);
+            return earliest;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.nice_homeworkTask.matching;
+
+/** Implemented by the classes BytecodeTaskMatcher generates. */
+interface CompiledPatterns {
+
+    /** Returned by find for a pattern that has no generated code. */
+    int NOT_COMPILED = -2;
+
+    /** Start of the first match of catalog pattern `pattern` (flat index) in text, or -1. */
+    int find(int pattern, String text);
+}
@@ -0,0 +1,78 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Helpers called from the classes BytecodeTaskMatcher generates. Each one gives
+ * exactly the java.util.regex answer for the construct it stands for.
+ */
+final class GeneratedMatcherSupport {
+
+    private static final Pattern BOUNDARY = Pattern.compile("\\b");
+
+    private GeneratedMatcherSupport() {
+    }
+
+    /** \b at i. ASCII neighbours are decided here; otherwise the regex engine's own \b decides. */
+    static boolean boundary(String s, int i) {
+        char before = i > 0 ? s.charAt(i - 1) : ' ';
+        char after = i < s.length() ? s.charAt(i) : ' ';
+        if (before < 0x80 && after < 0x80) {
+            return isAsciiWord(before) != isAsciiWord(after);
+        }
+        Matcher m = BOUNDARY.matcher(s);
+        m.useTransparentBounds(true);
+        m.region(i, s.length());
+        return m.lookingAt();
+    }
+
+    /** \s (without UNICODE_CHARACTER_CLASS). */
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Chars one [\s\S] consumes at q (a surrogate pair is one code point). */
+    static int codePointLength(String s, int q) {
+        return Character.isHighSurrogate(s.charAt(q)) && q + 1 < s.length()
+                && Character.isLowSurrogate(s.charAt(q + 1)) ? 2 : 1;
+    }
+
+    /** (?<!\bword\s) at q: true when the text before q is NOT word + one whitespace. */
+    static boolean notPrecededBy(String s, int q, String word, boolean ci) {
+        int start = q - word.length() - 1;
+        return start < 0 || !isSpace(s.charAt(q - 1)) || !matchesAt(s, start, word, ci) || !boundary(s, start);
+    }
+
+    /** (?!\s+word) at e: true when the text at e is NOT whitespace + word. */
+    static boolean notFollowedBy(String s, int e, String word, boolean ci) {
+        int j = e;
+        while (j < s.length() && isSpace(s.charAt(j))) {
+            j++;
+        }
+        return j == e || !matchesAt(s, j, word, ci);
+    }
+
+    // word at i; case-insensitive = ASCII only, as in regex without UNICODE_CASE
+    private static boolean matchesAt(String s, int i, String word, boolean ci) {
+        if (i + word.length() > s.length()) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            char c = s.charAt(i + k);
+            char w = word.charAt(k);
+            if (c != w && !(ci && isAsciiLetter(w) && (c | 0x20) == (w | 0x20))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiWord(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Matching state for text that is being typed: edits at the end only
+ * (append, delete the last n chars), the current task after each edit.
+ *
+ * The task is always what RegexTaskMatcher would return for the whole
+ * normalized text (earliest match start, ties -> catalog order).
+ *
+ * How edits stay cheap:
+ * - The normalized text (whitespace runs -> one space) is kept up to date per
+ *   raw char, with the normalized length after every raw char so deletes can
+ *   be undone exactly.
+ * - reach = PatternSpans.maxReach(catalog): whether a match starts at p depends
+ *   only on the chars in [p, p + reach). So once the text is reach chars longer
+ *   than p, position p is settled for as long as those chars stay.
+ * - scanned: no match starts in [0, scanned). Each edit only searches from
+ *   scanned, which trails the end of the text by at most reach + the edit.
+ * - A match found in the settled region is the answer until a delete reaches
+ *   into it; later appends then cost nothing.
+ * - Catalogs with unbounded patterns (reach UNBOUNDED): every edit searches the
+ *   whole text (still correct, no longer incremental).
+ *
+ * Not thread-safe: one instance per typing session.
+ */
+public final class IncrementalTaskMatcher {
+
+    private final List<String> tasks;
+    private final int[] taskOfMatcher;
+    private final Matcher[] matchers;
+    private final int reach;
+
+    private final StringBuilder text = new StringBuilder();
+    // normAfter[i] = normalized length after raw char i
+    private int[] normAfter = new int[64];
+    private int rawLength;
+
+    private int scanned;
+    private int settledStart = -1;
+    private String settledTask;
+    private String task = TaskMatcher.NO_TASK;
+
+    public IncrementalTaskMatcher(TaskCatalog catalog) {
+        this.tasks = catalog.tasks();
+        this.reach = PatternSpans.maxReach(catalog);
+        this.matchers = new Matcher[catalog.patternCount()];
+        this.taskOfMatcher = new int[matchers.length];
+        int k = 0;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                Matcher m = p.matcher(text);
+                // lookarounds and \b see the text before the search start (as a full scan would)
+                m.useTransparentBounds(true);
+                m.useAnchoringBounds(false);
+                matchers[k] = m;
+                taskOfMatcher[k++] = t;
+            }
+        }
+    }
+
+    /** Appends raw (not normalized) text; returns the task for the whole text. */
+    public String append(CharSequence raw) {
+        int n = raw.length();
+        if (rawLength + n > normAfter.length) {
+            normAfter = Arrays.copyOf(normAfter, Math.max(rawLength + n, normAfter.length * 2));
+        }
+        for (int i = 0; i < n; i++) {
+            char c = raw.charAt(i);
+            if (isWhitespace(c)) {
+                if (text.length() == 0 || text.charAt(text.length() - 1) != ' ') {
+                    text.append(' ');
+                }
+            } else {
+                text.append(c);
+            }
+            normAfter[rawLength++] = text.length();
+        }
+        return update();
+    }
+
+    /** Deletes the last count raw chars (fewer if the text is shorter); returns the task. */
+    public String delete(int count) {
+        rawLength = Math.max(0, rawLength - Math.max(0, count));
+        int length = rawLength == 0 ? 0 : normAfter[rawLength - 1];
+        if (length < text.length()) {
+            text.setLength(length);
+            int settledUpTo = settledUpTo(length);
+            scanned = Math.min(scanned, settledUpTo);
+            if (settledStart >= settledUpTo) {
+                settledStart = -1;
+                settledTask = null;
+            }
+        }
+        return update();
+    }
+
+    /** Empties the text. */
+    public String clear() {
+        return delete(rawLength);
+    }
+
+    /** Current task (as returned by the last edit). */
+    public String task() {
+        return task;
+    }
+
+    /** Raw chars typed so far (what delete counts in). */
+    public int rawLength() {
+        return rawLength;
+    }
+
+    /** The normalized text. */
+    public String text() {
+        return text.toString();
+    }
+
+    private String update() {
+        if (settledStart >= 0) {
+            return task = settledTask;
+        }
+        int length = text.length();
+        int bestStart = Integer.MAX_VALUE;
+        int bestTask = -1;
+        for (int k = 0; k < matchers.length; k++) {
+            Matcher m = matchers[k];
+            m.reset(text); // picks up the new length
+            m.region(scanned, length);
+            if (m.find() && m.start() < bestStart) {
+                bestStart = m.start();
+                bestTask = taskOfMatcher[k];
+            }
+        }
+        int settledUpTo = settledUpTo(length);
+        if (bestTask >= 0 && bestStart < settledUpTo) {
+            settledStart = bestStart;
+            settledTask = tasks.get(bestTask);
+            scanned = bestStart;
+        } else {
+            scanned = Math.max(scanned, Math.min(settledUpTo, bestStart));
+        }
+        return task = bestTask >= 0 ? tasks.get(bestTask) : TaskMatcher.NO_TASK;
+    }
+
+    // Positions below this are settled in a text of this length
+    private int settledUpTo(int length) {
+        return reach == PatternSpans.UNBOUNDED ? 0 : Math.max(0, length - reach);
+    }
+
+    // Same set as \s (what the service normalizes)
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/*
+ * The "keyword(s) [gap] keyword" pattern shapes the catalogs are written in,
+ * recognized from the regex source so BytecodeTaskMatcher can generate code
+ * for them. Anything else is left to java.util.regex (parse returns null).
+ *
+ * Shapes (flags: none or CASE_INSENSITIVE only; WORD = [A-Za-z0-9]+,
+ * PHRASE = WORD(' 'WORD)*):
+ * - LITERAL:  \bPHRASE\b
+ * - SPACED:   \bPHRASE\s+WORD\b
+ * - GAP:      \bPHRASE\b[\s\S]{0,N}SECOND
+ *   SECOND =  ALT | (?:ALT|ALT...)
+ *   ALT    =  [(?<!\bWORD\s)]\bWORD\b[(?!\s+WORD)]
+ */
+final class KeywordShape {
+
+    enum Kind { LITERAL, SPACED, GAP }
+
+    /**
+     * A second keyword with optional guards: not preceded by "\bnotAfter\s",
+     * not followed by "\s+notBefore".
+     */
+    record Alt(String word, String notAfter, String notBefore) {
+    }
+
+    final Kind kind;
+    final boolean caseInsensitive;
+    final String first;
+    final int maxGap;
+    final List<Alt> second;
+
+    private KeywordShape(Kind kind, boolean caseInsensitive, String first, int maxGap, List<Alt> second) {
+        this.kind = kind;
+        this.caseInsensitive = caseInsensitive;
+        this.first = first;
+        this.maxGap = maxGap;
+        this.second = second;
+    }
+
+    /** The shape of p, or null if p is not one of the shapes above. */
+    static KeywordShape parse(Pattern p) {
+        boolean ci;
+        if (p.flags() == Pattern.CASE_INSENSITIVE) {
+            ci = true;
+        } else if (p.flags() == 0) {
+            ci = false;
+        } else {
+            return null;
+        }
+        Source src = new Source(p.pattern());
+        try {
+            src.expect("\\b");
+            String first = src.phrase();
+            if (src.eat("\\s+")) {
+                String word = src.word();
+                src.expect("\\b");
+                src.end();
+                return new KeywordShape(Kind.SPACED, ci, first, 0, List.of(new Alt(word, null, null)));
+            }
+            src.expect("\\b");
+            if (src.atEnd()) {
+                return new KeywordShape(Kind.LITERAL, ci, first, 0, List.of());
+            }
+            src.expect("[\\s\\S]{0,");
+            int maxGap = src.number();
+            src.expect("}");
+            List<Alt> second = new ArrayList<>();
+            if (src.eat("(?:")) {
+                do {
+                    second.add(src.alt());
+                } while (src.eat("|"));
+                src.expect(")");
+            } else {
+                second.add(src.alt());
+            }
+            src.end();
+            return new KeywordShape(Kind.GAP, ci, first, maxGap, List.copyOf(second));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Cursor over the regex source; IllegalArgumentException = not a known shape.
+    private static final class Source {
+        private final String re;
+        private int i;
+
+        Source(String re) {
+            this.re = re;
+        }
+
+        boolean eat(String token) {
+            if (re.startsWith(token, i)) {
+                i += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String token) {
+            if (!eat(token)) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        boolean atEnd() {
+            return i == re.length();
+        }
+
+        void end() {
+            if (!atEnd()) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        String word() {
+            int start = i;
+            while (i < re.length() && isWordChar(re.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                throw new IllegalArgumentException();
+            }
+            return re.substring(start, i);
+        }
+
+        String phrase() {
+            StringBuilder sb = new StringBuilder(word());
+            while (i + 1 < re.length() && re.charAt(i) == ' ' && isWordChar(re.charAt(i + 1))) {
+                i++;
+                sb.append(' ').append(word());
+            }
+            return sb.toString();
+        }
+
+        int number() {
+            int start = i;
+            while (i < re.length() && re.charAt(i) >= '0' && re.charAt(i) <= '9' && i - start < 6) {
+                i++;
+            }
+            if (i == start) {
+                throw new IllegalArgumentException();
+            }
+            return Integer.parseInt(re.substring(start, i));
+        }
+
+        Alt alt() {
+            String notAfter = null;
+            if (eat("(?<!\\b")) {
+                notAfter = word();
+                expect("\\s)");
+            }
+            expect("\\b");
+            String word = word();
+            expect("\\b");
+            String notBefore = null;
+            if (eat("(?!\\s+")) {
+                notBefore = word();
+                expect(")");
+            }
+            return new Alt(word, notAfter, notBefore);
+        }
+
+        private static boolean isWordChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.nice_homeworkTask.matching;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.util.Arrays;
+
+/*
+ * Writes the bytecode of a CompiledPatterns class for a list of KeywordShapes
+ * (index = flat catalog pattern index, null = not compiled).
+ *
+ * Per compiled pattern k there is a static method pK(String) that scans the
+ * text left to right, like Matcher.find():
+ *
+ *   for (i = 0; i <= n - first.length(); i++) {
+ *       first keyword at i, unrolled: one charAt + compare per char
+ *       (case-insensitive letters: (c | 0x20) == lower)
+ *       \b at i and at i + first.length()
+ *       LITERAL: return i
+ *       SPACED:  skip >= 1 whitespace, second keyword there -> return i
+ *       GAP:     q = end of first keyword; for up to maxGap code points:
+ *                any second alternative (unrolled + \b + guards) at q -> return i
+ *   }
+ *   return -1
+ *
+ * find(k, text) dispatches with a tableswitch. \b, guards and code point
+ * stepping call GeneratedMatcherSupport (small static methods the JIT inlines).
+ */
+final class MatcherClassGenerator implements Opcodes {
+
+    static final String CLASS_NAME = "com/example/nice_homeworkTask/matching/CompiledCatalog";
+
+    private static final String SUPPORT = "com/example/nice_homeworkTask/matching/GeneratedMatcherSupport";
+    private static final String INTERFACE = "com/example/nice_homeworkTask/matching/CompiledPatterns";
+    private static final String FIND_DESC = "(Ljava/lang/String;)I";
+
+    // Locals of a pK method
+    private static final int S = 0;
+    private static final int N = 1;
+    private static final int I = 2;
+    private static final int Q = 3;
+    private static final int K = 4;
+
+    private MatcherClassGenerator() {
+    }
+
+    static byte[] generate(KeywordShape[] shapes) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, CLASS_NAME, null, "java/lang/Object",
+                new String[] { INTERFACE });
+
+        MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        writeDispatch(cw, shapes);
+        for (int k = 0; k < shapes.length; k++) {
+            if (shapes[k] != null) {
+                writeFind(cw, "p" + k, shapes[k]);
+            }
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    // public int find(int pattern, String text) { switch (pattern) { case k: return pK(text); ... } }
+    private static void writeDispatch(ClassWriter cw, KeywordShape[] shapes) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "find", "(ILjava/lang/String;)I", null, null);
+        mv.visitCode();
+        Label notCompiled = new Label();
+        Label[] cases = new Label[Math.max(1, shapes.length)];
+        Arrays.fill(cases, notCompiled);
+        for (int k = 0; k < shapes.length; k++) {
+            if (shapes[k] != null) {
+                cases[k] = new Label();
+            }
+        }
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitTableSwitchInsn(0, cases.length - 1, notCompiled, cases);
+        for (int k = 0; k < shapes.length; k++) {
+            if (shapes[k] != null) {
+                mv.visitLabel(cases[k]);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKESTATIC, CLASS_NAME, "p" + k, FIND_DESC, false);
+                mv.visitInsn(IRETURN);
+            }
+        }
+        mv.visitLabel(notCompiled);
+        push(mv, CompiledPatterns.NOT_COMPILED);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void writeFind(ClassWriter cw, String name, KeywordShape shape) {
+        MethodVisitor mv = cw.visitMethod(ACC_PRIVATE | ACC_STATIC, name, FIND_DESC, null, null);
+        mv.visitCode();
+        Label loop = new Label();
+        Label next = new Label();
+        Label found = new Label();
+        Label notFound = new Label();
+        int firstLength = shape.first.length();
+
+        // n = s.length(); i = 0
+        mv.visitVarInsn(ALOAD, S);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "length", "()I", false);
+        mv.visitVarInsn(ISTORE, N);
+        push(mv, 0);
+        mv.visitVarInsn(ISTORE, I);
+
+        // while (i <= n - firstLength)
+        mv.visitLabel(loop);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitVarInsn(ILOAD, N);
+        push(mv, firstLength);
+        mv.visitInsn(ISUB);
+        mv.visitJumpInsn(IF_ICMPGT, notFound);
+
+        literal(mv, I, shape.first, shape.caseInsensitive, next, false);
+        boundary(mv, I, 0, next);
+        boundary(mv, I, firstLength, next);
+
+        switch (shape.kind) {
+            case LITERAL -> mv.visitJumpInsn(GOTO, found);
+            case SPACED -> {
+                // q = i + firstLength; while (q < n && isSpace(s.charAt(q))) q++; if (q == i + firstLength) next
+                Label spaces = new Label();
+                Label spacesDone = new Label();
+                mv.visitVarInsn(ILOAD, I);
+                push(mv, firstLength);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, Q);
+                mv.visitLabel(spaces);
+                mv.visitVarInsn(ILOAD, Q);
+                mv.visitVarInsn(ILOAD, N);
+                mv.visitJumpInsn(IF_ICMPGE, spacesDone);
+                mv.visitVarInsn(ALOAD, S);
+                mv.visitVarInsn(ILOAD, Q);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C", false);
+                mv.visitMethodInsn(INVOKESTATIC, SUPPORT, "isSpace", "(C)Z", false);
+                mv.visitJumpInsn(IFEQ, spacesDone);
+                mv.visitIincInsn(Q, 1);
+                mv.visitJumpInsn(GOTO, spaces);
+                mv.visitLabel(spacesDone);
+                mv.visitVarInsn(ILOAD, Q);
+                mv.visitVarInsn(ILOAD, I);
+                push(mv, firstLength);
+                mv.visitInsn(IADD);
+                mv.visitJumpInsn(IF_ICMPEQ, next);
+                second(mv, shape, next);
+                mv.visitJumpInsn(GOTO, found);
+            }
+            case GAP -> {
+                // q = i + firstLength; k = 0
+                Label gap = new Label();
+                Label gapNext = new Label();
+                mv.visitVarInsn(ILOAD, I);
+                push(mv, firstLength);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, Q);
+                push(mv, 0);
+                mv.visitVarInsn(ISTORE, K);
+                mv.visitLabel(gap);
+                second(mv, shape, gapNext);
+                mv.visitJumpInsn(GOTO, found);
+                // if (k == maxGap || q >= n) next; q += codePointLength(s, q); k++
+                mv.visitLabel(gapNext);
+                mv.visitVarInsn(ILOAD, K);
+                push(mv, shape.maxGap);
+                mv.visitJumpInsn(IF_ICMPGE, next);
+                mv.visitVarInsn(ILOAD, Q);
+                mv.visitVarInsn(ILOAD, N);
+                mv.visitJumpInsn(IF_ICMPGE, next);
+                mv.visitVarInsn(ILOAD, Q);
+                mv.visitVarInsn(ALOAD, S);
+                mv.visitVarInsn(ILOAD, Q);
+                mv.visitMethodInsn(INVOKESTATIC, SUPPORT, "codePointLength", "(Ljava/lang/String;I)I", false);
+                mv.visitInsn(IADD);
+                mv.visitVarInsn(ISTORE, Q);
+                mv.visitIincInsn(K, 1);
+                mv.visitJumpInsn(GOTO, gap);
+            }
+        }
+
+        mv.visitLabel(found);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitInsn(IRETURN);
+
+        mv.visitLabel(next);
+        mv.visitIincInsn(I, 1);
+        mv.visitJumpInsn(GOTO, loop);
+
+        mv.visitLabel(notFound);
+        push(mv, -1);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    // Any alternative of the second keyword at q, else goto fail
+    private static void second(MethodVisitor mv, KeywordShape shape, Label fail) {
+        Label ok = new Label();
+        for (KeywordShape.Alt alt : shape.second) {
+            Label altFail = new Label();
+            int length = alt.word().length();
+            literal(mv, Q, alt.word(), shape.caseInsensitive, altFail, true);
+            boundary(mv, Q, 0, altFail);
+            boundary(mv, Q, length, altFail);
+            if (alt.notAfter() != null) {
+                guard(mv, "notPrecededBy", 0, alt.notAfter(), shape.caseInsensitive, altFail);
+            }
+            if (alt.notBefore() != null) {
+                guard(mv, "notFollowedBy", length, alt.notBefore(), shape.caseInsensitive, altFail);
+            }
+            mv.visitJumpInsn(GOTO, ok);
+            mv.visitLabel(altFail);
+        }
+        mv.visitJumpInsn(GOTO, fail);
+        mv.visitLabel(ok);
+    }
+
+    // word at local pos, one comparison per char; checkBounds: pos + length <= n first
+    private static void literal(MethodVisitor mv, int pos, String word, boolean ci, Label fail, boolean checkBounds) {
+        if (checkBounds) {
+            mv.visitVarInsn(ILOAD, pos);
+            push(mv, word.length());
+            mv.visitInsn(IADD);
+            mv.visitVarInsn(ILOAD, N);
+            mv.visitJumpInsn(IF_ICMPGT, fail);
+        }
+        for (int j = 0; j < word.length(); j++) {
+            char c = word.charAt(j);
+            mv.visitVarInsn(ALOAD, S);
+            mv.visitVarInsn(ILOAD, pos);
+            if (j > 0) {
+                push(mv, j);
+                mv.visitInsn(IADD);
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C", false);
+            if (ci && GeneratedMatcherSupport.isAsciiLetter(c)) {
+                push(mv, 0x20);
+                mv.visitInsn(IOR);
+                push(mv, c | 0x20);
+            } else {
+                push(mv, c);
+            }
+            mv.visitJumpInsn(IF_ICMPNE, fail);
+        }
+    }
+
+    // \b at local pos + offset, else goto fail
+    private static void boundary(MethodVisitor mv, int pos, int offset, Label fail) {
+        mv.visitVarInsn(ALOAD, S);
+        mv.visitVarInsn(ILOAD, pos);
+        if (offset != 0) {
+            push(mv, offset);
+            mv.visitInsn(IADD);
+        }
+        mv.visitMethodInsn(INVOKESTATIC, SUPPORT, "boundary", "(Ljava/lang/String;I)Z", false);
+        mv.visitJumpInsn(IFEQ, fail);
+    }
+
+    // GeneratedMatcherSupport.<method>(s, q + offset, word, ci), else goto fail
+    private static void guard(MethodVisitor mv, String method, int offset, String word, boolean ci, Label fail) {
+        mv.visitVarInsn(ALOAD, S);
+        mv.visitVarInsn(ILOAD, Q);
+        if (offset != 0) {
+            push(mv, offset);
+            mv.visitInsn(IADD);
+        }
+        mv.visitLdcInsn(word);
+        push(mv, ci ? 1 : 0);
+        mv.visitMethodInsn(INVOKESTATIC, SUPPORT, method, "(Ljava/lang/String;ILjava/lang/String;Z)Z", false);
+        mv.visitJumpInsn(IFEQ, fail);
+    }
+
+    private static void push(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+}
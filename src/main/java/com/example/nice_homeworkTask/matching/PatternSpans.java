@@ -0,0 +1,383 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.regex.Pattern;
+
+/*
+ * Longest text (in UTF-16 chars) a regex can match, worked out from its source.
+ *
+ * Rule:
+ * - Lookarounds, \b, ^, $ ... consume nothing (0).
+ * - A literal char counts 1 (a surrogate pair 2). '.', character classes and
+ *   negated shorthands (\S, \W, \D, \p{..}) count 2: they may match a
+ *   supplementary code point.
+ * - Quantifiers multiply by their upper bound; *, + and {n,} are unbounded...
+ * - ...except on whitespace (\s or ' '): the text is normalized (whitespace runs
+ *   collapsed to one space), so a whitespace atom repeated any number of times
+ *   still matches at most 1 char.
+ * - Anything we can't bound (back-references, \X, (?x) comments mode, ...)
+ *   gives UNBOUNDED. Callers must then not rely on a span.
+ *
+ * Used to size chunk overlaps (ChunkedTaskMatcher): a match starting in a chunk
+ * ends at most maxSpan chars later.
+ *
+ * maxReach = how far past a position the text can influence whether a match
+ * starts there: maxSpan + what lookaheads may read beyond it (their spans,
+ * summed: an upper bound) + 1 for \b, $ ... peeking at the next char.
+ * Used by IncrementalTaskMatcher: text appended further away can't change it.
+ */
+public final class PatternSpans {
+
+    /** The pattern can match arbitrarily long text (or we can't tell). */
+    public static final int UNBOUNDED = -1;
+
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    private final String re;
+    private int i;
+    // Sum of the spans of all lookahead groups seen so far
+    private long lookahead;
+
+    private PatternSpans(String re) {
+        this.re = re;
+    }
+
+    /** Longest match of p on normalized text, or UNBOUNDED. */
+    public static int maxSpan(Pattern p) {
+        int flags = p.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            return p.pattern().length();
+        }
+        if ((flags & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+            return UNBOUNDED;
+        }
+        try {
+            PatternSpans parser = new PatternSpans(p.pattern());
+            long span = parser.alternation();
+            if (parser.i != parser.re.length() || span >= Integer.MAX_VALUE) {
+                return UNBOUNDED;
+            }
+            return (int) span;
+        } catch (Unsupported | IndexOutOfBoundsException | NumberFormatException e) {
+            return UNBOUNDED;
+        }
+    }
+
+    /** Chars after a position that decide whether p matches there, or UNBOUNDED. */
+    public static int maxReach(Pattern p) {
+        int flags = p.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            return p.pattern().length() + 1;
+        }
+        if ((flags & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+            return UNBOUNDED;
+        }
+        try {
+            PatternSpans parser = new PatternSpans(p.pattern());
+            long span = parser.alternation();
+            long reach = add(add(span, parser.lookahead), 1);
+            if (parser.i != parser.re.length() || reach >= Integer.MAX_VALUE) {
+                return UNBOUNDED;
+            }
+            return (int) reach;
+        } catch (Unsupported | IndexOutOfBoundsException | NumberFormatException e) {
+            return UNBOUNDED;
+        }
+    }
+
+    /** Largest maxReach over all patterns of the catalog, or UNBOUNDED if any is unbounded. */
+    public static int maxReach(TaskCatalog catalog) {
+        int max = 0;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                int reach = maxReach(p);
+                if (reach == UNBOUNDED) {
+                    return UNBOUNDED;
+                }
+                max = Math.max(max, reach);
+            }
+        }
+        return max;
+    }
+
+    /** Longest maxSpan over all patterns of the catalog, or UNBOUNDED if any is unbounded. */
+    public static int maxSpan(TaskCatalog catalog) {
+        int max = 0;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                int span = maxSpan(p);
+                if (span == UNBOUNDED) {
+                    return UNBOUNDED;
+                }
+                max = Math.max(max, span);
+            }
+        }
+        return max;
+    }
+
+    // a|b|c -> longest branch
+    private long alternation() {
+        long max = sequence();
+        while (i < re.length() && re.charAt(i) == '|') {
+            i++;
+            max = Math.max(max, sequence());
+        }
+        return max;
+    }
+
+    // abc -> sum
+    private long sequence() {
+        long sum = 0;
+        while (i < re.length() && re.charAt(i) != '|' && re.charAt(i) != ')') {
+            sum = add(sum, quantified());
+        }
+        return sum;
+    }
+
+    private long quantified() {
+        int atomStart = i;
+        long atom = atom();
+        boolean whitespace = isWhitespaceAtom(atomStart, i);
+        if (i >= re.length()) {
+            return atom;
+        }
+        long result = atom;
+        char c = re.charAt(i);
+        if (c == '?') {
+            i++;
+        } else if (c == '*' || c == '+') {
+            i++;
+            result = whitespace ? Math.min(atom, 1) : (atom == 0 ? 0 : INF);
+        } else if (c == '{') {
+            int close = re.indexOf('}', i);
+            if (close < 0) {
+                throw new Unsupported();
+            }
+            String body = re.substring(i + 1, close);
+            i = close + 1;
+            int comma = body.indexOf(',');
+            long upper;
+            if (comma < 0) {
+                upper = parseInt(body);
+            } else if (comma == body.length() - 1) {
+                upper = INF;
+            } else {
+                upper = parseInt(body.substring(comma + 1));
+            }
+            result = whitespace ? Math.min(atom, 1) : multiply(atom, upper);
+        } else {
+            return atom;
+        }
+        // lazy / possessive suffix
+        if (i < re.length() && (re.charAt(i) == '?' || re.charAt(i) == '+')) {
+            i++;
+        }
+        return result;
+    }
+
+    private long atom() {
+        char c = re.charAt(i);
+        switch (c) {
+            case '(':
+                return group();
+            case '[':
+                skipClass();
+                return 2;
+            case '.':
+                i++;
+                return 2;
+            case '^':
+            case '$':
+                i++;
+                return 0;
+            case '\\':
+                return escape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new Unsupported();
+            default:
+                if (Character.isHighSurrogate(c) && i + 1 < re.length() && Character.isLowSurrogate(re.charAt(i + 1))) {
+                    i += 2;
+                    return 2;
+                }
+                i++;
+                return 1;
+        }
+    }
+
+    private long group() {
+        i++; // '('
+        boolean zeroWidth = false;
+        boolean ahead = false;
+        if (i < re.length() && re.charAt(i) == '?') {
+            i++;
+            char k = re.charAt(i);
+            if (k == ':' || k == '>') {
+                i++;
+            } else if (k == '=' || k == '!') {
+                i++;
+                zeroWidth = true;
+                ahead = true;
+            } else if (k == '<') {
+                char n = re.charAt(i + 1);
+                if (n == '=' || n == '!') {
+                    i += 2;
+                    zeroWidth = true;
+                } else {
+                    int close = re.indexOf('>', i);
+                    if (close < 0) {
+                        throw new Unsupported();
+                    }
+                    i = close + 1; // named group
+                }
+            } else {
+                // inline flags: (?i) or (?i:...)
+                int start = i;
+                while (i < re.length() && re.charAt(i) != ')' && re.charAt(i) != ':') {
+                    i++;
+                }
+                String flags = re.substring(start, i);
+                if (flags.indexOf('x') >= 0) {
+                    throw new Unsupported();
+                }
+                if (i < re.length() && re.charAt(i) == ')') {
+                    i++;
+                    return 0;
+                }
+                i++; // ':'
+            }
+        }
+        long inner = alternation();
+        if (i >= re.length() || re.charAt(i) != ')') {
+            throw new Unsupported();
+        }
+        i++;
+        if (ahead) {
+            lookahead = add(lookahead, inner);
+        }
+        return zeroWidth ? 0 : inner;
+    }
+
+    private long escape() {
+        i++; // '\'
+        char e = re.charAt(i++);
+        switch (e) {
+            case 'b': case 'B': case 'A': case 'G': case 'Z': case 'z':
+                return 0;
+            case 's': case 'd': case 'w': case 'h': case 'v':
+            case 't': case 'n': case 'r': case 'f': case 'a': case 'e':
+                return 1;
+            case 'S': case 'D': case 'W': case 'H': case 'V':
+                return 2;
+            case 'R':
+                return 2; // \r\n
+            case 'c':
+                i++;
+                return 1;
+            case 'x':
+                if (i < re.length() && re.charAt(i) == '{') {
+                    int close = re.indexOf('}', i);
+                    if (close < 0) {
+                        throw new Unsupported();
+                    }
+                    int cp = Integer.parseInt(re.substring(i + 1, close), 16);
+                    i = close + 1;
+                    return Character.charCount(cp);
+                }
+                i += 2;
+                return 1;
+            case 'u':
+                i += 4;
+                return 1;
+            case '0':
+                while (i < re.length() && re.charAt(i) >= '0' && re.charAt(i) <= '7') {
+                    i++;
+                }
+                return 1;
+            case 'p': case 'P': case 'N':
+                if (i < re.length() && re.charAt(i) == '{') {
+                    int close = re.indexOf('}', i);
+                    if (close < 0) {
+                        throw new Unsupported();
+                    }
+                    i = close + 1;
+                } else {
+                    i++;
+                }
+                return 2;
+            case 'Q': {
+                int end = re.indexOf("\\E", i);
+                int stop = end < 0 ? re.length() : end;
+                long n = stop - i;
+                i = end < 0 ? re.length() : end + 2;
+                return n;
+            }
+            default:
+                if (Character.isLetterOrDigit(e)) {
+                    throw new Unsupported(); // back-references (\1, \k<..>), \X, ...
+                }
+                return 1; // escaped punctuation
+        }
+    }
+
+    // Moves past a [...] class (nested classes, escapes, && intersections).
+    private void skipClass() {
+        int depth = 0;
+        while (i < re.length()) {
+            char c = re.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                i++;
+                // a ']' right after '[' or '[^' is a literal
+                if (i < re.length() && re.charAt(i) == '^') {
+                    i++;
+                }
+                if (i < re.length() && re.charAt(i) == ']') {
+                    i++;
+                }
+                continue;
+            }
+            i++;
+            if (c == ']' && --depth == 0) {
+                return;
+            }
+        }
+        throw new Unsupported();
+    }
+
+    // "\s" or " " (the atom just parsed), as repeated whitespace collapses to one char
+    private boolean isWhitespaceAtom(int start, int end) {
+        String atom = re.substring(start, end);
+        return atom.equals("\\s") || atom.equals(" ");
+    }
+
+    private static long parseInt(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            throw new Unsupported();
+        }
+    }
+
+    private static long add(long a, long b) {
+        return a >= INF || b >= INF ? INF : a + b;
+    }
+
+    private static long multiply(long a, long n) {
+        if (a == 0 || n == 0) {
+            return 0;
+        }
+        return a >= INF || n >= INF || a > INF / n ? INF : a * n;
+    }
+
+    private static final class Unsupported extends RuntimeException {
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+}
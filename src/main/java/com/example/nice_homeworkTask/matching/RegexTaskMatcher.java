@@ -0,0 +1,122 @@
+package com.example.nice_homeworkTask.matching;
+
+import com.example.nice_homeworkTask.jfr.MatchEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * The reference engine: runs every catalog pattern through java.util.regex and
+ * keeps the earliest match start (this is the original findFirstMatchTask loop).
+ * Each call is a MatchEvent for JFR.
+ *
+ * findAllMatches: one Matcher per pattern, each moving forward through the text
+ * once. The pattern with the earliest next match (ties -> catalog order) is
+ * taken; only the matchers whose next match now overlaps it search again, from
+ * its end. Lookarounds and \b still see the whole text.
+ */
+public final class RegexTaskMatcher implements TaskMatcher {
+
+    private final TaskCatalog catalog;
+    // Catalog patterns flattened in catalog order, with their task index
+    private final Pattern[] patterns;
+    private final int[] taskOf;
+
+    public RegexTaskMatcher(TaskCatalog catalog) {
+        this.catalog = catalog;
+        this.patterns = new Pattern[catalog.patternCount()];
+        this.taskOf = new int[patterns.length];
+        int k = 0;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                patterns[k] = p;
+                taskOf[k++] = t;
+            }
+        }
+    }
+
+    @Override
+    public String findFirstMatchTask(String text) {
+        MatchEvent event = new MatchEvent();
+        event.begin();
+        int bestPos = Integer.MAX_VALUE;
+        String bestTask = NO_TASK;
+
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            List<Pattern> patterns = catalog.patterns(t);
+            for (Pattern p : patterns) {
+                Matcher m = p.matcher(text);
+                if (m.find()) {
+                    int pos = m.start();
+                    if (pos < bestPos) {
+                        bestPos = pos;
+                        bestTask = catalog.tasks().get(t);
+                    }
+                }
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = name();
+            event.catalog = catalog.name();
+            event.textLength = text.length();
+            event.patternsEvaluated = catalog.patternCount();
+            event.task = bestTask;
+            event.commit();
+        }
+        return bestTask;
+    }
+
+    @Override
+    public List<TaskMatch> findAllMatches(String text) {
+        MatchEvent event = new MatchEvent();
+        event.begin();
+        int n = patterns.length;
+        Matcher[] matchers = new Matcher[n];
+        int[] next = new int[n];
+        for (int k = 0; k < n; k++) {
+            matchers[k] = patterns[k].matcher(text);
+            next[k] = matchers[k].find() ? matchers[k].start() : Integer.MAX_VALUE;
+        }
+        List<TaskMatch> found = new ArrayList<>();
+        while (true) {
+            int best = -1;
+            for (int k = 0; k < n; k++) {
+                if (next[k] != Integer.MAX_VALUE && (best < 0 || next[k] < next[best])) {
+                    best = k;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            int start = next[best];
+            int end = matchers[best].end();
+            found.add(new TaskMatch(catalog.tasks().get(taskOf[best]), start, end));
+            int from = Math.max(end, start + 1); // an empty match must not stop the scan
+            for (int k = 0; k < n; k++) {
+                if (next[k] < from) {
+                    next[k] = from <= text.length() && matchers[k].find(from) ? matchers[k].start() : Integer.MAX_VALUE;
+                }
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = name();
+            event.catalog = catalog.name();
+            event.textLength = text.length();
+            event.patternsEvaluated = n;
+            event.task = found.isEmpty() ? NO_TASK : found.get(0).task();
+            event.commit();
+        }
+        return found;
+    }
+
+    @Override
+    public String name() {
+        return "regex";
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.nice_homeworkTask.matching;
+
+/*
+ * AnchorScanner one char at a time: a 128-bit table of folded first chars
+ * rejects most positions with one load; the rest check prefix and previous char.
+ * Always available; also the tail of VectorAnchorScanner.
+ */
+final class ScalarAnchorScanner implements AnchorScanner {
+
+    private final char[] first;
+    private final char[] second;
+    private final long[] firstSet = new long[2];
+
+    /** @param first folded first chars; second folded second chars, 0 = one-char prefix */
+    ScalarAnchorScanner(char[] first, char[] second) {
+        this.first = first.clone();
+        this.second = second.clone();
+        for (char c : first) {
+            if (c < 128) {
+                firstSet[c >>> 6] |= 1L << c;
+            }
+        }
+    }
+
+    @Override
+    public int next(char[] a, int from, int to) {
+        for (int j = from; j < to; j++) {
+            int c = a[j] | 0x20;
+            if (c < 128 && (firstSet[c >>> 6] & (1L << c)) != 0 && !isAsciiWord(a[j - 1])
+                    && prefixAt(first, second, a, j, to) >= 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    /** Index of the first prefix starting at a[j] (reading a[j + 1] only below to), or -1. */
+    static int prefixAt(char[] first, char[] second, char[] a, int j, int to) {
+        int c = a[j] | 0x20;
+        for (int q = 0; q < first.length; q++) {
+            if (c == first[q] && (second[q] == 0 || (j + 1 < to && (a[j + 1] | 0x20) == second[q]))) {
+                return q;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isAsciiWord(char c) {
+        int lower = c | 0x20;
+        return (lower >= 'a' && lower <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
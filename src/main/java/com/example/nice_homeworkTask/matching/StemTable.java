@@ -0,0 +1,287 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/*
+ * Inflected form -> catalog keyword ("resetting" -> "reset", "tracked" -> "track",
+ * "passwords" -> "password"), precomputed when the catalog is loaded.
+ *
+ * Build (once per catalog):
+ * - Keywords = the words of every keyword-shaped pattern (KeywordShape): first
+ *   phrase, second keywords and guard words. Other patterns add nothing.
+ * - Forms per keyword (3+ letters), regular English suffixes:
+ *   -s/-es/-ies, -ed/-d/-ied, -ing (e dropped), plus the doubled final consonant
+ *   (resetting, shipped); and the irregular groups below (forget/forgot/...).
+ *   A form that is itself a keyword, or that two keywords produce, is left out.
+ * - The forms go into a minimal perfect hash (hash and displace): bucket =
+ *   hash(form, 0) % buckets, slot = hash(form, seed[bucket]) % size, every slot
+ *   holds exactly one form. A lookup is two hashes and one key comparison;
+ *   nothing is computed per word beyond that.
+ * - Most words are no form at all: a word whose length, first or last letter no
+ *   form has is rejected before hashing (bit masks over 'a'..'z').
+ *
+ * Lookup is ASCII case-insensitive; words are [A-Za-z]+ (see StemmingTaskMatcher).
+ */
+public final class StemTable {
+
+    // Irregular forms; a group is used when one of its words is a catalog keyword.
+    private static final List<List<String>> IRREGULAR = List.of(
+            List.of("forget", "forgot", "forgets", "forgetting", "forgotten"),
+            List.of("lose", "lost", "loses", "losing"),
+            List.of("pay", "paid", "pays", "paying"),
+            List.of("send", "sent", "sends", "sending"),
+            List.of("buy", "bought", "buys", "buying"),
+            List.of("cancel", "cancelled", "canceled", "cancelling", "canceling", "cancels"));
+
+    private static final int MAX_SEED_TRIES = 1 << 20;
+
+    private final char[][] keys;
+    private final String[] stems;
+    private final int[] seeds;
+    private final int minLength;
+    private final int maxLength;
+    private final int firstLetters;
+    private final int lastLetters;
+
+    private StemTable(char[][] keys, String[] stems, int[] seeds) {
+        this.keys = keys;
+        this.stems = stems;
+        this.seeds = seeds;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int first = 0;
+        int last = 0;
+        for (char[] key : keys) {
+            min = Math.min(min, key.length);
+            max = Math.max(max, key.length);
+            first |= 1 << (key[0] - 'a');
+            last |= 1 << (key[key.length - 1] - 'a');
+        }
+        this.minLength = min;
+        this.maxLength = max;
+        this.firstLetters = first;
+        this.lastLetters = last;
+    }
+
+    /** Table for the keywords of the catalog's keyword-shaped patterns. */
+    public static StemTable build(TaskCatalog catalog) {
+        Set<String> keywords = new LinkedHashSet<>();
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (Pattern p : catalog.patterns(t)) {
+                KeywordShape shape = KeywordShape.parse(p);
+                if (shape == null) {
+                    continue;
+                }
+                keywords.addAll(Arrays.asList(shape.first.split(" ")));
+                for (KeywordShape.Alt alt : shape.second) {
+                    keywords.add(alt.word());
+                    if (alt.notAfter() != null) {
+                        keywords.add(alt.notAfter());
+                    }
+                    if (alt.notBefore() != null) {
+                        keywords.add(alt.notBefore());
+                    }
+                }
+            }
+        }
+        return of(keywords);
+    }
+
+    /** Table for these keywords (letters only; others are ignored). */
+    static StemTable of(Iterable<String> keywords) {
+        Set<String> lowerKeywords = new LinkedHashSet<>();
+        for (String k : keywords) {
+            if (k.chars().allMatch(c -> (c | 0x20) >= 'a' && (c | 0x20) <= 'z')) {
+                lowerKeywords.add(k.toLowerCase(Locale.ROOT));
+            }
+        }
+        Map<String, String> stemOf = new LinkedHashMap<>();
+        Set<String> ambiguous = new LinkedHashSet<>();
+        for (String k : lowerKeywords) {
+            for (String form : forms(k)) {
+                if (lowerKeywords.contains(form) || ambiguous.contains(form)) {
+                    continue;
+                }
+                String previous = stemOf.putIfAbsent(form, k);
+                if (previous != null && !previous.equals(k)) {
+                    stemOf.remove(form);
+                    ambiguous.add(form);
+                }
+            }
+        }
+        return perfectHash(stemOf);
+    }
+
+    // Regular inflections of a lowercase keyword, plus its irregular group
+    private static Set<String> forms(String k) {
+        Set<String> forms = new LinkedHashSet<>();
+        for (List<String> group : IRREGULAR) {
+            if (group.contains(k)) {
+                forms.addAll(group);
+            }
+        }
+        if (k.length() < 3) {
+            return forms;
+        }
+        char last = k.charAt(k.length() - 1);
+        char beforeLast = k.charAt(k.length() - 2);
+        boolean consonantY = last == 'y' && !isVowel(beforeLast);
+        // plural / 3rd person
+        if (k.endsWith("s") || k.endsWith("x") || k.endsWith("z") || k.endsWith("ch") || k.endsWith("sh")) {
+            forms.add(k + "es");
+        } else if (consonantY) {
+            forms.add(k.substring(0, k.length() - 1) + "ies");
+        } else {
+            forms.add(k + "s");
+        }
+        // past
+        if (last == 'e') {
+            forms.add(k + "d");
+        } else if (consonantY) {
+            forms.add(k.substring(0, k.length() - 1) + "ied");
+        } else {
+            forms.add(k + "ed");
+        }
+        // -ing
+        if (last == 'e' && beforeLast != 'e') {
+            forms.add(k.substring(0, k.length() - 1) + "ing");
+        } else {
+            forms.add(k + "ing");
+        }
+        // consonant doubling: single vowel + single consonant (reset -> resetting, resetted)
+        if (!isVowel(last) && last != 'w' && last != 'x' && last != 'y' && isVowel(beforeLast)
+                && !isVowel(k.charAt(k.length() - 3))) {
+            forms.add(k + last + "ed");
+            forms.add(k + last + "ing");
+        }
+        forms.remove(k);
+        return forms;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    // Hash and displace; the table size equals the number of forms.
+    private static StemTable perfectHash(Map<String, String> stemOf) {
+        int n = stemOf.size();
+        if (n == 0) {
+            return new StemTable(new char[0][], new String[0], new int[0]);
+        }
+        List<String> forms = new ArrayList<>(stemOf.keySet());
+        for (int buckets = Math.max(1, n / 2); ; buckets++) {
+            List<List<String>> byBucket = new ArrayList<>();
+            for (int b = 0; b < buckets; b++) {
+                byBucket.add(new ArrayList<>());
+            }
+            for (String form : forms) {
+                byBucket.get(index(hash(form, 0, form.length(), 0), buckets)).add(form);
+            }
+            Integer[] order = new Integer[buckets];
+            for (int b = 0; b < buckets; b++) {
+                order[b] = b;
+            }
+            Arrays.sort(order, (a, b) -> byBucket.get(b).size() - byBucket.get(a).size());
+
+            char[][] keys = new char[n][];
+            String[] stems = new String[n];
+            int[] seeds = new int[buckets];
+            boolean placedAll = true;
+            for (int b : order) {
+                List<String> members = byBucket.get(b);
+                if (members.isEmpty()) {
+                    continue;
+                }
+                int seed = place(members, keys, n);
+                if (seed < 0) {
+                    placedAll = false;
+                    break;
+                }
+                seeds[b] = seed;
+                for (String form : members) {
+                    int slot = index(hash(form, 0, form.length(), seed), n);
+                    keys[slot] = form.toCharArray();
+                    stems[slot] = stemOf.get(form);
+                }
+            }
+            if (placedAll) {
+                return new StemTable(keys, stems, seeds);
+            }
+        }
+    }
+
+    // First seed (>= 1) sending all members to distinct free slots, or -1
+    private static int place(List<String> members, char[][] keys, int size) {
+        int[] slots = new int[members.size()];
+        seeds:
+        for (int seed = 1; seed < MAX_SEED_TRIES; seed++) {
+            for (int i = 0; i < slots.length; i++) {
+                String form = members.get(i);
+                int slot = index(hash(form, 0, form.length(), seed), size);
+                if (keys[slot] != null) {
+                    continue seeds;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (slots[j] == slot) {
+                        continue seeds;
+                    }
+                }
+                slots[i] = slot;
+            }
+            return seed;
+        }
+        return -1;
+    }
+
+    /** The keyword for s[from, to) (ASCII letters, any case), or null if it isn't an inflected form. */
+    public String stem(CharSequence s, int from, int to) {
+        int length = to - from;
+        if (length < minLength || length > maxLength
+                || (firstLetters & 1 << ((s.charAt(from) | 0x20) - 'a')) == 0
+                || (lastLetters & 1 << ((s.charAt(to - 1) | 0x20) - 'a')) == 0) {
+            return null;
+        }
+        int bucket = index(hash(s, from, to, 0), seeds.length);
+        int slot = index(hash(s, from, to, seeds[bucket]), keys.length);
+        char[] key = keys[slot];
+        if (key.length != length) {
+            return null;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if ((s.charAt(from + i) | 0x20) != key[i]) {
+                return null;
+            }
+        }
+        return stems[slot];
+    }
+
+    /** Number of inflected forms in the table. */
+    public int size() {
+        return keys.length;
+    }
+
+    // FNV-1a over ASCII-folded chars, seeded, finished with murmur3's fmix32
+    private static int hash(CharSequence s, int from, int to, int seed) {
+        int h = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+        for (int i = from; i < to; i++) {
+            h = (h ^ (s.charAt(i) | 0x20)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int index(int hash, int size) {
+        return (int) ((hash & 0xFFFFFFFFL) % size);
+    }
+}
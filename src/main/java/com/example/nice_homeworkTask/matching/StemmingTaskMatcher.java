@@ -0,0 +1,139 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Tokenizer stage in front of another engine: inflected words are replaced by
+ * the catalog keyword they inflect ("resetting my passwords" -> "reset my
+ * password"), then the wrapped engine matches the patterns on those stems.
+ *
+ * Rule:
+ * - Words = runs of regex word chars (letter, digit, '_'), the same runs \b
+ *   sees; only all-ASCII-letter words are looked up (StemTable, built from the
+ *   catalog). Everything else is copied unchanged.
+ * - A stem is written in lower case (the catalogs are case-insensitive).
+ * - No word changed -> the wrapped engine gets the same String (nothing
+ *   allocated); otherwise one StringBuilder per request.
+ * - Opt-in (suggest-task.matching.stemming): with it, near misses such as
+ *   "my passwords reset" do match.
+ */
+public final class StemmingTaskMatcher implements TaskMatcher {
+
+    private final TaskMatcher delegate;
+    private final StemTable stems;
+
+    public StemmingTaskMatcher(TaskMatcher delegate, StemTable stems) {
+        this.delegate = delegate;
+        this.stems = stems;
+    }
+
+    /** Stems for the catalog's keywords, in front of delegate. */
+    public StemmingTaskMatcher(TaskMatcher delegate, TaskCatalog catalog) {
+        this(delegate, StemTable.build(catalog));
+    }
+
+    @Override
+    public String findFirstMatchTask(String text) {
+        return delegate.findFirstMatchTask(stem(text));
+    }
+
+    @Override
+    public List<TaskMatch> findAllMatches(String text) {
+        String stemmed = stem(text);
+        List<TaskMatch> found = delegate.findAllMatches(stemmed);
+        if (stemmed == text || found.isEmpty()) {
+            return found;
+        }
+        int[] from = new int[stemmed.length()];
+        int[] to = new int[stemmed.length()];
+        sources(text, from, to);
+        List<TaskMatch> mapped = new ArrayList<>(found.size());
+        for (TaskMatch m : found) {
+            int end = m.end() > m.start() ? to[m.end() - 1] : from[m.start()];
+            mapped.add(new TaskMatch(m.task(), from[m.start()], end));
+        }
+        return mapped;
+    }
+
+    @Override
+    public String name() {
+        return "stemming+" + delegate.name();
+    }
+
+    /** text with every inflected catalog keyword replaced by its stem. */
+    public String stem(String text) {
+        StringBuilder out = null;
+        int copied = 0;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            if (!isWordChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            boolean asciiLetters = true;
+            while (i < n && isWordChar(text.charAt(i))) {
+                char c = text.charAt(i);
+                asciiLetters &= (c | 0x20) >= 'a' && (c | 0x20) <= 'z';
+                i++;
+            }
+            if (!asciiLetters) {
+                continue;
+            }
+            String stem = stems.stem(text, start, i);
+            if (stem != null) {
+                if (out == null) {
+                    out = new StringBuilder(n);
+                }
+                out.append(text, copied, start).append(stem);
+                copied = i;
+            }
+        }
+        if (out == null) {
+            return text;
+        }
+        return out.append(text, copied, n).toString();
+    }
+
+    // Source span [from[i], to[i]) in text of every char of stem(text)
+    private void sources(String text, int[] from, int[] to) {
+        int n = text.length();
+        int out = 0;
+        int i = 0;
+        while (i < n) {
+            if (!isWordChar(text.charAt(i))) {
+                from[out] = i;
+                to[out++] = ++i;
+                continue;
+            }
+            int start = i;
+            boolean asciiLetters = true;
+            while (i < n && isWordChar(text.charAt(i))) {
+                char c = text.charAt(i);
+                asciiLetters &= (c | 0x20) >= 'a' && (c | 0x20) <= 'z';
+                i++;
+            }
+            String stem = asciiLetters ? stems.stem(text, start, i) : null;
+            if (stem == null) {
+                for (int k = start; k < i; k++) {
+                    from[out] = k;
+                    to[out++] = k + 1;
+                }
+            } else {
+                for (int k = 0; k < stem.length(); k++) {
+                    from[out] = start;
+                    to[out++] = i;
+                }
+            }
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        if (c < 0x80) {
+            return (c | 0x20) >= 'a' && (c | 0x20) <= 'z' || c >= '0' && c <= '9' || c == '_';
+        }
+        return Character.isLetterOrDigit(c);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.regex.Pattern;
+
+/*
+ * A set of tasks and the regex patterns that detect each one.
+ *
+ * Rule:
+ * - Tasks keep a fixed order. When two tasks match at the same position, the
+ *   task that comes first wins (every engine must follow this).
+ * - That order is the declared one (text format, LinkedHashMap, SortedMap), or,
+ *   for a map without an order of its own (Map.of, HashMap), the deterministic
+ *   priority of CatalogAnalysis: never the hash order of the map.
+ * - analysis(): conflicts between patterns, spans, priority; computed once here.
+ * - Immutable; engines are built from a catalog and never change it.
+ * - fingerprint() identifies the catalog content (task names + pattern sources
+ *   + flags), e.g. to discard results computed against another catalog version.
+ *
+ * Text format (parse):
+ *   # comment
+ *   ResetPasswordTask: \breset\b[\s\S]{0,15}\bpassword\b
+ *   ResetPasswordTask: \bpassword\s+reset\b
+ *   CheckOrderStatusTask: \btrack order\b
+ * - One "Task: regex" per line, split at the first ':'. Patterns are compiled
+ *   CASE_INSENSITIVE like the built-in ones. Task order = first appearance.
+ */
+public final class TaskCatalog {
+
+    private final String name;
+    private final List<String> tasks;
+    private final List<List<Pattern>> patterns;
+    private final long fingerprint;
+    private final CatalogAnalysis analysis;
+
+    private TaskCatalog(String name, Map<String, List<Pattern>> taskPatterns, boolean declaredOrder) {
+        this.name = name;
+        List<String> t = new ArrayList<>();
+        List<List<Pattern>> p = new ArrayList<>();
+        for (Map.Entry<String, List<Pattern>> e : taskPatterns.entrySet()) {
+            t.add(e.getKey());
+            p.add(List.copyOf(e.getValue()));
+        }
+        CatalogAnalysis a = CatalogAnalysis.analyze(name, t, p, declaredOrder);
+        if (!declaredOrder) {
+            Map<String, List<Pattern>> ordered = CatalogAnalysis.inPriorityOrder(taskPatterns, a.priority());
+            t = new ArrayList<>(ordered.keySet());
+            p = new ArrayList<>();
+            for (List<Pattern> patternsOfTask : ordered.values()) {
+                p.add(List.copyOf(patternsOfTask));
+            }
+        }
+        this.tasks = Collections.unmodifiableList(t);
+        this.patterns = Collections.unmodifiableList(p);
+        this.fingerprint = computeFingerprint(t, p);
+        this.analysis = a;
+    }
+
+    /**
+     * A catalog of the map's tasks: in its iteration order if it has a defined
+     * one (LinkedHashMap, SortedMap), otherwise in CatalogAnalysis priority order.
+     */
+    public static TaskCatalog of(String name, Map<String, List<Pattern>> taskPatterns) {
+        return new TaskCatalog(name, taskPatterns,
+                taskPatterns instanceof LinkedHashMap || taskPatterns instanceof SortedMap);
+    }
+
+    /** Reads a catalog in the text format described above. */
+    public static TaskCatalog parse(String name, Reader source) throws IOException {
+        Map<String, List<Pattern>> taskPatterns = new LinkedHashMap<>();
+        BufferedReader in = new BufferedReader(source);
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0 || colon == trimmed.length() - 1) {
+                throw new IllegalArgumentException(name + ":" + lineNo + ": expected 'Task: regex'");
+            }
+            String task = trimmed.substring(0, colon).trim();
+            String regex = trimmed.substring(colon + 1).trim();
+            taskPatterns.computeIfAbsent(task, k -> new ArrayList<>())
+                    .add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+        }
+        return new TaskCatalog(name, taskPatterns, true);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Task names in priority order. */
+    public List<String> tasks() {
+        return tasks;
+    }
+
+    public int taskCount() {
+        return tasks.size();
+    }
+
+    /** Patterns of the task at this index (same order as tasks()). */
+    public List<Pattern> patterns(int taskIndex) {
+        return patterns.get(taskIndex);
+    }
+
+    /**
+     * 64-bit content hash (SHA-256 prefix). Tasks are hashed sorted by name, so it
+     * does not depend on the iteration order of the map the catalog came from.
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    private static long computeFingerprint(List<String> tasks, List<List<Pattern>> patterns) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(tasks::get));
+        for (int i : order) {
+            sha.update(tasks.get(i).getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            for (Pattern p : patterns.get(i)) {
+                sha.update(p.pattern().getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0);
+                sha.update(Integer.toString(p.flags()).getBytes(StandardCharsets.US_ASCII));
+                sha.update((byte) 1);
+            }
+            sha.update((byte) 2);
+        }
+        byte[] d = sha.digest();
+        long h = 0;
+        for (int i = 0; i < 8; i++) {
+            h = (h << 8) | (d[i] & 0xff);
+        }
+        return h;
+    }
+
+    /** What the patterns do to each other (conflicts, spans, priority), from loading time. */
+    public CatalogAnalysis analysis() {
+        return analysis;
+    }
+
+    public int patternCount() {
+        int n = 0;
+        for (List<Pattern> p : patterns) {
+            n += p.size();
+        }
+        return n;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.nice_homeworkTask.matching;
+
+/**
+ * One task found in a text (multi-task extraction, TaskMatcher.findAllMatches):
+ * the match of one of its patterns spans chars [start, end).
+ */
+public record TaskMatch(String task, int start, int end) {
+}
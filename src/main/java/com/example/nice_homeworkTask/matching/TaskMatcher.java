@@ -0,0 +1,31 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.List;
+
+/*
+ * A matching engine: picks the task whose first match appears earliest in the text.
+ *
+ * Contract (all engines):
+ * - The text is already normalized (whitespace runs collapsed to one space).
+ * - Earliest match start wins; on a tie, the task listed first in the catalog wins.
+ * - No match -> NO_TASK.
+ * - Thread-safe: one instance serves all requests.
+ *
+ * Multi-task extraction (findAllMatches): the same rule applied repeatedly. The
+ * earliest match (ties -> catalog order) is taken, the next one must start at or
+ * after its end, and so on: every non-overlapping task match in text order. The
+ * first one is always the findFirstMatchTask result.
+ */
+public interface TaskMatcher {
+
+    /** Returned when no task matches. */
+    String NO_TASK = "NoTaskFound";
+
+    String findFirstMatchTask(String text);
+
+    /** Every non-overlapping task match in text order (empty: NO_TASK); spans are in text. */
+    List<TaskMatch> findAllMatches(String text);
+
+    /** Short engine name, for logs and metrics (e.g. "regex"). */
+    String name();
+}
@@ -0,0 +1,13 @@
+package com.example.nice_homeworkTask.matching;
+
+/*
+ * Builds the configured matching engine for a catalog (see MatchingConfig).
+ *
+ * Used for the built-in catalog (the live engine) and for tenant catalogs
+ * (TenantEngines), so both match with the same engine and stemming setting.
+ */
+@FunctionalInterface
+public interface TaskMatcherFactory {
+
+    TaskMatcher create(TaskCatalog catalog);
+}
@@ -0,0 +1,31 @@
+package com.example.nice_homeworkTask.matching;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Builds a matching engine by name (used for the shadow candidate and config).
+ *
+ * Engines:
+ * - "regex": RegexTaskMatcher (reference implementation)
+ * - "chunked": ChunkedTaskMatcher on the common ForkJoin pool (parallel above 64K chars)
+ * - "bytecode": BytecodeTaskMatcher (generated code per pattern shape, regex fallback)
+ * - "anchored": AnchoredTaskMatcher (SIMD scan for keyword starts when jdk.incubator.vector is present)
+ * - "stemming": StemmingTaskMatcher in front of RegexTaskMatcher (inflected keywords match)
+ */
+public final class TaskMatchers {
+
+    private TaskMatchers() {
+    }
+
+    public static TaskMatcher create(String engine, TaskCatalog catalog) {
+        return switch (engine) {
+            case "regex" -> new RegexTaskMatcher(catalog);
+            case "chunked" -> new ChunkedTaskMatcher(catalog, ChunkedTaskMatcher.DEFAULT_THRESHOLD,
+                    ChunkedTaskMatcher.DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+            case "bytecode" -> new BytecodeTaskMatcher(catalog);
+            case "anchored" -> new AnchoredTaskMatcher(catalog, true);
+            case "stemming" -> new StemmingTaskMatcher(new RegexTaskMatcher(catalog), catalog);
+            default -> throw new IllegalArgumentException("Unknown matching engine '" + engine + "'");
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.nice_homeworkTask.matching;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * AnchorScanner on SIMD registers (jdk.incubator.vector, preferred species:
+ * 8 chars per step with SSE, 16 with AVX2, 32 with AVX-512).
+ *
+ * Per step: load the chars at j, j + 1 (and j - 1 only if a prefix matched),
+ * fold them with one OR, compare against every prefix and AND/OR the lane
+ * masks; the first set lane is the candidate. The last partial step goes to
+ * the scalar scanner, so both return exactly the same candidates.
+ *
+ * Only loaded when the module is in the boot layer (java --add-modules
+ * jdk.incubator.vector); see AnchoredTaskMatcher.vectorAvailable().
+ */
+final class VectorAnchorScanner implements AnchorScanner {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private final short[] first;
+    private final short[] second;
+    private final ScalarAnchorScanner tail;
+
+    VectorAnchorScanner(char[] first, char[] second) {
+        this.first = new short[first.length];
+        this.second = new short[second.length];
+        for (int q = 0; q < first.length; q++) {
+            this.first[q] = (short) first[q];
+            this.second[q] = (short) second[q];
+        }
+        this.tail = new ScalarAnchorScanner(first, second);
+    }
+
+    @Override
+    public int next(char[] a, int from, int to) {
+        int lanes = SPECIES.length();
+        int j = from;
+        // the step reads a[j - 1 .. j + lanes]
+        for (; j + lanes < to; j += lanes) {
+            ShortVector cur = ShortVector.fromCharArray(SPECIES, a, j).or((short) 0x20);
+            ShortVector next = ShortVector.fromCharArray(SPECIES, a, j + 1).or((short) 0x20);
+            VectorMask<Short> hit = cur.eq(first[0]);
+            if (second[0] != 0) {
+                hit = hit.and(next.eq(second[0]));
+            }
+            for (int q = 1; q < first.length; q++) {
+                VectorMask<Short> m = cur.eq(first[q]);
+                if (second[q] != 0) {
+                    m = m.and(next.eq(second[q]));
+                }
+                hit = hit.or(m);
+            }
+            if (hit.anyTrue()) {
+                hit = hit.andNot(isAsciiWord(ShortVector.fromCharArray(SPECIES, a, j - 1)));
+                if (hit.anyTrue()) {
+                    return j + hit.firstTrue();
+                }
+            }
+        }
+        return tail.next(a, j, to);
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+
+    // [A-Za-z0-9_] per lane (chars >= 0x8000 are negative shorts: never in range)
+    private static VectorMask<Short> isAsciiWord(ShortVector v) {
+        ShortVector lower = v.or((short) 0x20);
+        return lower.compare(VectorOperators.GE, (short) 'a').and(lower.compare(VectorOperators.LE, (short) 'z'))
+                .or(v.compare(VectorOperators.GE, (short) '0').and(v.compare(VectorOperators.LE, (short) '9')))
+                .or(v.eq((short) '_'));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.nice_homeworkTask.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/*
+ * Runs the (optional) external call with retries that can't turn into a retry storm.
+ *
+ * Rule:
+ * - Attempt 1 runs on the caller's thread. A failed attempt is retried (up to
+ *   max-attempts in total) only if the service-wide RetryBudget allows it;
+ *   otherwise suggest_task.retry.budget_exhausted is incremented and we give up.
+ * - Retries run later on the scheduler, after a jittered exponential backoff
+ *   (full jitter: random in [0, min(max, base * 2^(retry-1))]). The request
+ *   thread never sleeps or waits for them.
+ * - Failures are only logged; nothing is thrown to the caller.
+ * - done (optional) gets the time from execute() to the outcome (success, last
+ *   failure, budget refusal), on the thread that ran the last attempt.
+ *
+ * inline(): same rules, but retries run immediately on the caller's thread
+ * (no backoff). Used when the service is built without Spring (tests, tools).
+ */
+@Component
+public class ExternalCallRetrier implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ExternalCallRetrier.class);
+
+    /** Where (and when) retries run. */
+    @FunctionalInterface
+    public interface Scheduler {
+        void schedule(Runnable retry, long delayNanos);
+
+        /** Runs the retry right away on the calling thread, ignoring the delay. */
+        Scheduler INLINE = (retry, delayNanos) -> retry.run();
+    }
+
+    private final RetryBudget budget;
+    private final int maxAttempts;
+    private final long baseNanos;
+    private final long maxNanos;
+    private final Scheduler scheduler;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Counter exhausted;
+    private final Counter retries;
+
+    @Autowired
+    public ExternalCallRetrier(MeterRegistry meters,
+            @Value("${suggest-task.retry.max-attempts:3}") int maxAttempts,
+            @Value("${suggest-task.retry.budget.percent:0.2}") double percentCanRetry,
+            @Value("${suggest-task.retry.budget.min-per-second:10}") int minRetriesPerSecond,
+            @Value("${suggest-task.retry.budget.ttl:PT10S}") Duration ttl,
+            @Value("${suggest-task.retry.backoff.base:PT0.05S}") Duration backoffBase,
+            @Value("${suggest-task.retry.backoff.max:PT1S}") Duration backoffMax) {
+        this(new RetryBudget(ttl, minRetriesPerSecond, percentCanRetry, System::nanoTime), maxAttempts,
+                backoffBase, backoffMax, retryExecutor(), meters);
+    }
+
+    /** Retries on scheduler, budget and clock chosen by the caller (tests: a fake clock and a manual scheduler). */
+    public ExternalCallRetrier(RetryBudget budget, int maxAttempts, Duration backoffBase, Duration backoffMax,
+            Scheduler scheduler, MeterRegistry meters) {
+        this(budget, maxAttempts, backoffBase, backoffMax, scheduler, null, meters);
+    }
+
+    // Retries on executor (shut down with the bean)
+    private ExternalCallRetrier(RetryBudget budget, int maxAttempts, Duration backoffBase, Duration backoffMax,
+            ScheduledThreadPoolExecutor executor, MeterRegistry meters) {
+        this(budget, maxAttempts, backoffBase, backoffMax,
+                (retry, delayNanos) -> executor.schedule(retry, delayNanos, TimeUnit.NANOSECONDS), executor, meters);
+    }
+
+    private ExternalCallRetrier(RetryBudget budget, int maxAttempts, Duration backoffBase, Duration backoffMax,
+            Scheduler scheduler, ScheduledThreadPoolExecutor executor, MeterRegistry meters) {
+        this.budget = budget;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseNanos = backoffBase.toNanos();
+        this.maxNanos = backoffMax.toNanos();
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.exhausted = meters.counter("suggest_task.retry.budget_exhausted");
+        this.retries = meters.counter("suggest_task.retry.retries");
+        Gauge.builder("suggest_task.retry.budget.available", budget, RetryBudget::available).register(meters);
+    }
+
+    /** 3 attempts, 20% budget with 10/s reserve, retries inline (see class comment). */
+    public static ExternalCallRetrier inline() {
+        return new ExternalCallRetrier(new RetryBudget(Duration.ofSeconds(10), 10, 0.2, System::nanoTime), 3,
+                Duration.ZERO, Duration.ZERO, Scheduler.INLINE, new SimpleMeterRegistry());
+    }
+
+    private static ScheduledThreadPoolExecutor retryExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "external-call-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /** Runs call(attempt) until it returns normally, attempts run out or the budget says stop. */
+    public void execute(IntConsumer call) {
+        execute(call, null);
+    }
+
+    /** Same as execute(call); then done.accept(nanos since this call) once the outcome is known. */
+    public void execute(IntConsumer call, LongConsumer done) {
+        budget.deposit();
+        attempt(call, 1, System.nanoTime(), done);
+    }
+
+    private void attempt(IntConsumer call, int attempt, long start, LongConsumer done) {
+        try {
+            call.accept(attempt);
+            finish(start, done);
+            return;
+        } catch (RuntimeException ex) {
+            if (attempt >= maxAttempts) {
+                log.error("External call failed after {} attempts; continuing without it.", maxAttempts);
+                finish(start, done);
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                exhausted.increment();
+                log.warn("External call failed on attempt {}/{}: {}; retry budget exhausted, not retrying",
+                        attempt, maxAttempts, ex.getMessage());
+                finish(start, done);
+                return;
+            }
+            log.warn("External call failed on attempt {}/{}: {}", attempt, maxAttempts, ex.getMessage());
+        }
+        retries.increment();
+        try {
+            scheduler.schedule(() -> attempt(call, attempt + 1, start, done), backoffNanos(attempt));
+        } catch (RuntimeException rejected) {
+            log.warn("External call retry not scheduled: {}", rejected.toString()); // shutting down
+            finish(start, done);
+        }
+    }
+
+    private static void finish(long start, LongConsumer done) {
+        if (done != null) {
+            done.accept(System.nanoTime() - start);
+        }
+    }
+
+    // Delay before retry number `retry` (1 = the first retry)
+    private long backoffNanos(int retry) {
+        long ceiling = baseNanos << Math.min(retry - 1, 30);
+        if (ceiling < 0 || ceiling > maxNanos) {
+            ceiling = maxNanos;
+        }
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
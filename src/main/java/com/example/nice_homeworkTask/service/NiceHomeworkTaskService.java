@@ -1,24 +1,46 @@
 package com.example.nice_homeworkTask.service;
 
+import com.example.nice_homeworkTask.cache.ClassificationCache;
+import com.example.nice_homeworkTask.jfr.ExternalCallEvent;
+import com.example.nice_homeworkTask.jfr.NormalizeEvent;
+import com.example.nice_homeworkTask.latency.Stage;
+import com.example.nice_homeworkTask.latency.StageLatencies;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.shadow.ShadowEvaluator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.List;
+import java.util.function.LongConsumer;
 import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /*
  * This service maps a free-text utterance to a task name.
- * Bonus: it simulates an external dependency that may fail and retries up to 3 times.
- * The retry is logging-only and never changes the HTTP response.
+ * Bonus: it simulates an external dependency that may fail and retries up to 3 times
+ * (within a service-wide retry budget, with backoff off the request thread: see
+ * ExternalCallRetrier). The retry is logging-only and never changes the HTTP response.
+ * Concurrent calls with the same (whitespace-normalized) text share one
+ * computation and one external call (single-flight, not a cache).
+ * Optionally, a candidate engine re-classifies live traffic in the background
+ * (shadow mode, see ShadowEvaluator) without affecting the response.
+ * Matching results are cached per normalized text (ClassificationCache); the
+ * external call is not.
+ * Normalize, match and external call times go to StageLatencies (/actuator/stages).
  */
 @Service
 public class NiceHomeworkTaskService {
 
     // If we can't find a match, return NoTaskFound.
-    private static final String NO_TASK = "NoTaskFound";
+    private static final String NO_TASK = TaskMatcher.NO_TASK;
 
     // Logger for printing messages to the console (info/warn/error).
     private static final Logger log = LoggerFactory.getLogger(NiceHomeworkTaskService.class);
@@ -28,6 +50,9 @@ public class NiceHomeworkTaskService {
     // e.g., "reset ... password", "password ... reset").
     private static final int GAP = 15;
 
+    // Any run of whitespace (spaces, tabs, newlines); collapsed to one space before matching.
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private static final String ORDER_EXCEPT_IN_ORDER_TO = "(?:(?<!\\bin\\s)\\border\\b|\\border\\b(?!\\s+to))";
 
     /**
@@ -83,54 +108,274 @@ public class NiceHomeworkTaskService {
             "ResetPasswordTask", RESET_PASSWORD_PATTERNS,
             "CheckOrderStatusTask", CHECK_ORDER_PATTERNS);
 
+    // The patterns above as a catalog (Map.of has no order: task priority from CatalogAnalysis).
+    private static final TaskCatalog CATALOG = TaskCatalog.of("builtin", TASK_PATTERNS);
+
+    // Live matching engine (over CATALOG).
+    private final TaskMatcher matcher;
+
+    // Identical concurrent classifications in progress, keyed by normalized text
+    // (+ whether the external call is part of it). null when single-flight is off.
+    private final SingleFlight<FlightKey, String> inFlight;
+
+    // Candidate engine running in shadow. null = no shadow evaluation.
+    private final ShadowEvaluator shadow;
+
+    // Matching results by normalized text. null = no cache.
+    private final ClassificationCache cache;
+
+    // Retries (budget + backoff) of the external call.
+    private final ExternalCallRetrier retrier;
+
+    // Per-stage latency histograms, and the retrier's callback recording the external stage.
+    private final StageLatencies stages;
+    private final LongConsumer externalDone;
+
+    public NiceHomeworkTaskService() {
+        this(true);
+    }
+
+    public NiceHomeworkTaskService(boolean singleFlight) {
+        this(singleFlight, (TaskMatcher) null, null, null);
+    }
+
+    @Autowired
+    public NiceHomeworkTaskService(@Value("${suggest-task.single-flight.enabled:true}") boolean singleFlight,
+            ObjectProvider<TaskMatcher> matcher, ObjectProvider<ShadowEvaluator> shadow,
+            ObjectProvider<ClassificationCache> cache, ObjectProvider<ExternalCallRetrier> retrier,
+            ObjectProvider<StageLatencies> stages) {
+        this(singleFlight, matcher.getIfUnique(), shadow.getIfAvailable(), cache.getIfAvailable(),
+                retrier.getIfAvailable(), stages.getIfAvailable());
+    }
+
+    public NiceHomeworkTaskService(boolean singleFlight, ShadowEvaluator shadow, ClassificationCache cache) {
+        this(singleFlight, null, shadow, cache);
+    }
+
+    /** matcher must match against catalog(); null -> RegexTaskMatcher. */
+    public NiceHomeworkTaskService(boolean singleFlight, TaskMatcher matcher, ShadowEvaluator shadow,
+            ClassificationCache cache) {
+        this(singleFlight, matcher, shadow, cache, null);
+    }
+
+    /** retrier null -> ExternalCallRetrier.inline() (retries on the calling thread, no backoff). */
+    public NiceHomeworkTaskService(boolean singleFlight, TaskMatcher matcher, ShadowEvaluator shadow,
+            ClassificationCache cache, ExternalCallRetrier retrier) {
+        this(singleFlight, matcher, shadow, cache, retrier, null);
+    }
+
+    /** stages null -> StageLatencies.disabled() (nothing recorded). */
+    public NiceHomeworkTaskService(boolean singleFlight, TaskMatcher matcher, ShadowEvaluator shadow,
+            ClassificationCache cache, ExternalCallRetrier retrier, StageLatencies stages) {
+        this.retrier = retrier != null ? retrier : ExternalCallRetrier.inline();
+        this.stages = stages != null ? stages : StageLatencies.disabled();
+        this.externalDone = this.stages.enabled() ? nanos -> this.stages.record(Stage.EXTERNAL, nanos) : null;
+        this.matcher = matcher != null ? matcher : new RegexTaskMatcher(CATALOG);
+        this.inFlight = singleFlight ? new SingleFlight<>() : null;
+        this.shadow = shadow;
+        this.cache = cache != null && cache.isEnabled() ? cache : null;
+    }
+
+    /** The built-in catalog (what the live engine matches against). */
+    public static TaskCatalog catalog() {
+        return CATALOG;
+    }
+
+    /** Every task name suggestTask can return (catalog tasks + "NoTaskFound"). */
+    public List<String> taskNames() {
+        List<String> names = new ArrayList<>(CATALOG.tasks());
+        names.add(NO_TASK);
+        return names;
+    }
+
     /**
      * Main function used by the controller.
      * 1) If the text is empty -> return "NoTaskFound".
      * 2) Find which task appears first in the text (by regex position).
      * 3) If we found a task, call a fake external service with retry (bonus).
      * 4) Return the task name.
+     * Steps 2-3 are shared by concurrent calls with the same normalized text.
      */
     public String suggestTask(String utterance) {
+        return suggestTask(utterance, true);
+    }
+
+    /**
+     * Same as suggestTask(utterance), but externalCall=false skips step 3.
+     * Used where the side effect must not happen (e.g. JIT warm-up).
+     */
+    public String suggestTask(String utterance, boolean externalCall) {
+        return suggestTask(utterance, null, externalCall);
+    }
+
+    /**
+     * Same as suggestTask(utterance, externalCall), matched by another engine
+     * (e.g. a tenant's catalog, see TenantEngines). engine=null -> the built-in one.
+     * Results of other engines are not cached and not shadow-evaluated.
+     */
+    public String suggestTask(String utterance, TaskMatcher engine, boolean externalCall) {
         // Basic check: null or only spaces -> return "NoTaskFound"
         if (utterance == null || utterance.trim().isEmpty()) {
             return NO_TASK;
         }
 
-        // Find the fist matching task
-        String task = findFirstMatchTask(utterance);
+        TaskMatcher m = engine != null ? engine : matcher;
+        long normalizeStart = stages.start();
+        String text = normalize(utterance);
+        stages.stop(Stage.NORMALIZE, normalizeStart);
+        if (inFlight == null) {
+            return classify(text, utterance, m, externalCall);
+        }
+        // Same text already being classified by another request -> wait for its result
+        return inFlight.run(new FlightKey(text, m, externalCall), () -> classify(text, utterance, m, externalCall));
+    }
+
+    /**
+     * Multi-task extraction: every non-overlapping task match in utterance order
+     * (see TaskMatcher.findAllMatches), with spans in the utterance as given
+     * (before whitespace normalization). Empty list = NoTaskFound.
+     * Steps 1 and 3 as in suggestTask (one external call if anything matched);
+     * not cached, not shared with concurrent calls, not shadow-evaluated.
+     */
+    public List<TaskMatch> suggestTasks(String utterance, TaskMatcher engine, boolean externalCall) {
+        if (utterance == null || utterance.trim().isEmpty()) {
+            return List.of();
+        }
+        TaskMatcher m = engine != null ? engine : matcher;
+        long normalizeStart = stages.start();
+        String text = normalize(utterance);
+        stages.stop(Stage.NORMALIZE, normalizeStart);
+
+        long matchStart = stages.start();
+        List<TaskMatch> found = m.findAllMatches(text);
+        stages.stop(Stage.MATCH, matchStart);
+        if (text.length() != utterance.length() && !found.isEmpty()) {
+            found = toUtteranceSpans(utterance, text, found);
+        }
+
+        if (externalCall && !found.isEmpty()) {
+            callExternalWithRetry(utterance);
+        }
+        return found;
+    }
+
+    /**
+     * suggestTask for batch work (e.g. POST /suggestTask/bulk): steps 1-2 only, matched
+     * directly by the engine. No external call, no ClassificationCache (a batch of
+     * distinct texts would only evict the live hot set), no single-flight sharing and
+     * no shadow sampling (the shadow report is about live traffic).
+     */
+    public String suggestTaskUncached(String utterance, TaskMatcher engine) {
+        if (utterance == null || utterance.trim().isEmpty()) {
+            return NO_TASK;
+        }
+        TaskMatcher m = engine != null ? engine : matcher;
+        long normalizeStart = stages.start();
+        String text = normalize(utterance);
+        stages.stop(Stage.NORMALIZE, normalizeStart);
+
+        long matchStart = stages.start();
+        String task = m.findFirstMatchTask(text);
+        stages.stop(Stage.MATCH, matchStart);
+        return task;
+    }
+
+    /** suggestTasks for batch work, like suggestTaskUncached: no external call. */
+    public List<TaskMatch> suggestTasksUncached(String utterance, TaskMatcher engine) {
+        return suggestTasks(utterance, engine, false);
+    }
+
+    // Spans in the normalized text -> spans in the utterance (a collapsed space covers its whole run)
+    private static List<TaskMatch> toUtteranceSpans(String utterance, String text, List<TaskMatch> found) {
+        int[] from = new int[text.length() + 1];
+        int i = 0;
+        for (int j = 0; j < text.length(); j++) {
+            from[j] = i;
+            if (isWhitespace(utterance.charAt(i))) {
+                while (i < utterance.length() && isWhitespace(utterance.charAt(i))) {
+                    i++;
+                }
+            } else {
+                i++;
+            }
+        }
+        from[text.length()] = utterance.length();
+        List<TaskMatch> mapped = new ArrayList<>(found.size());
+        for (TaskMatch t : found) {
+            int end = t.end() == 0 ? 0
+                    : text.charAt(t.end() - 1) == ' ' ? from[t.end()] : from[t.end() - 1] + 1;
+            mapped.add(new TaskMatch(t.task(), from[t.start()], end));
+        }
+        return mapped;
+    }
+
+    // The chars of \s (WHITESPACE)
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /** Collapses every whitespace run to a single space (what the patterns are written against). */
+    static String normalize(String utterance) {
+        NormalizeEvent event = new NormalizeEvent();
+        event.begin();
+        String text = WHITESPACE.matcher(utterance).replaceAll(" ");
+        event.end();
+        if (event.shouldCommit()) {
+            event.inputLength = utterance.length();
+            event.outputLength = text.length();
+            event.commit();
+        }
+        return text;
+    }
+
+    // Matching + bonus external call for one normalized text.
+    private String classify(String text, String utterance, TaskMatcher engine, boolean externalCall) {
+        long matchStart = stages.start();
+        String task;
+        if (engine != matcher) {
+            task = engine.findFirstMatchTask(text);
+        } else if (shadow != null && shadow.sample()) {
+            // Sampled before the cache lookup: the shadow sees every request (hot texts
+            // as often as they occur), and the live latency is a real match
+            task = shadowed(text);
+            if (cache != null) {
+                cache.put(text, task);
+            }
+        } else {
+            // Find the fist matching task (cached, or computed and then cached)
+            task = cache != null ? cache.get(text) : null;
+            if (task == null) {
+                task = findFirstMatchTask(text);
+                if (cache != null) {
+                    cache.put(text, task);
+                }
+            }
+        }
+        stages.stop(Stage.MATCH, matchStart);
 
         // 3) Bonus: simulate an external call with retry (does not change the result).
-        if (!NO_TASK.equals(task)) {
+        if (externalCall && !NO_TASK.equals(task)) {
             callExternalWithRetry(utterance);
         }
 
         return task;
     }
 
+    // Live matching, timed and handed to the shadow engine for comparison.
+    private String shadowed(String text) {
+        long start = System.nanoTime();
+        String task = findFirstMatchTask(text);
+        shadow.offer(text, task, System.nanoTime() - start);
+        return task;
+    }
+
     /**
      * Returns the task whose first regex match appears earliest in the text.
      * If nothing matches, returns "NoTaskFound"..
+     * The text must already be normalized (see normalize).
      */
-    private String findFirstMatchTask(String utterance) {
-
-        String text = utterance.replaceAll("\\s+", " ");
-        int bestPos = Integer.MAX_VALUE;
-        String bestTask = NO_TASK;
-
-        for (Map.Entry<String, List<Pattern>> entry : TASK_PATTERNS.entrySet()) {
-            String taskName = entry.getKey();
-            for (Pattern p : entry.getValue()) {
-                Matcher m = p.matcher(text);
-                if (m.find()) {
-                    int pos = m.start();
-                    if (pos < bestPos) {
-                        bestPos = pos;
-                        bestTask = taskName;
-                    }
-                }
-            }
-        }
-        return bestTask;
+    private String findFirstMatchTask(String text) {
+        return matcher.findFirstMatchTask(text);
     }
 
     /**
@@ -140,22 +385,33 @@ public class NiceHomeworkTaskService {
      * - Attempt 2: fail
      * - Attempt 3: success
      *
+     * Retries only happen while the retry budget allows them, after a jittered
+     * backoff on the retrier's thread (see ExternalCallRetrier).
      * We only log; we never rethrow. The HTTP response remains unchanged.
      */
     private void callExternalWithRetry(String utterance) {
-        final int maxAttempts = 3;
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+        retrier.execute(attempt -> {
+            ExternalCallEvent event = new ExternalCallEvent();
+            event.begin();
             try {
                 simulateExternalCall(utterance, attempt);
-                log.info("External call succeeded on attempt {}", attempt);
-                return; // success -> stop retrying
             } catch (RuntimeException ex) {
-                if (attempt < maxAttempts) {
-                    log.warn("External call failed on attempt {}/{}: {}", attempt, maxAttempts, ex.getMessage());
-                } else {
-                    log.error("External call failed after {} attempts; continuing without it.", maxAttempts);
-                }
+                commit(event, attempt, ex);
+                throw ex;
             }
+            commit(event, attempt, null);
+            log.info("External call succeeded on attempt {}", attempt);
+        }, externalDone);
+    }
+
+    // JFR: one external call attempt (ex = null: success)
+    private static void commit(ExternalCallEvent event, int attempt, RuntimeException ex) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.attempt = attempt;
+            event.success = ex == null;
+            event.error = ex == null ? null : ex.getMessage();
+            event.commit();
         }
     }
 
@@ -171,4 +427,8 @@ public class NiceHomeworkTaskService {
         // Attempt #3: success -> do nothing.
     }
 
+    /** Single-flight key: requests only share work if they'd do the same work. */
+    private record FlightKey(String text, TaskMatcher engine, boolean externalCall) {
+    }
+
 }
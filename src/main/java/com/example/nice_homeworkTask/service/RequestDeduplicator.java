@@ -0,0 +1,186 @@
+package com.example.nice_homeworkTask.service;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/*
+ * Recognizes client retries of the same request and replays the original response.
+ *
+ * Rule:
+ * - Two requests are "the same" when userId + sessionId + timestamp + utterance are equal.
+ * - The first one computes the response (matching + external call); every repeat seen
+ *   within the window gets that exact response back, without a second external call.
+ * - A repeat that arrives while the first one is still running waits for its result.
+ * - A result computed with remember=false (a degraded response: the external call
+ *   was skipped under load) is handed to the repeats already waiting for it, but
+ *   is not kept: a later retry computes again and can get the full response.
+ *
+ * Memory:
+ * - Entries live in a small ring of time buckets. Each bucket covers window / buckets.
+ *   When the ring wraps, the oldest bucket is dropped as a whole, so memory is bounded
+ *   by the traffic of one window instead of growing forever.
+ * - An entry is kept for at least "window" and at most "window + one bucket".
+ */
+@Component
+public class RequestDeduplicator {
+
+    private final boolean enabled;
+    private final long bucketNanos;
+    private final LongSupplier nanoClock;
+
+    // Ring of buckets; slot = bucket epoch % size.
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    @Autowired
+    public RequestDeduplicator(@Value("${suggest-task.dedup.window:PT30S}") Duration window,
+            @Value("${suggest-task.dedup.buckets:6}") int buckets) {
+        this(window, buckets, System::nanoTime);
+    }
+
+    /** Same as the Spring constructor, with a pluggable clock (used by tests). */
+    public RequestDeduplicator(Duration window, int buckets, LongSupplier nanoClock) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("buckets must be >= 1");
+        }
+        this.enabled = !window.isZero() && !window.isNegative();
+        this.bucketNanos = enabled ? Math.max(1, window.toNanos() / buckets) : 1;
+        this.nanoClock = nanoClock;
+        // One extra slot so a full window of buckets is always kept behind the current one.
+        this.buckets = new AtomicReferenceArray<>(buckets + 1);
+    }
+
+    /**
+     * Returns the response for this request.
+     * If an equal request was seen within the window, returns its response;
+     * otherwise runs compute once and remembers the result.
+     */
+    public NiceHomeworkTaskResponse deduplicate(NiceHomeworkTaskRequest req, Supplier<NiceHomeworkTaskResponse> compute) {
+        return deduplicate(req, true, compute);
+    }
+
+    /**
+     * Same, but the computed response is only kept in the window when remember is
+     * true (an earlier remembered response is still replayed either way).
+     */
+    public NiceHomeworkTaskResponse deduplicate(NiceHomeworkTaskRequest req, boolean remember,
+            Supplier<NiceHomeworkTaskResponse> compute) {
+        if (!enabled) {
+            return compute.get();
+        }
+
+        RequestKey key = new RequestKey(req.getUtterance(), req.getUserId(), req.getSessionId(), req.getTimestamp(),
+                req.getTenant(), req.getAllTasks());
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+
+        // 1) Seen recently? Replay it.
+        CompletableFuture<NiceHomeworkTaskResponse> previous = lookup(key, epoch);
+        if (previous != null) {
+            return await(previous);
+        }
+
+        // 2) First time: register in the current bucket, then compute.
+        CompletableFuture<NiceHomeworkTaskResponse> mine = new CompletableFuture<>();
+        Bucket current = currentBucket(epoch);
+        CompletableFuture<NiceHomeworkTaskResponse> raced = current.entries.putIfAbsent(key, mine);
+        if (raced != null) {
+            return await(raced); // another thread registered the same request first
+        }
+
+        try {
+            NiceHomeworkTaskResponse res = compute.get();
+            if (!remember) {
+                current.entries.remove(key, mine);
+            }
+            mine.complete(res);
+            return res;
+        } catch (RuntimeException ex) {
+            // Don't remember failures: the next retry should compute again.
+            current.entries.remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /** Number of remembered requests (for tests/diagnostics). */
+    public int size() {
+        int total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket b = buckets.get(i);
+            if (b != null) {
+                total += b.entries.size();
+            }
+        }
+        return total;
+    }
+
+    private CompletableFuture<NiceHomeworkTaskResponse> lookup(RequestKey key, long epoch) {
+        int live = buckets.length();
+        for (int age = 0; age < live; age++) {
+            Bucket b = buckets.get(slot(epoch - age));
+            if (b != null && b.epoch == epoch - age) {
+                CompletableFuture<NiceHomeworkTaskResponse> hit = b.entries.get(key);
+                if (hit != null) {
+                    return hit;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Returns the bucket for this epoch, replacing (evicting) whatever older bucket held the slot.
+    private Bucket currentBucket(long epoch) {
+        int slot = slot(epoch);
+        while (true) {
+            Bucket b = buckets.get(slot);
+            if (b != null && b.epoch >= epoch) {
+                return b;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, b, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length());
+    }
+
+    private static NiceHomeworkTaskResponse await(CompletableFuture<NiceHomeworkTaskResponse> f) {
+        try {
+            return f.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw ex;
+        }
+    }
+
+    /** One time slice of remembered requests. */
+    private static final class Bucket {
+        final long epoch;
+        final ConcurrentHashMap<RequestKey, CompletableFuture<NiceHomeworkTaskResponse>> entries = new ConcurrentHashMap<>();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    /** Identity of a client request (what a retry resends unchanged). */
+    private record RequestKey(String utterance, String userId, String sessionId, Instant timestamp, String tenant,
+            Boolean allTasks) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.nice_homeworkTask.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/*
+ * Service-wide cap on retries (the Finagle RetryBudget model).
+ *
+ * Rule:
+ * - Every first attempt deposits percentCanRetry of a retry; every retry
+ *   withdraws a whole one. Both expire after ttl, so the budget follows recent
+ *   traffic: with 20%, at most 1 retry per 5 first attempts over the last ttl.
+ * - A fixed reserve of minRetriesPerSecond * ttl retries is always there on top,
+ *   so low traffic (or a fresh start) can still retry.
+ * - When the balance is short of one retry, tryWithdraw says no: the caller gives
+ *   up instead of adding load to an upstream that is already failing.
+ *
+ * Accounting: integer tokens (1000 per retry) in a ring of time slots, like
+ * RequestDeduplicator's buckets; a slot older than ttl no longer counts.
+ */
+public final class RetryBudget {
+
+    private static final int SLOTS = 10;
+    private static final long RETRY = 1000; // tokens per retry
+
+    private final long deposit;
+    private final long reserve;
+    private final long slotNanos;
+    private final LongSupplier nanoClock;
+
+    // Net tokens (deposits - withdrawals) per slot; slot = epoch % SLOTS.
+    private final long[] epochs = new long[SLOTS];
+    private final long[] tokens = new long[SLOTS];
+
+    public RetryBudget(Duration ttl, int minRetriesPerSecond, double percentCanRetry, LongSupplier nanoClock) {
+        if (ttl.isZero() || ttl.isNegative() || minRetriesPerSecond < 0 || percentCanRetry < 0) {
+            throw new IllegalArgumentException("ttl must be > 0, minRetriesPerSecond and percentCanRetry >= 0");
+        }
+        this.deposit = Math.round(percentCanRetry * RETRY);
+        this.reserve = (long) Math.ceil(minRetriesPerSecond * (ttl.toNanos() / 1e9)) * RETRY;
+        this.slotNanos = Math.max(1, ttl.toNanos() / SLOTS);
+        this.nanoClock = nanoClock;
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    /** A first attempt was made. */
+    public synchronized void deposit() {
+        add(deposit);
+    }
+
+    /** Takes one retry from the budget; false = budget exhausted, don't retry. */
+    public synchronized boolean tryWithdraw() {
+        if (balance() < RETRY) {
+            return false;
+        }
+        add(-RETRY);
+        return true;
+    }
+
+    /** Retries the budget would allow right now. */
+    public synchronized long available() {
+        return Math.max(0, balance() / RETRY);
+    }
+
+    private long balance() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        long sum = reserve;
+        for (int i = 0; i < SLOTS; i++) {
+            if (epochs[i] > epoch - SLOTS) {
+                sum += tokens[i];
+            }
+        }
+        return sum;
+    }
+
+    private void add(long n) {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        int slot = Math.floorMod(epoch, SLOTS);
+        if (epochs[slot] != epoch) {
+            epochs[slot] = epoch;
+            tokens[slot] = 0;
+        }
+        tokens[slot] += n;
+    }
+}
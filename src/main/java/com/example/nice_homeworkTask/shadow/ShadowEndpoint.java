@@ -0,0 +1,25 @@
+package com.example.nice_homeworkTask.shadow;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/*
+ * GET /actuator/shadow: live vs candidate engine report
+ * (agreement rate, latency percentiles, recent disagreements).
+ */
+@Component
+@Endpoint(id = "shadow")
+public class ShadowEndpoint {
+
+    private final ShadowEvaluator evaluator;
+
+    public ShadowEndpoint(ShadowEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    @ReadOperation
+    public ShadowEvaluator.Report report() {
+        return evaluator.report();
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.nice_homeworkTask.shadow;
+
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskMatchers;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Shadow mode: runs a candidate matching engine next to the live one on real traffic.
+ *
+ * Rule:
+ * - The live engine answers the request as usual. The service hands
+ *   (normalized text, live task, live match time) to offer() and returns.
+ * - The candidate runs on its own small executor with a bounded queue. When the
+ *   queue is full the comparison is dropped (counted), never waited for, so the
+ *   shadow cannot add latency or back-pressure to the live path.
+ * - Only starts after ApplicationReadyEvent: warm-up traffic is not compared.
+ * - sample-rate < 1 shadows only that fraction of requests.
+ *
+ * Recorded (Micrometer, also in /actuator/metrics):
+ * - suggest_task.shadow.latency{role=live|candidate}   match time per engine (p50/p90/p99/p999)
+ * - suggest_task.shadow.comparisons                    requests compared
+ * - suggest_task.shadow.disagreements{live,candidate}  different answers, per task pair
+ * - suggest_task.shadow.dropped                        skipped because the queue was full
+ * - suggest_task.shadow.errors                         candidate threw
+ * The last max-samples disagreements (utterance + both answers) are kept in memory;
+ * /actuator/shadow (ShadowEndpoint) shows everything in one report.
+ */
+@Component
+public class ShadowEvaluator implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowEvaluator.class);
+
+    // Longest utterance kept in a disagreement sample (characters).
+    private static final int MAX_SAMPLE_LENGTH = 256;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final boolean enabled;
+    private final String liveEngine;
+    private final TaskMatcher candidate;
+    private final String candidateCatalog;
+    private final double sampleRate;
+    private final int maxSamples;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meters;
+
+    private final Timer liveLatency;
+    private final Timer candidateLatency;
+    private final Counter comparisons;
+    private final Counter dropped;
+    private final Counter errors;
+
+    // Newest last; guarded by itself. Only touched by shadow threads and the endpoint.
+    private final ArrayDeque<Disagreement> samples = new ArrayDeque<>();
+
+    private volatile boolean accepting;
+
+    @Autowired
+    public ShadowEvaluator(MeterRegistry meters, ResourceLoader resources,
+            ObjectProvider<TaskMatcher> liveTaskMatcher,
+            @Value("${suggest-task.shadow.enabled:false}") boolean enabled,
+            @Value("${suggest-task.shadow.engine:regex}") String engine,
+            @Value("${suggest-task.shadow.catalog:}") String catalogLocation,
+            @Value("${suggest-task.shadow.threads:1}") int threads,
+            @Value("${suggest-task.shadow.queue-capacity:1024}") int queueCapacity,
+            @Value("${suggest-task.shadow.sample-rate:1.0}") double sampleRate,
+            @Value("${suggest-task.shadow.max-samples:100}") int maxSamples) {
+        this(enabled ? loadCatalog(resources, catalogLocation) : null, engine, liveEngineName(liveTaskMatcher),
+                meters, threads, queueCapacity, sampleRate, maxSamples);
+    }
+
+    private ShadowEvaluator(TaskCatalog catalog, String engine, String liveEngine, MeterRegistry meters,
+            int threads, int queueCapacity, double sampleRate, int maxSamples) {
+        this(catalog != null ? TaskMatchers.create(engine, catalog) : null,
+                catalog != null ? catalog.name() : null, liveEngine,
+                meters, threads, queueCapacity, sampleRate, maxSamples, false);
+    }
+
+    /**
+     * Programmatic use (tests, benchmarks): compares against candidate (built on the
+     * catalog named candidateCatalog) right away. The live engine is reported as "regex".
+     */
+    public ShadowEvaluator(TaskMatcher candidate, String candidateCatalog, MeterRegistry meters, int threads,
+            int queueCapacity, double sampleRate, int maxSamples) {
+        this(candidate, candidateCatalog, "regex", meters, threads, queueCapacity, sampleRate, maxSamples, true);
+    }
+
+    private ShadowEvaluator(TaskMatcher candidate, String candidateCatalog, String liveEngine, MeterRegistry meters,
+            int threads, int queueCapacity, double sampleRate, int maxSamples, boolean acceptNow) {
+        this.enabled = candidate != null;
+        this.liveEngine = liveEngine;
+        this.candidate = candidate;
+        this.candidateCatalog = candidateCatalog;
+        this.sampleRate = sampleRate;
+        this.maxSamples = maxSamples;
+        this.meters = meters;
+        this.accepting = enabled && acceptNow;
+
+        this.liveLatency = latencyTimer(meters, "live");
+        this.candidateLatency = latencyTimer(meters, "candidate");
+        this.comparisons = meters.counter("suggest_task.shadow.comparisons");
+        this.dropped = meters.counter("suggest_task.shadow.dropped");
+        this.errors = meters.counter("suggest_task.shadow.errors");
+
+        if (enabled) {
+            AtomicInteger ids = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, "shadow-" + ids.incrementAndGet());
+                        t.setDaemon(true);
+                        t.setPriority(Thread.MIN_PRIORITY);
+                        return t;
+                    },
+                    (r, ex) -> dropped.increment());
+        } else {
+            this.executor = null;
+        }
+    }
+
+    private static Timer latencyTimer(MeterRegistry meters, String role) {
+        return Timer.builder("suggest_task.shadow.latency")
+                .description("Matching time of the live and the candidate engine on the same requests")
+                .tag("role", role)
+                .publishPercentiles(PERCENTILES)
+                .register(meters);
+    }
+
+    // The engine NiceHomeworkTaskService matches with (see MatchingConfig), by name
+    private static String liveEngineName(ObjectProvider<TaskMatcher> liveTaskMatcher) {
+        TaskMatcher live = liveTaskMatcher.getIfUnique();
+        return live != null ? live.name() : "regex";
+    }
+
+    private static TaskCatalog loadCatalog(ResourceLoader resources, String location) {
+        if (location.isBlank()) {
+            return NiceHomeworkTaskService.catalog();
+        }
+        Resource resource = resources.getResource(location);
+        try (Reader in = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return TaskCatalog.parse(location, in);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot read shadow catalog " + location, ex);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (enabled) {
+            accepting = true;
+            log.info("Shadow evaluation started: candidate engine '{}' on catalog '{}'",
+                    candidate.name(), candidateCatalog);
+        }
+    }
+
+    /** True if the current request should be compared (cheap; called on the live path). */
+    public boolean sample() {
+        return accepting && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Queues one comparison. Never blocks: drops it when the shadow is behind.
+     * text must be the normalized text the live engine matched.
+     */
+    public void offer(String text, String liveTask, long liveNanos) {
+        executor.execute(() -> compare(text, liveTask, liveNanos));
+    }
+
+    private void compare(String text, String liveTask, long liveNanos) {
+        String candidateTask;
+        long start = System.nanoTime();
+        try {
+            candidateTask = candidate.findFirstMatchTask(text);
+        } catch (RuntimeException ex) {
+            errors.increment();
+            log.warn("Shadow engine '{}' failed: {}", candidate.name(), ex.toString());
+            return;
+        }
+        long candidateNanos = System.nanoTime() - start;
+
+        liveLatency.record(liveNanos, TimeUnit.NANOSECONDS);
+        candidateLatency.record(candidateNanos, TimeUnit.NANOSECONDS);
+        comparisons.increment();
+
+        if (!liveTask.equals(candidateTask)) {
+            meters.counter("suggest_task.shadow.disagreements", "live", liveTask, "candidate", candidateTask)
+                    .increment();
+            String sample = text.length() <= MAX_SAMPLE_LENGTH ? text : text.substring(0, MAX_SAMPLE_LENGTH);
+            synchronized (samples) {
+                if (samples.size() == maxSamples) {
+                    samples.removeFirst();
+                }
+                samples.addLast(new Disagreement(Instant.now(), sample, liveTask, candidateTask));
+            }
+        }
+    }
+
+    /** Snapshot of everything recorded so far (what /actuator/shadow returns). */
+    public Report report() {
+        long disagreements = 0;
+        for (Counter c : meters.find("suggest_task.shadow.disagreements").counters()) {
+            disagreements += (long) c.count();
+        }
+        long compared = (long) comparisons.count();
+        List<Disagreement> recent;
+        synchronized (samples) {
+            recent = new ArrayList<>(samples);
+        }
+        Collections.reverse(recent);
+
+        Map<String, Latency> latency = new LinkedHashMap<>();
+        latency.put("live", Latency.of(liveEngine, liveLatency.takeSnapshot()));
+        latency.put("candidate", Latency.of(enabled ? candidate.name() : null, candidateLatency.takeSnapshot()));
+
+        return new Report(enabled, liveEngine, enabled ? candidate.name() : null, candidateCatalog,
+                compared, disagreements,
+                compared == 0 ? 1.0 : 1.0 - (double) disagreements / compared,
+                (long) dropped.count(), (long) errors.count(), latency, recent);
+    }
+
+    /** Waits until queued comparisons are done (tests). */
+    public void drain() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        while (executor.getQueue().size() > 0 || executor.getActiveCount() > 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public record Disagreement(Instant at, String utterance, String live, String candidate) {
+    }
+
+    /** Times in microseconds. */
+    public record Latency(String engine, long count, double mean, double p50, double p90, double p99,
+            double p999, double max) {
+
+        static Latency of(String engine, HistogramSnapshot s) {
+            double[] p = new double[PERCENTILES.length];
+            for (ValueAtPercentile v : s.percentileValues()) {
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    if (v.percentile() == PERCENTILES[i]) {
+                        p[i] = v.value(TimeUnit.MICROSECONDS);
+                    }
+                }
+            }
+            return new Latency(engine, s.count(), s.mean(TimeUnit.MICROSECONDS), p[0], p[1], p[2], p[3],
+                    s.max(TimeUnit.MICROSECONDS));
+        }
+    }
+
+    public record Report(boolean enabled, String liveEngine, String candidateEngine, String candidateCatalog,
+            long comparisons, long disagreements, double agreementRate, long dropped, long errors,
+            Map<String, Latency> latency, List<Disagreement> samples) {
+    }
+}
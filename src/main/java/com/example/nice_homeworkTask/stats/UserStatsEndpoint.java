@@ -0,0 +1,36 @@
+package com.example.nice_homeworkTask.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/*
+ * GET /actuator/userstats: size of the per-user task counts (users, off-heap bytes, compactions).
+ * GET /actuator/userstats/{userId}: task -> count for one user.
+ */
+@Component
+@Endpoint(id = "userstats")
+public class UserStatsEndpoint {
+
+    private final UserTaskStats stats;
+
+    public UserStatsEndpoint(UserTaskStats stats) {
+        this.stats = stats;
+    }
+
+    @ReadOperation
+    public UserTaskStats.Report report() {
+        return stats.report();
+    }
+
+    @ReadOperation
+    public UserCounts user(@Selector String userId) {
+        return new UserCounts(userId, stats.counts(userId));
+    }
+
+    public record UserCounts(String userId, Map<String, Long> tasks) {
+    }
+}
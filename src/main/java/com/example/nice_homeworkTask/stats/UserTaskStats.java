@@ -0,0 +1,391 @@
+package com.example.nice_homeworkTask.stats;
+
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/*
+ * Running count of the tasks each userId triggered, kept off the Java heap.
+ *
+ * Layout:
+ * - A userId is stored as a salted 64-bit hash, never as the id (new salt per
+ *   process, like DecisionStream); 0 marks an empty slot. Two users with the same
+ *   hash share their counts (about 1 in 10^4 over 50M users).
+ * - STRIPES independent open-addressing tables (linear probing), each one direct
+ *   ByteBuffer of fixed-size slots:
+ *     key long | last update int (minutes) | one int counter per task column
+ *   With the default 4 columns a slot is 32 bytes, so 50M users take ~2 GB of
+ *   direct memory (-XX:MaxDirectMemorySize) and nothing on the heap; a
+ *   ConcurrentHashMap<String, Map<String, Long>> needs several times that, all
+ *   of it traced by the GC (see UserTaskStatsBenchmark).
+ * - Task columns are fixed at construction from the known tasks (the built-in
+ *   catalog's, in priority order, then NoTaskFound): the first (columns - 1)
+ *   of them get a column; any other name (tenant tasks, tasks beyond the
+ *   columns) is counted under "other". So which task has a column does not
+ *   depend on the order traffic arrives in.
+ *
+ * Concurrency:
+ * - record(): the stripe's read lock (shared), a CAS to claim an empty slot for a
+ *   new user, then an atomic add on the counter (VarHandles on the buffer).
+ *   Nothing allocated.
+ * - A stripe more than 3/4 full doubles under its write lock; only users of that
+ *   stripe wait. A stripe that cannot grow (2 GB per buffer) drops new users
+ *   (counted in the report).
+ * - Compaction (every compaction-interval): each stripe in turn is rebuilt under
+ *   its write lock without the users idle for longer than retention, at most
+ *   half full afterwards. A stripe with no idle users and no size change is
+ *   left as it is (no new direct buffer).
+ */
+@Component
+public class UserTaskStats implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserTaskStats.class);
+
+    static final int STRIPES = 64;
+    public static final String OTHER = "other";
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private static final int KEY = 0;
+    private static final int LAST_SEEN = 8;
+    private static final int COUNTERS = 12;
+    private static final long MAX_BUFFER = Integer.MAX_VALUE;
+
+    private final boolean enabled;
+    private final int columns;
+    private final int slotSize;
+    private final int initialSlots;
+    private final long retentionMinutes;
+    private final LongSupplier clock;
+    private final long salt = new SecureRandom().nextLong();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final String[] columnNames;
+    private final Map<String, Integer> columnOf = new HashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final ScheduledExecutorService compactor;
+
+    @Autowired
+    public UserTaskStats(@Value("${suggest-task.user-stats.enabled:true}") boolean enabled,
+            @Value("${suggest-task.user-stats.columns:4}") int columns,
+            @Value("${suggest-task.user-stats.initial-capacity:65536}") int initialCapacity,
+            @Value("${suggest-task.user-stats.retention:P30D}") Duration retention,
+            @Value("${suggest-task.user-stats.compaction-interval:PT10M}") Duration compactionInterval) {
+        this(enabled, knownTasks(), columns, initialCapacity, retention, System::currentTimeMillis);
+        if (enabled && compactionInterval.toMillis() > 0) {
+            compactor.scheduleWithFixedDelay(this::compact, compactionInterval.toMillis(),
+                    compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * No scheduled compaction (call compact()); clock in epoch milliseconds.
+     * tasks: the names that get a column, in this order (at most columns - 1).
+     */
+    public UserTaskStats(boolean enabled, List<String> tasks, int columns, int initialCapacity, Duration retention,
+            LongSupplier clock) {
+        this.enabled = enabled;
+        this.columns = Math.max(2, Math.min(columns, tasks.size() + 1));
+        this.slotSize = (COUNTERS + 4 * this.columns + 7) & ~7;
+        this.initialSlots = powerOfTwo(Math.max(16, initialCapacity / STRIPES));
+        this.retentionMinutes = Math.max(1, retention.toMinutes());
+        this.clock = clock;
+        this.columnNames = new String[this.columns];
+        for (int c = 0; c < this.columns - 1 && c < tasks.size(); c++) {
+            columnNames[c] = tasks.get(c);
+            columnOf.putIfAbsent(tasks.get(c), c);
+        }
+        this.columnNames[this.columns - 1] = OTHER;
+        for (int s = 0; s < STRIPES; s++) {
+            stripes[s] = new Stripe(enabled ? initialSlots : 0, slotSize);
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-stats-compaction");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Records nothing (services and controllers built without Spring). */
+    public static UserTaskStats disabled() {
+        return new UserTaskStats(false, List.of(), 2, 0, Duration.ofDays(1), System::currentTimeMillis);
+    }
+
+    // The built-in catalog's tasks (priority order), then NoTaskFound
+    private static List<String> knownTasks() {
+        List<String> tasks = new ArrayList<>(NiceHomeworkTaskService.catalog().tasks());
+        tasks.add(TaskMatcher.NO_TASK);
+        return tasks;
+    }
+
+    /** Counts one task for userId. */
+    public void record(String userId, String task) {
+        if (!enabled || userId == null || task == null) {
+            return;
+        }
+        long key = hash(userId);
+        Stripe stripe = stripes[stripeOf(key)];
+        int column = column(task);
+        int now = minutes();
+        boolean grow;
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.findOrClaim(key);
+            if (slot < 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+            int base = slot * slotSize;
+            INTS.getAndAdd(stripe.buffer, base + COUNTERS + 4 * column, 1);
+            INTS.setOpaque(stripe.buffer, base + LAST_SEEN, now);
+            grow = stripe.size.get() > stripe.slots / 4 * 3 && (long) stripe.slots * 2 * slotSize <= MAX_BUFFER;
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+        if (grow) {
+            stripe.lock.writeLock().lock();
+            try {
+                if (stripe.size.get() > stripe.slots / 4 * 3 && (long) stripe.slots * 2 * slotSize <= MAX_BUFFER) {
+                    stripe.rehash(stripe.slots * 2, Integer.MIN_VALUE);
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** Task -> count for userId (tasks never recorded for it are left out; empty if unknown). */
+    public Map<String, Long> counts(String userId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (!enabled || userId == null) {
+            return counts;
+        }
+        long key = hash(userId);
+        Stripe stripe = stripes[stripeOf(key)];
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.find(key);
+            if (slot >= 0) {
+                int base = slot * slotSize;
+                for (int c = 0; c < columns; c++) {
+                    int n = (int) INTS.getVolatile(stripe.buffer, base + COUNTERS + 4 * c);
+                    if (n != 0) {
+                        counts.put(columnNames[c], Integer.toUnsignedLong(n));
+                    }
+                }
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /** Removes the users idle for longer than the retention and shrinks oversized stripes. */
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        int oldest = minutes() - (int) Math.min(retentionMinutes, Integer.MAX_VALUE / 2);
+        long removed = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                int live = stripe.countSince(oldest);
+                int slots = Math.min(stripe.slots, Math.max(initialSlots, powerOfTwo(live * 2)));
+                if (live == stripe.size.get() && slots == stripe.slots) {
+                    continue; // nothing to remove, nothing to shrink
+                }
+                removed += stripe.size.get() - live;
+                stripe.rehash(slots, oldest);
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        compactions.incrementAndGet();
+        evicted.addAndGet(removed);
+        log.debug("User stats compaction: {} idle users removed", removed);
+    }
+
+    /** What /actuator/userstats returns. */
+    public Report report() {
+        long users = 0;
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            users += stripe.size.get();
+            bytes += (long) stripe.slots * slotSize;
+        }
+        return new Report(enabled, users, bytes, slotSize, STRIPES, columnList(), dropped.get(), compactions.get(),
+                evicted.get());
+    }
+
+    @Override
+    public void destroy() {
+        compactor.shutdownNow();
+    }
+
+    private List<String> columnList() {
+        List<String> names = new ArrayList<>();
+        for (String name : columnNames) {
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // Fixed at construction (read-only afterwards): unknown names -> "other"
+    private int column(String task) {
+        Integer column = columnOf.get(task);
+        return column != null ? column : columns - 1;
+    }
+
+    private int minutes() {
+        return (int) (clock.getAsLong() / 60_000);
+    }
+
+    // FNV-1a over the chars, seeded with the per-process salt, then murmur3's fmix64; never 0
+    private long hash(String userId) {
+        long h = salt ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < userId.length(); i++) {
+            h ^= userId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    // Top bits pick the stripe, low bits the slot
+    private static int stripeOf(long key) {
+        return (int) (key >>> 58);
+    }
+
+    private static int powerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /** One open-addressing table; buffer and slots change only under the write lock. */
+    private static final class Stripe {
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final AtomicInteger size = new AtomicInteger();
+        final int slotSize;
+        ByteBuffer buffer;
+        int slots;
+
+        Stripe(int slots, int slotSize) {
+            this.slotSize = slotSize;
+            this.slots = slots;
+            this.buffer = ByteBuffer.allocateDirect(slots * slotSize).order(ByteOrder.nativeOrder());
+        }
+
+        int find(long key) {
+            int mask = slots - 1;
+            for (int i = (int) key & mask, probes = 0; probes < slots; i = (i + 1) & mask, probes++) {
+                long k = (long) LONGS.getVolatile(buffer, i * slotSize + KEY);
+                if (k == key) {
+                    return i;
+                }
+                if (k == 0) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        // Slot of key, claimed if new; -1 if the stripe is full (one slot always stays empty)
+        int findOrClaim(long key) {
+            int mask = slots - 1;
+            for (int i = (int) key & mask, probes = 0; probes < slots; i = (i + 1) & mask, probes++) {
+                int at = i * slotSize + KEY;
+                long k = (long) LONGS.getVolatile(buffer, at);
+                if (k == 0) {
+                    if (size.incrementAndGet() >= slots) {
+                        size.decrementAndGet();
+                        return -1;
+                    }
+                    k = (long) LONGS.compareAndExchange(buffer, at, 0L, key);
+                    if (k == 0) {
+                        return i;
+                    }
+                    size.decrementAndGet(); // another thread claimed the slot first
+                }
+                if (k == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int countSince(int oldest) {
+            int live = 0;
+            for (int i = 0; i < slots; i++) {
+                int base = i * slotSize;
+                if (buffer.getLong(base + KEY) != 0 && buffer.getInt(base + LAST_SEEN) >= oldest) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        // New buffer of newSlots with the entries last seen at or after oldest (write lock held)
+        void rehash(int newSlots, int oldest) {
+            ByteBuffer old = buffer;
+            int oldSlots = slots;
+            ByteBuffer fresh = ByteBuffer.allocateDirect(newSlots * slotSize).order(ByteOrder.nativeOrder());
+            int mask = newSlots - 1;
+            int kept = 0;
+            for (int i = 0; i < oldSlots; i++) {
+                int base = i * slotSize;
+                long key = old.getLong(base + KEY);
+                if (key == 0 || old.getInt(base + LAST_SEEN) < oldest) {
+                    continue;
+                }
+                int j = (int) key & mask;
+                while (fresh.getLong(j * slotSize + KEY) != 0) {
+                    j = (j + 1) & mask;
+                }
+                fresh.put(j * slotSize, old, base, slotSize);
+                kept++;
+            }
+            buffer = fresh;
+            slots = newSlots;
+            size.set(kept);
+        }
+    }
+
+    /** Sizes in bytes; users = distinct hashed userIds currently stored. */
+    public record Report(boolean enabled, long users, long offHeapBytes, int slotBytes, int stripes,
+            List<String> columns, long droppedUpdates, long compactions, long evictedUsers) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.nice_homeworkTask.stream;
+
+import java.time.Instant;
+
+/**
+ * One classification decision as seen by stream subscribers.
+ *
+ * @param sequence     position in the stream (increasing, gaps = dropped events)
+ * @param task         the task returned
+ * @param epochSecond  response timestamp (seconds)
+ * @param nano         response timestamp (nanos of second)
+ * @param userIdHash   salted 64-bit hash of the userId (not reversible across restarts)
+ */
+public record Decision(long sequence, String task, long epochSecond, int nano, long userIdHash) {
+
+    /** {"task":"...","timestamp":"...","userIdHash":"<16 hex>"} */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"task\":\"");
+        for (int i = 0; i < task.length(); i++) {
+            char c = task.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append("\",\"timestamp\":\"").append(Instant.ofEpochSecond(epochSecond, nano))
+                .append("\",\"userIdHash\":\"");
+        String hex = Long.toHexString(userIdHash);
+        sb.append("0".repeat(16 - hex.length())).append(hex).append("\"}");
+        return sb.toString();
+    }
+}
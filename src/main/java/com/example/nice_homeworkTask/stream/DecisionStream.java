@@ -0,0 +1,275 @@
+package com.example.nice_homeworkTask.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Live stream of classification decisions (for ops dashboards, see /decisions/stream).
+ *
+ * Publishing (request path):
+ * - No subscribers -> one volatile read, nothing else.
+ * - Otherwise the decision is written into a preallocated ring of slots:
+ *   a sequence number from one atomic increment, then plain field writes into the
+ *   slot, guarded by a per-slot version (seqlock). No locks, no allocation, and it
+ *   never waits for anyone.
+ *
+ * Reading (dispatcher side):
+ * - Every subscriber has its own cursor. Every poll-interval, each subscriber that
+ *   is not still busy with its previous batch gets the events after its cursor,
+ *   on a delivery thread of its own (at most one per subscriber).
+ * - A subscriber that falls more than the ring size behind has lost the
+ *   overwritten events: it skips ahead and is told how many it missed. A slow
+ *   subscriber only loses its own events; it never slows down publishing or
+ *   the other subscribers.
+ * - The userId is never stored: only a salted 64-bit hash (new salt per process).
+ *
+ * Limit: a slot can be written by two publishers at once only if more than
+ * buffer-size publishes are in flight at the same time; readers then may see a
+ * mixed event. Request threads (a few hundred) are far below the default size.
+ */
+@Component
+public class DecisionStream implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionStream.class);
+
+    // Largest batch handed to a subscriber in one delivery.
+    private static final int MAX_BATCH = 1024;
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(Slot.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Receives batches of decisions (called from a delivery thread, never concurrently). */
+    @FunctionalInterface
+    public interface Sink {
+        /** dropped = events this subscriber missed just before this batch. Throwing unsubscribes. */
+        void accept(List<Decision> events, long dropped) throws Exception;
+    }
+
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    private final long salt;
+    private final int maxSubscribers;
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean hasSubscribers;
+
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor delivery;
+    private final Counter dropped;
+
+    @Autowired
+    public DecisionStream(MeterRegistry meters,
+            @Value("${suggest-task.stream.buffer-size:4096}") int bufferSize,
+            @Value("${suggest-task.stream.max-subscribers:50}") int maxSubscribers,
+            @Value("${suggest-task.stream.poll-interval:PT0.1S}") Duration pollInterval) {
+        int size = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1; // next power of two
+        this.ring = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.salt = new SecureRandom().nextLong();
+        this.maxSubscribers = maxSubscribers;
+        this.dropped = meters.counter("suggest_task.stream.dropped");
+        Gauge.builder("suggest_task.stream.subscribers", subscriptions, List::size).register(meters);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "decision-stream"));
+        this.delivery = new ThreadPoolExecutor(0, Math.max(1, maxSubscribers), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> daemon(r, "decision-stream-delivery"));
+        long every = Math.max(1, pollInterval.toMillis());
+        ticker.scheduleWithFixedDelay(this::dispatch, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    /** Request path: records one decision. Never blocks, never allocates. */
+    public void publish(String task, Instant timestamp, String userId) {
+        if (!hasSubscribers) {
+            return;
+        }
+        long seq = cursor.getAndIncrement();
+        Slot s = ring[(int) seq & mask];
+        VERSION.setRelease(s, 2 * seq + 1); // writing
+        VarHandle.storeStoreFence();
+        s.task = task;
+        s.epochSecond = timestamp.getEpochSecond();
+        s.nano = timestamp.getNano();
+        s.userIdHash = hash(userId);
+        VERSION.setRelease(s, 2 * seq + 2); // done
+    }
+
+    // FNV-1a over the chars, seeded with the per-process salt.
+    private long hash(String userId) {
+        long h = salt ^ 0xcbf29ce484222325L;
+        if (userId != null) {
+            for (int i = 0; i < userId.length(); i++) {
+                h ^= userId.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Starts delivering decisions published from now on to sink.
+     * Returns null if there are already max-subscribers subscribers.
+     */
+    public synchronized Subscription subscribe(Sink sink) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscription sub = new Subscription(sink, cursor.get());
+        subscriptions.add(sub);
+        hasSubscribers = true;
+        return sub;
+    }
+
+    public synchronized void unsubscribe(Subscription sub) {
+        subscriptions.remove(sub);
+        hasSubscribers = !subscriptions.isEmpty();
+    }
+
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    // Ticker: start a delivery for every subscriber that isn't busy.
+    private void dispatch() {
+        for (Subscription sub : subscriptions) {
+            if (sub.next < cursor.get() && sub.busy.compareAndSet(false, true)) {
+                try {
+                    delivery.execute(() -> deliver(sub));
+                } catch (RuntimeException e) {
+                    sub.busy.set(false); // pool saturated/closing: try again next tick
+                }
+            }
+        }
+    }
+
+    private void deliver(Subscription sub) {
+        try {
+            while (true) {
+                long end = cursor.get();
+                if (sub.next >= end) {
+                    return;
+                }
+                long missed = 0;
+                if (end - sub.next > ring.length) {
+                    missed = end - ring.length - sub.next;
+                    sub.next = end - ring.length;
+                }
+                List<Decision> batch = new ArrayList<>((int) Math.min(MAX_BATCH, end - sub.next));
+                while (sub.next < end && batch.size() < MAX_BATCH) {
+                    Decision d = read(sub.next);
+                    if (d == null) {
+                        if (isPending(sub.next)) {
+                            break; // publisher still writing it: next round
+                        }
+                        missed++; // overwritten while we were catching up
+                    } else {
+                        batch.add(d);
+                    }
+                    sub.next++;
+                }
+                if (missed > 0) {
+                    dropped.increment(missed);
+                }
+                if (batch.isEmpty() && missed == 0) {
+                    return;
+                }
+                sub.sink.accept(batch, missed);
+            }
+        } catch (Exception e) {
+            log.debug("Decision stream subscriber gone: {}", e.toString());
+            unsubscribe(sub);
+        } finally {
+            sub.busy.set(false);
+        }
+    }
+
+    // The event with this sequence number, or null if it is not (or no longer) in its slot.
+    private Decision read(long seq) {
+        Slot s = ring[(int) seq & mask];
+        long expected = 2 * seq + 2;
+        if ((long) VERSION.getAcquire(s) != expected) {
+            return null;
+        }
+        String task = s.task;
+        long epochSecond = s.epochSecond;
+        int nano = s.nano;
+        long userIdHash = s.userIdHash;
+        VarHandle.loadLoadFence();
+        if ((long) VERSION.getAcquire(s) != expected) {
+            return null;
+        }
+        return new Decision(seq, task, epochSecond, nano, userIdHash);
+    }
+
+    // Slot still holds an older event (or is mid-write for this one).
+    private boolean isPending(long seq) {
+        long v = (long) VERSION.getAcquire(ring[(int) seq & mask]);
+        return v < 2 * seq + 2;
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+        delivery.shutdownNow();
+    }
+
+    /** One subscriber and its read position. */
+    public static final class Subscription {
+        private final Sink sink;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private long next; // only touched by the (single) delivery in progress
+
+        Subscription(Sink sink, long next) {
+            this.sink = sink;
+            this.next = next;
+        }
+    }
+
+    // One ring entry. Plain fields, published through version (see publish/read).
+    private static final class Slot {
+        volatile long version;
+        String task;
+        long epochSecond;
+        int nano;
+        long userIdHash;
+    }
+}
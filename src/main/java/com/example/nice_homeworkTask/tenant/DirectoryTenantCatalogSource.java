@@ -0,0 +1,81 @@
+package com.example.nice_homeworkTask.tenant;
+
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/*
+ * Tenant catalogs as files: <directory>/<tenantId>.txt in the TaskCatalog text
+ * format ("Task: regex" per line). Tenant ids are validated before they get here
+ * (letters, digits, '-', '_'), so they cannot point outside the directory.
+ *
+ * A tenant without a file is remembered as unknown for missTtl, so repeated
+ * requests for it don't hit the filesystem each time; a file added meanwhile is
+ * seen once the miss expires. At most MAX_MISSES misses are kept (expired ones
+ * are purged first, then all of them), so random tenant ids can't grow it.
+ */
+public class DirectoryTenantCatalogSource implements TenantCatalogSource {
+
+    /** How long an unknown tenant is remembered by default. */
+    public static final Duration DEFAULT_MISS_TTL = Duration.ofSeconds(10);
+
+    static final int MAX_MISSES = 10_000;
+
+    private final Path directory;
+    private final long missTtlNanos;
+    private final LongSupplier nanoClock;
+
+    // tenantId -> nanoClock time until which it is known to have no file
+    private final ConcurrentHashMap<String, Long> misses = new ConcurrentHashMap<>();
+
+    public DirectoryTenantCatalogSource(Path directory) {
+        this(directory, DEFAULT_MISS_TTL, System::nanoTime);
+    }
+
+    /** missTtl zero: no negative caching. nanoClock pluggable for tests. */
+    public DirectoryTenantCatalogSource(Path directory, Duration missTtl, LongSupplier nanoClock) {
+        this.directory = directory;
+        this.missTtlNanos = missTtl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public TaskCatalog load(String tenantId) throws IOException {
+        long now = nanoClock.getAsLong();
+        Long until = misses.get(tenantId);
+        if (until != null) {
+            if (now - until < 0) {
+                return null;
+            }
+            misses.remove(tenantId, until);
+        }
+        Path file = directory.resolve(tenantId + ".txt");
+        if (!Files.isRegularFile(file)) {
+            rememberMiss(tenantId, now);
+            return null;
+        }
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return TaskCatalog.parse(tenantId, in);
+        }
+    }
+
+    private void rememberMiss(String tenantId, long now) {
+        if (missTtlNanos <= 0) {
+            return;
+        }
+        if (misses.size() >= MAX_MISSES) {
+            misses.values().removeIf(until -> now - until >= 0);
+            if (misses.size() >= MAX_MISSES) {
+                misses.clear();
+            }
+        }
+        misses.put(tenantId, now + missTtlNanos);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.nice_homeworkTask.tenant;
+
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+
+import java.io.IOException;
+
+/*
+ * Where tenant catalogs come from (read when a tenant's engine is compiled).
+ */
+@FunctionalInterface
+public interface TenantCatalogSource {
+
+    /** The tenant's catalog, or null if the tenant is unknown. */
+    TaskCatalog load(String tenantId) throws IOException;
+}
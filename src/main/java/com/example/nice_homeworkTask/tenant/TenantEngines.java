@@ -0,0 +1,187 @@
+package com.example.nice_homeworkTask.tenant;
+
+import com.example.nice_homeworkTask.exception.UnknownTenantException;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskMatcherFactory;
+import com.example.nice_homeworkTask.service.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/*
+ * Compiled matching engines per tenant, built on first use.
+ *
+ * Rule:
+ * - engine(tenant) returns the tenant's engine; the first request for a tenant
+ *   loads its catalog (TenantCatalogSource) and compiles it with the configured
+ *   engine and stemming setting (TaskMatcherFactory, same as the built-in catalog).
+ *   Concurrent first requests for the same tenant share one compilation (SingleFlight).
+ * - Engines are kept in a bounded LRU: each engine's heap size is estimated
+ *   (estimateBytes) and, once the total is above max-memory, the least recently
+ *   used engines are dropped (they are rebuilt when needed again).
+ * - Reads are lock-free (ConcurrentHashMap + a last-used timestamp per engine);
+ *   only inserting a new engine takes the eviction lock.
+ * - An engine bigger than max-memory on its own is still kept (alone).
+ *
+ * Metrics: suggest_task.tenants.resident / .bytes (gauges),
+ *          suggest_task.tenants.compiled / .evicted (counters).
+ */
+@Component
+public class TenantEngines {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantEngines.class);
+
+    // Heap estimate of a compiled java.util.regex.Pattern (measured on catalog-style
+    // patterns: about 190 bytes + 12 bytes per source character).
+    static final long PATTERN_BASE_BYTES = 192;
+    static final long PATTERN_BYTES_PER_CHAR = 12;
+    static final long TASK_BYTES = 96;
+    static final long ENGINE_BYTES = 256;
+
+    private final TenantCatalogSource source;
+    private final TaskMatcherFactory matchers;
+    private final long maxBytes;
+
+    private final ConcurrentHashMap<String, Entry> engines = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Entry> compiling = new SingleFlight<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+    private final Counter compiled;
+    private final Counter evicted;
+
+    @Autowired
+    public TenantEngines(MeterRegistry meters, TaskMatcherFactory matchers,
+            @Value("${suggest-task.tenants.directory:}") String directory,
+            @Value("${suggest-task.tenants.max-memory:64MB}") DataSize maxMemory,
+            @Value("${suggest-task.tenants.miss-ttl:PT10S}") Duration missTtl) {
+        this(directory.isBlank() ? tenant -> null
+                : new DirectoryTenantCatalogSource(Path.of(directory), missTtl, System::nanoTime),
+                matchers, maxMemory.toBytes(), meters);
+    }
+
+    /** Programmatic use (tests, benchmarks): tenant engines are RegexTaskMatchers. */
+    public TenantEngines(TenantCatalogSource source, long maxBytes, MeterRegistry meters) {
+        this(source, RegexTaskMatcher::new, maxBytes, meters);
+    }
+
+    public TenantEngines(TenantCatalogSource source, TaskMatcherFactory matchers, long maxBytes,
+            MeterRegistry meters) {
+        this.source = source;
+        this.matchers = matchers;
+        this.maxBytes = maxBytes;
+        this.compiled = meters.counter("suggest_task.tenants.compiled");
+        this.evicted = meters.counter("suggest_task.tenants.evicted");
+        Gauge.builder("suggest_task.tenants.resident", engines, Map::size).register(meters);
+        Gauge.builder("suggest_task.tenants.bytes", totalBytes, AtomicLong::get).register(meters);
+    }
+
+    /** The tenant's engine; compiles it if needed. Unknown tenant -> UnknownTenantException. */
+    public TaskMatcher engine(String tenant) {
+        Entry e = engines.get(tenant);
+        if (e == null) {
+            e = compiling.run(tenant, () -> compile(tenant));
+        }
+        e.lastUsed = System.nanoTime();
+        return e.engine;
+    }
+
+    private Entry compile(String tenant) {
+        // A compilation that finished just before we joined: use it
+        Entry existing = engines.get(tenant);
+        if (existing != null) {
+            return existing;
+        }
+        TaskCatalog catalog;
+        try {
+            catalog = source.load(tenant);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot load catalog of tenant " + tenant, ex);
+        }
+        if (catalog == null) {
+            throw new UnknownTenantException(tenant);
+        }
+        long start = System.nanoTime();
+        Entry e = new Entry(matchers.create(catalog), estimateBytes(catalog));
+        e.lastUsed = System.nanoTime();
+        compiled.increment();
+        log.info("Compiled catalog of tenant {} ({} tasks, {} patterns, ~{} KB) in {} us", tenant,
+                catalog.taskCount(), catalog.patternCount(), e.bytes / 1024, (System.nanoTime() - start) / 1_000);
+
+        synchronized (evictionLock) {
+            engines.put(tenant, e);
+            totalBytes.addAndGet(e.bytes);
+            evictOver(tenant);
+        }
+        return e;
+    }
+
+    // Drops least recently used engines (never `keep`) until the total fits.
+    private void evictOver(String keep) {
+        while (totalBytes.get() > maxBytes && engines.size() > 1) {
+            String oldest = null;
+            long oldestUse = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> candidate : engines.entrySet()) {
+                if (!candidate.getKey().equals(keep) && candidate.getValue().lastUsed - oldestUse < 0) {
+                    oldest = candidate.getKey();
+                    oldestUse = candidate.getValue().lastUsed;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            Entry removed = engines.remove(oldest);
+            totalBytes.addAndGet(-removed.bytes);
+            evicted.increment();
+        }
+    }
+
+    /** Estimated heap size of the compiled engine for this catalog. */
+    public static long estimateBytes(TaskCatalog catalog) {
+        long bytes = ENGINE_BYTES;
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            bytes += TASK_BYTES + 2L * catalog.tasks().get(t).length();
+            for (Pattern p : catalog.patterns(t)) {
+                bytes += PATTERN_BASE_BYTES + PATTERN_BYTES_PER_CHAR * p.pattern().length();
+            }
+        }
+        return bytes;
+    }
+
+    /** Engines currently compiled. */
+    public int resident() {
+        return engines.size();
+    }
+
+    /** Estimated bytes of all compiled engines. */
+    public long residentBytes() {
+        return totalBytes.get();
+    }
+
+    private static final class Entry {
+        final TaskMatcher engine;
+        final long bytes;
+        volatile long lastUsed;
+
+        Entry(TaskMatcher engine, long bytes) {
+            this.engine = engine;
+            this.bytes = bytes;
+        }
+    }
+}
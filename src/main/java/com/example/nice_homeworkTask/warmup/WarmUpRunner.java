@@ -0,0 +1,213 @@
+package com.example.nice_homeworkTask.warmup;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequestValidator;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.web.NiceHomeworkTaskResponseConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * JIT warm-up before the instance reports ready.
+ *
+ * Rule:
+ * - Runs as an ApplicationRunner. Spring Boot flips readiness to ACCEPTING_TRAFFIC
+ *   only after all runners return, so /actuator/health/readiness stays
+ *   OUT_OF_SERVICE until warm-up is done.
+ * - Replays a built-in corpus (warmup-corpus.txt) through the request path:
+ *   Jackson read -> validator -> NiceHomeworkTaskService.suggestTask -> response writer.
+ * - The external call is skipped (suggestTask(..., false)): no real side effects.
+ * - Works in rounds; stops when the JIT has (almost) nothing left to compile
+ *   for two rounds in a row, or when max-duration is reached.
+ *
+ * Metrics (Micrometer):
+ * - suggest_task.warmup.duration      total warm-up time
+ * - suggest_task.warmup.iterations    requests replayed
+ * - suggest_task.warmup.latency.first average time per request in the first round
+ * - suggest_task.warmup.latency.last  average time per request in the last round
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final int ROUND_SIZE = 1_000;
+
+    private final NiceHomeworkTaskService service;
+    private final NiceHomeworkTaskResponseConverter responseConverter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meters;
+    private final boolean enabled;
+    private final Duration maxDuration;
+    private final long quietCompileMillis;
+
+    private volatile Result result;
+
+    public WarmUpRunner(NiceHomeworkTaskService service, NiceHomeworkTaskResponseConverter responseConverter,
+            ObjectMapper objectMapper, MeterRegistry meters,
+            @Value("${suggest-task.warmup.enabled:true}") boolean enabled,
+            @Value("${suggest-task.warmup.max-duration:PT10S}") Duration maxDuration,
+            @Value("${suggest-task.warmup.quiet-compile-millis:2}") long quietCompileMillis) {
+        this.service = service;
+        this.responseConverter = responseConverter;
+        this.objectMapper = objectMapper;
+        this.meters = meters;
+        this.enabled = enabled;
+        this.maxDuration = maxDuration;
+        this.quietCompileMillis = quietCompileMillis;
+    }
+
+    /** What one warm-up did. */
+    public record Result(long iterations, int rounds, Duration duration, double firstRoundNanos, double lastRoundNanos) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("JIT warm-up disabled");
+            return;
+        }
+        result = warmUp(loadCorpus());
+        registerMetrics(result);
+        log.info("JIT warm-up done: {} requests in {} rounds, {} ms; avg {} ns/request first round -> {} ns last round",
+                result.iterations(), result.rounds(), result.duration().toMillis(),
+                Math.round(result.firstRoundNanos()), Math.round(result.lastRoundNanos()));
+    }
+
+    /** The last warm-up result, or null if it hasn't run. */
+    public Result getResult() {
+        return result;
+    }
+
+    Result warmUp(List<byte[]> requests) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean canWatchJit = jit != null && jit.isCompilationTimeMonitoringSupported();
+        DiscardingOutputMessage sink = new DiscardingOutputMessage();
+
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        long iterations = 0;
+        int rounds = 0;
+        int quietRounds = 0;
+        double firstRound = 0;
+        double lastRound = 0;
+        long compileBefore = canWatchJit ? jit.getTotalCompilationTime() : 0;
+
+        while (System.nanoTime() < deadline) {
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < ROUND_SIZE; i++) {
+                replay(requests.get((int) (iterations++ % requests.size())), sink);
+            }
+            rounds++;
+            lastRound = (System.nanoTime() - roundStart) / (double) ROUND_SIZE;
+            if (rounds == 1) {
+                firstRound = lastRound;
+            }
+
+            if (canWatchJit) {
+                long compileNow = jit.getTotalCompilationTime();
+                quietRounds = compileNow - compileBefore <= quietCompileMillis ? quietRounds + 1 : 0;
+                compileBefore = compileNow;
+                if (quietRounds >= 2) {
+                    break; // the JIT has settled
+                }
+            }
+        }
+        return new Result(iterations, rounds, Duration.ofNanos(System.nanoTime() - start), firstRound, lastRound);
+    }
+
+    // One request through the same steps as POST /suggestTask (minus HTTP and the external call).
+    private void replay(byte[] json, DiscardingOutputMessage sink) {
+        try {
+            NiceHomeworkTaskRequest req = objectMapper.readValue(json, NiceHomeworkTaskRequest.class);
+            if (NiceHomeworkTaskRequestValidator.validate(req) != 0) {
+                return;
+            }
+            String task = service.suggestTask(req.getUtterance(), false);
+            sink.reset();
+            responseConverter.write(new NiceHomeworkTaskResponse(task, Instant.now()), MediaType.APPLICATION_JSON, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void registerMetrics(Result r) {
+        TimeGauge.builder("suggest_task.warmup.duration", r, TimeUnit.NANOSECONDS, x -> x.duration().toNanos())
+                .description("Time spent in JIT warm-up before readiness").register(meters);
+        Gauge.builder("suggest_task.warmup.iterations", r, Result::iterations)
+                .description("Requests replayed during warm-up").register(meters);
+        TimeGauge.builder("suggest_task.warmup.latency.first", r, TimeUnit.NANOSECONDS, Result::firstRoundNanos)
+                .description("Average time per warm-up request, first round (cold)").register(meters);
+        TimeGauge.builder("suggest_task.warmup.latency.last", r, TimeUnit.NANOSECONDS, Result::lastRoundNanos)
+                .description("Average time per warm-up request, last round (warm)").register(meters);
+    }
+
+    // Corpus lines -> ready-to-parse JSON request bodies.
+    private List<byte[]> loadCorpus() {
+        List<byte[]> requests = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new ClassPathResource("warmup-corpus.txt").getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                NiceHomeworkTaskRequest req = new NiceHomeworkTaskRequest();
+                req.setUtterance(line);
+                req.setUserId("warmup");
+                req.setSessionId("warmup");
+                req.setTimestamp(Instant.now());
+                requests.add(objectMapper.writeValueAsBytes(req));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read warm-up corpus", e);
+        }
+        return requests;
+    }
+
+    /** Response sink that throws the bytes away. */
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+        private HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            headers = new HttpHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
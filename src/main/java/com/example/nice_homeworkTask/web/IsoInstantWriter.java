@@ -0,0 +1,116 @@
+package com.example.nice_homeworkTask.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/*
+ * Writes an Instant as ISO-8601 ASCII bytes, exactly like Instant.toString()
+ * (which is what Jackson emits for Instant fields in this app).
+ *
+ * Format: yyyy-MM-ddTHH:mm:ss[.fff|.ffffff|.fffffffff]Z
+ * - The fraction is printed in groups of 3 digits, only as many as needed.
+ *
+ * Why it is cheap:
+ * - The "yyyy-MM-ddTHH:mm:ss" part only changes once per second, so the bytes of
+ *   the last second seen are cached and copied; only the fraction is computed.
+ * - Writes into a caller-provided array: no String, no formatter objects.
+ */
+public final class IsoInstantWriter {
+
+    /**
+     * Longest possible output: 26 (date-time with a signed 10-digit year, Instant.MAX/MIN)
+     * + 10 (.fffffffff) + 1 (Z). Years 0000-9999 need at most 30.
+     */
+    public static final int MAX_LENGTH = 37;
+
+    private static final int PREFIX_LENGTH = 19;
+
+    // Years outside this range need a sign / more digits -> fall back to Instant.toString().
+    private static final long MIN_FAST_SECOND = LocalDateTime.of(0, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_FAST_SECOND = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+
+    /** The date-time bytes of one epoch second. */
+    private static final class Second {
+        final long epochSecond;
+        final byte[] prefix;
+
+        Second(long epochSecond, byte[] prefix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+        }
+    }
+
+    private volatile Second last = new Second(Long.MIN_VALUE, new byte[0]);
+
+    /**
+     * Writes t into dst starting at off and returns the offset after the last byte.
+     * dst must have room for MAX_LENGTH bytes.
+     */
+    public int write(Instant t, byte[] dst, int off) {
+        long sec = t.getEpochSecond();
+        if (sec < MIN_FAST_SECOND || sec > MAX_FAST_SECOND) {
+            byte[] slow = t.toString().getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(slow, 0, dst, off, slow.length);
+            return off + slow.length;
+        }
+
+        Second s = last;
+        if (s.epochSecond != sec) {
+            s = new Second(sec, prefix(sec));
+            last = s;
+        }
+        System.arraycopy(s.prefix, 0, dst, off, PREFIX_LENGTH);
+        off += PREFIX_LENGTH;
+
+        int nanos = t.getNano();
+        if (nanos != 0) {
+            dst[off++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                off = digits(nanos / 1_000_000, 3, dst, off);
+            } else if (nanos % 1_000 == 0) {
+                off = digits(nanos / 1_000, 6, dst, off);
+            } else {
+                off = digits(nanos, 9, dst, off);
+            }
+        }
+        dst[off++] = 'Z';
+        return off;
+    }
+
+    /** Convenience for callers that need a standalone array (e.g. tests). */
+    public byte[] toBytes(Instant t) {
+        byte[] buf = new byte[MAX_LENGTH];
+        int end = write(t, buf, 0);
+        byte[] out = new byte[end];
+        System.arraycopy(buf, 0, out, 0, end);
+        return out;
+    }
+
+    private static byte[] prefix(long epochSecond) {
+        LocalDateTime dt = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        byte[] b = new byte[PREFIX_LENGTH];
+        digits(dt.getYear(), 4, b, 0);
+        b[4] = '-';
+        digits(dt.getMonthValue(), 2, b, 5);
+        b[7] = '-';
+        digits(dt.getDayOfMonth(), 2, b, 8);
+        b[10] = 'T';
+        digits(dt.getHour(), 2, b, 11);
+        b[13] = ':';
+        digits(dt.getMinute(), 2, b, 14);
+        b[16] = ':';
+        digits(dt.getSecond(), 2, b, 17);
+        return b;
+    }
+
+    // Writes value as exactly width zero-padded decimal digits.
+    private static int digits(int value, int width, byte[] dst, int off) {
+        for (int i = off + width - 1; i >= off; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return off + width;
+    }
+}
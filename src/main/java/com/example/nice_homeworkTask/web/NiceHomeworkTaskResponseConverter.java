@@ -0,0 +1,156 @@
+package com.example.nice_homeworkTask.web;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Fast JSON writer for NiceHomeworkTaskResponse (the /suggestTask 200 body).
+ *
+ * Rule:
+ * - "task" is almost always one of a few constant names, so the bytes
+ *   {"task":"<name>","timestamp": are encoded once per name and reused.
+ * - The timestamp is spliced in with IsoInstantWriter, then the body is written
+ *   straight to the response output stream with an exact Content-Length.
+ * - "tasks" (allTasks requests only) is encoded per response before the closing
+ *   brace; without it the body is the usual two fields.
+ *
+ * Contract:
+ * - Output is byte-for-byte what Jackson writes for the same object
+ *   (same field order, same escaping, same ISO-8601 Instant format, nulls kept,
+ *   null "tasks" omitted).
+ * - Write-only: requests are still read by Jackson.
+ */
+public class NiceHomeworkTaskResponseConverter extends AbstractHttpMessageConverter<NiceHomeworkTaskResponse> {
+
+    // Task names are a small, fixed set; stop caching if something unexpected floods in.
+    private static final int MAX_CACHED_TASKS = 256;
+
+    private static final byte[] NULL_TASK_FRAGMENT = "{\"task\":null,\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TASKS_OPEN = ",\"tasks\":[".getBytes(StandardCharsets.US_ASCII);
+
+    private final ConcurrentHashMap<String, byte[]> fragments = new ConcurrentHashMap<>();
+    private final IsoInstantWriter timestamps = new IsoInstantWriter();
+
+    // Per-thread scratch for the "timestamp"} tail, so a write allocates nothing.
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[IsoInstantWriter.MAX_LENGTH + 4]);
+
+    /** taskNames: the names to pre-encode up front (others are encoded on first use). */
+    public NiceHomeworkTaskResponseConverter(Collection<String> taskNames) {
+        super(MediaType.APPLICATION_JSON);
+        for (String task : taskNames) {
+            fragments.put(task, encodeFragment(task));
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return NiceHomeworkTaskResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected NiceHomeworkTaskResponse readInternal(Class<? extends NiceHomeworkTaskResponse> clazz,
+            HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NiceHomeworkTaskResponse is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(NiceHomeworkTaskResponse res, HttpOutputMessage outputMessage) throws IOException {
+        byte[] head = fragment(res.getTask());
+
+        // Tail: "<timestamp>"}  (or null})
+        byte[] tail = scratch.get();
+        int tailLength;
+        if (res.getTimestamp() == null) {
+            System.arraycopy(NULL, 0, tail, 0, NULL.length);
+            tailLength = NULL.length;
+        } else {
+            tail[0] = '"';
+            tailLength = timestamps.write(res.getTimestamp(), tail, 1);
+            tail[tailLength++] = '"';
+        }
+        byte[] tasks = res.getTasks() != null ? encodeTasks(res.getTasks()) : null;
+        if (tasks == null) {
+            tail[tailLength++] = END[0];
+        }
+
+        outputMessage.getHeaders().setContentLength(head.length + tailLength + (tasks != null ? tasks.length : 0));
+        OutputStream out = outputMessage.getBody();
+        out.write(head);
+        out.write(tail, 0, tailLength);
+        if (tasks != null) {
+            out.write(tasks);
+        }
+        out.flush();
+    }
+
+    // ,"tasks":[{"task":"<name>","start":n,"end":n},...]}  (TaskMatch component order, like Jackson)
+    private static byte[] encodeTasks(List<TaskMatch> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + tasks.size() * 64);
+        out.writeBytes(TASKS_OPEN);
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskMatch t = tasks.get(i);
+            if (i > 0) {
+                out.write(',');
+            }
+            if (t.task() == null) {
+                out.writeBytes("{\"task\":null".getBytes(StandardCharsets.US_ASCII));
+            } else {
+                out.writeBytes("{\"task\":\"".getBytes(StandardCharsets.US_ASCII));
+                out.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(t.task()));
+                out.write('"');
+            }
+            out.writeBytes((",\"start\":" + t.start() + ",\"end\":" + t.end() + "}").getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(']');
+        out.write(END[0]);
+        return out.toByteArray();
+    }
+
+    private byte[] fragment(String task) {
+        if (task == null) {
+            return NULL_TASK_FRAGMENT;
+        }
+        byte[] cached = fragments.get(task);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] encoded = encodeFragment(task);
+        if (fragments.size() < MAX_CACHED_TASKS) {
+            fragments.putIfAbsent(task, encoded);
+        }
+        return encoded;
+    }
+
+    // {"task":"<escaped name>","timestamp":  -- escaped exactly like Jackson's generator does
+    private static byte[] encodeFragment(String task) {
+        byte[] open = "{\"task\":\"".getBytes(StandardCharsets.UTF_8);
+        byte[] name = JsonStringEncoder.getInstance().quoteAsUTF8(task);
+        byte[] close = "\",\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[open.length + name.length + close.length];
+        System.arraycopy(open, 0, out, 0, open.length);
+        System.arraycopy(name, 0, out, open.length, name.length);
+        System.arraycopy(close, 0, out, open.length + name.length, close.length);
+        return out;
+    }
+}
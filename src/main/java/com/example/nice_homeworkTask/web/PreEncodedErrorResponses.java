@@ -0,0 +1,142 @@
+package com.example.nice_homeworkTask.web;
+
+import com.example.nice_homeworkTask.dto.ErrorResponse;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequestValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Pre-encoded JSON bodies for the common 400 responses.
+ *
+ * Rule:
+ * - For every combination of failing request fields (31 of them), for the
+ *   "Malformed request body" case and for the 503 "Service overloaded" case
+ *   (ConcurrencyLimitFilter), the ErrorResponse is serialized once, at
+ *   startup, with the application's ObjectMapper.
+ * - Each body is kept as the bytes before and after the timestamp value, so a
+ *   response is just: prefix + current time (IsoInstantWriter) + suffix.
+ *
+ * Contract:
+ * - Same bytes Jackson would write for the same ErrorResponse (same errors
+ *   HashMap contents, same field order), because Jackson wrote the templates.
+ */
+public class PreEncodedErrorResponses {
+
+    public static final String VALIDATION_FAILED = "Validation failed";
+    public static final String MALFORMED_BODY = "Malformed request body";
+    public static final String OVERLOADED = "Service overloaded";
+
+    // Any fixed instant works as a placeholder; it is cut out of the template.
+    private static final Instant PLACEHOLDER = Instant.parse("2000-01-01T00:00:00Z");
+
+    private final Template[] validation = new Template[1 << NiceHomeworkTaskRequestValidator.FIELDS.length];
+    private final String[] validationSummary = new String[validation.length];
+    private final Template malformed;
+    private final Template overloaded;
+    private final IsoInstantWriter timestamps = new IsoInstantWriter();
+
+    public PreEncodedErrorResponses(ObjectMapper mapper) {
+        for (int failures = 1; failures < validation.length; failures++) {
+            Map<String, String> errors = validationErrors(failures);
+            validation[failures] = template(mapper, VALIDATION_FAILED, errors);
+            validationSummary[failures] = errors.toString();
+        }
+        malformed = template(mapper, MALFORMED_BODY, malformedErrors());
+        overloaded = template(mapper, OVERLOADED, overloadedErrors());
+    }
+
+    /** The 400 body for a request whose failing fields are the given bit mask (non-zero). */
+    public byte[] validationFailed(int failures, Instant now) {
+        return validation[failures].render(now, timestamps);
+    }
+
+    /** The errors of this failure mask as text, for logging (e.g. {userId=userId must not be blank}). */
+    public String validationSummary(int failures) {
+        return validationSummary[failures];
+    }
+
+    /** The 400 body for an unreadable JSON body. */
+    public byte[] malformedBody(Instant now) {
+        return malformed.render(now, timestamps);
+    }
+
+    /** The 503 body for a request shed by the concurrency limiter. */
+    public byte[] overloaded(Instant now) {
+        return overloaded.render(now, timestamps);
+    }
+
+    /** The errors map the handler reports for this failure mask (what the template was built from). */
+    public static Map<String, String> validationErrors(int failures) {
+        Map<String, String> errors = new HashMap<>();
+        for (int i = 0; i < NiceHomeworkTaskRequestValidator.FIELDS.length; i++) {
+            if ((failures & (1 << i)) != 0) {
+                errors.put(NiceHomeworkTaskRequestValidator.FIELDS[i], NiceHomeworkTaskRequestValidator.MESSAGES[i]);
+            }
+        }
+        return errors;
+    }
+
+    /** The errors map reported for an unreadable body. */
+    public static Map<String, String> malformedErrors() {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("body", "Invalid JSON or field format");
+        errors.put("timestamp", "must be ISO-8601, e.g. 2025-08-21T12:00:00Z");
+        return errors;
+    }
+
+    /** The errors map reported when a request is shed. */
+    public static Map<String, String> overloadedErrors() {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("server", "Too many concurrent requests, retry later");
+        return errors;
+    }
+
+    private static Template template(ObjectMapper mapper, String message, Map<String, String> errors) {
+        byte[] json;
+        byte[] placeholder;
+        try {
+            json = mapper.writeValueAsBytes(new ErrorResponse(message, errors, PLACEHOLDER));
+            placeholder = mapper.writeValueAsBytes(PLACEHOLDER); // with quotes, as it appears in the body
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot pre-encode error response", e);
+        }
+        int at = indexOf(json, placeholder);
+        if (at < 0 || placeholder.length < 2 || placeholder[0] != '"') {
+            throw new IllegalStateException("Unexpected timestamp encoding: " + new String(placeholder, StandardCharsets.UTF_8));
+        }
+        // keep the quotes in prefix/suffix, splice only the value
+        return new Template(Arrays.copyOfRange(json, 0, at + 1),
+                Arrays.copyOfRange(json, at + placeholder.length - 1, json.length));
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /** Bytes before and after the timestamp value. */
+    private record Template(byte[] prefix, byte[] suffix) {
+
+        byte[] render(Instant now, IsoInstantWriter timestamps) {
+            byte[] out = new byte[prefix.length + IsoInstantWriter.MAX_LENGTH + suffix.length];
+            System.arraycopy(prefix, 0, out, 0, prefix.length);
+            int end = timestamps.write(now, out, prefix.length);
+            System.arraycopy(suffix, 0, out, end, suffix.length);
+            return end + suffix.length == out.length ? out : Arrays.copyOf(out, end + suffix.length);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.dto.ErrorResponse;
+import com.example.nice_homeworkTask.limit.AdaptiveConcurrencyLimiter;
+import com.example.nice_homeworkTask.limit.ConcurrencyLimitFilter;
+import com.example.nice_homeworkTask.web.PreEncodedErrorResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for adaptive concurrency limiting / load shedding.
+ *
+ * Rationale:
+ * - The limit must grow while latency is stable and shrink when it rises.
+ * - Near the limit optional work is skipped first; at the limit requests are
+ *   rejected with 503 in the usual ErrorResponse shape.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /* Keeps `n` permits busy, then completes them all with the given latency. */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int r = 0; r < rounds; r++) {
+            int n = limiter.getLimit();
+            int taken = 0;
+            while (taken < n && limiter.tryAcquire()) {
+                taken++;
+            }
+            for (int i = 0; i < taken; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+
+    // Stable latency under full use -> limit grows (up to max)
+    @Test
+    void stableLatency_grows_limit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, 1.5, 0.2, 0.75, 10);
+        saturate(limiter, 50, 10 * MS);
+        assertThat(limiter.getLimit()).isEqualTo(100);
+    }
+
+    // Latency jumps 5x -> limit shrinks (not below min)
+    @Test
+    void risingLatency_shrinks_limit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 1.5, 0.2, 0.75, 10);
+        saturate(limiter, 20, 10 * MS);
+        int healthy = limiter.getLimit();
+
+        saturate(limiter, 30, 50 * MS);
+        assertThat(limiter.getLimit()).isLessThan(healthy / 2).isGreaterThanOrEqualTo(5);
+    }
+
+    // Little traffic -> samples don't change the limit
+    @Test
+    void lowUsage_keeps_limit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 5, 100, 1.5, 0.2, 0.75, 10);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(i % 2 == 0 ? MS : 100 * MS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(40);
+    }
+
+    // Permits: degrade at 75% of the limit, reject at the limit
+    @Test
+    void degrades_before_rejecting() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 8, 8, 1.5, 0.2, 0.75, 10);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.shouldDegrade()).isFalse();
+        assertThat(limiter.tryAcquire()).isTrue(); // 6 of 8
+        assertThat(limiter.shouldDegrade()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue(); // 8 of 8
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    // Filter: over the limit -> 503 ErrorResponse, chain not called; near it -> DEGRADED attribute
+    @Test
+    void filter_rejects_with_503_and_marks_degraded() throws Exception {
+        ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 4, 4, 1.5, 0.2, 0.75, 10);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, new PreEncodedErrorResponses(jackson),
+                new SimpleMeterRegistry());
+
+        // 2 busy + this one = 3 of 4 -> degraded but served
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/suggestTask");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(req, new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(req.getAttribute(ConcurrencyLimitFilter.DEGRADED)).isEqualTo(Boolean.TRUE);
+
+        // 4 busy -> rejected
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/suggestTask"), res, chain);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(res.getStatus()).isEqualTo(503);
+        assertThat(res.getHeader("Retry-After")).isEqualTo("1");
+        ErrorResponse body = jackson.readValue(res.getContentAsByteArray(), ErrorResponse.class);
+        assertThat(body.getMessage()).isEqualTo("Service overloaded");
+        assertThat(body.getErrors()).containsKey("server");
+        assertThat(body.getTimestamp()).isNotNull();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.AnchoredTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * Unit tests for the anchor-scanning engine (vector and scalar scanners).
+ *
+ * Rationale:
+ * - The scan only decides where regexes are tried, so any missed candidate is
+ *   a wrong answer: both scanners must give RegexTaskMatcher's task on any
+ *   text, including matches on block and SIMD step edges and right after
+ *   non-ASCII letters.
+ * - Without jdk.incubator.vector the engine must still work (scalar scanner);
+ *   the build runs the tests with the module, so both paths are covered.
+ */
+class AnchoredTaskMatcherTest {
+
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+
+    private static final String[] PIECES = { "reset", "RESET", "Password", "passwords", "forgot", "check",
+            "track", "order", "ORDER", "in", "to", "my", "the", "refresh", "patch", "portal", "chat", "😀", "é",
+            "́", "_", "9", "-", ",", "reset_", "in order", "order to", " ", " ", "\t" };
+
+    private static String randomText(Random random, int pieces) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < pieces; w++) {
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+            if (random.nextInt(3) > 0) {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    @Test
+    void vector_scanner_used_when_module_present() {
+        assumeTrue(AnchoredTaskMatcher.vectorAvailable());
+        assertThat(new AnchoredTaskMatcher(CATALOG, true).scanner()).startsWith("vector-");
+        assertThat(new AnchoredTaskMatcher(CATALOG, false).scanner()).isEqualTo("scalar");
+    }
+
+    // Short and long (multi-block) random texts
+    @Test
+    void randomTexts_same_task_as_regex() {
+        RegexTaskMatcher regex = new RegexTaskMatcher(CATALOG);
+        AnchoredTaskMatcher vector = new AnchoredTaskMatcher(CATALOG, true);
+        AnchoredTaskMatcher scalar = new AnchoredTaskMatcher(CATALOG, false);
+        Random random = new Random(17);
+        for (int n = 0; n < 20_000; n++) {
+            String text = randomText(random, n % 100 == 0 ? 2_000 : random.nextInt(40));
+            String expected = regex.findFirstMatchTask(text);
+            assertThat(vector.findFirstMatchTask(text)).as(text).isEqualTo(expected);
+            assertThat(scalar.findFirstMatchTask(text)).as(text).isEqualTo(expected);
+        }
+    }
+
+    // A match (or a near miss) at every offset around the first block edges
+    @Test
+    void matches_across_block_edges() {
+        RegexTaskMatcher regex = new RegexTaskMatcher(CATALOG);
+        AnchoredTaskMatcher vector = new AnchoredTaskMatcher(CATALOG, true);
+        AnchoredTaskMatcher scalar = new AnchoredTaskMatcher(CATALOG, false);
+        for (int offset = 4_060; offset < 4_110; offset++) {
+            for (String filler : List.of(" ", "x", "é")) {
+                for (String tail : List.of(" track order", "track order", " order check", " reset😀password")) {
+                    String text = filler.repeat(offset) + tail + " and more text".repeat(300);
+                    String expected = regex.findFirstMatchTask(text);
+                    assertThat(vector.findFirstMatchTask(text)).as("%d %s %s", offset, filler, tail)
+                            .isEqualTo(expected);
+                    assertThat(scalar.findFirstMatchTask(text)).as("%d %s %s", offset, filler, tail)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    // One-char keyword, a case-sensitive pattern and a pattern without anchor (plain find)
+    @Test
+    void mixed_catalog_with_unanchored_patterns() throws Exception {
+        TaskCatalog catalog = TaskCatalog.parse("mixed", new StringReader("""
+                CancelTask: cancel(?:ation)?\\s+plan
+                CancelTask: \\bx\\b[\\s\\S]{0,5}\\bplan\\b
+                RefundTask: \\brefund\\b
+                RefundTask: \\bmoney\\s+back\\b
+                """));
+        RegexTaskMatcher regex = new RegexTaskMatcher(catalog);
+        AnchoredTaskMatcher vector = new AnchoredTaskMatcher(catalog, true);
+        AnchoredTaskMatcher scalar = new AnchoredTaskMatcher(catalog, false);
+        Random random = new Random(5);
+        String[] words = { "cancel", "CANCELLATION", "plan", "x", "X", "refund", "money", "back", "my", "é", " " };
+        for (int n = 0; n < 5_000; n++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(n % 50 == 0 ? 3_000 : 12); w > 0; w--) {
+                text.append(words[random.nextInt(words.length)]).append(random.nextBoolean() ? " " : "");
+            }
+            String expected = regex.findFirstMatchTask(text.toString());
+            assertThat(vector.findFirstMatchTask(text.toString())).as(text.toString()).isEqualTo(expected);
+            assertThat(scalar.findFirstMatchTask(text.toString())).as(text.toString()).isEqualTo(expected);
+        }
+    }
+}
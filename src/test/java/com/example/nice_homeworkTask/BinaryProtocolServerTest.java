@@ -0,0 +1,170 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.binary.BinaryProtocol;
+import com.example.nice_homeworkTask.binary.BinaryProtocolClient;
+import com.example.nice_homeworkTask.binary.BinaryProtocolServer;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Tests for the binary protocol listener + bundled client over a real socket.
+ *
+ * Rationale:
+ * - Many requests are pipelined on one connection with a small in-flight cap,
+ *   so both out-of-order completion and back-pressure are exercised.
+ * - Every answer is compared with what the service returns directly.
+ */
+class BinaryProtocolServerTest {
+
+    private static final List<String> UTTERANCES = List.of(
+            "please reset password", "can I track order 123?", "hello there",
+            "let's track order first, then please reset password", "I forgot MY PASSWORD",
+            "in order to track!!", "password reset please", "order check please");
+
+    private final NiceHomeworkTaskService service = new NiceHomeworkTaskService();
+    private BinaryProtocolServer server;
+
+    @BeforeEach
+    void start() {
+        server = new BinaryProtocolServer(service, 0, 4, 16);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    // 5000 pipelined requests on one connection -> every answer matches the service
+    @Test
+    void pipelined_requests_match_service() throws Exception {
+        try (var client = BinaryProtocolClient.connect("localhost", server.getPort())) {
+            assertThat(client.taskNames()).containsExactlyInAnyOrderElementsOf(service.taskNames());
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                futures.add(client.classify(UTTERANCES.get(i % UTTERANCES.size())));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                int id = futures.get(i).get(10, TimeUnit.SECONDS);
+                String utterance = UTTERANCES.get(i % UTTERANCES.size());
+                assertThat(client.taskName(id)).as(utterance).isEqualTo(service.suggestTask(utterance));
+            }
+        }
+    }
+
+    // Several connections in parallel are served independently
+    @Test
+    void many_connections() throws Exception {
+        List<BinaryProtocolClient> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                clients.add(BinaryProtocolClient.connect("localhost", server.getPort()));
+            }
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                futures.add(clients.get(i % clients.size()).classify("reset my password"));
+            }
+            for (CompletableFuture<Integer> f : futures) {
+                assertThat(clients.get(0).taskName(f.get(10, TimeUnit.SECONDS))).isEqualTo("ResetPasswordTask");
+            }
+        } finally {
+            for (BinaryProtocolClient c : clients) {
+                c.close();
+            }
+        }
+    }
+
+    // 200 frames arriving in one read: never more than maxInFlight dispatched, the rest
+    // are served from the buffer once responses drain (no further bytes from the client)
+    @Test
+    void in_flight_cap_is_checked_per_frame() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        NiceHomeworkTaskService blocking = new NiceHomeworkTaskService() {
+            @Override
+            public String suggestTask(String utterance) {
+                started.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.suggestTask(utterance);
+            }
+        };
+        BinaryProtocolServer capped = new BinaryProtocolServer(blocking, 0, 64, 8);
+        capped.start();
+        try (Socket raw = new Socket("localhost", capped.getPort())) {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(frames);
+            byte[] utterance = "reset my password é".getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < 200; i++) {
+                out.writeInt(BinaryProtocol.HEADER_LENGTH + utterance.length);
+                out.writeByte(BinaryProtocol.TYPE_CLASSIFY);
+                out.writeInt(i);
+                out.write(utterance);
+            }
+            raw.getOutputStream().write(frames.toByteArray());
+            raw.getOutputStream().flush();
+
+            Thread.sleep(300);
+            assertThat(started.get()).isEqualTo(8);
+            release.countDown();
+
+            raw.setSoTimeout(10_000);
+            DataInputStream in = new DataInputStream(raw.getInputStream());
+            Set<Integer> answered = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                ByteBuffer b = ByteBuffer.wrap(frame);
+                assertThat(b.get()).isEqualTo(BinaryProtocol.TYPE_CLASSIFY);
+                answered.add(b.getInt());
+                assertThat(service.taskNames().get(b.getShort())).isEqualTo("ResetPasswordTask");
+            }
+            assertThat(answered).hasSize(200);
+        } finally {
+            release.countDown();
+            capped.stop();
+        }
+    }
+
+    // A frame with an impossible length closes that connection only
+    @Test
+    void bad_frame_closes_connection() throws Exception {
+        try (Socket raw = new Socket("localhost", server.getPort())) {
+            var out = new DataOutputStream(raw.getOutputStream());
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+            raw.setSoTimeout(5_000);
+            assertThatThrownBy(() -> new DataInputStream(raw.getInputStream()).readInt())
+                    .isInstanceOf(IOException.class);
+        }
+        try (var client = BinaryProtocolClient.connect("localhost", server.getPort())) {
+            assertThat(client.taskName(client.classify("track order").get(5, TimeUnit.SECONDS)))
+                    .isEqualTo("CheckOrderStatusTask");
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.bulk.BulkClassifier;
+import com.example.nice_homeworkTask.bulk.CodecPool;
+import com.example.nice_homeworkTask.bulk.GzipEncodingOutputStream;
+import com.example.nice_homeworkTask.cache.ClassificationCache;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.shadow.ShadowEvaluator;
+import com.example.nice_homeworkTask.tenant.TenantEngines;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Unit tests for bulk classification over gzip streams (bulk package).
+ *
+ * Rationale:
+ * - The pooled gzip streams must interoperate with java.util.zip both ways,
+ *   including concatenated members and optional header fields, and must reject
+ *   corrupt or truncated data instead of returning partial text silently.
+ * - Results come back one per item, in order; a bad item does not stop the
+ *   batch, a broken body ends it with an error element.
+ * - Batch items do not fill the live ClassificationCache or the shadow report.
+ * - Codecs and buffers are reused across requests.
+ * - Heap stays flat however large the batch: a synthetic gzip body (64 MB of
+ *   JSON by default; the 2 GB case: -Dbulk.test-bytes=2147483648) is streamed
+ *   through decoder, classifier and encoder while the live heap is sampled.
+ */
+class BulkClassifierTest {
+
+    private static final String ITEM = "{\"utterance\":\"%s\",\"userId\":\"u%d\",\"sessionId\":\"s1\","
+            + "\"timestamp\":\"2025-08-21T12:00:00Z\"}";
+    private static final String[] UTTERANCES = { "reset my password %d", "please track order %d",
+            "hello there %d", "I forgot my password, then check order %d" };
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final CodecPool codecs = new CodecPool(2, 512, 1);
+    private final TenantEngines tenants = new TenantEngines(tenant -> tenant.equals("acme")
+            ? TaskCatalog.of("acme", Map.of("TrackParcelTask", List.of(Pattern.compile("\\bparcel\\b"))))
+            : null, 1 << 20, new SimpleMeterRegistry());
+    private final BulkClassifier classifier = new BulkClassifier(objectMapper, new NiceHomeworkTaskService(false),
+            tenants);
+
+    private static byte[] jdkGzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] decode(byte[] gzip) throws IOException {
+        try (InputStream in = codecs.decoder(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private byte[] encode(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = codecs.encoder(out)) {
+            for (int i = 0; i < data.length; i += 700) {
+                gzip.write(data, i, Math.min(700, data.length - i));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] p : parts) {
+            out.writeBytes(p);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void gzip_streams_interoperate_with_java_util_zip() throws IOException {
+        Random random = new Random(49);
+        for (int size : new int[] { 0, 1, 511, 512, 70_000 }) {
+            byte[] data = new byte[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (byte) (i % 3 == 0 ? random.nextInt(256) : 'a' + i % 7);
+            }
+            assertThat(decode(jdkGzip(data))).isEqualTo(data);
+            assertThat(new GZIPInputStream(new ByteArrayInputStream(encode(data))).readAllBytes()).isEqualTo(data);
+        }
+
+        // Concatenated members read as one stream
+        byte[] a = "[{\"utterance\":".getBytes(StandardCharsets.UTF_8);
+        byte[] b = "\"reset password\"}]".getBytes(StandardCharsets.UTF_8);
+        assertThat(decode(concat(jdkGzip(a), encode(b)))).isEqualTo(concat(a, b));
+
+        // Header with FEXTRA, FNAME, FCOMMENT and FHCRC
+        byte[] plain = jdkGzip(b);
+        byte[] header = Arrays.copyOf(plain, 10);
+        header[3] = 4 | 8 | 16 | 2;
+        byte[] fields = { 3, 0, 'x', 'y', 'z', 'a', '.', 'j', 's', 'o', 'n', 0, 'h', 'i', 0, 0x12, 0x34 };
+        assertThat(decode(concat(header, fields, Arrays.copyOfRange(plain, 10, plain.length)))).isEqualTo(b);
+    }
+
+    @Test
+    void corrupt_or_truncated_gzip_is_an_error() throws IOException {
+        byte[] gzip = jdkGzip("reset my password".repeat(100).getBytes(StandardCharsets.UTF_8));
+        byte[] badCrc = gzip.clone();
+        badCrc[gzip.length - 8] ^= 1;
+        assertThatThrownBy(() -> decode(badCrc)).isInstanceOf(ZipException.class);
+        assertThatThrownBy(() -> decode(Arrays.copyOf(gzip, gzip.length - 3))).isInstanceOf(EOFException.class);
+        assertThatThrownBy(() -> decode(Arrays.copyOf(gzip, 20))).isInstanceOf(EOFException.class);
+        assertThatThrownBy(() -> decode("[{}]".getBytes(StandardCharsets.UTF_8))).isInstanceOf(ZipException.class);
+        assertThatThrownBy(() -> decode(new byte[0])).isInstanceOf(EOFException.class);
+    }
+
+    private String classify(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonParser items = classifier.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))) {
+            classifier.classify(items, out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void every_item_gets_its_result_in_order() throws IOException {
+        String body = "[" + String.format(ITEM, "reset password", 1) + ","
+                + "{\"utterance\":\" \",\"userId\":\"u2\",\"sessionId\":\"\",\"timestamp\":\"2025-08-21T12:00:00Z\"},"
+                + String.format(ITEM, "hello there", 3) + ","
+                + String.format(ITEM, "where is my parcel", 4).replace("}", ",\"tenant\":\"acme\"}") + ","
+                + String.format(ITEM, "reset password", 5).replace("}", ",\"tenant\":\"nobody\"}") + ","
+                + String.format(ITEM, "Reset my password and then track my order", 6)
+                        .replace("}", ",\"allTasks\":true}")
+                + "]";
+
+        assertThat(classify(body)).isEqualTo("[{\"task\":\"ResetPasswordTask\"},"
+                + "{\"errors\":{\"utterance\":\"utterance must not be blank\","
+                + "\"sessionId\":\"sessionId must not be blank\"}},"
+                + "{\"task\":\"NoTaskFound\"},"
+                + "{\"task\":\"TrackParcelTask\"},"
+                + "{\"errors\":{\"tenant\":\"No task catalog for tenant 'nobody'\"}},"
+                + "{\"task\":\"ResetPasswordTask\",\"tasks\":[{\"task\":\"ResetPasswordTask\",\"start\":0,\"end\":17},"
+                + "{\"task\":\"CheckOrderStatusTask\",\"start\":27,\"end\":41}]}]");
+        assertThat(classify("[]")).isEqualTo("[]");
+    }
+
+    // Batch items bypass the live path: nothing cached, nothing offered to the shadow
+    @Test
+    void batch_leaves_cache_and_shadow_untouched() throws Exception {
+        ShadowEvaluator shadow = new ShadowEvaluator(new RegexTaskMatcher(NiceHomeworkTaskService.catalog()), "builtin",
+                new SimpleMeterRegistry(), 1, 1024, 1.0, 10);
+        ClassificationCache cache = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, null);
+        BulkClassifier bulk = new BulkClassifier(objectMapper, new NiceHomeworkTaskService(true, shadow, cache),
+                tenants);
+        try {
+            String body = "[" + String.format(ITEM, "reset password", 1) + ","
+                    + String.format(ITEM, "hello there", 2) + ","
+                    + String.format(ITEM, "track my order", 3).replace("}", ",\"allTasks\":true}") + "]";
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonParser items = bulk.open(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))) {
+                bulk.classify(items, out);
+            }
+            shadow.drain();
+
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"task\":\"ResetPasswordTask\"},"
+                    + "{\"task\":\"NoTaskFound\"},{\"task\":\"CheckOrderStatusTask\",\"tasks\":"
+                    + "[{\"task\":\"CheckOrderStatusTask\",\"start\":0,\"end\":14}]}]");
+            assertThat(cache.size()).isZero();
+            assertThat(shadow.report().comparisons()).isZero();
+        } finally {
+            shadow.destroy();
+        }
+    }
+
+    @Test
+    void broken_body_ends_the_array_with_an_error() throws IOException {
+        String ok = String.format(ITEM, "reset password", 1);
+        String error = "{\"errors\":{\"body\":\"Invalid JSON, field format or compressed data\",\"item\":\"%d\"}}";
+        assertThat(classify("[" + ok + "," + ok + ",{\"utterance\":")).isEqualTo(
+                "[{\"task\":\"ResetPasswordTask\"},{\"task\":\"ResetPasswordTask\"}," + String.format(error, 2) + "]");
+        assertThat(classify("[" + ok.replace("2025-08-21T12:00:00Z", "yesterday") + "]"))
+                .isEqualTo("[" + String.format(error, 0) + "]");
+        assertThat(classify("[" + ok + ", 42]")).isEqualTo(
+                "[{\"task\":\"ResetPasswordTask\"}," + String.format(error, 1) + "]");
+        assertThatThrownBy(() -> classifier.open(new ByteArrayInputStream("{\"utterance\":1}".getBytes())))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void codecs_are_reused_across_requests() throws IOException {
+        byte[] data = String.format(ITEM, "reset password", 1).getBytes(StandardCharsets.UTF_8);
+        assertThat(decode(encode(data))).isEqualTo(data);
+        long warm = codecs.allocations();
+        for (int i = 0; i < 100; i++) {
+            assertThat(decode(encode(data))).isEqualTo(data);
+        }
+        assertThat(codecs.allocations()).isEqualTo(warm);
+    }
+
+    @Test
+    void heap_stays_flat_for_a_large_gzip_batch() throws IOException {
+        long bytes = Long.getLong("bulk.test-bytes", 64L << 20);
+        CodecPool pool = new CodecPool(2, 65536, 1);
+        SyntheticBody body = new SyntheticBody(bytes, pool);
+        CountingSink sink = new CountingSink();
+        long items;
+        try (InputStream in = pool.decoder(body); JsonParser parser = classifier.open(in);
+                OutputStream out = pool.encoder(sink)) {
+            items = classifier.classify(parser, out);
+        }
+
+        long growth = body.maxLive - body.firstLive;
+        String summary = String.format("bulk: %,d MB of JSON (%,d MB gzip), %,d items -> %,d KB gzip results; "
+                + "live heap %,d KB at the first checkpoint, max growth %,d KB", body.produced >> 20,
+                body.compressedBytes >> 20, items, sink.count >> 10, body.firstLive >> 10, growth >> 10);
+        assertThat(items).as(summary).isEqualTo(body.items);
+        assertThat(sink.count).as(summary).isPositive();
+        assertThat(growth).as(summary).isLessThan(16L << 20);
+    }
+
+    // Endless-looking JSON array of requests, gzip-compressed chunk by chunk as it is read
+    private static final class SyntheticBody extends InputStream {
+
+        private static final int CHECKPOINTS = 8;
+
+        final long target;
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(1 << 17);
+        final GzipEncodingOutputStream gzip;
+        final StringBuilder text = new StringBuilder(1 << 17);
+        long produced;
+        long compressedBytes;
+        long items;
+        long firstLive = -1;
+        long maxLive;
+        int checkpoint;
+        byte[] chunk = new byte[0];
+        int pos;
+        boolean done;
+
+        SyntheticBody(long target, CodecPool pool) throws IOException {
+            this.target = target;
+            this.gzip = pool.encoder(compressed);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (pos == chunk.length) {
+                if (done) {
+                    return -1;
+                }
+                fill();
+            }
+            int n = Math.min(len, chunk.length - pos);
+            System.arraycopy(chunk, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        private void fill() throws IOException {
+            text.setLength(0);
+            if (produced == 0) {
+                text.append('[');
+            }
+            while (text.length() < 65536 && produced + text.length() < target) {
+                if (items > 0) {
+                    text.append(',');
+                }
+                text.append(String.format(ITEM, String.format(UTTERANCES[(int) (items % UTTERANCES.length)], items),
+                        items % 1000));
+                items++;
+            }
+            boolean last = produced + text.length() >= target;
+            if (last) {
+                text.append(']');
+            }
+            byte[] raw = text.toString().getBytes(StandardCharsets.UTF_8);
+            gzip.write(raw);
+            produced += raw.length;
+            if (last) {
+                gzip.close();
+                done = true;
+            }
+            chunk = compressed.toByteArray(); // (the first one starts with the gzip header)
+            compressed.reset();
+            compressedBytes += chunk.length;
+            pos = 0;
+            if (produced >= (checkpoint + 1) * (target / CHECKPOINTS)) {
+                checkpoint++;
+                sample();
+            }
+        }
+
+        private void sample() {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            long live = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (firstLive < 0) {
+                firstLive = live;
+            }
+            maxLive = Math.max(maxLive, live);
+        }
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
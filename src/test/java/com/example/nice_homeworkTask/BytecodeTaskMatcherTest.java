@@ -0,0 +1,111 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.BytecodeTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the bytecode-generated matching engine.
+ *
+ * Rationale:
+ * - Generated code replaces java.util.regex for the catalog's shapes, so it must
+ *   find the same first match start for every pattern on any text: case,
+ *   \b next to non-ASCII letters and combining marks, surrogate pairs in gaps,
+ *   the "in order to" guards.
+ * - Shapes it doesn't know must still work (regex fallback).
+ */
+class BytecodeTaskMatcherTest {
+
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+
+    private static final String[] PIECES = { "reset", "RESET", "Password", "password", "passwords", "forgot",
+            "check", "track", "order", "ORDER", "in", "to", "tomorrow", "my", "the", "please", "😀", "é", "́",
+            "K", "_", "9", "-", ",", "reset_", "in order", "order to", " ", " ", " ", "\t", "  " };
+
+    private static int regexStart(Pattern p, String text) {
+        Matcher m = p.matcher(text);
+        return m.find() ? m.start() : -1;
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int pieces = random.nextInt(40);
+        for (int w = 0; w < pieces; w++) {
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+            if (random.nextInt(3) > 0) {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    // Every built-in pattern has a known shape (the "order" ones with their lookaround guards)
+    @Test
+    void builtin_catalog_fully_compiled() {
+        assertThat(new BytecodeTaskMatcher(CATALOG).compiledCount()).isEqualTo(CATALOG.patternCount());
+    }
+
+    // Examples around each construct
+    @Test
+    void examples_same_task_as_regex() {
+        BytecodeTaskMatcher bytecode = new BytecodeTaskMatcher(CATALOG);
+        RegexTaskMatcher regex = new RegexTaskMatcher(CATALOG);
+        for (String text : List.of("I need to reset my password", "Forgot my PASSWORD!", "password reset",
+                "check the status of my order", "in order to check", "check in order to", "track order tomorrow",
+                "check my order to", "reset  password", "reset😀😀😀😀😀😀😀😀😀😀😀😀😀😀😀password",
+                "reset😀😀😀😀😀😀😀😀😀😀😀😀😀😀😀😀password", "éreset password", "reset password́",
+                "resetpassword", "order check", "order\tcheck", "K", "")) {
+            assertThat(bytecode.findFirstMatchTask(text)).as(text).isEqualTo(regex.findFirstMatchTask(text));
+        }
+    }
+
+    // Random texts: per pattern, the same first match start as java.util.regex
+    @Test
+    void randomTexts_same_start_per_pattern() {
+        BytecodeTaskMatcher bytecode = new BytecodeTaskMatcher(CATALOG);
+        List<Pattern> patterns = bytecode.patterns();
+        Random random = new Random(11);
+        for (int n = 0; n < 20_000; n++) {
+            String text = randomText(random);
+            for (int k = 0; k < patterns.size(); k++) {
+                assertThat(bytecode.start(k, text)).as("pattern %s on '%s'", patterns.get(k), text)
+                        .isEqualTo(regexStart(patterns.get(k), text));
+            }
+        }
+    }
+
+    // Catalog mixing known shapes, case-sensitive ones and unknown ones (regex fallback)
+    @Test
+    void mixed_catalog_with_fallback() throws Exception {
+        TaskCatalog catalog = TaskCatalog.parse("mixed", new StringReader("""
+                CancelTask: \\bcancel\\b[\\s\\S]{0,10}\\bsubscription\\b
+                CancelTask: cancel(?:ation)?\\s+plan
+                RefundTask: \\b(?:refund|money back)\\b
+                RefundTask: \\bmoney\\s+back\\b
+                """));
+        BytecodeTaskMatcher bytecode = new BytecodeTaskMatcher(catalog);
+        RegexTaskMatcher regex = new RegexTaskMatcher(catalog);
+        assertThat(bytecode.compiledCount()).isEqualTo(2);
+
+        Random random = new Random(3);
+        String[] words = { "cancel", "CANCELLATION", "plan", "subscription", "refund", "money", "back", "my", " " };
+        for (int n = 0; n < 5_000; n++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(12); w > 0; w--) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            assertThat(bytecode.findFirstMatchTask(text.toString())).as(text.toString())
+                    .isEqualTo(regex.findFirstMatchTask(text.toString()));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.CatalogAnalysis;
+import com.example.nice_homeworkTask.matching.CatalogAnalysis.Conflict;
+import com.example.nice_homeworkTask.matching.CatalogAnalysis.Kind;
+import com.example.nice_homeworkTask.matching.PatternSpans;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the catalog analysis done at load time.
+ *
+ * Rationale:
+ * - The task priority decides same-position ties; for a map without an order it
+ *   must not depend on the map's iteration order, and the more specific task
+ *   must come first.
+ * - Conflicts are only useful with an example text that shows them.
+ * - The analysis runs on every catalog load (including tenant catalogs), so it
+ *   has to stay fast on large catalogs. Limit: -Dcatalog.max-analysis-millis.
+ */
+class CatalogAnalysisTest {
+
+    private static final long MAX_ANALYSIS_MILLIS = Long.getLong("catalog.max-analysis-millis", 5000);
+
+    private static List<Pattern> patterns(String... regexes) {
+        List<Pattern> out = new ArrayList<>();
+        for (String r : regexes) {
+            out.add(Pattern.compile(r, Pattern.CASE_INSENSITIVE));
+        }
+        return out;
+    }
+
+    private static final Map<String, List<Pattern>> RESETS = Map.of(
+            "GeneralResetTask", patterns("\\breset\\b"),
+            "ResetPasswordTask", patterns("\\breset password\\b"),
+            "TrackOrderTask", patterns("\\btrack\\b[\\s\\S]{0,15}\\border\\b"));
+
+    // The built-in patterns never tie; spans are PatternSpans'
+    @Test
+    void builtin_catalog_has_no_ambiguous_patterns() {
+        TaskCatalog catalog = NiceHomeworkTaskService.catalog();
+        CatalogAnalysis analysis = catalog.analysis();
+
+        assertThat(analysis.count(Kind.AMBIGUOUS)).isZero();
+        assertThat(analysis.priority()).isEqualTo(catalog.tasks());
+        assertThat(analysis.maxSpan()).isEqualTo(PatternSpans.maxSpan(catalog));
+        for (int t = 0; t < catalog.taskCount(); t++) {
+            for (int k = 0; k < catalog.patterns(t).size(); k++) {
+                assertThat(analysis.maxSpan(catalog.tasks().get(t), k))
+                        .isEqualTo(PatternSpans.maxSpan(catalog.patterns(t).get(k)));
+            }
+        }
+        assertThat(analysis.summary()).contains("0 ambiguous");
+    }
+
+    // "reset password" is matched by both at position 0: the longer match is the more specific task
+    @Test
+    void ambiguous_patterns_put_the_more_specific_task_first() {
+        CatalogAnalysis analysis = TaskCatalog.of("resets", RESETS).analysis();
+
+        assertThat(analysis.declaredOrder()).isFalse();
+        assertThat(analysis.priority()).containsExactly("ResetPasswordTask", "GeneralResetTask", "TrackOrderTask");
+        assertThat(analysis.conflicts()).singleElement().satisfies(c -> {
+            assertThat(c.kind()).isEqualTo(Kind.AMBIGUOUS);
+            assertThat(List.of(c.task(), c.otherTask()))
+                    .containsExactlyInAnyOrder("ResetPasswordTask", "GeneralResetTask");
+            assertThat(c.example()).isEqualTo("reset password");
+        });
+        assertThat(new RegexTaskMatcher(TaskCatalog.of("resets", RESETS)).findFirstMatchTask("please reset password now"))
+                .isEqualTo("ResetPasswordTask");
+    }
+
+    // Same priority and same tasks() order whatever order the map iterates in
+    @Test
+    void priority_does_not_depend_on_map_order() {
+        List<String> names = new ArrayList<>(RESETS.keySet());
+        TaskCatalog reference = TaskCatalog.of("resets", RESETS);
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            Collections.shuffle(names, random);
+            Map<String, List<Pattern>> map = new HashMap<>(2 << round % 8); // capacity changes the iteration order
+            for (String name : names) {
+                map.put(name, RESETS.get(name));
+            }
+            TaskCatalog catalog = TaskCatalog.of("resets", map);
+            assertThat(catalog.tasks()).isEqualTo(reference.tasks());
+            assertThat(catalog.fingerprint()).isEqualTo(reference.fingerprint());
+        }
+    }
+
+    // A later match inside another task's match is an OVERLAP; the same regex twice in a task a DUPLICATE
+    @Test
+    void overlap_and_duplicate_are_reported() {
+        CatalogAnalysis analysis = TaskCatalog.of("orders", Map.of(
+                "CancelOrderTask", patterns("\\bcancel order\\b", "\\bcancel order\\b"),
+                "OrderTask", patterns("\\border\\b"))).analysis();
+
+        assertThat(analysis.count(Kind.AMBIGUOUS)).isZero();
+        assertThat(analysis.conflicts()).contains(
+                new Conflict(Kind.OVERLAP, "CancelOrderTask", "\\bcancel order\\b", "OrderTask", "\\border\\b",
+                        "cancel order"),
+                new Conflict(Kind.DUPLICATE, "CancelOrderTask", "\\bcancel order\\b", "CancelOrderTask",
+                        "\\bcancel order\\b", "cancel order"));
+    }
+
+    // Files and ordered maps keep their order; conflicts are still reported
+    @Test
+    void declared_order_is_kept() throws Exception {
+        TaskCatalog parsed = TaskCatalog.parse("resets.txt", new StringReader("""
+                GeneralResetTask: \\breset\\b
+                ResetPasswordTask: \\breset password\\b
+                """));
+        assertThat(parsed.analysis().declaredOrder()).isTrue();
+        assertThat(parsed.tasks()).containsExactly("GeneralResetTask", "ResetPasswordTask");
+        assertThat(parsed.analysis().priority()).isEqualTo(parsed.tasks());
+        assertThat(parsed.analysis().count(Kind.AMBIGUOUS)).isEqualTo(1);
+
+        Map<String, List<Pattern>> ordered = new LinkedHashMap<>();
+        ordered.put("TrackOrderTask", RESETS.get("TrackOrderTask"));
+        ordered.put("GeneralResetTask", RESETS.get("GeneralResetTask"));
+        assertThat(TaskCatalog.of("ordered", ordered).tasks()).containsExactly("TrackOrderTask", "GeneralResetTask");
+    }
+
+    // 10,000 patterns (1% without a keyword shape) in 2,000 tasks over a 500-word vocabulary (many conflicts)
+    @Test
+    void ten_thousand_patterns_are_analyzed_in_seconds() {
+        Random random = new Random(42);
+        Map<String, List<Pattern>> map = new HashMap<>();
+        for (int k = 0; k < 10_000; k++) {
+            String a = "w" + random.nextInt(500);
+            String b = "w" + random.nextInt(500);
+            String regex = switch (k % 100 == 0 ? 3 : random.nextInt(3)) {
+                case 0 -> "\\b" + a + " " + b + "\\b";
+                case 1 -> "\\b" + a + "\\s+" + b + "\\b";
+                case 2 -> "\\b" + a + "\\b[\\s\\S]{0,15}\\b" + b + "\\b";
+                default -> "(?:" + a + "|" + b + ")-\\d+";
+            };
+            map.computeIfAbsent("Task" + (k % 2000), t -> new ArrayList<>())
+                    .add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+        }
+
+        CatalogAnalysis analysis = TaskCatalog.of("generated", map).analysis();
+
+        long millis = analysis.elapsedNanos() / 1_000_000;
+        assertThat(analysis.priority()).hasSize(2000);
+        assertThat(analysis.unverified()).isEqualTo(100);
+        assertThat(analysis.count(Kind.AMBIGUOUS) + analysis.count(Kind.OVERLAP)).isPositive();
+        assertThat(millis).as("10,000-pattern catalog: " + analysis.summary()).isLessThan(MAX_ANALYSIS_MILLIS);
+    }
+}
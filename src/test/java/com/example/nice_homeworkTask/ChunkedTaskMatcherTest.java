@@ -0,0 +1,110 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.ChunkedTaskMatcher;
+import com.example.nice_homeworkTask.matching.PatternSpans;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for chunked parallel matching and the pattern span analysis behind it.
+ *
+ * Rationale:
+ * - Chunked matching must give exactly the sequential result, including matches
+ *   that straddle chunk edges and lookarounds that look across them.
+ * - The chunk overlap is only safe if the span analysis never underestimates.
+ */
+class ChunkedTaskMatcherTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+    private static final RegexTaskMatcher SEQUENTIAL = new RegexTaskMatcher(CATALOG);
+
+    private static final String[] WORDS = { "i", "need", "to", "my", "in", "order", "reset", "password", "check",
+            "track", "forgot", "please", "the", "account", "status", "now", "😀", "ok,", "order-id", "passwords" };
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static int span(String regex) {
+        return PatternSpans.maxSpan(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+    }
+
+    // Spans of the built-in patterns; \s+ counts 1 (normalized text), classes 2 (surrogate pairs)
+    @Test
+    void spans_of_builtin_patterns() {
+        assertThat(span("\\breset\\b[\\s\\S]{0,15}\\bpassword\\b")).isEqualTo(5 + 2 * 15 + 8);
+        assertThat(span("\\bpassword\\s+reset\\b")).isEqualTo(8 + 1 + 5);
+        assertThat(span("\\bcheck\\b[\\s\\S]{0,15}(?:(?<!\\bin\\s)\\border\\b|\\border\\b(?!\\s+to))"))
+                .isEqualTo(5 + 2 * 15 + 5);
+        assertThat(PatternSpans.maxSpan(CATALOG)).isEqualTo(6 + 2 * 15 + 8); // "forgot ... password"
+    }
+
+    // Other constructs: bounded ones add up, unbounded ones are reported as such
+    @Test
+    void spans_of_other_constructs() {
+        assertThat(span("x|yyy")).isEqualTo(3);
+        assertThat(span("(?i)ab{2,3}c?")).isEqualTo(5);
+        assertThat(span("\\Qa.b\\E")).isEqualTo(3);
+        assertThat(span("a\\s*b |c")).isEqualTo(4);
+        assertThat(span("[^]a]x")).isEqualTo(3);
+        assertThat(span("a+")).isEqualTo(PatternSpans.UNBOUNDED);
+        assertThat(span(".*")).isEqualTo(PatternSpans.UNBOUNDED);
+        assertThat(span("(a)\\1")).isEqualTo(PatternSpans.UNBOUNDED);
+        assertThat(span("x{2,}")).isEqualTo(PatternSpans.UNBOUNDED);
+    }
+
+    // Thousands of random texts, tiny chunks (many edges) -> same task as the sequential scan
+    @Test
+    void randomTexts_same_as_sequential() {
+        ChunkedTaskMatcher chunked = new ChunkedTaskMatcher(CATALOG, 64, 16, POOL);
+        Random random = new Random(42);
+        for (int n = 0; n < 5_000; n++) {
+            StringBuilder text = new StringBuilder();
+            int words = 20 + random.nextInt(200);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    text.append(' ');
+                }
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            String t = text.toString();
+            assertThat(chunked.findFirstMatchTask(t)).as(t).isEqualTo(SEQUENTIAL.findFirstMatchTask(t));
+        }
+    }
+
+    // A phrase at every offset around a chunk edge (incl. lookbehind "in order" across it)
+    @Test
+    void phrase_at_every_offset_around_edges() {
+        String[] phrases = { "reset my password", "password reset", "check the order", "in order to check",
+                "track order", "check in order to", "forgot password" };
+        ChunkedTaskMatcher chunked = new ChunkedTaskMatcher(CATALOG, 128, 32, POOL);
+        for (String phrase : phrases) {
+            for (int offset = 0; offset < 100; offset++) {
+                String t = "x".repeat(offset) + " " + phrase + " " + "y ".repeat(100) + "reset password";
+                assertThat(chunked.findFirstMatchTask(t)).as(t).isEqualTo(SEQUENTIAL.findFirstMatchTask(t));
+            }
+        }
+    }
+
+    // Realistic size: 300K chars, the only match at the very end
+    @Test
+    void longText_match_at_end() {
+        ChunkedTaskMatcher chunked = new ChunkedTaskMatcher(CATALOG, ChunkedTaskMatcher.DEFAULT_THRESHOLD,
+                ChunkedTaskMatcher.DEFAULT_CHUNK_SIZE, POOL);
+        String filler = "the agent said that the account is fine and the call continues ";
+        String t = filler.repeat(300_000 / filler.length()) + "please track my order";
+        assertThat(chunked.findFirstMatchTask(t)).isEqualTo("CheckOrderStatusTask");
+        assertThat(chunked.findFirstMatchTask(filler.repeat(5_000))).isEqualTo("NoTaskFound");
+    }
+}
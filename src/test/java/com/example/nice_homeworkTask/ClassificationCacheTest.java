@@ -0,0 +1,153 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.cache.ClassificationCache;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the classification cache and its on-disk snapshot.
+ *
+ * Rationale:
+ * - The cache is bounded and must never serve results from another catalog version
+ *   or another engine.
+ * - A snapshot must survive a restart (same catalog) and be ignored otherwise.
+ */
+class ClassificationCacheTest {
+
+    @TempDir
+    Path dir;
+
+    /* Test double: counts matcher runs through the external call hook (one per computed task). */
+    static class CountingService extends NiceHomeworkTaskService {
+        final AtomicInteger externalCalls = new AtomicInteger();
+
+        CountingService(ClassificationCache cache) {
+            super(true, null, cache);
+        }
+
+        @Override
+        protected void simulateExternalCall(String utterance, int attempt) {
+            externalCalls.incrementAndGet();
+        }
+    }
+
+    // Cached result is reused; the external call still happens for every request
+    @Test
+    void cachedResult_reused_externalCall_still_made() {
+        ClassificationCache cache = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, null);
+        CountingService service = new CountingService(cache);
+
+        assertThat(service.suggestTask("reset my password")).isEqualTo("ResetPasswordTask");
+        assertThat(service.suggestTask("reset   my password")).isEqualTo("ResetPasswordTask");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("reset my password")).isEqualTo("ResetPasswordTask");
+        assertThat(service.externalCalls.get()).isEqualTo(2);
+    }
+
+    // Two generations -> never more than 2 x generationSize entries; hot entries survive rotation
+    @Test
+    void bounded_by_two_generations() {
+        ClassificationCache cache = new ClassificationCache(NiceHomeworkTaskService.catalog(), 10, null);
+        cache.put("hot", "NoTaskFound");
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("text " + i, "NoTaskFound");
+            assertThat(cache.get("hot")).isEqualTo("NoTaskFound");
+            assertThat(cache.size()).isLessThanOrEqualTo(20);
+        }
+        assertThat(cache.get("text 0")).isNull();
+    }
+
+    // Snapshot written on destroy and loaded by the next instance (same catalog)
+    @Test
+    void snapshot_roundtrip() {
+        Path file = dir.resolve("cache.bin");
+        ClassificationCache first = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, file);
+        first.put("reset my password", "ResetPasswordTask");
+        first.put("track order ö", "CheckOrderStatusTask");
+        first.put("hello", "NoTaskFound");
+        first.destroy();
+        assertThat(file).exists();
+
+        ClassificationCache second = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, file);
+        assertThat(second.size()).isEqualTo(3);
+        assertThat(second.get("reset my password")).isEqualTo("ResetPasswordTask");
+        assertThat(second.get("track order ö")).isEqualTo("CheckOrderStatusTask");
+        assertThat(second.get("hello")).isEqualTo("NoTaskFound");
+    }
+
+    // Different catalog (other patterns) -> snapshot discarded
+    @Test
+    void staleSnapshot_discarded() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        ClassificationCache first = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, file);
+        first.put("reset my password", "ResetPasswordTask");
+        first.destroy();
+
+        TaskCatalog v2 = TaskCatalog.parse("v2", new StringReader("""
+                ResetPasswordTask: \\breset\\b
+                CheckOrderStatusTask: \\border\\b
+                """));
+        assertThat(v2.fingerprint()).isNotEqualTo(NiceHomeworkTaskService.catalog().fingerprint());
+        ClassificationCache second = new ClassificationCache(v2, 100, file);
+        assertThat(second.size()).isZero();
+        assertThat(second.get("reset my password")).isNull();
+    }
+
+    // Same catalog, other engine (stemming switched on) -> snapshot discarded
+    @Test
+    void snapshotOfOtherEngine_discarded() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        ClassificationCache first = new ClassificationCache(NiceHomeworkTaskService.catalog(), "regex", 100, file);
+        first.put("resetting my password", "NoTaskFound");
+        first.destroy();
+
+        ClassificationCache stemming = new ClassificationCache(NiceHomeworkTaskService.catalog(), "stemming+regex",
+                100, file);
+        assertThat(stemming.size()).isZero();
+        assertThat(stemming.get("resetting my password")).isNull();
+    }
+
+    // Truncated / garbage file -> ignored, startup continues
+    @Test
+    void corruptSnapshot_ignored() throws Exception {
+        Path file = dir.resolve("cache.bin");
+        ClassificationCache first = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, file);
+        for (int i = 0; i < 50; i++) {
+            first.put("text " + i, "NoTaskFound");
+        }
+        first.destroy();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+        ClassificationCache second = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, file);
+        assertThat(second.size()).isZero();
+    }
+
+    // Task indexes above 255 survive the round trip (they used to wrap in one byte)
+    @Test
+    void snapshot_of_large_catalog_keeps_task_indexes() throws Exception {
+        StringBuilder source = new StringBuilder();
+        for (int t = 0; t < 300; t++) {
+            source.append("Task").append(t).append(": \\bkeyword").append(t).append("\\b\n");
+        }
+        TaskCatalog large = TaskCatalog.parse("large", new StringReader(source.toString()));
+        Path file = dir.resolve("cache.bin");
+        ClassificationCache first = new ClassificationCache(large, 100, file);
+        first.put("keyword299", "Task299");
+        first.put("keyword3", "Task3");
+        first.destroy();
+
+        ClassificationCache second = new ClassificationCache(large, 100, file);
+        assertThat(second.get("keyword299")).isEqualTo("Task299");
+        assertThat(second.get("keyword3")).isEqualTo("Task3");
+    }
+}
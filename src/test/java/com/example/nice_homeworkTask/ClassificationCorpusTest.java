@@ -0,0 +1,356 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.AnchoredTaskMatcher;
+import com.example.nice_homeworkTask.matching.BytecodeTaskMatcher;
+import com.example.nice_homeworkTask.matching.ChunkedTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/*
+ * Differential test: every decision on a large corpus against a golden file.
+ *
+ * Corpus = corpus/curated.txt (hand-picked sentences, incl. every sentence of the
+ * other tests and the warm-up corpus) + generated utterances (fixed seed: keyword
+ * pairs with gaps, guards, near misses, inflections, punctuation, non-ASCII, and
+ * some transcript-length texts). Expected tasks: corpus/golden.tsv.
+ *
+ * Rationale:
+ * - A change to TASK_PATTERNS, GAP or an engine that changes any decision fails
+ *   with a report: how many decisions changed, grouped by old -> new task, and
+ *   the first lines that differ. If the change is intended, review the report
+ *   and regenerate the golden file:
+ *     mvn test -Dtest=ClassificationCorpusTest -Dcorpus.update=true
+ *   (prints the same report, then rewrites src/test/resources/corpus/golden.tsv).
+ * - Every engine must give the golden decisions through the service (normalize
+ *   + match): the default one and regex chunked small enough to split the long
+ *   texts, bytecode, anchored (vector and scalar).
+ * - Throughput: the default service path must sustain a minimum number of
+ *   classifications per second on the corpus (slowest of several windows, after
+ *   warm-up). The floor (-Dcorpus.min-throughput, per second) sits well below
+ *   what a developer machine does, so only a real regression trips it.
+ */
+class ClassificationCorpusTest {
+
+    private static final Path GOLDEN_SOURCE = Path.of("src/test/resources/corpus/golden.tsv");
+    private static final long DEFAULT_MIN_THROUGHPUT = 50_000;
+    private static final int GENERATED = 6000;
+    private static final int GENERATED_LONG = 24;
+    private static final int REPORTED_LINES = 25;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+
+    private static List<String> corpus;
+
+    @BeforeAll
+    static void loadCorpus() throws IOException {
+        Set<String> utterances = new LinkedHashSet<>(readCurated());
+        utterances.addAll(generate(new Random(46)));
+        corpus = List.copyOf(utterances);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void every_engine_reproduces_the_golden_decisions() throws IOException {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+        List<String> decisions = decide(service, null);
+
+        Golden golden;
+        if (Boolean.getBoolean("corpus.update")) {
+            Golden previous = Golden.read();
+            String changes = previous == null ? null : report("default", previous, corpus, decisions);
+            System.out.println(changes != null ? changes : "No decision changed");
+            golden = Golden.write(corpus, decisions);
+        } else {
+            golden = Golden.read();
+            if (golden == null) {
+                fail("corpus/golden.tsv is missing; create it with -Dcorpus.update=true");
+            }
+        }
+
+        Map<String, TaskMatcher> engines = new LinkedHashMap<>();
+        engines.put("default", null);
+        engines.put("chunked", new ChunkedTaskMatcher(CATALOG, 512, 128, POOL));
+        engines.put("bytecode", new BytecodeTaskMatcher(CATALOG));
+        engines.put("anchored-vector", new AnchoredTaskMatcher(CATALOG, true));
+        engines.put("anchored-scalar", new AnchoredTaskMatcher(CATALOG, false));
+        StringBuilder failures = new StringBuilder();
+        for (Map.Entry<String, TaskMatcher> engine : engines.entrySet()) {
+            List<String> actual = engine.getValue() == null ? decisions : decide(service, engine.getValue());
+            String report = report(engine.getKey(), golden, corpus, actual);
+            if (report != null) {
+                failures.append(report);
+            }
+        }
+        if (failures.length() > 0) {
+            fail(failures.append("If intended, regenerate the golden file after reviewing the above:\n")
+                    .append("  mvn test -Dtest=ClassificationCorpusTest -Dcorpus.update=true\n").toString());
+        }
+    }
+
+    @Test
+    void default_engine_sustains_minimum_throughput() {
+        long floor = Long.getLong("corpus.min-throughput", DEFAULT_MIN_THROUGHPUT);
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+        runFor(service, 1_500); // warm-up
+
+        int windows = 5;
+        double[] rates = new double[windows];
+        for (int w = 0; w < windows; w++) {
+            rates[w] = runFor(service, 400);
+        }
+        double slowest = Double.MAX_VALUE;
+        StringBuilder perWindow = new StringBuilder();
+        for (double rate : rates) {
+            slowest = Math.min(slowest, rate);
+            perWindow.append(String.format(" %,.0f", rate));
+        }
+        String summary = String.format("corpus of %d utterances: sustained %,.0f classifications/s "
+                + "(slowest of %d windows of 400 ms:%s), floor %,d/s", corpus.size(), slowest, windows, perWindow,
+                floor);
+        assertThat(slowest).as(summary).isGreaterThanOrEqualTo(floor);
+    }
+
+    // Classifications per second over the corpus for about millis ms
+    private static double runFor(NiceHomeworkTaskService service, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long start = System.nanoTime();
+        long done = 0;
+        long sink = 0;
+        while (System.nanoTime() < deadline) {
+            for (String utterance : corpus) {
+                sink += service.suggestTask(utterance, false).length();
+            }
+            done += corpus.size();
+        }
+        assertThat(sink).isPositive();
+        return done / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static List<String> decide(NiceHomeworkTaskService service, TaskMatcher engine) {
+        List<String> decisions = new ArrayList<>(corpus.size());
+        for (String utterance : corpus) {
+            decisions.add(service.suggestTask(utterance, engine, false));
+        }
+        return decisions;
+    }
+
+    // null if nothing differs
+    private static String report(String engine, Golden golden, List<String> inputs, List<String> actual) {
+        StringBuilder r = new StringBuilder();
+        if (!golden.utterances.equals(inputs)) {
+            int i = 0;
+            while (i < inputs.size() && i < golden.utterances.size()
+                    && inputs.get(i).equals(golden.utterances.get(i))) {
+                i++;
+            }
+            return r.append("Corpus inputs differ from golden.tsv (").append(inputs.size()).append(" utterances vs ")
+                    .append(golden.utterances.size()).append("), first at line ").append(Golden.lineOf(i))
+                    .append(": curated.txt or the generator changed.\n").toString();
+        }
+        Map<String, Integer> transitions = new TreeMap<>();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            String expected = golden.tasks.get(i);
+            if (!expected.equals(actual.get(i))) {
+                transitions.merge(expected + " -> " + actual.get(i), 1, Integer::sum);
+                if (lines.size() < REPORTED_LINES) {
+                    lines.add(String.format("  line %d: expected %s, got %s: \"%s\"", Golden.lineOf(i), expected,
+                            actual.get(i), abbreviate(escape(inputs.get(i)))));
+                }
+            }
+        }
+        if (transitions.isEmpty()) {
+            return null;
+        }
+        int changed = transitions.values().stream().mapToInt(Integer::intValue).sum();
+        r.append("Engine ").append(engine).append(": ").append(changed).append(" of ").append(inputs.size())
+                .append(" decisions differ from golden.tsv\n");
+        transitions.forEach((t, n) -> r.append("  ").append(t).append(": ").append(n).append('\n'));
+        r.append("  first ").append(lines.size()).append(" differences:\n");
+        lines.forEach(l -> r.append(l).append('\n'));
+        return r.toString();
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() <= 120 ? s : s.substring(0, 100) + "... (" + s.length() + " chars)";
+    }
+
+    /** Expected task per utterance, in corpus order; line = "Task<TAB>escaped utterance". */
+    private record Golden(List<String> utterances, List<String> tasks) {
+
+        private static final String HEADER = """
+                # Golden decisions for ClassificationCorpusTest: "Task<TAB>utterance" (escaped like curated.txt).
+                # Generated, do not edit: mvn test -Dtest=ClassificationCorpusTest -Dcorpus.update=true
+                """;
+        private static final int HEADER_LINES = 2;
+
+        static int lineOf(int index) {
+            return HEADER_LINES + index + 1;
+        }
+
+        static Golden read() throws IOException {
+            InputStream in = ClassificationCorpusTest.class.getResourceAsStream("/corpus/golden.tsv");
+            if (in == null) {
+                return null;
+            }
+            List<String> utterances = new ArrayList<>();
+            List<String> tasks = new ArrayList<>();
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.startsWith("#")) {
+                        continue;
+                    }
+                    int tab = line.indexOf('\t');
+                    tasks.add(line.substring(0, tab));
+                    utterances.add(unescape(line.substring(tab + 1)));
+                }
+            }
+            return new Golden(utterances, tasks);
+        }
+
+        static Golden write(List<String> utterances, List<String> tasks) throws IOException {
+            StringBuilder out = new StringBuilder(HEADER);
+            for (int i = 0; i < utterances.size(); i++) {
+                out.append(tasks.get(i)).append('\t').append(escape(utterances.get(i))).append('\n');
+            }
+            Files.writeString(GOLDEN_SOURCE, out, StandardCharsets.UTF_8);
+            System.out.println("Wrote " + GOLDEN_SOURCE.toAbsolutePath() + " (" + utterances.size() + " decisions)");
+            return new Golden(List.copyOf(utterances), List.copyOf(tasks));
+        }
+    }
+
+    static List<String> readCurated() throws IOException {
+        List<String> utterances = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                ClassificationCorpusTest.class.getResourceAsStream("/corpus/curated.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    utterances.add(unescape(line));
+                }
+            }
+        }
+        return utterances;
+    }
+
+    // ===== Generated utterances =====
+
+    private static final String[] OPENERS = { "", "", "please ", "hi, ", "can you ", "I need to ", "could you please ",
+            "hey! ", "i want to ", "quick question: ", "ok so ", "In order to ", "my " };
+    // Keywords (and near misses) per intent; pairs mostly come from the same group
+    private static final String[][] KEYWORDS = {
+            { "reset", "RESET", "Reset", "forgot", "forget", "forgotten", "password", "Password", "passwords",
+                    "reset_", "re-set", "refresh", "passw0rd", "PaSSword" },
+            { "check", "CHECK", "checking", "track", "Track", "tracked", "order", "ORDER", "orders", "preorder",
+                    "checkout", "in order", "order to", "Order" } };
+    private static final String[] GAPS = { " ", " ", " ", "", " my ", " the ", " my old ", " a very urgent ",
+            " my importent ", " 123 ", ", then ", " in ", " in order to ", " - ", "-", "\n", "  \t ",
+            " it right now for my ", " 1234567890123456 ", " 12345678901234 ", " 😀 ", " é ", "_", " to " };
+    private static final String[] CLOSERS = { "", "", "?", "!", " please", " now", " to", " to be sure", " 123",
+            ", thanks", " order", " password", "...", " 😀" };
+    private static final String[] FILLER = { "so the agent said that the account looks fine", "we can continue",
+            "the customer called again about the invoice", "let me put you on hold for a moment",
+            "thank you for your patience", "the portal chat keeps asking to refresh after the patch",
+            "I placed it in order to get the discount", "my preorder did not arrive",
+            "is there anything else I can help with" };
+
+    // Keyword pairs (with gaps, guards, near misses) and a few transcript-length texts
+    static List<String> generate(Random random) {
+        List<String> out = new ArrayList<>(GENERATED + GENERATED_LONG);
+        for (int i = 0; i < GENERATED; i++) {
+            StringBuilder s = new StringBuilder(pick(random, OPENERS));
+            String[] group = pick(random, KEYWORDS);
+            s.append(pick(random, group)).append(pick(random, GAPS))
+                    .append(pick(random, random.nextInt(4) == 0 ? pick(random, KEYWORDS) : group));
+            if (random.nextInt(4) == 0) {
+                s.append(pick(random, GAPS)).append(pick(random, pick(random, KEYWORDS)));
+            }
+            s.append(pick(random, CLOSERS));
+            out.add(s.toString());
+        }
+        for (int i = 0; i < GENERATED_LONG; i++) {
+            StringBuilder s = new StringBuilder();
+            int length = 1200 + random.nextInt(1200);
+            while (s.length() < length) {
+                s.append(pick(random, FILLER));
+                if (random.nextInt(12) == 0) {
+                    String[] group = pick(random, KEYWORDS);
+                    s.append(' ').append(pick(random, group)).append(pick(random, GAPS)).append(pick(random, group));
+                }
+                s.append(random.nextBoolean() ? ". " : ", ");
+            }
+            out.add(s.toString());
+        }
+        return out;
+    }
+
+    private static <T> T pick(Random random, T[] options) {
+        return options[random.nextInt(options.length)];
+    }
+
+    // ===== Escaping (one utterance per line) =====
+
+    static String escape(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    static String unescape(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 == s.length()) {
+                out.append(c);
+                continue;
+            }
+            char next = s.charAt(++i);
+            switch (next) {
+                case 't' -> out.append('\t');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                default -> out.append(next);
+            }
+        }
+        return out.toString();
+    }
+}
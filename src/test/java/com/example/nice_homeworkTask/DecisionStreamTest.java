@@ -0,0 +1,130 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.stream.Decision;
+import com.example.nice_homeworkTask.stream.DecisionStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the live decision stream (ring buffer + per-subscriber cursors).
+ *
+ * Rationale:
+ * - Subscribers must see every decision, in order, without the raw userId.
+ * - A stuck subscriber must lose events, never block publishing.
+ */
+class DecisionStreamTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private DecisionStream stream;
+
+    @AfterEach
+    void shutdown() {
+        if (stream != null) {
+            stream.destroy();
+        }
+    }
+
+    private DecisionStream stream(int bufferSize, int maxSubscribers) {
+        stream = new DecisionStream(meters, bufferSize, maxSubscribers, Duration.ofMillis(5));
+        return stream;
+    }
+
+    /* Polls (deliveries are asynchronous) for up to 5 seconds. */
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    // Events arrive in order with their fields; same user -> same hash, raw id never sent
+    @Test
+    void subscriber_receives_decisions_in_order() {
+        DecisionStream s = stream(64, 2);
+        s.publish("ResetPasswordTask", Instant.EPOCH, "before-subscribing"); // nobody listening: not kept
+        List<Decision> got = new CopyOnWriteArrayList<>();
+        s.subscribe((events, dropped) -> got.addAll(events));
+
+        Instant t = Instant.parse("2025-01-02T03:04:05.123456789Z");
+        s.publish("ResetPasswordTask", t, "user-1");
+        s.publish("CheckOrderStatusTask", t, "user-2");
+        s.publish("NoTaskFound", t, "user-1");
+
+        waitUntil(() -> got.size() == 3);
+        assertThat(got).extracting(Decision::task)
+                .containsExactly("ResetPasswordTask", "CheckOrderStatusTask", "NoTaskFound");
+        assertThat(got.get(0).userIdHash()).isEqualTo(got.get(2).userIdHash())
+                .isNotEqualTo(got.get(1).userIdHash());
+        assertThat(got.get(1).sequence()).isEqualTo(got.get(0).sequence() + 1);
+        assertThat(got.get(0).toJson())
+                .startsWith("{\"task\":\"ResetPasswordTask\",\"timestamp\":\"2025-01-02T03:04:05.123456789Z\",\"userIdHash\":\"")
+                .doesNotContain("user-1");
+    }
+
+    // A stuck subscriber: publishing keeps going, the subscriber is told what it missed
+    @Test
+    void slow_subscriber_drops_events_without_blocking_publishers() throws Exception {
+        DecisionStream s = stream(16, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong received = new AtomicLong();
+        AtomicLong missed = new AtomicLong();
+        s.subscribe((events, dropped) -> {
+            release.await();
+            received.addAndGet(events.size());
+            missed.addAndGet(dropped);
+        });
+
+        s.publish("ResetPasswordTask", Instant.now(), "u");
+        Thread.sleep(50); // let the first delivery start and get stuck
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            s.publish("CheckOrderStatusTask", Instant.now(), "u" + i);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        release.countDown();
+
+        waitUntil(() -> received.get() + missed.get() == 10_001);
+        assertThat(missed.get()).isGreaterThanOrEqualTo(10_001 - 1 - 16);
+        assertThat(meters.counter("suggest_task.stream.dropped").count()).isEqualTo(missed.get());
+    }
+
+    // A sink that fails (client gone) is removed
+    @Test
+    void failing_subscriber_is_unsubscribed() {
+        DecisionStream s = stream(16, 2);
+        s.subscribe((events, dropped) -> {
+            throw new java.io.IOException("broken pipe");
+        });
+        assertThat(s.subscribers()).isEqualTo(1);
+
+        s.publish("NoTaskFound", Instant.now(), "u");
+
+        waitUntil(() -> s.subscribers() == 0);
+    }
+
+    // Subscriber limit
+    @Test
+    void subscribe_beyond_limit_is_refused() {
+        DecisionStream s = stream(16, 1);
+        assertThat(s.subscribe((events, dropped) -> { })).isNotNull();
+        assertThat(s.subscribe((events, dropped) -> { })).isNull();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.IncrementalTaskMatcher;
+import com.example.nice_homeworkTask.matching.PatternSpans;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for incremental matching of text being typed.
+ *
+ * Rationale:
+ * - After every edit the task must be exactly the batch suggestTask result for
+ *   the text typed so far (appends, deletes, whitespace runs, lookarounds).
+ * - An edit must not cost a scan of the whole text.
+ */
+class IncrementalTaskMatcherTest {
+
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+    private static final RegexTaskMatcher BATCH = new RegexTaskMatcher(CATALOG);
+
+    private static final String[] PIECES = { "i", "need", "to", "my", "in", "order", "reset", "password", "check",
+            "track", "forgot", "please", "the", "status", " ", "  ", "\t", "\n ", "😀", "ok,", "s", "e", "r" };
+
+    /* Test double: no external call. */
+    static class QuietService extends NiceHomeworkTaskService {
+        QuietService() {
+            super(true, null, null);
+        }
+
+        @Override
+        protected void simulateExternalCall(String utterance, int attempt) {
+        }
+    }
+
+    private static int reach(String regex) {
+        return PatternSpans.maxReach(Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+    }
+
+    private static String batch(CharSequence raw) {
+        return BATCH.findFirstMatchTask(raw.toString().replaceAll("\\s+", " "));
+    }
+
+    // Reach = span + lookahead spans + 1 (the char after, for \b and $)
+    @Test
+    void reach_of_patterns() {
+        assertThat(reach("\\bpassword\\s+reset\\b")).isEqualTo(8 + 1 + 5 + 1);
+        assertThat(reach("\\border\\b(?!\\s+to)")).isEqualTo(5 + 3 + 1);
+        assertThat(reach("(?<=ab)c")).isEqualTo(1 + 1);
+        assertThat(reach("a+")).isEqualTo(PatternSpans.UNBOUNDED);
+        assertThat(PatternSpans.maxReach(CATALOG)).isEqualTo(6 + 2 * 15 + 8 + 1);
+    }
+
+    // Typing word by word, then deleting back, across lookarounds ("in order to")
+    @Test
+    void follows_typing_and_deleting() {
+        IncrementalTaskMatcher m = new IncrementalTaskMatcher(CATALOG);
+        assertThat(m.append("I want to check")).isEqualTo("NoTaskFound");
+        assertThat(m.append(" in order")).isEqualTo("CheckOrderStatusTask");
+        assertThat(m.append(" to")).isEqualTo("NoTaskFound");
+        assertThat(m.append(" reset my password")).isEqualTo("ResetPasswordTask");
+        assertThat(m.delete(" reset my password".length())).isEqualTo("NoTaskFound");
+        assertThat(m.delete(3)).isEqualTo("CheckOrderStatusTask");
+        assertThat(m.clear()).isEqualTo("NoTaskFound");
+        assertThat(m.text()).isEmpty();
+    }
+
+    // Random edit sequences: after every edit, same task as batch matching of the whole text
+    @Test
+    void random_edits_same_as_batch() {
+        NiceHomeworkTaskService service = new QuietService();
+        Random random = new Random(7);
+        for (int session = 0; session < 300; session++) {
+            IncrementalTaskMatcher m = new IncrementalTaskMatcher(CATALOG);
+            StringBuilder raw = new StringBuilder();
+            for (int edit = 0; edit < 300; edit++) {
+                String got;
+                if (raw.length() > 0 && random.nextInt(4) == 0) {
+                    int n = 1 + random.nextInt(Math.min(raw.length(), 20));
+                    raw.setLength(raw.length() - n);
+                    got = m.delete(n);
+                } else {
+                    String piece = PIECES[random.nextInt(PIECES.length)];
+                    if (random.nextBoolean()) {
+                        piece = piece + " ";
+                    }
+                    raw.append(piece);
+                    got = m.append(piece);
+                }
+                assertThat(got).as("session %d edit %d: '%s'", session, edit, raw).isEqualTo(batch(raw));
+                if (edit % 50 == 0) {
+                    assertThat(got).isEqualTo(service.suggestTask(raw.toString(), false));
+                }
+            }
+        }
+    }
+
+    // Catalog with an unbounded pattern: no settled region, still exact
+    @Test
+    void unbounded_catalog_still_exact() throws Exception {
+        TaskCatalog catalog = TaskCatalog.parse("t", new StringReader("""
+                LongTask: start.*end
+                ShortTask: \\bend\\b
+                """));
+        IncrementalTaskMatcher m = new IncrementalTaskMatcher(catalog);
+        assertThat(m.append("the end")).isEqualTo("ShortTask");
+        assertThat(m.delete(7)).isEqualTo("NoTaskFound");
+        assertThat(m.append("start " + "x".repeat(1000) + " end")).isEqualTo("LongTask");
+    }
+
+    // 200k chars typed one at a time: linear overall (a rescan per keystroke would be ~10^10 steps)
+    @Test
+    void keystroke_cost_does_not_grow_with_text() {
+        IncrementalTaskMatcher m = new IncrementalTaskMatcher(CATALOG);
+        String filler = "please tell me about the status of things ";
+        long start = System.nanoTime();
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(m.append(String.valueOf(filler.charAt(i % filler.length())))).isEqualTo("NoTaskFound");
+        }
+        for (char c : " reset password".toCharArray()) {
+            m.append(String.valueOf(c));
+        }
+        assertThat(m.task()).isEqualTo("ResetPasswordTask");
+        assertThat(System.nanoTime() - start).isLessThan(20_000_000_000L);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.ChunkedTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the custom JFR events of the classification pipeline.
+ *
+ * Rationale:
+ * - Production latency is diagnosed from JFR recordings: the events must be
+ *   there, with their fields, when enabled in the recording settings...
+ * - ...and absent when disabled.
+ */
+class JfrEventsTest {
+
+    private static final String PREFIX = "com.example.nice_homeworkTask.";
+
+    @TempDir
+    Path dir;
+
+    /* Runs work inside a recording with our events enabled (except disabled), returns our events. */
+    private List<RecordedEvent> record(Runnable work, String... disabled) throws Exception {
+        Path file = dir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { "Normalize", "Match", "ExternalCall" }) {
+                recording.enable(PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            for (String name : disabled) {
+                recording.disable(PREFIX + name);
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+                .toList();
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + name)).toList();
+    }
+
+    // One request: normalization, one match with its fields, three external call attempts
+    @Test
+    void suggestTask_emits_pipeline_events() throws Exception {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService();
+        List<RecordedEvent> events = record(() -> service.suggestTask("I  forgot my\tpassword"));
+
+        RecordedEvent normalize = named(events, "Normalize").get(0);
+        assertThat(normalize.getInt("inputLength")).isEqualTo(21);
+        assertThat(normalize.getInt("outputLength")).isEqualTo(20);
+
+        List<RecordedEvent> matches = named(events, "Match");
+        assertThat(matches).hasSize(1);
+        RecordedEvent match = matches.get(0);
+        assertThat(match.getString("engine")).isEqualTo("regex");
+        assertThat(match.getString("catalog")).isEqualTo("builtin");
+        assertThat(match.getInt("textLength")).isEqualTo(20);
+        assertThat(match.getInt("patternsEvaluated")).isEqualTo(NiceHomeworkTaskService.catalog().patternCount());
+        assertThat(match.getString("task")).isEqualTo("ResetPasswordTask");
+        assertThat(match.getDuration()).isPositive();
+
+        List<RecordedEvent> attempts = named(events, "ExternalCall");
+        assertThat(attempts).extracting(e -> e.getInt("attempt")).containsExactly(1, 2, 3);
+        assertThat(attempts).extracting(e -> e.getBoolean("success")).containsExactly(false, false, true);
+        assertThat(attempts.get(0).getString("error")).contains("attempt 1");
+    }
+
+    // Chunked matching reports the pattern searches of all chunks
+    @Test
+    void chunked_match_counts_searches_per_chunk() throws Exception {
+        TaskCatalog catalog = NiceHomeworkTaskService.catalog();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ChunkedTaskMatcher chunked = new ChunkedTaskMatcher(catalog, 256, 64, pool);
+            String text = "hello there ".repeat(100);
+            RecordedEvent match = named(record(() -> chunked.findFirstMatchTask(text)), "Match").get(0);
+            assertThat(match.getString("engine")).isEqualTo("chunked");
+            assertThat(match.getString("task")).isEqualTo("NoTaskFound");
+            assertThat(match.getInt("patternsEvaluated")).isEqualTo(catalog.patternCount() * ((text.length() + 63) / 64));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Disabled in the settings -> not recorded
+    @Test
+    void disabled_events_are_not_recorded() throws Exception {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService();
+        List<RecordedEvent> events = record(() -> service.suggestTask("track my order"), "Match", "ExternalCall");
+
+        assertThat(named(events, "Normalize")).hasSize(1);
+        assertThat(named(events, "Match")).isEmpty();
+        assertThat(named(events, "ExternalCall")).isEmpty();
+    }
+}
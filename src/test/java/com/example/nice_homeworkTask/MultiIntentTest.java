@@ -0,0 +1,145 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.matching.AnchoredTaskMatcher;
+import com.example.nice_homeworkTask.matching.BytecodeTaskMatcher;
+import com.example.nice_homeworkTask.matching.ChunkedTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.StemmingTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for multi-task extraction (TaskMatcher.findAllMatches and
+ * NiceHomeworkTaskService.suggestTasks).
+ *
+ * Rationale:
+ * - The first extracted task must be the single-task answer for every
+ *   utterance of the corpus and every engine, so asking for allTasks can never
+ *   change "task".
+ * - Spans must be ordered, non-overlapping, and each one must be a real match
+ *   of a pattern of its task at that position.
+ * - Spans point into the text as the client sent it, also when whitespace runs
+ *   were collapsed or inflected words were stemmed before matching.
+ */
+class MultiIntentTest {
+
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static List<String> corpus;
+
+    @BeforeAll
+    static void loadCorpus() throws IOException {
+        Set<String> utterances = new LinkedHashSet<>(ClassificationCorpusTest.readCurated());
+        utterances.addAll(ClassificationCorpusTest.generate(new Random(46)));
+        corpus = List.copyOf(utterances);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void first_match_is_the_single_task_answer_for_every_engine() {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+        List<TaskMatcher> engines = List.of(new RegexTaskMatcher(CATALOG),
+                new ChunkedTaskMatcher(CATALOG, 512, 128, POOL), new BytecodeTaskMatcher(CATALOG),
+                new AnchoredTaskMatcher(CATALOG, true), new AnchoredTaskMatcher(CATALOG, false),
+                new StemmingTaskMatcher(new RegexTaskMatcher(CATALOG), CATALOG));
+        for (TaskMatcher engine : engines) {
+            for (String utterance : corpus) {
+                List<TaskMatch> all = service.suggestTasks(utterance, engine, false);
+                String first = all.isEmpty() ? TaskMatcher.NO_TASK : all.get(0).task();
+                assertThat(first).as("%s: %s", engine.name(), utterance)
+                        .isEqualTo(service.suggestTask(utterance, engine, false));
+            }
+        }
+    }
+
+    @Test
+    void spans_are_ordered_non_overlapping_matches_of_their_task() {
+        RegexTaskMatcher regex = new RegexTaskMatcher(CATALOG);
+        for (String utterance : corpus) {
+            String text = utterance.replaceAll("\\s+", " ");
+            int previousEnd = 0;
+            for (TaskMatch m : regex.findAllMatches(text)) {
+                assertThat(m.start()).as(utterance).isGreaterThanOrEqualTo(previousEnd);
+                assertThat(m.end()).as(utterance).isGreaterThan(m.start());
+                assertThat(matchesAt(text, m)).as("%s %s", utterance, m).isTrue();
+                previousEnd = m.end();
+            }
+        }
+    }
+
+    @Test
+    void two_intents_in_one_utterance() {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+        String utterance = "Reset my password and then track my order";
+        assertThat(service.suggestTasks(utterance, null, false)).containsExactly(
+                new TaskMatch("ResetPasswordTask", 0, 17),
+                new TaskMatch("CheckOrderStatusTask", 27, 41));
+        assertThat(service.suggestTasks("check order, and later on again check order", null, false))
+                .containsExactly(new TaskMatch("CheckOrderStatusTask", 0, 11),
+                        new TaskMatch("CheckOrderStatusTask", 32, 43));
+        // within GAP, "check ... order" (greedy, like the single-task match) spans both
+        assertThat(service.suggestTasks("check order, check order", null, false)).containsExactly(
+                new TaskMatch("CheckOrderStatusTask", 0, 24));
+        assertThat(service.suggestTasks("hello there", null, false)).isEmpty();
+        assertThat(service.suggestTasks("  ", null, false)).isEmpty();
+    }
+
+    // Spans in the original text: whitespace runs inside, before and after a match
+    @Test
+    void spans_point_into_the_utterance_before_normalization() {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+        String utterance = "  reset \t\n my password \r\n   and   track order  ";
+        List<TaskMatch> found = service.suggestTasks(utterance, null, false);
+        assertThat(found).extracting(TaskMatch::task).containsExactly("ResetPasswordTask", "CheckOrderStatusTask");
+        assertThat(spanned(utterance, found)).containsExactly("reset \t\n my password", "track order");
+    }
+
+    @Test
+    void spans_cover_the_inflected_words_with_stemming() {
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+        TaskMatcher stemming = new StemmingTaskMatcher(new RegexTaskMatcher(CATALOG), CATALOG);
+        String utterance = "I was resetting   my passwords, then tracked orders";
+        List<TaskMatch> found = service.suggestTasks(utterance, stemming, false);
+        assertThat(spanned(utterance, found)).containsExactly("resetting   my passwords", "tracked orders");
+    }
+
+    private static List<String> spanned(String utterance, List<TaskMatch> found) {
+        List<String> spans = new ArrayList<>();
+        for (TaskMatch m : found) {
+            spans.add(utterance.substring(m.start(), m.end()));
+        }
+        return spans;
+    }
+
+    private static boolean matchesAt(String text, TaskMatch m) {
+        int task = CATALOG.tasks().indexOf(m.task());
+        for (var p : CATALOG.patterns(task)) {
+            Matcher matcher = p.matcher(text);
+            if (matcher.find(m.start()) && matcher.start() == m.start() && matcher.end() == m.end()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.dto.ErrorResponse;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequestValidator;
+import com.example.nice_homeworkTask.web.PreEncodedErrorResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the hand-written request validator and the pre-encoded 400 bodies.
+ *
+ * Rationale:
+ * - The validator must agree with Hibernate Validator (the DTO annotations) on
+ *   every input, including odd whitespace, so we compare both on all combinations.
+ * - The pre-encoded bodies must be the bytes Jackson writes for the same
+ *   ErrorResponse that the old handler built.
+ */
+class NiceHomeworkTaskRequestValidatorTest {
+
+    // null, empty, ASCII whitespace, control chars, and non-ASCII spaces trim() keeps
+    private static final String[] STRINGS = { null, "", " ", "   ", "\t\n\r", "\u0000", "\u001f ", "a", " a ",
+            " ", " ", "reset password" };
+    private static final Instant[] TIMESTAMPS = { null, Instant.parse("2025-08-21T12:00:00Z") };
+    private static final String[] TENANTS = { null, "", "acme", "acme-retail_2", "acme retail", "../etc",
+            "é", "a".repeat(64), "a".repeat(65) };
+
+    private final Validator hibernate = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    // Every combination of field values -> same failing fields as Bean Validation
+    @Test
+    void sameFailuresAsBeanValidation() {
+        for (String utterance : STRINGS) {
+            for (String userId : STRINGS) {
+                for (String sessionId : STRINGS) {
+                    for (Instant timestamp : TIMESTAMPS) {
+                        for (String tenant : TENANTS) {
+                            NiceHomeworkTaskRequest req = new NiceHomeworkTaskRequest();
+                            req.setUtterance(utterance);
+                            req.setUserId(userId);
+                            req.setSessionId(sessionId);
+                            req.setTimestamp(timestamp);
+                            req.setTenant(tenant);
+
+                            Map<String, String> expected = new HashMap<>();
+                            for (ConstraintViolation<NiceHomeworkTaskRequest> v : hibernate.validate(req)) {
+                                expected.put(v.getPropertyPath().toString(), v.getMessage());
+                            }
+                            int failures = NiceHomeworkTaskRequestValidator.validate(req);
+                            assertThat(PreEncodedErrorResponses.validationErrors(failures))
+                                    .as("utterance=%s userId=%s sessionId=%s timestamp=%s tenant=%s",
+                                            utterance, userId, sessionId, timestamp, tenant)
+                                    .isEqualTo(expected);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // All failure combinations + malformed body -> same bytes as Jackson
+    @Test
+    void preEncodedBodies_sameBytesAsJackson() throws Exception {
+        var preEncoded = new PreEncodedErrorResponses(jackson);
+        Instant[] times = { Instant.now(), Instant.parse("2025-08-21T12:00:00Z"),
+                Instant.parse("2025-08-21T12:00:00.000000001Z") };
+
+        for (Instant now : times) {
+            for (int failures = 1; failures < 1 << NiceHomeworkTaskRequestValidator.FIELDS.length; failures++) {
+                ErrorResponse old = new ErrorResponse("Validation failed",
+                        PreEncodedErrorResponses.validationErrors(failures), now);
+                assertThat(preEncoded.validationFailed(failures, now)).isEqualTo(jackson.writeValueAsBytes(old));
+            }
+            Map<String, String> errors = new HashMap<>();
+            errors.put("body", "Invalid JSON or field format");
+            errors.put("timestamp", "must be ISO-8601, e.g. 2025-08-21T12:00:00Z");
+            ErrorResponse old = new ErrorResponse("Malformed request body", errors, now);
+            assertThat(preEncoded.malformedBody(now)).isEqualTo(jackson.writeValueAsBytes(old));
+        }
+    }
+
+    // The field/message tables match the DTO annotations one-to-one (allTasks has no constraint)
+    @Test
+    void tablesCoverEveryField() {
+        assertThat(NiceHomeworkTaskRequestValidator.FIELDS).hasSameSizeAs(NiceHomeworkTaskRequestValidator.MESSAGES);
+        assertThat(Arrays.stream(NiceHomeworkTaskRequest.class.getDeclaredFields())
+                .filter(f -> f.getAnnotations().length > 0).map(f -> f.getName()))
+                .containsExactlyInAnyOrder(NiceHomeworkTaskRequestValidator.FIELDS);
+    }
+}
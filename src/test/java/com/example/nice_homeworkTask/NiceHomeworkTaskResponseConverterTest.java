@@ -0,0 +1,124 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.web.NiceHomeworkTaskResponseConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the pre-encoded /suggestTask response writer.
+ *
+ * Rationale:
+ * - The writer must produce exactly the bytes Jackson produces today, so every
+ *   case is compared against an ObjectMapper configured the way Spring Boot
+ *   configures it (ISO-8601 dates, not numeric timestamps). That includes the
+ *   optional "tasks" list, and leaving it out when it is null.
+ */
+class NiceHomeworkTaskResponseConverterTest {
+
+    private static final List<String> TASKS = List.of("ResetPasswordTask", "CheckOrderStatusTask", "NoTaskFound");
+
+    private final ObjectMapper jackson = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final NiceHomeworkTaskResponseConverter converter = new NiceHomeworkTaskResponseConverter(TASKS);
+
+    private byte[] fast(NiceHomeworkTaskResponse res) throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(res, MediaType.APPLICATION_JSON, out);
+        assertThat(out.getHeaders().getContentLength()).isEqualTo(out.getBodyAsBytes().length);
+        return out.getBodyAsBytes();
+    }
+
+    private void assertSameAsJackson(String task, Instant timestamp) throws Exception {
+        NiceHomeworkTaskResponse res = new NiceHomeworkTaskResponse(task, timestamp);
+        assertThat(new String(fast(res), StandardCharsets.UTF_8)).isEqualTo(jackson.writeValueAsString(res));
+        assertThat(fast(res)).isEqualTo(jackson.writeValueAsBytes(res));
+    }
+
+    // Known task names with second, milli, micro and nano precision timestamps
+    @Test
+    void knownTasks_sameBytesAsJackson() throws Exception {
+        for (String task : TASKS) {
+            assertSameAsJackson(task, Instant.parse("2025-08-21T12:00:00Z"));
+            assertSameAsJackson(task, Instant.parse("2025-08-21T12:00:00.120Z"));
+            assertSameAsJackson(task, Instant.parse("2025-08-21T12:00:00.000450Z"));
+            assertSameAsJackson(task, Instant.parse("2025-08-21T12:00:00.000000007Z"));
+            assertSameAsJackson(task, Instant.now());
+        }
+    }
+
+    // Random instants across the fast range, plus years that need the slow path
+    @Test
+    void randomAndEdgeTimestamps_sameBytesAsJackson() throws Exception {
+        Random rnd = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            long sec = rnd.nextLong(253402300799L); // 1970 .. 9999
+            int nanos = switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> rnd.nextInt(1000) * 1_000_000;
+                case 2 -> rnd.nextInt(1_000_000) * 1_000;
+                default -> rnd.nextInt(1_000_000_000);
+            };
+            assertSameAsJackson("CheckOrderStatusTask", Instant.ofEpochSecond(sec, nanos));
+        }
+        assertSameAsJackson("NoTaskFound", Instant.parse("0000-01-01T00:00:00Z"));
+        assertSameAsJackson("NoTaskFound", Instant.parse("9999-12-31T23:59:59.999999999Z"));
+        assertSameAsJackson("NoTaskFound", Instant.parse("+10000-01-01T00:00:00Z"));
+        assertSameAsJackson("NoTaskFound", Instant.parse("-0001-01-01T00:00:00Z"));
+        assertSameAsJackson("NoTaskFound", Instant.MAX); // the longest output: +1000000000-12-31T23:59:59.999999999Z
+        assertSameAsJackson("NoTaskFound", Instant.MIN);
+    }
+
+    // Unknown names, characters that need escaping, and null fields
+    @Test
+    void unusualValues_sameBytesAsJackson() throws Exception {
+        Instant t = Instant.parse("2025-08-21T12:00:00.5Z");
+        assertSameAsJackson("BrandNewTask", t);
+        assertSameAsJackson("quote\" back\\slash \n tab\t ctrl\u0001", t);
+        assertSameAsJackson("unicode ✓ é 日本", t);
+        assertSameAsJackson(null, t);
+        assertSameAsJackson("NoTaskFound", null);
+        assertSameAsJackson(null, null);
+    }
+
+    // allTasks responses: the tasks list (empty, one, several, odd names) before the closing brace
+    @Test
+    void tasksList_sameBytesAsJackson() throws Exception {
+        Instant t = Instant.parse("2025-08-21T12:00:00.120Z");
+        List<List<TaskMatch>> cases = List.of(
+                List.of(),
+                List.of(new TaskMatch("ResetPasswordTask", 0, 14)),
+                List.of(new TaskMatch("ResetPasswordTask", 0, 17), new TaskMatch("CheckOrderStatusTask", 27, 41),
+                        new TaskMatch("ResetPasswordTask", 1_000_000, 2_147_483_647)),
+                List.of(new TaskMatch("quote\" ✓ \n", 3, 4), new TaskMatch(null, 5, 6)));
+        for (List<TaskMatch> tasks : cases) {
+            for (Instant timestamp : new Instant[] { t, null }) {
+                NiceHomeworkTaskResponse res = new NiceHomeworkTaskResponse("NoTaskFound", timestamp, tasks);
+                assertThat(new String(fast(res), StandardCharsets.UTF_8)).isEqualTo(jackson.writeValueAsString(res));
+                assertThat(fast(res)).isEqualTo(jackson.writeValueAsBytes(res));
+            }
+        }
+    }
+
+    // Only the response type is handled; reading is left to Jackson
+    @Test
+    void writeOnly_forResponseType() {
+        assertThat(converter.canWrite(NiceHomeworkTaskResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(String.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(NiceHomeworkTaskResponse.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+}
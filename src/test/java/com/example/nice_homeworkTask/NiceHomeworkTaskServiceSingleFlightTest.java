@@ -0,0 +1,182 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.service.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Thundering-herd tests for single-flight coalescing.
+ *
+ * Rationale:
+ * - The external call blocks on a gate, so the first request stays "in flight"
+ *   while the others arrive. We open the gate only once every thread is parked.
+ * - Counting external calls proves the herd shared one computation.
+ */
+class NiceHomeworkTaskServiceSingleFlightTest {
+
+    private static final int HERD = 64;
+
+    /* Test double: the external call waits for the gate and counts invocations. */
+    static class GatedService extends NiceHomeworkTaskService {
+
+        final CountDownLatch gate = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        GatedService(boolean singleFlight) {
+            super(singleFlight);
+        }
+
+        @Override
+        protected void simulateExternalCall(String utterance, int attempt) {
+            calls.incrementAndGet();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // success on the first attempt
+        }
+    }
+
+    // 64 concurrent "track order" requests -> one external call, same answer for everyone
+    @Test
+    void herd_of_identical_requests_shares_one_external_call() throws Exception {
+        var svc = new GatedService(true);
+        List<String> results = runHerd(svc, i -> i % 2 == 0 ? "track order" : "track   order");
+
+        assertThat(results).hasSize(HERD).containsOnly("CheckOrderStatusTask");
+        assertThat(svc.calls.get()).isEqualTo(1);
+    }
+
+    // Nothing is kept after the flight lands: the next request computes again
+    @Test
+    void result_is_not_cached_after_completion() throws Exception {
+        var svc = new GatedService(true);
+        svc.gate.countDown();
+        svc.suggestTask("track order");
+        svc.suggestTask("track order");
+        assertThat(svc.calls.get()).isEqualTo(2);
+    }
+
+    // Different texts never wait on each other
+    @Test
+    void different_texts_run_independently() throws Exception {
+        var svc = new GatedService(true);
+        List<String> results = runHerd(svc, i -> i % 2 == 0 ? "track order" : "reset password");
+
+        assertThat(results).filteredOn("CheckOrderStatusTask"::equals).hasSize(HERD / 2);
+        assertThat(results).filteredOn("ResetPasswordTask"::equals).hasSize(HERD / 2);
+        assertThat(svc.calls.get()).isEqualTo(2);
+    }
+
+    // With single-flight off, every request does its own external call
+    @Test
+    void disabled_single_flight_calls_external_per_request() throws Exception {
+        var svc = new GatedService(false);
+        runHerd(svc, i -> "track order");
+        assertThat(svc.calls.get()).isEqualTo(HERD);
+    }
+
+    // The leader's exception reaches every waiter, and the key is released
+    @Test
+    void leader_failure_is_shared_and_released() throws Exception {
+        var flight = new SingleFlight<String, String>();
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.run("k", () -> {
+                entered.countDown();
+                await(release);
+                throw new IllegalStateException("upstream down");
+            }));
+            entered.await();
+            var followerThread = new AtomicReference<Thread>();
+            Future<String> follower = pool.submit(() -> {
+                followerThread.set(Thread.currentThread());
+                return flight.run("k", () -> "should not run");
+            });
+            waitUntil(() -> followerThread.get() != null && followerThread.get().getState() == Thread.State.WAITING);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(follower::get).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(flight.inFlight()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // -------- Helpers --------
+
+    /* Fires HERD requests at once, opens the gate when all of them are parked, returns the answers. */
+    private static List<String> runHerd(GatedService svc, IntFunction<String> utterance)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(HERD);
+        List<Thread> threads = new ArrayList<>();
+        try {
+            CountDownLatch started = new CountDownLatch(HERD);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < HERD; i++) {
+                String text = utterance.apply(i);
+                futures.add(pool.submit(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    started.countDown();
+                    return svc.suggestTask(text);
+                }));
+            }
+            started.await();
+            // Every thread is either blocked on the gate (leaders) or waiting for a leader
+            waitUntil(() -> {
+                synchronized (threads) {
+                    return threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING
+                            || t.getState() == Thread.State.TIMED_WAITING);
+                }
+            });
+            svc.gate.countDown();
+
+            List<String> results = new ArrayList<>();
+            for (Future<String> f : futures) {
+                results.add(f.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not reached in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
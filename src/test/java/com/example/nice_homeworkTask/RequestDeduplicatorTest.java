@@ -0,0 +1,127 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.service.RequestDeduplicator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Unit tests for the retry de-duplication window.
+ *
+ * Rationale:
+ * - A fake clock (AtomicLong of nanos) lets us move time forward without sleeping.
+ * - The counter proves whether the "real" work (matching + external call) ran again.
+ */
+class RequestDeduplicatorTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger computed = new AtomicInteger();
+
+    // Window of 10s split into 5 buckets of 2s each.
+    private final RequestDeduplicator dedup = new RequestDeduplicator(Duration.ofSeconds(10), 5, now::get);
+
+    private static NiceHomeworkTaskRequest request(String utterance, String userId) {
+        NiceHomeworkTaskRequest req = new NiceHomeworkTaskRequest();
+        req.setUtterance(utterance);
+        req.setUserId(userId);
+        req.setSessionId("s1");
+        req.setTimestamp(Instant.parse("2025-08-21T12:00:00Z"));
+        return req;
+    }
+
+    private NiceHomeworkTaskResponse call(NiceHomeworkTaskRequest req) {
+        return dedup.deduplicate(req, () -> {
+            computed.incrementAndGet();
+            return new NiceHomeworkTaskResponse("ResetPasswordTask", Instant.now());
+        });
+    }
+
+    // A retry inside the window gets the very same response, and no second computation
+    @Test
+    void retry_within_window_returns_original_response() {
+        NiceHomeworkTaskResponse first = call(request("reset password", "u1"));
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        NiceHomeworkTaskResponse retry = call(request("reset password", "u1"));
+
+        assertThat(retry).isSameAs(first);
+        assertThat(computed.get()).isEqualTo(1);
+    }
+
+    // A degraded response (remember=false) is not replayed; a full one computed later is
+    @Test
+    void degraded_response_is_not_remembered() {
+        NiceHomeworkTaskResponse degraded = dedup.deduplicate(request("reset password", "u1"), false, () -> {
+            computed.incrementAndGet();
+            return new NiceHomeworkTaskResponse("ResetPasswordTask", Instant.now());
+        });
+        NiceHomeworkTaskResponse retry = call(request("reset password", "u1"));
+        NiceHomeworkTaskResponse again = call(request("reset password", "u1"));
+
+        assertThat(retry).isNotSameAs(degraded);
+        assertThat(again).isSameAs(retry);
+        assertThat(computed.get()).isEqualTo(2);
+        assertThat(dedup.size()).isEqualTo(1);
+    }
+
+    // Any field that differs makes it a new request
+    @Test
+    void different_request_is_computed() {
+        call(request("reset password", "u1"));
+        call(request("reset password", "u2"));
+        call(request("track order", "u1"));
+        assertThat(computed.get()).isEqualTo(3);
+    }
+
+    // After the window (plus one bucket at most) the entry is gone
+    @Test
+    void retry_after_window_is_computed_again() {
+        NiceHomeworkTaskResponse first = call(request("reset password", "u1"));
+        now.addAndGet(Duration.ofSeconds(13).toNanos());
+        NiceHomeworkTaskResponse late = call(request("reset password", "u1"));
+
+        assertThat(late).isNotSameAs(first);
+        assertThat(computed.get()).isEqualTo(2);
+    }
+
+    // Memory stays bounded: old buckets are dropped as time moves on
+    @Test
+    void old_buckets_are_evicted() {
+        for (int i = 0; i < 1_000; i++) {
+            call(request("reset password " + i, "u1"));
+            now.addAndGet(Duration.ofMillis(100).toNanos());
+        }
+        // 1000 requests over 100s, but only ~12s worth may stay in memory
+        assertThat(dedup.size()).isLessThanOrEqualTo(130);
+    }
+
+    // Failures are not remembered: the next retry runs the work again
+    @Test
+    void failure_is_not_cached() {
+        NiceHomeworkTaskRequest req = request("reset password", "u1");
+        assertThatThrownBy(() -> dedup.deduplicate(req, () -> {
+            computed.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        call(req);
+        assertThat(computed.get()).isEqualTo(2);
+    }
+
+    // Window of zero disables de-duplication
+    @Test
+    void zero_window_disables_dedup() {
+        var off = new RequestDeduplicator(Duration.ZERO, 5, now::get);
+        NiceHomeworkTaskRequest req = request("reset password", "u1");
+        off.deduplicate(req, () -> new NiceHomeworkTaskResponse("a", Instant.now()));
+        off.deduplicate(req, () -> new NiceHomeworkTaskResponse("b", Instant.now()));
+        assertThat(off.size()).isZero();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.service.ExternalCallRetrier;
+import com.example.nice_homeworkTask.service.RetryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the retry budget and the backoff of external call retries.
+ *
+ * Rationale:
+ * - During an upstream brownout, retries must stay a bounded fraction of
+ *   first attempts (no 3x load), and recover when the budget refills.
+ * - Retries must be delayed (jittered, growing) on a scheduler, never on the caller.
+ * - A fake clock and a manual scheduler keep the tests instant and exact.
+ */
+class RetryBudgetTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    /* Test double: collects scheduled retries; run() executes them like time passing. */
+    static class ManualScheduler implements ExternalCallRetrier.Scheduler {
+        final List<Runnable> pending = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public void schedule(Runnable retry, long delayNanos) {
+            pending.add(retry);
+            delays.add(delayNanos);
+        }
+
+        void runAll() {
+            while (!pending.isEmpty()) {
+                pending.remove(0).run();
+            }
+        }
+    }
+
+    private RetryBudget budget(int minPerSecond, double percent) {
+        return new RetryBudget(Duration.ofSeconds(10), minPerSecond, percent, now::get);
+    }
+
+    // 20% and no reserve: 100 first attempts allow 20 retries, not more
+    @Test
+    void budget_caps_retries_at_percentage_of_first_attempts() {
+        RetryBudget budget = budget(0, 0.2);
+        assertThat(budget.tryWithdraw()).isFalse();
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        int granted = 0;
+        while (budget.tryWithdraw()) {
+            granted++;
+        }
+        assertThat(granted).isEqualTo(20);
+    }
+
+    // Deposits expire after the ttl; the reserve (min per second * ttl) always remains
+    @Test
+    void deposits_expire_but_reserve_stays() {
+        RetryBudget budget = budget(1, 0.5);
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.available()).isEqualTo(10 + 5);
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertThat(budget.available()).isEqualTo(10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(budget.tryWithdraw()).isTrue();
+        }
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        // withdrawals expire too: after another ttl, the reserve is back
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertThat(budget.available()).isEqualTo(10);
+    }
+
+    // Upstream down: each call fails every attempt. Total attempts stay near 1.2x, not 3x
+    @Test
+    void brownout_retries_limited_and_budget_exhaustion_counted() {
+        ManualScheduler scheduler = new ManualScheduler();
+        ExternalCallRetrier retrier = new ExternalCallRetrier(budget(0, 0.2), 3, Duration.ofMillis(50),
+                Duration.ofSeconds(1), scheduler, meters);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int request = 0; request < 1000; request++) {
+            retrier.execute(attempt -> {
+                attempts.incrementAndGet();
+                throw new RuntimeException("upstream down");
+            });
+            scheduler.runAll();
+            now.addAndGet(Duration.ofMillis(1).toNanos());
+        }
+
+        assertThat(attempts.get()).isBetween(1000, 1000 + 200 + 1);
+        assertThat(meters.counter("suggest_task.retry.budget_exhausted").count()).isGreaterThan(700);
+        assertThat(meters.counter("suggest_task.retry.retries").count()).isEqualTo(attempts.get() - 1000);
+    }
+
+    // Retries go to the scheduler with jittered exponential delays; the caller returns right away
+    @Test
+    void retries_are_scheduled_with_jittered_exponential_backoff() {
+        ManualScheduler scheduler = new ManualScheduler();
+        ExternalCallRetrier retrier = new ExternalCallRetrier(budget(100, 0.2), 4, Duration.ofMillis(100),
+                Duration.ofMillis(250), scheduler, meters);
+        List<Integer> attempts = new ArrayList<>();
+
+        retrier.execute(attempt -> {
+            attempts.add(attempt);
+            throw new RuntimeException("fail");
+        });
+        assertThat(attempts).containsExactly(1); // only the first attempt ran on the caller
+        assertThat(scheduler.pending).hasSize(1);
+
+        scheduler.runAll();
+        assertThat(attempts).containsExactly(1, 2, 3, 4);
+        assertThat(scheduler.delays).hasSize(3);
+        assertThat(scheduler.delays.get(0)).isBetween(0L, Duration.ofMillis(100).toNanos());
+        assertThat(scheduler.delays.get(1)).isBetween(0L, Duration.ofMillis(200).toNanos());
+        assertThat(scheduler.delays.get(2)).isBetween(0L, Duration.ofMillis(250).toNanos()); // capped
+
+        // jitter: many first retries are spread over [0, base]
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < 200; i++) {
+            scheduler.delays.clear();
+            retrier.execute(attempt -> {
+                if (attempt == 1) {
+                    throw new RuntimeException("fail once");
+                }
+            });
+            scheduler.runAll();
+            min = Math.min(min, scheduler.delays.get(0));
+            max = Math.max(max, scheduler.delays.get(0));
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+        }
+        assertThat(max - min).isGreaterThan(Duration.ofMillis(50).toNanos());
+    }
+}
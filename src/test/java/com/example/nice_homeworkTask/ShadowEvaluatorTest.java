@@ -0,0 +1,192 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.cache.ClassificationCache;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskMatchers;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.shadow.ShadowEvaluator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for shadow evaluation of a candidate matching engine.
+ *
+ * Rationale:
+ * - The live answer must never depend on the candidate (result or speed).
+ * - Disagreements must be counted and sampled, latencies recorded for both engines.
+ * - The report must name the engines actually compared (live engine as configured).
+ */
+class ShadowEvaluatorTest {
+
+    /* Test double: no external call (keeps the tests fast and quiet). */
+    static class QuietService extends NiceHomeworkTaskService {
+        QuietService(ShadowEvaluator shadow) {
+            super(true, shadow, null);
+        }
+
+        @Override
+        protected void simulateExternalCall(String utterance, int attempt) {
+        }
+    }
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private ShadowEvaluator shadow;
+
+    @AfterEach
+    void shutdown() {
+        if (shadow != null) {
+            shadow.destroy();
+        }
+    }
+
+    // Same engine + same catalog -> everything agrees, both latencies recorded
+    @Test
+    void identicalCandidate_agrees_and_records_both_latencies() throws Exception {
+        shadow = new ShadowEvaluator(new RegexTaskMatcher(NiceHomeworkTaskService.catalog()), "builtin",
+                meters, 1, 1024, 1.0, 10);
+        NiceHomeworkTaskService service = new QuietService(shadow);
+
+        service.suggestTask("I need to reset my password");
+        service.suggestTask("please track my order");
+        service.suggestTask("hello there");
+        shadow.drain();
+
+        ShadowEvaluator.Report r = shadow.report();
+        assertThat(r.comparisons()).isEqualTo(3);
+        assertThat(r.disagreements()).isZero();
+        assertThat(r.agreementRate()).isEqualTo(1.0);
+        assertThat(r.latency().get("live").count()).isEqualTo(3);
+        assertThat(r.latency().get("candidate").count()).isEqualTo(3);
+        assertThat(r.samples()).isEmpty();
+    }
+
+    // With the cache on, repeated texts are still compared once per request (sampled before the lookup)
+    @Test
+    void cachedTexts_are_still_compared_per_request() throws Exception {
+        shadow = new ShadowEvaluator(new RegexTaskMatcher(NiceHomeworkTaskService.catalog()), "builtin",
+                meters, 1, 1024, 1.0, 10);
+        ClassificationCache cache = new ClassificationCache(NiceHomeworkTaskService.catalog(), 100, null);
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(true, shadow, cache) {
+            @Override
+            protected void simulateExternalCall(String utterance, int attempt) {
+            }
+        };
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(service.suggestTask("reset my password")).isEqualTo("ResetPasswordTask");
+        }
+        shadow.drain();
+
+        assertThat(shadow.report().comparisons()).isEqualTo(5);
+        assertThat(cache.get("reset my password")).isEqualTo("ResetPasswordTask");
+    }
+
+    // Candidate catalog without order tasks -> disagreement counted and sampled; live answer unchanged
+    @Test
+    void differentCatalog_records_disagreement_samples() throws Exception {
+        TaskCatalog v2 = TaskCatalog.parse("v2", new StringReader("""
+                # password only
+                ResetPasswordTask: \\breset\\b[\\s\\S]{0,15}\\bpassword\\b
+                """));
+        shadow = new ShadowEvaluator(new RegexTaskMatcher(v2), v2.name(), meters, 1, 1024, 1.0, 10);
+        NiceHomeworkTaskService service = new QuietService(shadow);
+
+        assertThat(service.suggestTask("please   track my order")).isEqualTo("CheckOrderStatusTask");
+        assertThat(service.suggestTask("reset my password")).isEqualTo("ResetPasswordTask");
+        shadow.drain();
+
+        ShadowEvaluator.Report r = shadow.report();
+        assertThat(r.comparisons()).isEqualTo(2);
+        assertThat(r.disagreements()).isEqualTo(1);
+        assertThat(r.agreementRate()).isEqualTo(0.5);
+        assertThat(r.samples()).singleElement().satisfies(d -> {
+            assertThat(d.utterance()).isEqualTo("please track my order");
+            assertThat(d.live()).isEqualTo("CheckOrderStatusTask");
+            assertThat(d.candidate()).isEqualTo("NoTaskFound");
+        });
+        assertThat(meters.get("suggest_task.shadow.disagreements")
+                .tag("live", "CheckOrderStatusTask").tag("candidate", "NoTaskFound").counter().count()).isEqualTo(1);
+    }
+
+    // Stuck candidate + full queue -> live calls return immediately, extra comparisons are dropped
+    @Test
+    void slowCandidate_never_blocks_live_path() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TaskMatcher stuck = new TaskMatcher() {
+            @Override
+            public String findFirstMatchTask(String text) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return NO_TASK;
+            }
+
+            @Override
+            public List<TaskMatch> findAllMatches(String text) {
+                return List.of();
+            }
+
+            @Override
+            public String name() {
+                return "stuck";
+            }
+        };
+        shadow = new ShadowEvaluator(stuck, "builtin", meters, 1, 1, 1.0, 10);
+        NiceHomeworkTaskService service = new QuietService(shadow);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            assertThat(service.suggestTask("reset password " + i)).isEqualTo("ResetPasswordTask");
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+
+        release.countDown();
+        shadow.drain();
+        ShadowEvaluator.Report r = shadow.report();
+        assertThat(r.dropped()).isGreaterThan(0);
+        assertThat(r.comparisons() + r.dropped()).isEqualTo(50);
+    }
+
+    // The report names the configured live engine and the candidate's catalog (not its engine)
+    @Test
+    void report_names_live_engine_and_candidate_catalog() {
+        TaskMatcher live = TaskMatchers.create("bytecode", NiceHomeworkTaskService.catalog());
+        shadow = new ShadowEvaluator(meters, new DefaultResourceLoader(),
+                new StaticListableBeanFactory(Map.of("taskMatcher", live)).getBeanProvider(TaskMatcher.class),
+                true, "regex", "classpath:tenants/acme.txt", 1, 16, 1.0, 10);
+
+        ShadowEvaluator.Report r = shadow.report();
+        assertThat(r.liveEngine()).isEqualTo("bytecode");
+        assertThat(r.candidateEngine()).isEqualTo("regex");
+        assertThat(r.candidateCatalog()).isEqualTo("classpath:tenants/acme.txt");
+    }
+
+    // sample-rate 0 -> nothing is compared
+    @Test
+    void zeroSampleRate_compares_nothing() throws Exception {
+        shadow = new ShadowEvaluator(new RegexTaskMatcher(NiceHomeworkTaskService.catalog()), "builtin",
+                meters, 1, 1024, 0.0, 10);
+        NiceHomeworkTaskService service = new QuietService(shadow);
+
+        service.suggestTask("reset password");
+        shadow.drain();
+
+        assertThat(shadow.report().comparisons()).isZero();
+    }
+}
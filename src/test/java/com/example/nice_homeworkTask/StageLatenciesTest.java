@@ -0,0 +1,112 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.latency.Stage;
+import com.example.nice_homeworkTask.latency.StageLatencies;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the per-stage latency recorders.
+ *
+ * Rationale:
+ * - Intervals must not overlap or lose values: every value recorded ends up in
+ *   exactly one "last" interval and in "total", even while writers race the
+ *   interval swap.
+ * - Percentiles are in microseconds and stages are reported separately.
+ * - The service times its own stages (normalize, match, external retry loop).
+ */
+class StageLatenciesTest {
+
+    @Test
+    void rollover_separates_intervals_total_accumulates() {
+        StageLatencies stages = new StageLatencies(true, Duration.ofSeconds(10), false);
+        for (int i = 1; i <= 100; i++) {
+            stages.record(Stage.MATCH, i * 1_000L); // 1..100 us
+        }
+        stages.rollover();
+        StageLatencies.StageReport match = stages.report().stages().get("match");
+        assertThat(match.last().count()).isEqualTo(100);
+        assertThat(match.last().p50()).isBetween(49.0, 51.0);
+        assertThat(match.last().max()).isBetween(99.0, 101.0);
+        assertThat(stages.report().stages().get("parse").last().count()).isZero();
+
+        stages.record(Stage.MATCH, 5_000_000L); // 5 ms
+        stages.rollover();
+        match = stages.report().stages().get("match");
+        assertThat(match.last().count()).isEqualTo(1);
+        assertThat(match.last().p50()).isBetween(4900.0, 5100.0);
+        assertThat(match.total().count()).isEqualTo(101);
+        assertThat(stages.report().stages()).containsOnlyKeys("parse", "validate", "normalize", "match", "external",
+                "write", "error");
+    }
+
+    @Test
+    void concurrent_writers_lose_nothing_across_rollovers() throws Exception {
+        StageLatencies stages = new StageLatencies(true, Duration.ofSeconds(10), false);
+        int writers = 4;
+        int perWriter = 200_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    stages.record(Stage.EXTERNAL, 1 + (i & 1023));
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        long[] sumOfIntervals = new long[1];
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                stages.rollover();
+                sumOfIntervals[0] += stages.report().stages().get("external").last().count();
+            }
+        });
+        reader.start();
+        for (Thread t : threads) {
+            t.join();
+        }
+        done.set(true);
+        reader.join();
+        stages.rollover();
+        sumOfIntervals[0] += stages.report().stages().get("external").last().count();
+
+        assertThat(sumOfIntervals[0]).isEqualTo((long) writers * perWriter);
+        assertThat(stages.report().stages().get("external").total().count()).isEqualTo((long) writers * perWriter);
+    }
+
+    @Test
+    void disabled_records_nothing() {
+        StageLatencies stages = StageLatencies.disabled();
+        assertThat(stages.start()).isZero();
+        stages.stop(Stage.PARSE, 0);
+        stages.record(Stage.MATCH, 1_000);
+        stages.rollover();
+        assertThat(stages.report().enabled()).isFalse();
+        assertThat(stages.report().stages().values()).allSatisfy(s -> assertThat(s.total().count()).isZero());
+    }
+
+    // Inline retrier: the retry loop (2 failures, then success) ends before suggestTask returns
+    @Test
+    void service_records_its_stages() {
+        StageLatencies stages = new StageLatencies(true, Duration.ofSeconds(10), false);
+        NiceHomeworkTaskService service = new NiceHomeworkTaskService(false, null, null, null, null, stages);
+        assertThat(service.suggestTask("please reset my password")).isEqualTo("ResetPasswordTask");
+        assertThat(service.suggestTask("hello there")).isEqualTo("NoTaskFound");
+        stages.rollover();
+
+        StageLatencies.Report report = stages.report();
+        assertThat(report.stages().get("normalize").last().count()).isEqualTo(2);
+        assertThat(report.stages().get("match").last().count()).isEqualTo(2);
+        assertThat(report.stages().get("external").last().count()).isEqualTo(1); // no call for NoTaskFound
+        assertThat(report.stages().get("parse").last().count()).isZero(); // HTTP stages: not the service
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.live.LiveSuggestHandler;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.StemTable;
+import com.example.nice_homeworkTask.matching.StemmingTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatchers;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * Unit tests for the stemming stage (StemTable + StemmingTaskMatcher).
+ *
+ * Rationale:
+ * - Inflected keywords must classify like their base forms, while the catalog's
+ *   guards ("in order to") and word boundaries keep working on the stems.
+ * - Only whole ASCII words are replaced: a form glued to a non-ASCII letter,
+ *   a digit or '_' is not a word for \b either, so it must stay as it is.
+ * - Texts without inflections reach the engine unchanged (same String), so
+ *   turning stemming on cannot change any other answer.
+ * - The perfect hash must give every form its own slot, for catalogs far
+ *   larger than the built-in one.
+ */
+class StemmingTaskMatcherTest {
+
+    private static final TaskCatalog CATALOG = NiceHomeworkTaskService.catalog();
+
+    @Test
+    void inflected_keywords_match_like_base_forms() {
+        StemmingTaskMatcher stemming = new StemmingTaskMatcher(new RegexTaskMatcher(CATALOG), CATALOG);
+        assertThat(stemming.findFirstMatchTask("Resetting my password")).isEqualTo("ResetPasswordTask");
+        assertThat(stemming.findFirstMatchTask("I forgot my passwords")).isEqualTo("ResetPasswordTask");
+        assertThat(stemming.findFirstMatchTask("i have forgotten my PASSWORD")).isEqualTo("ResetPasswordTask");
+        assertThat(stemming.findFirstMatchTask("my passwords reset please")).isEqualTo("ResetPasswordTask");
+        assertThat(stemming.findFirstMatchTask("tracked orders")).isEqualTo("CheckOrderStatusTask");
+        assertThat(stemming.findFirstMatchTask("checking on my order")).isEqualTo("CheckOrderStatusTask");
+        assertThat(stemming.findFirstMatchTask("can you help with orders track?")).isEqualTo("CheckOrderStatusTask");
+
+        // guards still apply on the stems
+        assertThat(stemming.findFirstMatchTask("tracking in orders to be sure")).isEqualTo("NoTaskFound");
+        assertThat(stemming.findFirstMatchTask("preorders checked")).isEqualTo("NoTaskFound");
+    }
+
+    @Test
+    void only_whole_ascii_words_are_replaced() {
+        StemmingTaskMatcher stemming = new StemmingTaskMatcher(new RegexTaskMatcher(CATALOG), CATALOG);
+        assertThat(stemming.stem("Resetting, passwords!")).isEqualTo("reset, password!");
+        assertThat(stemming.stem("éresetting password")).isEqualTo("éresetting password");
+        assertThat(stemming.stem("resetting_ passwords2 3tracked")).isEqualTo("resetting_ passwords2 3tracked");
+        assertThat(stemming.stem("resetting-password")).isEqualTo("reset-password");
+        assertThat(stemming.stem("resets")).isEqualTo("reset");
+        assertThat(stemming.stem("reset")).isEqualTo("reset");
+    }
+
+    @Test
+    void texts_without_inflections_are_passed_through() {
+        StemmingTaskMatcher stemming = new StemmingTaskMatcher(new RegexTaskMatcher(CATALOG), CATALOG);
+        RegexTaskMatcher regex = new RegexTaskMatcher(CATALOG);
+        for (String text : List.of("please reset my password", "track order 123", "in order to check something",
+                "hello there", "", "😀 reset 😀 password")) {
+            assertThat(stemming.stem(text)).isSameAs(text);
+            assertThat(stemming.findFirstMatchTask(text)).isEqualTo(regex.findFirstMatchTask(text));
+        }
+        assertThat(TaskMatchers.create("stemming", CATALOG).name()).isEqualTo("stemming+regex");
+    }
+
+    // 3000 random keywords -> ~12000 forms
+    @Test
+    void perfect_hash_maps_every_form_of_a_large_catalog() {
+        Random random = new Random(45);
+        List<String> words = new ArrayList<>();
+        Map<String, List<Pattern>> tasks = new LinkedHashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder w = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int c = 0; c < length; c++) {
+                w.append((char) ('a' + random.nextInt(26)));
+            }
+            words.add(w.toString());
+            tasks.computeIfAbsent("Task" + (i % 10), k -> new ArrayList<>())
+                    .add(Pattern.compile("\\b" + w + "\\b", Pattern.CASE_INSENSITIVE));
+        }
+        StemTable table = StemTable.build(TaskCatalog.of("large", tasks));
+
+        assertThat(table.size()).isGreaterThan(3 * words.size());
+        int mapped = 0;
+        for (String w : words) {
+            for (String form : List.of(w + "s", w + "es", w + "ed", w + "ing")) {
+                String stem = table.stem(form, 0, form.length());
+                if (stem != null) {
+                    mapped++;
+                    assertThat(words).contains(stem);
+                    assertThat(stem.length()).isGreaterThanOrEqualTo(form.length() - 4);
+                }
+            }
+            String upper = (w + "ed").toUpperCase();
+            assertThat(table.stem("x " + upper + " y", 2, 2 + upper.length())).isIn(w, null);
+            assertThat(table.stem(w + "zzq", 0, w.length() + 3)).isNull();
+        }
+        assertThat(mapped).isGreaterThan(2 * words.size());
+    }
+
+    // WebSocket /suggestTask/live with stemming as the live matcher: same answer as POST
+    @Test
+    void live_endpoint_uses_stemming_live_matcher() throws Exception {
+        Map<String, Object> attributes = new HashMap<>();
+        List<String> sent = new ArrayList<>();
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getAttributes()).thenReturn(attributes);
+        doAnswer(call -> sent.add(call.<TextMessage>getArgument(0).getPayload())).when(session).sendMessage(any());
+        LiveSuggestHandler live = new LiveSuggestHandler(new ObjectMapper(), 1000,
+                new StemmingTaskMatcher(new RegexTaskMatcher(CATALOG), CATALOG));
+
+        live.afterConnectionEstablished(session);
+        live.handleMessage(session, new TextMessage("{\"op\":\"append\",\"text\":\"resetting my\"}"));
+        live.handleMessage(session, new TextMessage("{\"op\":\"append\",\"text\":\" passwords\"}"));
+        live.handleMessage(session, new TextMessage("{\"op\":\"append\",\"text\":\" now\"}"));
+
+        assertThat(sent).containsExactly("{\"task\":\"ResetPasswordTask\"}");
+    }
+}
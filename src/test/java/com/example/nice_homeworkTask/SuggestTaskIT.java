@@ -1,15 +1,46 @@
 package com.example.nice_homeworkTask;
 
+import com.example.nice_homeworkTask.dto.ErrorResponse;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.latency.StageLatencies;
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.stream.DecisionStream;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
-
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -24,7 +55,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Matching edge cases (reverse order, newline between keywords, GAP
  * boundary).
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "suggest-task.tenants.directory=src/test/resources/tenants")
 public class SuggestTaskIT {
 
     @LocalServerPort
@@ -33,6 +65,15 @@ public class SuggestTaskIT {
     @Autowired
     TestRestTemplate rest;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    DecisionStream decisionStream;
+
+    @Autowired
+    StageLatencies stageLatencies;
+
     // -------- Helpers --------
 
     /* Builds the tested URL with the random port. */
@@ -237,6 +278,273 @@ public class SuggestTaskIT {
         assertThat(res.getBody().get("task")).isEqualTo("NoTaskFound");
     }
 
+    @Test
+    void responseBody_sameBytesAsJackson_ok() throws Exception {
+        // The pre-encoded writer must produce exactly what Jackson would for the same response
+        Map<String, Object> body = baseBody("please reset password");
+        ResponseEntity<String> res = rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String timestamp = (String) objectMapper.readValue(res.getBody(), Map.class).get("timestamp");
+        String expected = objectMapper.writeValueAsString(
+                new NiceHomeworkTaskResponse("ResetPasswordTask", Instant.parse(timestamp)));
+        assertThat(res.getBody()).isEqualTo(expected);
+        assertThat(res.getHeaders().getContentLength()).isEqualTo(expected.length());
+        assertThat(res.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void allTasks_everyTaskWithSpans_ok() throws Exception {
+        Map<String, Object> body = baseBody("Reset my password and then track my order");
+        body.put("allTasks", true);
+        ResponseEntity<String> res = rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        TypeReference<Map<String, Object>> object = new TypeReference<>() {
+        };
+        Map<String, Object> json = objectMapper.readValue(res.getBody(), object);
+        assertThat(json.get("task")).isEqualTo("ResetPasswordTask");
+        assertThat(objectMapper.convertValue(json.get("tasks"), new TypeReference<List<Map<String, Object>>>() {
+        })).containsExactly(
+                Map.of("task", "ResetPasswordTask", "start", 0, "end", 17),
+                Map.of("task", "CheckOrderStatusTask", "start", 27, "end", 41));
+        assertThat(res.getBody()).isEqualTo(objectMapper.writeValueAsString(new NiceHomeworkTaskResponse(
+                "ResetPasswordTask", Instant.parse((String) json.get("timestamp")),
+                List.of(new TaskMatch("ResetPasswordTask", 0, 17), new TaskMatch("CheckOrderStatusTask", 27, 41)))));
+
+        // Nothing found: NoTaskFound and an empty list; allTasks=false: the usual two fields
+        body = baseBody("hello there");
+        body.put("allTasks", true);
+        json = objectMapper.readValue(
+                rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), String.class).getBody(), object);
+        assertThat(json.get("task")).isEqualTo("NoTaskFound");
+        assertThat((List<?>) json.get("tasks")).isEmpty();
+        body.put("allTasks", false);
+        json = objectMapper.readValue(
+                rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), String.class).getBody(), object);
+        assertThat(json).containsOnlyKeys("task", "timestamp");
+    }
+
+    @Test
+    void bulk_gzipInGzipOut_ok() throws Exception {
+        String batch = objectMapper.writeValueAsString(List.of(baseBody("reset password"),
+                baseBody("track my order"), baseBody("hello there"), baseBody("")));
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(batch.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/suggestTask/bulk"))
+                .header("Content-Type", "application/json").header("Content-Encoding", "gzip")
+                .header("Accept-Encoding", "gzip").POST(HttpRequest.BodyPublishers.ofByteArray(gzipped.toByteArray()))
+                .build();
+        HttpResponse<byte[]> res = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(res.statusCode()).isEqualTo(200);
+        assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String results = new String(new GZIPInputStream(new ByteArrayInputStream(res.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(results).isEqualTo("[{\"task\":\"ResetPasswordTask\"},{\"task\":\"CheckOrderStatusTask\"},"
+                + "{\"task\":\"NoTaskFound\"},{\"errors\":{\"utterance\":\"utterance must not be blank\"}}]");
+
+        // Plain in and out; unsupported encoding -> 415; not an array -> 400
+        HttpHeaders h = jsonHeaders();
+        ResponseEntity<String> plain = rest.postForEntity(url() + "/bulk", new HttpEntity<>(batch, h), String.class);
+        assertThat(plain.getBody()).isEqualTo(results);
+        h.set("Content-Encoding", "zstd");
+        assertThat(rest.postForEntity(url() + "/bulk", new HttpEntity<>(batch, h), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        ResponseEntity<Map> notArray = rest.postForEntity(url() + "/bulk",
+                new HttpEntity<>(baseBody("reset password"), jsonHeaders()), Map.class);
+        assertThat(notArray.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(notArray.getBody().get("message")).isEqualTo("Malformed request body");
+    }
+
+    @Test
+    void readiness_up_after_warmup_ok() {
+        // Readiness flips only after the JIT warm-up runner has finished
+        String base = "http://localhost:" + port + "/actuator";
+        ResponseEntity<Map> readiness = rest.getForEntity(base + "/health/readiness", Map.class);
+        assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readiness.getBody().get("status")).isEqualTo("UP");
+
+        ResponseEntity<Map> iterations = rest.getForEntity(base + "/metrics/suggest_task.warmup.iterations", Map.class);
+        assertThat(iterations.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void tenantHeader_usesTenantCatalog_ok() {
+        // X-Tenant-Id selects src/test/resources/tenants/acme.txt
+        HttpHeaders h = jsonHeaders();
+        h.set("X-Tenant-Id", "acme");
+        ResponseEntity<Map> res = rest.postForEntity(url(),
+                new HttpEntity<>(baseBody("please track my parcel"), h), Map.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getBody().get("task")).isEqualTo("TrackParcelTask");
+
+        // The built-in tasks are not part of that tenant's catalog
+        res = rest.postForEntity(url(), new HttpEntity<>(baseBody("reset password"), h), Map.class);
+        assertThat(res.getBody().get("task")).isEqualTo("NoTaskFound");
+    }
+
+    @Test
+    void tenantField_usesTenantCatalog_ok() {
+        Map<String, Object> body = baseBody("I want to cancel my subscription");
+        body.put("tenant", "acme");
+        ResponseEntity<Map> res = rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), Map.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getBody().get("task")).isEqualTo("CancelSubscriptionTask");
+    }
+
+    @Test
+    void unknownTenant_400() {
+        Map<String, Object> body = baseBody("reset password");
+        body.put("tenant", "nobody");
+        ResponseEntity<Map> res = rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), Map.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(res.getBody().get("message")).isEqualTo("Unknown tenant");
+        assertThat((Map<String, String>) res.getBody().get("errors")).containsKey("tenant");
+    }
+
+    @Test
+    void invalidTenantHeader_400_validationFailed() {
+        HttpHeaders h = jsonHeaders();
+        h.set("X-Tenant-Id", "../etc/passwd");
+        ResponseEntity<Map> res = rest.postForEntity(url(), new HttpEntity<>(baseBody("reset password"), h), Map.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(res.getBody().get("message")).isEqualTo("Validation failed");
+        assertThat((Map<String, String>) res.getBody().get("errors")).containsOnlyKeys("tenant");
+    }
+
+    @Test
+    void shadowReport_exposed_ok() {
+        // Shadow evaluation is off by default, but the report endpoint is always there
+        ResponseEntity<Map> shadow = rest.getForEntity("http://localhost:" + port + "/actuator/shadow", Map.class);
+        assertThat(shadow.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(shadow.getBody().get("enabled")).isEqualTo(false);
+        assertThat(shadow.getBody()).containsKeys("agreementRate", "latency", "samples");
+    }
+
+    @Test
+    void stagesReport_perStagePercentiles_ok() {
+        rest.postForEntity(url(), new HttpEntity<>(baseBody("reset my password"), jsonHeaders()), Map.class);
+        Map<String, Object> invalid = baseBody("reset my password");
+        invalid.remove("sessionId");
+        rest.postForEntity(url(), new HttpEntity<>(invalid, jsonHeaders()), Map.class);
+        stageLatencies.rollover(); // end the interval now instead of waiting for it
+
+        ResponseEntity<Map> res = rest.getForEntity("http://localhost:" + port + "/actuator/stages", Map.class);
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Map<String, Map<String, Map<String, Object>>> stages = (Map) res.getBody().get("stages");
+        assertThat(stages).containsOnlyKeys("parse", "validate", "normalize", "match", "external", "write", "error");
+        for (String stage : List.of("parse", "validate", "normalize", "match", "write", "error")) {
+            assertThat(((Number) stages.get(stage).get("total").get("count")).longValue()).as(stage).isPositive();
+            assertThat(stages.get(stage).get("total")).containsKeys("p50", "p90", "p99", "p999", "max");
+        }
+    }
+
+    @Test
+    void userStats_countsTasksPerUser_ok() {
+        for (String utterance : List.of("reset my password", "track my order", "reset password")) {
+            Map<String, Object> body = baseBody(utterance);
+            body.put("userId", "stats-user");
+            rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), Map.class);
+        }
+
+        ResponseEntity<Map> res = rest.getForEntity("http://localhost:" + port + "/actuator/userstats/stats-user",
+                Map.class);
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getBody().get("userId")).isEqualTo("stats-user");
+        assertThat((Map<String, Object>) res.getBody().get("tasks")).containsEntry("ResetPasswordTask", 2)
+                .containsEntry("CheckOrderStatusTask", 1);
+
+        ResponseEntity<Map> report = rest.getForEntity("http://localhost:" + port + "/actuator/userstats", Map.class);
+        assertThat(((Number) report.getBody().get("users")).longValue()).isPositive();
+        assertThat(((Number) report.getBody().get("offHeapBytes")).longValue()).isPositive();
+    }
+
+    @Test
+    void decisionStream_receivesDecision_ok() throws Exception {
+        HttpRequest subscribe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/decisions/stream"))
+                .header("Accept", "text/event-stream").build();
+        CompletableFuture<HttpResponse<Stream<String>>> sse = HttpClient.newHttpClient()
+                .sendAsync(subscribe, HttpResponse.BodyHandlers.ofLines());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (decisionStream.subscribers() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Map<String, Object> body = baseBody("reset password");
+        body.put("userId", "stream-user");
+        rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), Map.class);
+
+        HttpResponse<Stream<String>> res = sse.get(5, TimeUnit.SECONDS);
+        assertThat(res.headers().firstValue("Content-Type")).hasValueSatisfying(
+                ct -> assertThat(ct).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        String data = CompletableFuture.supplyAsync(() -> res.body()
+                .filter(line -> line.startsWith("data:") && line.contains("ResetPasswordTask"))
+                .findFirst().orElseThrow()).get(5, TimeUnit.SECONDS);
+        assertThat(data).contains("\"timestamp\"", "\"userIdHash\"").doesNotContain("stream-user");
+        res.body().close();
+    }
+
+    @Test
+    void liveSuggest_pushesOnlyChanges_matchesBatch() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        WebSocketSession ws = new StandardWebSocketClient().execute(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                received.add(message.getPayload());
+            }
+        }, "ws://localhost:" + port + "/suggestTask/live").get(5, TimeUnit.SECONDS);
+
+        for (char c : "please reset".toCharArray()) {
+            ws.sendMessage(new TextMessage("{\"op\":\"append\",\"text\":\"" + c + "\"}"));
+        }
+        ws.sendMessage(new TextMessage("{\"op\":\"append\",\"text\":\" my password\"}"));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("{\"task\":\"ResetPasswordTask\"}");
+
+        ws.sendMessage(new TextMessage("{\"op\":\"append\",\"text\":\" now\"}")); // no change -> nothing sent
+        ws.sendMessage(new TextMessage("{\"op\":\"delete\",\"count\":13}"));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("{\"task\":\"NoTaskFound\"}");
+
+        ws.sendMessage(new TextMessage("{\"op\":\"jump\"}"));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).contains("error");
+        ws.close();
+
+        // Same text through the batch endpoint
+        ResponseEntity<NiceHomeworkTaskResponse> batch = rest.postForEntity(url(),
+                new HttpEntity<>(baseBody("please reset my"), jsonHeaders()), NiceHomeworkTaskResponse.class);
+        assertThat(batch.getBody().getTask()).isEqualTo("NoTaskFound");
+    }
+
+    @Test
+    void jfrEvents_parseAndValidate_recorded() throws Exception {
+        Path file = Files.createTempFile("suggest-task", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.nice_homeworkTask.RequestParse");
+            recording.enable("com.example.nice_homeworkTask.RequestValidate");
+            recording.start();
+            rest.postForEntity(url(), new HttpEntity<>(baseBody("track my order"), jsonHeaders()), Map.class);
+            Map<String, Object> invalid = baseBody("track my order");
+            invalid.remove("userId");
+            rest.postForEntity(url(), new HttpEntity<>(invalid, jsonHeaders()), Map.class);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertThat(events).filteredOn(e -> e.getEventType().getName().endsWith(".RequestParse"))
+                    .hasSize(2).allSatisfy(e -> assertThat(e.getString("bodyType")).isEqualTo("NiceHomeworkTaskRequest"));
+            assertThat(events).filteredOn(e -> e.getEventType().getName().endsWith(".RequestValidate"))
+                    .extracting(e -> e.getInt("failures")).containsExactlyInAnyOrder(0, 2);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     // ===== 400/405 error cases =====
 
     @Test
@@ -314,6 +622,27 @@ public class SuggestTaskIT {
         assertThat(res.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
     }
 
+    @Test
+    void validationBody_sameBytesAsJackson_400() throws Exception {
+        // The pre-encoded 400 body must be what Jackson writes for the equivalent ErrorResponse
+        Map<String, Object> body = new HashMap<>();
+        body.put("utterance", "reset password");
+        body.put("userId", " ");
+
+        ResponseEntity<String> res = rest.postForEntity(url(), new HttpEntity<>(body, jsonHeaders()), String.class);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        String timestamp = (String) objectMapper.readValue(res.getBody(), Map.class).get("timestamp");
+        Map<String, String> errors = new HashMap<>();
+        errors.put("userId", "userId must not be blank");
+        errors.put("sessionId", "sessionId must not be blank");
+        errors.put("timestamp", "timestamp must not be null");
+        String expected = objectMapper.writeValueAsString(
+                new ErrorResponse("Validation failed", errors, Instant.parse(timestamp)));
+        assertThat(res.getBody()).isEqualTo(expected);
+        assertThat(res.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
     @Test
     void missingTimestamp_Test_400_validationFailed() {
         // Missing timestamp
@@ -0,0 +1,172 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.exception.UnknownTenantException;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.StemmingTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.tenant.DirectoryTenantCatalogSource;
+import com.example.nice_homeworkTask.tenant.TenantCatalogSource;
+import com.example.nice_homeworkTask.tenant.TenantEngines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * Unit tests for per-tenant engines.
+ *
+ * Rationale:
+ * - A tenant's catalog must be compiled once, even when its first requests arrive together.
+ * - The compiled engines must stay within the memory budget (least recently used dropped first).
+ * - Tenant engines use the configured engine/stemming, so a tenant does not change how text matches.
+ */
+class TenantEnginesTest {
+
+    /* A small catalog per tenant: "<tenant>Task" matching the word "<tenant>". */
+    private static TaskCatalog catalog(String tenant) {
+        try {
+            return TaskCatalog.parse(tenant, new StringReader(tenant + "Task: \\b" + tenant + "\\b\n"));
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final ConcurrentHashMap<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    /* Counts loads per tenant; "unknown*" tenants have no catalog. */
+    private final TenantCatalogSource source = tenant -> {
+        loads.computeIfAbsent(tenant, k -> new AtomicInteger()).incrementAndGet();
+        return tenant.startsWith("unknown") ? null : catalog(tenant);
+    };
+
+    // Engine matches with the tenant's own catalog
+    @Test
+    void engine_uses_tenant_catalog() {
+        TenantEngines engines = new TenantEngines(source, 1 << 20, meters);
+        TaskMatcher acme = engines.engine("acme");
+        assertThat(acme.findFirstMatchTask("hello acme")).isEqualTo("acmeTask");
+        assertThat(acme.findFirstMatchTask("reset password")).isEqualTo(TaskMatcher.NO_TASK);
+        assertThat(engines.engine("acme")).isSameAs(acme);
+        assertThat(loads.get("acme").get()).isEqualTo(1);
+    }
+
+    // Tenant engines come from the configured factory (here: stemming), like the built-in one
+    @Test
+    void engine_built_by_configured_factory() {
+        TenantEngines engines = new TenantEngines(source,
+                catalog -> new StemmingTaskMatcher(new RegexTaskMatcher(catalog), catalog), 1 << 20, meters);
+        TaskMatcher track = engines.engine("track");
+        assertThat(track.name()).isEqualTo(new StemmingTaskMatcher(new RegexTaskMatcher(catalog("track")),
+                catalog("track")).name());
+        assertThat(track.findFirstMatchTask("tracking it")).isEqualTo("trackTask");
+    }
+
+    // 32 concurrent first requests -> one compilation
+    @Test
+    void concurrentFirstRequests_compile_once() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger compilations = new AtomicInteger();
+        TenantEngines engines = new TenantEngines(tenant -> {
+            compilations.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return catalog(tenant);
+        }, 1 << 20, meters);
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<TaskMatcher>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(pool.submit(() -> engines.engine("acme")));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100); // let the others pile up behind the first one
+            release.countDown();
+            TaskMatcher first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<TaskMatcher> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(compilations.get()).isEqualTo(1);
+        assertThat(meters.get("suggest_task.tenants.compiled").counter().count()).isEqualTo(1);
+    }
+
+    // Budget for 3 engines -> at most 3 resident, least recently used evicted and rebuilt on demand
+    @Test
+    void memoryBudget_evicts_leastRecentlyUsed() {
+        long oneEngine = TenantEngines.estimateBytes(catalog("t000")); // same size for every "tNNN"
+        TenantEngines engines = new TenantEngines(source, 3 * oneEngine, meters);
+
+        engines.engine("t000");
+        engines.engine("t001");
+        engines.engine("t002");
+        engines.engine("t000"); // t001 is now the least recently used
+        engines.engine("t003");
+
+        assertThat(engines.resident()).isEqualTo(3);
+        assertThat(engines.residentBytes()).isLessThanOrEqualTo(3 * oneEngine);
+        engines.engine("t000");
+        engines.engine("t002");
+        assertThat(loads.get("t000").get()).isEqualTo(1);
+        assertThat(loads.get("t002").get()).isEqualTo(1);
+        engines.engine("t001");
+        assertThat(loads.get("t001").get()).isEqualTo(2);
+
+        for (int i = 0; i < 500; i++) {
+            engines.engine(String.format("t%03d", i));
+        }
+        assertThat(engines.resident()).isEqualTo(3);
+        assertThat(engines.residentBytes()).isLessThanOrEqualTo(3 * oneEngine);
+        assertThat(meters.get("suggest_task.tenants.evicted").counter().count()).isGreaterThanOrEqualTo(497);
+    }
+
+    // No catalog -> UnknownTenantException, nothing cached
+    @Test
+    void unknownTenant_throws() {
+        TenantEngines engines = new TenantEngines(source, 1 << 20, meters);
+        assertThatThrownBy(() -> engines.engine("unknown-brand")).isInstanceOf(UnknownTenantException.class);
+        assertThat(engines.resident()).isZero();
+    }
+
+    // An unknown tenant is looked up on disk once per miss-ttl; a file added later is seen after it
+    @Test
+    void directorySource_remembers_unknown_tenant_for_ttl(@TempDir Path dir) throws Exception {
+        AtomicLong now = new AtomicLong();
+        DirectoryTenantCatalogSource directory = new DirectoryTenantCatalogSource(dir, Duration.ofSeconds(10),
+                now::get);
+        assertThat(directory.load("acme")).isNull();
+
+        Files.writeString(dir.resolve("acme.txt"), "acmeTask: \\bacme\\b\n");
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(directory.load("acme")).isNull();
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(directory.load("acme").tasks()).containsExactly("acmeTask");
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.stats.UserTaskStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the off-heap per-user task counts.
+ *
+ * Rationale:
+ * - Counts must be exact per user and task, also while writers race each other
+ *   for new slots and while stripes double under them.
+ * - Compaction removes only users idle for longer than the retention, keeps the
+ *   counts of everyone else, and gives memory back.
+ * - Task names beyond the configured columns are still counted ("other"), and
+ *   which names get a column does not depend on the order they arrive in.
+ */
+class UserTaskStatsTest {
+
+    private static UserTaskStats stats(AtomicLong clock) {
+        return new UserTaskStats(true, List.of("ResetPasswordTask", "CheckOrderStatusTask", "NoTaskFound"), 4, 1024,
+                Duration.ofDays(30), clock::get);
+    }
+
+    @Test
+    void counts_per_user_and_task() {
+        UserTaskStats stats = stats(new AtomicLong());
+        stats.record("u1", "ResetPasswordTask");
+        stats.record("u1", "ResetPasswordTask");
+        stats.record("u1", "NoTaskFound");
+        stats.record("u2", "CheckOrderStatusTask");
+
+        assertThat(stats.counts("u1")).containsExactly(Map.entry("ResetPasswordTask", 2L),
+                Map.entry("NoTaskFound", 1L));
+        assertThat(stats.counts("u2")).containsExactly(Map.entry("CheckOrderStatusTask", 1L));
+        assertThat(stats.counts("nobody")).isEmpty();
+        assertThat(stats.report().users()).isEqualTo(2);
+        assertThat(stats.report().slotBytes()).isEqualTo(32);
+    }
+
+    // Unknown names arriving first (e.g. tenant tasks) don't take the known tasks' columns
+    @Test
+    void tasks_beyond_the_columns_count_as_other() {
+        UserTaskStats stats = new UserTaskStats(true, List.of("A", "B", "C", "D"), 4, 1024, Duration.ofDays(30),
+                System::currentTimeMillis);
+        for (String task : List.of("E", "D", "A", "B", "C")) {
+            stats.record("u1", task);
+        }
+        assertThat(stats.counts("u1")).containsExactly(Map.entry("A", 1L), Map.entry("B", 1L), Map.entry("C", 1L),
+                Map.entry(UserTaskStats.OTHER, 2L));
+        assertThat(stats.report().columns()).containsExactly("A", "B", "C", UserTaskStats.OTHER);
+    }
+
+    // 4 writers, 20k users each plus 1 shared user; stripes grow from 16 slots while they write
+    @Test
+    void concurrent_writers_lose_nothing_while_stripes_grow() throws Exception {
+        UserTaskStats stats = stats(new AtomicLong());
+        int writers = 4;
+        int users = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < users; i++) {
+                    stats.record("user-" + writer + "-" + i, "ResetPasswordTask");
+                    stats.record("user-" + writer + "-" + i, "CheckOrderStatusTask");
+                    stats.record("shared", "NoTaskFound");
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertThat(stats.report().users()).isEqualTo((long) writers * users + 1);
+        assertThat(stats.report().droppedUpdates()).isZero();
+        assertThat(stats.counts("shared")).containsEntry("NoTaskFound", (long) writers * users);
+        for (int w = 0; w < writers; w++) {
+            for (int i = 0; i < users; i += 997) {
+                assertThat(stats.counts("user-" + w + "-" + i)).containsEntry("ResetPasswordTask", 1L)
+                        .containsEntry("CheckOrderStatusTask", 1L);
+            }
+        }
+    }
+
+    @Test
+    void compaction_removes_idle_users_and_shrinks() {
+        AtomicLong clock = new AtomicLong(Duration.ofDays(100).toMillis());
+        UserTaskStats stats = stats(clock);
+        for (int i = 0; i < 50_000; i++) {
+            stats.record("idle-" + i, "ResetPasswordTask");
+        }
+        long grown = stats.report().offHeapBytes();
+        clock.addAndGet(Duration.ofDays(20).toMillis());
+        stats.record("active", "CheckOrderStatusTask");
+        stats.record("idle-7", "CheckOrderStatusTask"); // active again
+        clock.addAndGet(Duration.ofDays(15).toMillis()); // idle users: 35 days, active: 15 days
+
+        stats.compact();
+
+        UserTaskStats.Report report = stats.report();
+        assertThat(report.users()).isEqualTo(2);
+        assertThat(report.evictedUsers()).isEqualTo(49_999);
+        assertThat(report.offHeapBytes()).isLessThan(grown);
+        assertThat(stats.counts("idle-7")).containsEntry("ResetPasswordTask", 1L)
+                .containsEntry("CheckOrderStatusTask", 1L);
+        assertThat(stats.counts("idle-8")).isEmpty();
+        stats.record("idle-8", "NoTaskFound");
+        assertThat(stats.counts("idle-8")).containsExactly(Map.entry("NoTaskFound", 1L));
+    }
+
+    @Test
+    void disabled_records_nothing() {
+        UserTaskStats stats = UserTaskStats.disabled();
+        stats.record("u1", "ResetPasswordTask");
+        assertThat(stats.counts("u1")).isEmpty();
+        assertThat(stats.report().enabled()).isFalse();
+        assertThat(stats.report().offHeapBytes()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.nice_homeworkTask;
+
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import com.example.nice_homeworkTask.warmup.WarmUpRunner;
+import com.example.nice_homeworkTask.web.NiceHomeworkTaskResponseConverter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Unit tests for the JIT warm-up runner.
+ *
+ * Rationale:
+ * - Warm-up must exercise the service but never the external call.
+ * - Its duration and effect must show up as metrics.
+ */
+class WarmUpRunnerTest {
+
+    /* Test double: counts external calls (there must be none). */
+    static class CountingService extends NiceHomeworkTaskService {
+        final AtomicInteger externalCalls = new AtomicInteger();
+
+        @Override
+        protected void simulateExternalCall(String utterance, int attempt) {
+            externalCalls.incrementAndGet();
+        }
+    }
+
+    private final CountingService service = new CountingService();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private WarmUpRunner runner(boolean enabled, Duration maxDuration) {
+        return new WarmUpRunner(service, new NiceHomeworkTaskResponseConverter(service.taskNames()),
+                Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+                meters, enabled, maxDuration, 2);
+    }
+
+    // Replays the corpus, never calls the external system, reports metrics
+    @Test
+    void warmUp_runs_without_external_calls_and_reports_metrics() {
+        WarmUpRunner runner = runner(true, Duration.ofSeconds(2));
+        runner.run(new DefaultApplicationArguments());
+
+        WarmUpRunner.Result r = runner.getResult();
+        assertThat(r.iterations()).isGreaterThanOrEqualTo(1_000);
+        assertThat(r.duration()).isLessThanOrEqualTo(Duration.ofSeconds(3));
+        assertThat(service.externalCalls.get()).isZero();
+
+        assertThat(meters.get("suggest_task.warmup.iterations").gauge().value()).isEqualTo(r.iterations());
+        assertThat(meters.get("suggest_task.warmup.duration").timeGauge().value(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(meters.get("suggest_task.warmup.latency.first").timeGauge().value(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(meters.get("suggest_task.warmup.latency.last").timeGauge().value(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    // Disabled -> nothing runs, no metrics
+    @Test
+    void disabled_does_nothing() {
+        WarmUpRunner runner = runner(false, Duration.ofSeconds(2));
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(runner.getResult()).isNull();
+        assertThat(meters.find("suggest_task.warmup.iterations").gauge()).isNull();
+    }
+}
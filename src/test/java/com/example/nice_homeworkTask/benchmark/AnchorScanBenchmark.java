@@ -0,0 +1,77 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.AnchoredTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Built-in catalog on long texts: java.util.regex vs AnchoredTaskMatcher with the
+ * scalar and the Vector API scanner. Transcript-like filler with a match only at
+ * the very end, so every engine reads all of it:
+ * - plain: no word starts with a keyword prefix (pure scanning)
+ * - near:  a near miss every ~30 chars ("chat", "refresh", "patch": verified and rejected)
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AnchorScanBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AnchorScanBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int length;
+
+    @Param({"plain", "near"})
+    public String filler;
+
+    private final RegexTaskMatcher regex = new RegexTaskMatcher(NiceHomeworkTaskService.catalog());
+    private AnchoredTaskMatcher scalar;
+    private AnchoredTaskMatcher vector;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        scalar = new AnchoredTaskMatcher(NiceHomeworkTaskService.catalog(), false);
+        vector = new AnchoredTaskMatcher(NiceHomeworkTaskService.catalog(), true);
+        if (!vector.scanner().startsWith("vector")) {
+            throw new IllegalStateException("jdk.incubator.vector not available");
+        }
+        String line = filler.equals("near")
+                ? "the customer says the portal chat keeps asking to refresh after the patch was applied "
+                : "so the agent said that the account looks fine and we can continue with the call ";
+        String end = " track my order";
+        text = line.repeat(length / line.length() + 1).substring(0, length - end.length()) + end;
+    }
+
+    @Benchmark
+    public String regex() {
+        return regex.findFirstMatchTask(text);
+    }
+
+    @Benchmark
+    public String anchoredScalar() {
+        return scalar.findFirstMatchTask(text);
+    }
+
+    @Benchmark
+    public String anchoredVector() {
+        return vector.findFirstMatchTask(text);
+    }
+}
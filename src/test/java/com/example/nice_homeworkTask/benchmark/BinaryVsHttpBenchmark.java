@@ -0,0 +1,116 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.NiceHomeworkTaskApplication;
+import com.example.nice_homeworkTask.binary.BinaryProtocolClient;
+import com.example.nice_homeworkTask.binary.BinaryProtocolServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * End-to-end throughput of one classification: JSON over HTTP/1.1 vs the binary listener.
+ *
+ * The app is started once per run with both listeners on random ports.
+ * - http:            blocking POST /suggestTask per call (keep-alive client).
+ * - binary:          one request, wait for the answer (same round-trip shape as http).
+ * - binaryPipelined: 64 requests written back-to-back, then all answers collected.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BinaryVsHttpBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BinaryVsHttpBenchmark {
+
+    private static final String UTTERANCE = "hi, can you track order 12345 for me?";
+    private static final int PIPELINE = 64;
+
+    private ConfigurableApplicationContext app;
+    private HttpClient http;
+    private URI uri;
+    private BinaryProtocolClient binary;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = SpringApplication.run(NiceHomeworkTaskApplication.class,
+                "--server.port=0", "--logging.level.root=WARN",
+                "--suggest-task.binary.enabled=true", "--suggest-task.binary.port=0");
+        int httpPort = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+        int binaryPort = app.getBean(BinaryProtocolServer.class).getPort();
+
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        uri = URI.create("http://localhost:" + httpPort + "/suggestTask");
+        binary = BinaryProtocolClient.connect("localhost", binaryPort);
+    }
+
+    @Setup(Level.Invocation)
+    public void newRequestBody() {
+        // fresh timestamp per call so the retry de-duplication window never short-circuits
+        json = "{\"utterance\":\"" + UTTERANCE + "\",\"userId\":\"u1\",\"sessionId\":\"s1\",\"timestamp\":\""
+                + Instant.now() + "\"}";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        binary.close();
+        app.close();
+    }
+
+    @Benchmark
+    public String http() throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.send(req, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public int binary() {
+        return binary.classify(UTTERANCE).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public int binaryPipelined() {
+        List<CompletableFuture<Integer>> inFlight = new ArrayList<>(PIPELINE);
+        for (int i = 0; i < PIPELINE; i++) {
+            inFlight.add(binary.classify(UTTERANCE));
+        }
+        int sum = 0;
+        for (CompletableFuture<Integer> f : inFlight) {
+            sum += f.join();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.BytecodeTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Built-in catalog, java.util.regex vs generated code (BytecodeTaskMatcher):
+ * - corpus: the warm-up corpus utterances in turn (short texts; matches, near misses, no matches)
+ * - 2k:     a 2000-char text without a match (every pattern scans all of it)
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BytecodeMatchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BytecodeMatchBenchmark {
+
+    @Param({"corpus", "2k"})
+    public String input;
+
+    private final RegexTaskMatcher regex = new RegexTaskMatcher(NiceHomeworkTaskService.catalog());
+    private BytecodeTaskMatcher bytecode;
+    private String[] texts;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        bytecode = new BytecodeTaskMatcher(NiceHomeworkTaskService.catalog());
+        if (input.equals("corpus")) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    BytecodeMatchBenchmark.class.getResourceAsStream("/warmup-corpus.txt"), StandardCharsets.UTF_8))) {
+                List<String> lines = r.lines().filter(l -> !l.isBlank() && !l.startsWith("#")).toList();
+                texts = lines.toArray(String[]::new);
+            }
+        } else {
+            String filler = "so the agent said that the account looks fine and we can continue ";
+            texts = new String[] { filler.repeat(2000 / filler.length() + 1).substring(0, 2000) };
+        }
+    }
+
+    private String nextText() {
+        String t = texts[next];
+        next = next + 1 == texts.length ? 0 : next + 1;
+        return t;
+    }
+
+    @Benchmark
+    public String regex() {
+        return regex.findFirstMatchTask(nextText());
+    }
+
+    @Benchmark
+    public String bytecode() {
+        return bytecode.findFirstMatchTask(nextText());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.cache.ClassificationCache;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Startup cost of a warm restart: load a snapshot of `entries` cached
+ * classifications (realistic utterances, ~45 chars) into a new ClassificationCache.
+ * Single shot per iteration, like a real startup (cold page cache excepted).
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CacheSnapshotBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class CacheSnapshotBenchmark {
+
+    @Param({"1000000"})
+    public int entries;
+
+    private Path file;
+
+    @Setup
+    public void writeSnapshot() throws IOException {
+        BenchmarkSupport.quietLogging();
+        file = Files.createTempFile("cache-snapshot", ".bin");
+        // one generation big enough for all entries (no rotation while filling)
+        ClassificationCache cache = new ClassificationCache(NiceHomeworkTaskService.catalog(), entries + 1, file);
+        List<String> tasks = List.of("ResetPasswordTask", "CheckOrderStatusTask", "NoTaskFound");
+        for (int i = 0; i < entries; i++) {
+            cache.put("customer " + i + " says: please help me with my account " + (i * 31), tasks.get(i % 3));
+        }
+        cache.destroy();
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ClassificationCache load() {
+        ClassificationCache cache = new ClassificationCache(NiceHomeworkTaskService.catalog(), entries / 2, file);
+        if (cache.size() != entries) {
+            throw new IllegalStateException("loaded " + cache.size());
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.ChunkedTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * One long transcript (`size` chars of call filler, the only intent phrase at the end):
+ * - sequential: RegexTaskMatcher (one core)
+ * - chunked:    ChunkedTaskMatcher, 16K-char chunks on a ForkJoin pool (all cores)
+ * Needs 2+ CPUs: with one, the chunked engine falls back to the sequential scan.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ChunkedMatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkedMatchBenchmark {
+
+    @Param({"100000", "500000"})
+    public int size;
+
+    private String text;
+    private RegexTaskMatcher sequential;
+    private ChunkedTaskMatcher chunked;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        String filler = "so the agent said that the account looks fine and we can continue with the call ";
+        text = filler.repeat(size / filler.length()) + "could you track my order";
+        sequential = new RegexTaskMatcher(NiceHomeworkTaskService.catalog());
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        chunked = new ChunkedTaskMatcher(NiceHomeworkTaskService.catalog(), ChunkedTaskMatcher.DEFAULT_THRESHOLD,
+                ChunkedTaskMatcher.DEFAULT_CHUNK_SIZE, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String sequential() {
+        return sequential.findFirstMatchTask(text);
+    }
+
+    @Benchmark
+    public String chunked() {
+        return chunked.findFirstMatchTask(text);
+    }
+}
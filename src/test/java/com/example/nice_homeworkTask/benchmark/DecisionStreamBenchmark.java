@@ -0,0 +1,93 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.stream.DecisionStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Cost of DecisionStream.publish on the request path (4 publishing threads):
+ * - 0 subscribers: should be indistinguishable from baseline (no stream at all)
+ * - 1 / 50 subscribers: ring write only; the subscribers (which just count the
+ * events) run on their own threads and drop what they can't keep up with
+ * After each trial the events delivered/dropped and the bytes allocated per
+ * publish on the calling thread are printed.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=DecisionStreamBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DecisionStreamBenchmark {
+
+    @Param({"0", "1", "50"})
+    public int subscribers;
+
+    private final Instant now = Instant.now();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private DecisionStream stream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        stream = new DecisionStream(new SimpleMeterRegistry(), 4096, 64, Duration.ofMillis(100));
+        for (int i = 0; i < subscribers; i++) {
+            stream.subscribe((events, missed) -> {
+                delivered.addAndGet(events.size());
+                dropped.addAndGet(missed);
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long bytes = allocatedBytesPerPublish();
+        System.out.printf("%n  subscribers=%d delivered=%d dropped=%d allocated/publish=%.2f bytes%n",
+                subscribers, delivered.get(), dropped.get(), bytes / 1_000_000.0);
+        stream.destroy();
+    }
+
+    private long allocatedBytesPerPublish() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 1_000_000; i++) {
+            stream.publish("ResetPasswordTask", now, "user-42");
+        }
+        return threads.getThreadAllocatedBytes(id) - before;
+    }
+
+    @Benchmark
+    public Instant baseline() {
+        return now;
+    }
+
+    @Benchmark
+    public Instant publish() {
+        stream.publish("ResetPasswordTask", now, "user-42");
+        return now;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.IncrementalTaskMatcher;
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * One keystroke on a text of `length` chars without a match yet:
+ * - incremental: IncrementalTaskMatcher.append(1 char) then delete(1) (text stays the same length)
+ * - batch: the whole text matched again (what re-sending it to /suggestTask costs)
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=IncrementalMatchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalMatchBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int length;
+
+    private final RegexTaskMatcher batch = new RegexTaskMatcher(NiceHomeworkTaskService.catalog());
+    private IncrementalTaskMatcher incremental;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        StringBuilder sb = new StringBuilder(length);
+        String filler = "please tell me about the status of things ";
+        while (sb.length() < length) {
+            sb.append(filler);
+        }
+        sb.setLength(length);
+        text = sb.toString();
+        incremental = new IncrementalTaskMatcher(NiceHomeworkTaskService.catalog());
+        incremental.append(text);
+    }
+
+    @Benchmark
+    public String incremental() {
+        incremental.append("x");
+        return incremental.delete(1);
+    }
+
+    @Benchmark
+    public String batch() {
+        return batch.findFirstMatchTask(text + "x");
+    }
+}
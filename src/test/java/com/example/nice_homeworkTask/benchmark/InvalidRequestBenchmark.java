@@ -0,0 +1,79 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.dto.ErrorResponse;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequest;
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskRequestValidator;
+import com.example.nice_homeworkTask.web.PreEncodedErrorResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Validate + build the 400 body for an invalid request (userId blank, timestamp missing).
+ * - beanValidation: Hibernate Validator, errors HashMap, Jackson (the previous path)
+ * - preEncoded:     NiceHomeworkTaskRequestValidator + PreEncodedErrorResponses
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=InvalidRequestBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvalidRequestBenchmark {
+
+    private Validator validator;
+    private ObjectMapper jackson;
+    private PreEncodedErrorResponses preEncoded;
+    private NiceHomeworkTaskRequest request;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        jackson = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        preEncoded = new PreEncodedErrorResponses(jackson);
+
+        request = new NiceHomeworkTaskRequest();
+        request.setUtterance("reset password");
+        request.setUserId(" ");
+        request.setSessionId("s1");
+    }
+
+    @Benchmark
+    public byte[] beanValidation() throws Exception {
+        Set<ConstraintViolation<NiceHomeworkTaskRequest>> violations = validator.validate(request);
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<NiceHomeworkTaskRequest> v : violations) {
+            errors.put(v.getPropertyPath().toString(), v.getMessage());
+        }
+        return jackson.writeValueAsBytes(new ErrorResponse("Validation failed", errors, Instant.now()));
+    }
+
+    @Benchmark
+    public byte[] preEncoded() {
+        int failures = NiceHomeworkTaskRequestValidator.validate(request);
+        return preEncoded.validationFailed(failures, Instant.now());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.TaskMatch;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Built-in catalog, single task (suggestTask, what every request does) vs
+ * multi-task extraction with spans (suggestTasks, allTasks=true only):
+ * - corpus: the warm-up corpus utterances in turn (mostly one task or none)
+ * - multi:  MULTI below in turn (two or three tasks each, some whitespace runs)
+ * No external call, no cache, no single-flight: the matching work only.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MultiIntentBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiIntentBenchmark {
+
+    static final String[] MULTI = {
+            "Reset my password and then track my order",
+            "I forgot my password, and can you check order 123 too?",
+            "track order 55  and  also reset password please",
+            "password reset first; after that order check, and later check on my order again",
+    };
+
+    @Param({"corpus", "multi"})
+    public String input;
+
+    private final NiceHomeworkTaskService service = new NiceHomeworkTaskService(false);
+    private String[] texts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        if (input.equals("corpus")) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    MultiIntentBenchmark.class.getResourceAsStream("/warmup-corpus.txt"), StandardCharsets.UTF_8))) {
+                texts = r.lines().filter(l -> !l.isBlank() && !l.startsWith("#")).toArray(String[]::new);
+            }
+        } else {
+            texts = MULTI;
+        }
+    }
+
+    private String nextText() {
+        String t = texts[next];
+        next = next + 1 == texts.length ? 0 : next + 1;
+        return t;
+    }
+
+    @Benchmark
+    public String singleTask() {
+        return service.suggestTask(nextText(), false);
+    }
+
+    @Benchmark
+    public List<TaskMatch> allTasks() {
+        return service.suggestTasks(nextText(), null, false);
+    }
+}
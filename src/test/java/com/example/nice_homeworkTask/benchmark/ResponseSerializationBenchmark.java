@@ -0,0 +1,94 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.dto.NiceHomeworkTaskResponse;
+import com.example.nice_homeworkTask.web.NiceHomeworkTaskResponseConverter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of writing one /suggestTask 200 body: Jackson vs the pre-encoded writer.
+ * Both write into the same reusable in-memory "response", so only serialization is measured.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ResponseSerializationBenchmark
+ * Add -prof gc (in exec args or via org.openjdk.jmh.Main) to see bytes allocated per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private MappingJackson2HttpMessageConverter jackson;
+    private NiceHomeworkTaskResponseConverter preEncoded;
+    private ReusableOutputMessage out;
+    private NiceHomeworkTaskResponse response;
+
+    /* In-memory HttpOutputMessage that is reset instead of re-allocated. */
+    static final class ReusableOutputMessage implements HttpOutputMessage {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers = new HttpHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        jackson = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        preEncoded = new NiceHomeworkTaskResponseConverter(
+                List.of("ResetPasswordTask", "CheckOrderStatusTask", "NoTaskFound"));
+        out = new ReusableOutputMessage();
+        response = new NiceHomeworkTaskResponse("CheckOrderStatusTask", Instant.now());
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        out.reset();
+        jackson.write(response, MediaType.APPLICATION_JSON, out);
+        return out.body.size();
+    }
+
+    @Benchmark
+    public int preEncoded() throws IOException {
+        out.reset();
+        preEncoded.write(response, MediaType.APPLICATION_JSON, out);
+        return out.body.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Thundering herd: 16 threads classify the same text at the same time.
+ *
+ * The external call burns a fixed amount of CPU (as a real client would for
+ * TLS/serialization). With single-flight on, concurrent identical requests share
+ * that work, so more requests complete per CPU-second.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SingleFlightBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class SingleFlightBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean singleFlight;
+
+    private NiceHomeworkTaskService service;
+
+    /* Service whose external call costs CPU instead of failing twice. */
+    static class CpuBoundExternalService extends NiceHomeworkTaskService {
+        CpuBoundExternalService(boolean singleFlight) {
+            super(singleFlight);
+        }
+
+        @Override
+        protected void simulateExternalCall(String utterance, int attempt) {
+            Blackhole.consumeCPU(20_000);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        service = new CpuBoundExternalService(singleFlight);
+    }
+
+    @Benchmark
+    public String herd() {
+        return service.suggestTask("hi, can you track order 12345 for me?");
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Measures "process start -> first successful POST /suggestTask" for each startup mode.
+ *
+ * Prerequisite: mvn -Pfast-startup package   (builds the jar, AOT code and CDS archive)
+ * Run:          java -cp target/test-classes com.example.nice_homeworkTask.benchmark.StartupTimeReport [runs]
+ *
+ * Modes:
+ * - jar:             java -jar (baseline)
+ * - jar+lazy:        + Spring profile fast-startup (lazy beans off the hot path)
+ * - aot+lazy:        + Spring AOT generated bean definitions (extracted jar)
+ * - aot+lazy+cds:    + AppCDS archive from the training run
+ * Prints the median of N runs per mode (default 5). Uses only the JDK.
+ */
+public class StartupTimeReport {
+
+    private static final String JAR = "target/nice-homework-task-0.0.1-SNAPSHOT.jar";
+    private static final String EXTRACTED_JAR = "target/extracted/nice-homework-task-0.0.1-SNAPSHOT.jar";
+    private static final String CDS_ARCHIVE = "target/extracted/application.jsa";
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        report("jar", runs, List.of(java, "-jar", JAR));
+        report("jar+lazy", runs, List.of(java, "-jar", JAR, "--spring.profiles.active=fast-startup"));
+        report("aot+lazy", runs, List.of(java, "-Dspring.aot.enabled=true", "-jar", EXTRACTED_JAR,
+                "--spring.profiles.active=fast-startup"));
+        report("aot+lazy+cds", runs, List.of(java, "-XX:SharedArchiveFile=" + CDS_ARCHIVE,
+                "-Dspring.aot.enabled=true", "-jar", EXTRACTED_JAR, "--spring.profiles.active=fast-startup"));
+    }
+
+    private static void report(String mode, int runs, List<String> command) throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            millis.add(timeToFirstResponse(command));
+        }
+        Collections.sort(millis);
+        System.out.printf("%-14s median %5d ms   (min %d, max %d, runs %d)%n",
+                mode, millis.get(millis.size() / 2), millis.get(0), millis.get(millis.size() - 1), runs);
+    }
+
+    private static long timeToFirstResponse(List<String> baseCommand) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        String body = "{\"utterance\":\"reset password\",\"userId\":\"u1\",\"sessionId\":\"s1\",\"timestamp\":\""
+                + Instant.now() + "\"}";
+        HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/suggestTask"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        long start = System.nanoTime();
+        Process p = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (!p.isAlive()) {
+                    throw new IllegalStateException("app exited with " + p.exitValue() + ": " + command);
+                }
+                try {
+                    if (http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException notYet) {
+                    // server socket not open yet
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            p.destroy();
+            p.waitFor();
+        }
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.RegexTaskMatcher;
+import com.example.nice_homeworkTask.matching.StemmingTaskMatcher;
+import com.example.nice_homeworkTask.matching.TaskMatcher;
+import com.example.nice_homeworkTask.service.NiceHomeworkTaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Built-in catalog, java.util.regex alone vs StemmingTaskMatcher in front of it:
+ * - corpus:    the warm-up corpus utterances in turn (mostly base forms: the
+ *              stemming stage only tokenizes and looks words up)
+ * - inflected: LABELED below in turn (most words are rewritten)
+ * stemOnly is the stemming stage without the match. The setup prints the
+ * recall of both engines on LABELED (task expected for every utterance).
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=StemmingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StemmingBenchmark {
+
+    // utterance, expected task
+    static final String[][] LABELED = {
+            { "Resetting my password", "ResetPasswordTask" },
+            { "I need my passwords reset", "ResetPasswordTask" },
+            { "i have forgotten my password again", "ResetPasswordTask" },
+            { "I forget my password every week", "ResetPasswordTask" },
+            { "please reset password", "ResetPasswordTask" },
+            { "resets of passwords are failing", "ResetPasswordTask" },
+            { "tracked orders", "CheckOrderStatusTask" },
+            { "checking on my order", "CheckOrderStatusTask" },
+            { "can you help with orders track?", "CheckOrderStatusTask" },
+            { "I am tracking an order from May", "CheckOrderStatusTask" },
+            { "checked the orders twice", "CheckOrderStatusTask" },
+            { "track order 123", "CheckOrderStatusTask" },
+            { "tracking in orders to be sure", "NoTaskFound" },
+            { "I ordered a new phone", "NoTaskFound" },
+    };
+
+    @Param({"corpus", "inflected"})
+    public String input;
+
+    private final RegexTaskMatcher regex = new RegexTaskMatcher(NiceHomeworkTaskService.catalog());
+    private StemmingTaskMatcher stemming;
+    private String[] texts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        stemming = new StemmingTaskMatcher(regex, NiceHomeworkTaskService.catalog());
+        if (input.equals("corpus")) {
+            try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                    StemmingBenchmark.class.getResourceAsStream("/warmup-corpus.txt"), StandardCharsets.UTF_8))) {
+                List<String> lines = r.lines().filter(l -> !l.isBlank() && !l.startsWith("#")).toList();
+                texts = lines.toArray(String[]::new);
+            }
+        } else {
+            texts = new String[LABELED.length];
+            for (int i = 0; i < LABELED.length; i++) {
+                texts[i] = LABELED[i][0];
+            }
+        }
+        System.out.printf("recall on %d labeled utterances: regex %d, stemming %d%n", LABELED.length,
+                correct(regex), correct(stemming));
+    }
+
+    private static int correct(TaskMatcher engine) {
+        int correct = 0;
+        for (String[] example : LABELED) {
+            if (engine.findFirstMatchTask(example[0]).equals(example[1])) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private String nextText() {
+        String t = texts[next];
+        next = next + 1 == texts.length ? 0 : next + 1;
+        return t;
+    }
+
+    @Benchmark
+    public String regex() {
+        return regex.findFirstMatchTask(nextText());
+    }
+
+    // The tokenizer stage alone
+    @Benchmark
+    public String stemOnly() {
+        return stemming.stem(nextText());
+    }
+
+    @Benchmark
+    public String stemming() {
+        return stemming.findFirstMatchTask(nextText());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.matching.TaskCatalog;
+import com.example.nice_homeworkTask.tenant.TenantEngines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 500 tenants, each with its own catalog (20 tasks x 6 patterns in the style of
+ * the built-in ones), under skewed traffic: 80% of requests go to 50 "big" tenants.
+ * - maxMemory = 4MB: LRU keeps roughly the big tenants, the long tail is recompiled
+ * - maxMemory = 1GB: everything stays compiled (the unbounded baseline)
+ * Score = engine lookup (+ compile on miss) + one match. After each trial the
+ * resident engine count, the accounted bytes and the heap used after GC are printed.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TenantEnginesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TenantEnginesBenchmark {
+
+    private static final int TENANTS = 500;
+    private static final int BIG_TENANTS = 50;
+
+    @Param({"4194304", "1073741824"})
+    public long maxMemory;
+
+    private TenantEngines engines;
+    private String[] tenantIds;
+    private long heapBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        tenantIds = new String[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            tenantIds[i] = "tenant-" + i;
+        }
+        heapBefore = usedHeapAfterGc();
+        engines = new TenantEngines(TenantEnginesBenchmark::catalog, maxMemory, new SimpleMeterRegistry());
+    }
+
+    static TaskCatalog catalog(String tenant) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int t = 0; t < 20; t++) {
+            String a = tenant.replace('-', '_') + "verb" + t;
+            String b = "noun" + t;
+            text.append("Task").append(t).append(": \\b").append(a).append("\\b[\\s\\S]{0,15}\\b").append(b).append("\\b\n");
+            text.append("Task").append(t).append(": \\b").append(b).append("\\s+").append(a).append("\\b\n");
+            text.append("Task").append(t).append(": \\b").append(a).append(' ').append(b).append("\\b\n");
+            text.append("Task").append(t).append(": \\bplease\\b[\\s\\S]{0,15}\\b").append(b).append("\\b\n");
+            text.append("Task").append(t).append(": \\b").append(b).append("\\s+please\\b\n");
+            text.append("Task").append(t).append(": \\bmy ").append(b).append("\\b\n");
+        }
+        return TaskCatalog.parse(tenant, new StringReader(text.toString()));
+    }
+
+    @Benchmark
+    public String lookupAndMatch() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int tenant = r.nextInt(10) < 8 ? r.nextInt(BIG_TENANTS) : BIG_TENANTS + r.nextInt(TENANTS - BIG_TENANTS);
+        return engines.engine(tenantIds[tenant]).findFirstMatchTask("hello, could you check noun7 please");
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        long heap = usedHeapAfterGc() - heapBefore;
+        System.out.printf("%n[maxMemory=%d] resident engines=%d, accounted=%d KB, heap used by engines=%d KB%n",
+                maxMemory, engines.resident(), engines.residentBytes() / 1024, heap / 1024);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.nice_homeworkTask.benchmark;
+
+import com.example.nice_homeworkTask.stats.UserTaskStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Per-user task counts: UserTaskStats (off-heap open addressing) vs the naive
+ * ConcurrentHashMap<String, Map<String, Long>>.
+ * - Update throughput: one count for a random known user (the steady state).
+ * - Footprint, printed by the setup after every user got one count: retained
+ *   heap of the map (heap used after GC, before vs after; the userId Strings
+ *   already exist, so they are not included) and the off-heap bytes of
+ *   UserTaskStats (its heap share is a few KB).
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=UserTaskStatsBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-XX:MaxDirectMemorySize=2g" })
+public class UserTaskStatsBenchmark {
+
+    private static final String[] TASKS = { "ResetPasswordTask", "CheckOrderStatusTask", "NoTaskFound" };
+
+    @Param({"1000000"})
+    public int users;
+
+    private String[] userIds;
+    private UserTaskStats offHeap;
+    private Map<String, Map<String, Long>> heap;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + Integer.toHexString(i * 0x9E3779B1);
+        }
+
+        long before = heapUsed();
+        heap = new ConcurrentHashMap<>();
+        for (int i = 0; i < users; i++) {
+            recordHeap(userIds[i], TASKS[i % TASKS.length]);
+        }
+        long heapBytes = heapUsed() - before;
+
+        offHeap = new UserTaskStats(true, List.of(TASKS), 4, 65536, Duration.ofDays(30), System::currentTimeMillis);
+        for (int i = 0; i < users; i++) {
+            offHeap.record(userIds[i], TASKS[i % TASKS.length]);
+        }
+        System.out.printf("%n%,d users: ConcurrentHashMap %,d MB heap (%d bytes/user), "
+                + "UserTaskStats %,d MB off-heap (%d bytes/user)%n", users, heapBytes >> 20, heapBytes / users,
+                offHeap.report().offHeapBytes() >> 20, offHeap.report().offHeapBytes() / users);
+    }
+
+    private static long heapUsed() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private void recordHeap(String userId, String task) {
+        heap.computeIfAbsent(userId, u -> new ConcurrentHashMap<>()).merge(task, 1L, Long::sum);
+    }
+
+    private int nextUser() {
+        next = (next + 0x9E3779B1) & 0x7fffffff;
+        return next % users;
+    }
+
+    @Benchmark
+    public void concurrentHashMap() {
+        int u = nextUser();
+        recordHeap(userIds[u], TASKS[u % TASKS.length]);
+    }
+
+    @Benchmark
+    public void offHeap() {
+        int u = nextUser();
+        offHeap.record(userIds[u], TASKS[u % TASKS.length]);
+    }
+}